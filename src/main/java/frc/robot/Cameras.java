@@ -10,6 +10,7 @@ import static edu.wpi.first.units.Units.Seconds;
 
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Transform3d;
@@ -21,6 +22,7 @@ import edu.wpi.first.networktables.NetworkTablesJNI;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
 import frc.robot.subsystems.swervedrive.Vision;
+import frc.robot.subsystems.swervedrive.VisionRecorder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -261,6 +263,9 @@ public enum Cameras {
         (PhotonPipelineResult a, PhotonPipelineResult b) -> {
           return a.getTimestampSeconds() >= b.getTimestampSeconds() ? 1 : -1;
         });
+    if (VisionRecorder.isWanted()) {
+      VisionRecorder.getInstance().recordFrames(ordinal(), resultsList);
+    }
     if (!resultsList.isEmpty()) {
       updateEstimatedGlobalPose();
     }
@@ -307,18 +312,14 @@ public enum Cameras {
 
       // Precalculation - see how many tags we found, and calculate an
       // average-distance metric
+      Pose3d robotPose = estimatedPose.get().estimatedPose;
       for (var tgt : targets) {
-        var tagPose = poseEstimator.getFieldTags().getTagPose(tgt.getFiducialId());
-        if (tagPose.isEmpty()) {
+        int id = tgt.getFiducialId();
+        if (!Vision.tagTable.contains(id)) {
           continue;
         }
         numTags++;
-        avgDist +=
-            tagPose
-                .get()
-                .toPose2d()
-                .getTranslation()
-                .getDistance(estimatedPose.get().estimatedPose.toPose2d().getTranslation());
+        avgDist += Vision.tagTable.distance(id, robotPose.getX(), robotPose.getY());
       }
 
       if (numTags == 0) {
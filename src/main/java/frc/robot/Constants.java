@@ -31,6 +31,12 @@ public final class Constants {
    */
   public static final boolean TUNING_MODE = true;
 
+  /**
+   * Vision capture mode: save every raw camera result to logs/vision for offline replay (see
+   * VisionReplay). Also switched on by -DvisionCapture=true.
+   */
+  public static final boolean VISION_CAPTURE = false;
+
   public static final double ROBOT_MASS = (148 - 20.3) * 0.453592; // 32lbs * kg per pound
   public static final double LOOP_TIME = 0.13; // s, 20ms + 110ms sprk max velocity lag
   public static final double MAX_SPEED = Units.feetToMeters(14.5);
@@ -415,6 +421,13 @@ public final class Constants {
     public static final double TOF_MIN = 0.05;
     public static final double TOF_MAX = 5.0;
 
+    // Precomputed SOTM solution table (distance x radial x tangential velocity)
+    public static final double SOLUTION_TABLE_DIST_STEP = 0.05;
+    public static final double SOLUTION_TABLE_VEL_STEP = 0.25;
+    public static final double SOLUTION_TABLE_MAX_CORNER_SPREAD = 0.06; // s, else solve instead
+    public static final int SOLUTION_TABLE_VERIFY_PERIOD = 10; // cycles between Newton checks
+    public static final double SOLUTION_TABLE_MAX_TOF_RESIDUAL = 0.01; // s, table answer error
+
     // Velocity filter
     public static final double MIN_SOTM_SPEED = 0.1;
 
@@ -460,6 +473,15 @@ public final class Constants {
     public static final double ALONG_TRACK_TOLERANCE_DEG = 8.0;
   }
 
+  /** Field-wide map of standing-shot confidence, built off the loop thread by ShotMap */
+  public static final class ShotMapConstants {
+    public static final double CELL_SIZE_M = 0.25;
+    public static final double ROBOT_CLEARANCE_M = 0.47; // half the frame diagonal
+    public static final double NEARBY_RADIUS_M = 1.5; // how far the best-nearby search looks
+    public static final double TRAVEL_PENALTY_PER_M = 8.0; // confidence points per meter driven
+    public static final double CURVE_CHECK_PERIOD_SEC = 1.0; // LUT/trim change polling
+  }
+
   /** Hub shift timing: shift schedule, fuel delay, fire authorization margins */
   public static final class HubTimingConstants {
     public static final double FUEL_COUNT_DELAY_MIN_SEC = 1.0;
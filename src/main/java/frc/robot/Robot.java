@@ -4,6 +4,7 @@
 
 package frc.robot;
 
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Timer;
@@ -11,9 +12,13 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.sim.SimDeviceManager;
 import frc.robot.sim.SimFuelManager;
+import frc.robot.sim.SimLockstep;
 import frc.robot.sim.SimScenarioRunner;
 import frc.robot.subsystems.IntakeRoller;
 import frc.robot.subsystems.swervedrive.SwerveSubsystem;
+import frc.robot.subsystems.swervedrive.VisionRecorder;
+import frc.robot.telemetry.JvmTelemetry;
+import frc.robot.telemetry.SystemHealthTelemetry;
 import frc.robot.telemetry.TelemetryManager;
 import frc.robot.util.AlertManager;
 import frc.robot.util.ChannelCoordinator;
@@ -21,6 +26,9 @@ import frc.robot.util.DiagnosticContext;
 import frc.robot.util.DriverFeedback;
 import frc.robot.util.ElasticUtil;
 import frc.robot.util.EventMarker;
+import frc.robot.util.FlightRecorder;
+import frc.robot.util.InputRecorder;
+import frc.robot.util.JitWarmup;
 import frc.robot.util.LEDStatusDisplay;
 import frc.robot.util.LoggedTracer;
 import frc.robot.util.PostMatchSummary;
@@ -54,6 +62,12 @@ public class Robot extends LoggedRobot {
   // Logging status
   private boolean loggingAvailable = false;
 
+  // Driver/copilot input traces for sim replay (real robot, or sim with -DsimRecordInputs=true)
+  private final boolean recordInputs = InputRecorder.isWanted();
+
+  // Every crash-barrier catch this boot, for the sim run summary
+  private static int crashBarrierTrips = 0;
+
   public Robot() {
     instance = this;
   }
@@ -62,6 +76,10 @@ public class Robot extends LoggedRobot {
     return instance;
   }
 
+  public static int getCrashBarrierTrips() {
+    return crashBarrierTrips;
+  }
+
   private void installExceptionHandler() {
     Thread.setDefaultUncaughtExceptionHandler(
         (thread, exception) -> {
@@ -70,6 +88,13 @@ public class Robot extends LoggedRobot {
           } catch (Throwable t) {
           }
 
+          // Wait on the dump, the JVM may be about to die and take the daemon writer with it
+          try {
+            FlightRecorder.getInstance().trigger(FlightRecorder.UNCAUGHT, Timer.getFPGATimestamp());
+            FlightRecorder.getInstance().awaitPendingWrite(500);
+          } catch (Throwable t) {
+          }
+
           if (exception instanceof RuntimeException) {
             throw (RuntimeException) exception;
           } else if (exception instanceof Error) {
@@ -108,7 +133,8 @@ public class Robot extends LoggedRobot {
       } else {
         // Simulation - less critical but still wrap
         try {
-          Logger.addDataReceiver(new WPILOGWriter("logs"));
+          // -DsimLogDir keeps parallel simMatrix runs from writing into the same folder
+          Logger.addDataReceiver(new WPILOGWriter(System.getProperty("simLogDir", "logs")));
           Logger.addDataReceiver(new NT4Publisher());
         } catch (Throwable t) {
           // Simulation logging failed - continue anyway
@@ -124,14 +150,60 @@ public class Robot extends LoggedRobot {
     }
   }
 
-  /** Crash-barrier wrapper: runs action, logs to Health/CrashBarrier/{name} on failure. */
+  /**
+   * Crash-barrier wrapper: runs action, logs to Health/CrashBarrier/{name} on failure. Also charges
+   * what the action allocated to JVM/Alloc/{name}Bytes.
+   */
   private void safeCall(String name, Runnable action) {
+    long allocBefore = JvmTelemetry.threadAllocatedBytes();
     try {
       action.run();
     } catch (Throwable t) {
+      crashBarrierTrips++;
       safeLog("Health/CrashBarrier/" + name, true);
       safeLog("Health/CrashBarrier/LastError", t.getClass().getSimpleName());
+      try {
+        FlightRecorder.getInstance()
+            .trigger(FlightRecorder.CRASH_BARRIER_PREFIX + name, Timer.getFPGATimestamp());
+      } catch (Throwable ignored) {
+      }
     }
+    JvmTelemetry.recordPhase(name, allocBefore);
+  }
+
+  /** Feed this cycle's key signals to the flight recorder and dump on a loop overrun. */
+  private void recordFlightData() {
+    TelemetryManager tm = TelemetryManager.getInstance();
+    FlightRecorder recorder = FlightRecorder.getInstance();
+    double now = Timer.getFPGATimestamp();
+    double loopMs = tm.getLoopTimeMs();
+
+    double poseX = 0;
+    double poseY = 0;
+    double heading = 0;
+    SwerveSubsystem swerve =
+        m_robotContainer != null ? m_robotContainer.getSwerveSubsystem() : null;
+    if (swerve != null) {
+      Pose2d pose = swerve.getPose();
+      poseX = pose.getX();
+      poseY = pose.getY();
+      heading = pose.getRotation().getRadians();
+    }
+
+    recorder.record(
+        now,
+        loopMs,
+        tm.getBatteryVoltage(),
+        tm.getShooterVelocityRPM(),
+        tm.getActiveCommandCount(),
+        tm.getTotalCommandExecutions(),
+        poseX,
+        poseY,
+        heading,
+        SystemHealthTelemetry.getCanTxErrorsSafely(),
+        SystemHealthTelemetry.getCanRxErrorsSafely());
+    recorder.checkLoopOverrun(loopMs, now);
+    recorder.log();
   }
 
   /** Check critical telemetry values for NaN/Infinity corruption. */
@@ -193,12 +265,14 @@ public class Robot extends LoggedRobot {
 
   @Override
   public void robotPeriodic() {
+    JvmTelemetry.startCycle();
     safeCall("Tracer", () -> LoggedTracer.reset());
 
     safeCall("CommandScheduler", () -> CommandScheduler.getInstance().run());
     safeCall("Tracer", () -> LoggedTracer.record("CommandsMs"));
 
     safeCall("ShotCalc", () -> frc.robot.util.ShotCalculator.getInstance().calculate());
+    safeCall("ShotMap", () -> frc.robot.util.ShotMap.getInstance().update());
 
     safeCall("Telemetry", () -> TelemetryManager.getInstance().updateAll());
     safeCall("NaNGuard", () -> checkNaNInfinity());
@@ -247,6 +321,21 @@ public class Robot extends LoggedRobot {
         });
 
     safeCall("Tracer", () -> LoggedTracer.record("AlertsMs"));
+
+    safeCall("FlightRecorder", () -> recordFlightData());
+
+    if (recordInputs) {
+      safeCall(
+          "InputRecorder",
+          () -> {
+            InputRecorder.getInstance().update();
+            InputRecorder.getInstance().log();
+          });
+    }
+
+    if (VisionRecorder.isWanted()) {
+      safeCall("VisionRecorder", () -> VisionRecorder.getInstance().log());
+    }
   }
 
   @Override
@@ -298,6 +387,13 @@ public class Robot extends LoggedRobot {
       safeLog("Health/CrashBarrier/DisabledPeriodic", true);
     }
 
+    // Load the selected auto while we're sitting in the queue
+    try {
+      m_robotContainer.updateAutoRegistry();
+    } catch (Throwable t) {
+      safeLog("Health/CrashBarrier/AutoRegistry", true);
+    }
+
     // Run safe diagnostics once after 0.5s delay (let readings stabilize)
     if (!hasRunDiagnostics && disabledTimer.hasElapsed(0.5)) {
       try {
@@ -328,6 +424,13 @@ public class Robot extends LoggedRobot {
     } catch (Throwable t) {
       // Ignore
     }
+
+    // Spend idle disabled time getting the code auto needs compiled
+    try {
+      JitWarmup.getInstance().periodic();
+    } catch (Throwable t) {
+      safeLog("Health/CrashBarrier/JitWarmup", true);
+    }
   }
 
   @Override
@@ -337,6 +440,12 @@ public class Robot extends LoggedRobot {
     m_robotContainer.setMotorBrake(true);
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
+    try {
+      JitWarmup.getInstance().stop();
+    } catch (Throwable t) {
+      safeLog("Health/CrashBarrier/JitWarmup", true);
+    }
+
     try {
       EventMarker.reset();
       EventMarker.modeChange("AUTONOMOUS");
@@ -364,6 +473,12 @@ public class Robot extends LoggedRobot {
     // cancelAll() is critical (stops auto commands). Telemetry helpers are not.
     CommandScheduler.getInstance().cancelAll();
 
+    try {
+      JitWarmup.getInstance().stop();
+    } catch (Throwable t) {
+      safeLog("Health/CrashBarrier/JitWarmup", true);
+    }
+
     try {
       EventMarker.modeChange("TELEOP");
       PostMatchSummary.getInstance().startTracking();
@@ -381,6 +496,11 @@ public class Robot extends LoggedRobot {
   @Override
   public void testInit() {
     CommandScheduler.getInstance().cancelAll();
+    try {
+      JitWarmup.getInstance().stop();
+    } catch (Throwable t) {
+      safeLog("Health/CrashBarrier/JitWarmup", true);
+    }
     try {
       EventMarker.modeChange("TEST");
     } catch (Throwable t) {
@@ -411,6 +531,14 @@ public class Robot extends LoggedRobot {
     edu.wpi.first.wpilibj.simulation.DriverStationSim.setAllianceStationId(
         edu.wpi.first.hal.AllianceStationID.Blue1);
 
+    // Outside the try below: a bad -DsimPhysics has to stop the run, not skip the fuel sim
+    SimFuelManager.checkCliPreset();
+
+    // -DsimLockstep=true: step the sim clock as fast as the CPU allows instead of real time
+    if (SimLockstep.isRequested()) {
+      SimLockstep.start(getPeriod());
+    }
+
     simDeviceManager = new SimDeviceManager();
     simDeviceManager.init();
     simScenarioRunner = new SimScenarioRunner();
@@ -418,7 +546,9 @@ public class Robot extends LoggedRobot {
     try {
       simFuelManager = new SimFuelManager("Sim/FuelPositions");
       simFuelManager.enable();
+      simFuelManager.applyCliConfig();
       simFuelManager.placeFieldBalls();
+      simScenarioRunner.setFuelSim(simFuelManager.getSim());
       SwerveSubsystem swerve = RobotContainer.getInstance().getSwerveSubsystem();
       simFuelManager.configureRobot(0.66, 0.66, 0.25, swerve::getPose, swerve::getFieldVelocity);
       // wire intake zone so balls get picked up when intake is running
@@ -23,7 +23,6 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
@@ -56,11 +55,14 @@ import frc.robot.subsystems.Shooter;
 import frc.robot.subsystems.swervedrive.SwerveSubsystem;
 import frc.robot.subsystems.swervedrive.Vision;
 import frc.robot.telemetry.TelemetryManager;
+import frc.robot.util.AutoRegistry;
 import frc.robot.util.DriverFeedback;
 import frc.robot.util.DriverTuning;
+import frc.robot.util.ShotMap;
 import java.io.File;
 import java.util.List;
 import java.util.Set;
+import org.littletonrobotics.junction.Logger;
 import swervelib.SwerveInputStream;
 
 /**
@@ -71,6 +73,9 @@ import swervelib.SwerveInputStream;
  */
 public class RobotContainer {
 
+  // First field so the Subsystems boot phase covers every field initializer below
+  private final long bootStartNs = System.nanoTime();
+
   private final FollowPath.Builder pathBuilder;
 
   // Replace with CommandPS4Controller or CommandJoystick if needed
@@ -78,7 +83,7 @@ public class RobotContainer {
   final CommandXboxController copilotXbox = new CommandXboxController(1);
 
   final CommandJoystick driverJoystick = new CommandJoystick(2);
-  private SendableChooser<Command> autoChooser;
+  private AutoRegistry autoRegistry;
   Shooter shooter = Shooter.getInstance();
   Indexer indexer = Indexer.getInstance();
   Agitator agitator = Agitator.getInstance();
@@ -181,6 +186,7 @@ public class RobotContainer {
 
   /** The container for the robot. Contains subsystems, OI devices, and commands. */
   private RobotContainer() {
+    long phaseStart = recordBootPhase("Subsystems", bootStartNs);
 
     pathBuilder =
         new FollowPath.Builder(
@@ -196,18 +202,25 @@ public class RobotContainer {
             .withPoseReset(drivebase::resetOdometry); // Reset odometry at path start
     // Configure the trigger bindings
     registerNamedAutoCommands();
-
-    autoChooser = AutoBuilder.buildAutoChooser("TrenchHumanScore"); // "New New New Auto"
-    SmartDashboard.putData("Auto Chooser", autoChooser);
+    phaseStart = recordBootPhase("NamedCommands", phaseStart);
+
+    // Only lists auto names here. The selected auto gets loaded while disabled, see AutoRegistry.
+    autoRegistry =
+        new AutoRegistry(
+            new File(Filesystem.getDeployDirectory(), "pathplanner/autos"),
+            "TrenchHumanScore"); // "New New New Auto"
+    autoRegistry.addOption("Example A (BLine)", () -> pathBuilder.build(new Path("example_a")));
+    autoRegistry.addOption("Example B (BLine)", () -> pathBuilder.build(new Path("example_b")));
+    SmartDashboard.putData("Auto Chooser", autoRegistry.getChooser());
+    phaseStart = recordBootPhase("AutoRegistry", phaseStart);
 
     // drivebase.setupPathPlanner();
-    // Another option that allows you to specify the default auto by its name
-    // autoChooser = AutoBuilder.buildAutoChooser("My Default Auto");
 
     configureBindings();
     configureTeleopAssist();
     new EventTrigger("DeployAndIntakeEvent").whileTrue(new HoldAndIntake());
     DriverStation.silenceJoystickConnectionWarning(true);
+    phaseStart = recordBootPhase("Bindings", phaseStart);
 
     frc.robot.util.ShotCalculator.getInstance().setSwerve(drivebase);
 
@@ -220,7 +233,8 @@ public class RobotContainer {
     TelemetryManager.getInstance().setSwerveSubsystem(drivebase);
     TelemetryManager.getInstance().setControllers(driverXbox.getHID(), copilotXbox.getHID());
     DriverFeedback.getInstance().initialize(driverXbox.getHID(), copilotXbox.getHID());
-    // autoChooser = AutoBuilder.buildAutoChooser("TrenchHumanScore"); // "New New New Auto"
+    recordBootPhase("Telemetry", phaseStart);
+    recordBootPhase("Total", bootStartNs);
 
     // Fire control init
 
@@ -294,25 +308,13 @@ public class RobotContainer {
             .withTimeout(3.67));
 
     NamedCommands.registerCommand("shoot", new SpeedUpThenIndex());
+  }
 
-    // Build an auto chooser. This will use Commands.none() as the default option.
-    autoChooser = AutoBuilder.buildAutoChooser("TrenchHumanScore"); // "New New New Auto"
-
-    // Another option that allows you to specify the default auto by its name
-    // autoChooser = AutoBuilder.buildAutoChooser("My Default Auto");
-
-    autoChooser.addOption("Example A (BLine)", pathBuilder.build(new Path("example_a")));
-    autoChooser.addOption("Example B (BLine)", pathBuilder.build(new Path("example_b")));
-    SmartDashboard.putData("Auto Chooser", autoChooser);
-
-    // Initialize tunable values (publishes to NetworkTables/Elastic Dashboard)
-    DriverTuning.initialize();
-
-    // Wire up telemetry references
-    TelemetryManager.getInstance().setVision(drivebase.getVision());
-    TelemetryManager.getInstance().setSwerveSubsystem(drivebase);
-    TelemetryManager.getInstance().setControllers(driverXbox.getHID(), copilotXbox.getHID());
-    DriverFeedback.getInstance().initialize(driverXbox.getHID(), copilotXbox.getHID());
+  /** Log how long a boot phase took and return the start of the next one. */
+  private static long recordBootPhase(String phase, long sinceNs) {
+    long now = System.nanoTime();
+    Logger.recordOutput("Boot/" + phase + "Ms", (now - sinceNs) / 1e6);
+    return now;
   }
 
   /**
@@ -333,7 +335,7 @@ public class RobotContainer {
                     drivebase,
                     driverXbox::getLeftX,
                     getHubCenter(),
-                    SCORING_DISTANCE,
+                    getArcScoringDistance(),
                     getScoringSide()),
             Set.of(drivebase));
 
@@ -585,29 +587,36 @@ public class RobotContainer {
             ASSIST_MAX_ANGULAR_VEL_RADPS,
             ASSIST_MAX_ANGULAR_ACCEL_RADPSS);
 
+    // Prefer the best shooting spot the shot map finds near the robot; fall back to the fixed
+    // HP/depot poses when nothing within reach can score (e.g. still in the neutral zone)
     copilotXbox
         .povUp()
         .whileTrue(
             Commands.either(
-                AutoBuilder.pathfindToPoseFlipped(BLUE_HP_SCORING_POSE, assistConstraints)
-                    .andThen(
-                        Commands.defer(
-                            () ->
-                                new AimAndShootCommand(
-                                    drivebase, shooter, indexer, agitator, () -> 0, () -> 0, false),
-                            Set.of(drivebase, shooter, indexer, agitator))),
-                AutoBuilder.pathfindToPoseFlipped(BLUE_DEPOT_SCORING_POSE, assistConstraints)
-                    .andThen(
-                        Commands.defer(
-                            () ->
-                                new AimAndShootCommand(
-                                    drivebase, shooter, indexer, agitator, () -> 0, () -> 0, false),
-                            Set.of(drivebase, shooter, indexer, agitator))),
+                Commands.defer(
+                        () ->
+                            ShotMap.getInstance()
+                                .getBestNearby(drivebase.getPose().getTranslation())
+                                .map(
+                                    spot ->
+                                        AutoBuilder.pathfindToPose(spot.pose(), assistConstraints))
+                                .orElseGet(Commands::none),
+                        Set.of(drivebase))
+                    .andThen(assistAimAndShoot()),
+                Commands.either(
+                    AutoBuilder.pathfindToPoseFlipped(BLUE_HP_SCORING_POSE, assistConstraints)
+                        .andThen(assistAimAndShoot()),
+                    AutoBuilder.pathfindToPoseFlipped(BLUE_DEPOT_SCORING_POSE, assistConstraints)
+                        .andThen(assistAimAndShoot()),
+                    () ->
+                        drivebase
+                            .getPose()
+                            .nearest(List.of(BLUE_HP_SCORING_POSE, BLUE_DEPOT_SCORING_POSE))
+                            .equals(BLUE_HP_SCORING_POSE)),
                 () ->
-                    drivebase
-                        .getPose()
-                        .nearest(List.of(BLUE_HP_SCORING_POSE, BLUE_DEPOT_SCORING_POSE))
-                        .equals(BLUE_HP_SCORING_POSE)));
+                    ShotMap.getInstance()
+                        .getBestNearby(drivebase.getPose().getTranslation())
+                        .isPresent()));
 
     copilotXbox
         .povLeft()
@@ -631,8 +640,12 @@ public class RobotContainer {
    */
   public Command getAutonomousCommand() {
     // An example command will be run in autonomous
-    // return autoChooser.getSelected()
-    return autoChooser.getSelected();
+    return autoRegistry.getSelected();
+  }
+
+  /** Loads the selected auto in the background. Called from disabledPeriodic. */
+  public void updateAutoRegistry() {
+    autoRegistry.update();
   }
 
   public Command driveToTag(int tagId) {
@@ -687,6 +700,21 @@ public class RobotContainer {
     return false;
   }
 
+  private Command assistAimAndShoot() {
+    return Commands.defer(
+        () ->
+            new AimAndShootCommand(drivebase, shooter, indexer, agitator, () -> 0, () -> 0, false),
+        Set.of(drivebase, shooter, indexer, agitator));
+  }
+
+  /** Arc radius through the best nearby shooting spot, or the fixed distance without one. */
+  private double getArcScoringDistance() {
+    return ShotMap.getInstance()
+        .getBestNearby(drivebase.getPose().getTranslation())
+        .map(spot -> spot.pose().getTranslation().getDistance(getHubCenter()))
+        .orElse(SCORING_DISTANCE);
+  }
+
   private Translation2d getHubCenter() {
     boolean isRedAlliance = isRedAlliance();
 
@@ -1,6 +1,7 @@
 package frc.robot.commands;
 
 import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
@@ -17,6 +18,7 @@ import frc.robot.subsystems.swervedrive.SwerveSubsystem;
 import frc.robot.telemetry.SafeLog;
 import frc.robot.util.HeadingController;
 import frc.robot.util.ShotCalculator;
+import frc.robot.util.ShotMap;
 import frc.robot.util.TunableNumber;
 import java.util.function.DoubleSupplier;
 
@@ -248,6 +250,14 @@ public class AimAndShootCommand extends Command {
     if (autoFinish) {
       SafeLog.put("AimAndShoot/AutoTimerSec", autoTimer.get());
     }
+    Pose2d pose = swerve.getPose();
+    SafeLog.put("AimAndShoot/ExpectedConfidence", ShotMap.getInstance().getConfidence(pose));
+    if (!params.isValid()) {
+      // tell the drive team where the shot would work instead of just that it doesn't
+      ShotMap.getInstance()
+          .getBestNearby(pose.getTranslation())
+          .ifPresent(spot -> SafeLog.put("AimAndShoot/BestNearbyPose", spot.pose()));
+    }
   }
 
   @Override
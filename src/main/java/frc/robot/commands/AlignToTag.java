@@ -11,6 +11,7 @@ import edu.wpi.first.math.geometry.Transform2d;
 import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Cameras;
@@ -22,9 +23,13 @@ import org.photonvision.targeting.PhotonPipelineResult;
 import org.photonvision.targeting.PhotonTrackedTarget;
 
 public class AlignToTag extends Command {
+  /** desiredTag meaning our hub's nearest tag facing the robot, picked each time it's scheduled. */
+  public static final int NEAREST_HUB_TAG = -1;
+
   private Vision visionSubsystem;
   private SwerveSubsystem swerveSubsystem;
   private Cameras camera;
+  private final int requestedTag;
   private int desiredTag;
   private PhotonTrackedTarget target;
   private Transform2d offset;
@@ -58,6 +63,7 @@ public class AlignToTag extends Command {
   /** Creates a new AlignToTag. */
   public AlignToTag(SwerveSubsystem swerve, int desiredTag, Transform2d offset) {
     visionSubsystem = swerve.getVision();
+    this.requestedTag = desiredTag;
     this.desiredTag = desiredTag;
     this.swerveSubsystem = swerve;
     this.offset = offset;
@@ -75,11 +81,18 @@ public class AlignToTag extends Command {
   // Called when the command is initially scheduled.
   @Override
   public void initialize() {
+    Pose2d pose = swerveSubsystem.getPose();
+    if (requestedTag == NEAREST_HUB_TAG) {
+      // -1 if no hub tag faces us from here, which aligns to nothing like an unseen tag
+      boolean blue =
+          DriverStation.getAlliance().orElse(DriverStation.Alliance.Blue)
+              == DriverStation.Alliance.Blue;
+      desiredTag = Vision.tagTable.nearestHubTag(pose.getX(), pose.getY(), blue);
+    }
 
     camera = visionSubsystem.getbestCamera(desiredTag);
     hasTarget = false;
 
-    Pose2d pose = swerveSubsystem.getPose();
     xPID.reset(pose.getX());
     yPID.reset(pose.getY());
     rotationPID.reset(pose.getRotation().getRadians());
@@ -0,0 +1,140 @@
+package frc.robot.sim;
+
+import java.util.Arrays;
+
+/**
+ * Gravity, drag and Magnus plus one symplectic Euler step and spin decay over balls held in flat
+ * arrays. FuelPhysicsSim gathers the full-rate balls due this subtick into a {@link Batch}, runs an
+ * integrator over it and writes the results back.
+ *
+ * <p>{@link #SCALAR} is the same arithmetic as FuelPhysicsSim.integrateBall(), in the same order,
+ * so it gives the same bits. {@link #vector()} is the Vector API version, which only exists in
+ * desktop sim builds made with -PsimVector=true (jdk.incubator.vector isn't on the roboRIO).
+ */
+abstract class BallIntegrator {
+
+  /** One ball at a time. Always available. */
+  static final BallIntegrator SCALAR =
+      new BallIntegrator() {
+        @Override
+        void integrate(Batch b, int from, int to) {
+          for (int i = from; i < to; i++) step(b, i);
+        }
+
+        @Override
+        public String toString() {
+          return "scalar";
+        }
+      };
+
+  /** Step slots [from, to) of the batch in place. */
+  abstract void integrate(Batch b, int from, int to);
+
+  /**
+   * The Vector API integrator, or null if this build doesn't have it or the JVM wasn't started
+   * with --add-modules jdk.incubator.vector.
+   */
+  static BallIntegrator vector() {
+    return VectorHolder.INSTANCE;
+  }
+
+  private static final class VectorHolder {
+    static final BallIntegrator INSTANCE = load();
+
+    private static BallIntegrator load() {
+      try {
+        Class<?> type = Class.forName("frc.robot.sim.VectorBallIntegrator");
+        return (BallIntegrator) type.getDeclaredConstructor().newInstance();
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+  }
+
+  /** The scalar step for one slot. The vector integrator uses it for the leftover tail. */
+  static void step(Batch b, int i) {
+    double vx = b.vx[i];
+    double vy = b.vy[i];
+    double vz = b.vz[i];
+    double wx = b.wx[i];
+    double wy = b.wy[i];
+    double wz = b.wz[i];
+
+    // Gravity always acts
+    double ax = 0, ay = 0, az = -b.gravity;
+    double speed = Math.sqrt(vx * vx + vy * vy + vz * vz);
+    if (b.drag && speed > 1e-6) {
+      ax -= b.dragFactor * speed * vx;
+      ay -= b.dragFactor * speed * vy;
+      az -= b.dragFactor * speed * vz;
+    }
+    if (b.pz[i] > b.airborneZ && speed > 1e-6) {
+      if (b.magnus && Math.sqrt(wx * wx + wy * wy + wz * wz) > 1e-3) {
+        double mx = wy * vz - wz * vy;
+        double my = wz * vx - wx * vz;
+        double mz = wx * vy - wy * vx;
+        if (Math.sqrt(mx * mx + my * my + mz * mz) > 1e-6) {
+          ax += b.magnusFactor * mx;
+          ay += b.magnusFactor * my;
+          az += b.magnusFactor * mz;
+        }
+      }
+    }
+
+    // Symplectic Euler: velocity first
+    vx = vx + ax * b.dt;
+    vy = vy + ay * b.dt;
+    vz = vz + az * b.dt;
+    b.vx[i] = vx;
+    b.vy[i] = vy;
+    b.vz[i] = vz;
+    b.px[i] = b.px[i] + vx * b.dt;
+    b.py[i] = b.py[i] + vy * b.dt;
+    b.pz[i] = b.pz[i] + vz * b.dt;
+
+    if (b.spinDecay && Math.sqrt(wx * wx + wy * wy + wz * wz) > 1e-6) {
+      b.wx[i] = wx * b.spinDecayFactor;
+      b.wy[i] = wy * b.spinDecayFactor;
+      b.wz[i] = wz * b.spinDecayFactor;
+    }
+  }
+
+  /** Ball state as one array per component, plus the coefficients for this step. */
+  static final class Batch {
+    double[] px = new double[0];
+    double[] py = new double[0];
+    double[] pz = new double[0];
+    double[] vx = new double[0];
+    double[] vy = new double[0];
+    double[] vz = new double[0];
+    double[] wx = new double[0];
+    double[] wy = new double[0];
+    double[] wz = new double[0];
+    int[] ball = new int[0]; // index into the sim's ball list
+
+    double dt;
+    double gravity;
+    double dragFactor;
+    double magnusFactor;
+    double airborneZ; // Magnus only above this height
+    boolean drag;
+    boolean magnus;
+    boolean spinDecay;
+    double spinDecayFactor;
+
+    void ensureCapacity(int n) {
+      if (px.length >= n) return;
+      int size = Math.max(n, px.length * 2);
+      px = Arrays.copyOf(px, size);
+      py = Arrays.copyOf(py, size);
+      pz = Arrays.copyOf(pz, size);
+      vx = Arrays.copyOf(vx, size);
+      vy = Arrays.copyOf(vy, size);
+      vz = Arrays.copyOf(vz, size);
+      wx = Arrays.copyOf(wx, size);
+      wy = Arrays.copyOf(wy, size);
+      wz = Arrays.copyOf(wz, size);
+      ball = Arrays.copyOf(ball, size);
+    }
+  }
+}
@@ -28,10 +28,19 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.networktables.DoublePublisher;
 import edu.wpi.first.networktables.IntegerPublisher;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.RawPublisher;
 import edu.wpi.first.networktables.StructArrayPublisher;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
@@ -452,6 +461,40 @@ public class FuelPhysicsSim {
     CYLINDER_OBSTACLES = cyls.toArray(new CylinderObstacle[0]);
   }
 
+  // Grid cells with ground-level geometry (obstacles, bump ramps, walls) within one cell. LOD balls
+  // skip field contacts, so they get promoted before they can roll into any of it.
+  private static final boolean[][] NEAR_GROUND_GEOMETRY = new boolean[GRID_COLS][GRID_ROWS];
+
+  static {
+    for (AABB a : AABB_OBSTACLES) {
+      if (a.minZ() < BALL_DIAMETER) {
+        markGroundGeometry(a.minX(), a.minY(), a.maxX(), a.maxY());
+      }
+    }
+    for (BumpSegment b : BUMP_SEGMENTS) {
+      markGroundGeometry(
+          Math.min(b.xStart(), b.xEnd()), b.yStart(), Math.max(b.xStart(), b.xEnd()), b.yEnd());
+    }
+    for (int i = 0; i < GRID_COLS; i++) {
+      NEAR_GROUND_GEOMETRY[i][0] = NEAR_GROUND_GEOMETRY[i][GRID_ROWS - 1] = true;
+    }
+    for (int j = 0; j < GRID_ROWS; j++) {
+      NEAR_GROUND_GEOMETRY[0][j] = NEAR_GROUND_GEOMETRY[GRID_COLS - 1][j] = true;
+    }
+  }
+
+  private static void markGroundGeometry(double minX, double minY, double maxX, double maxY) {
+    int c0 = Math.max(0, (int) (minX / CELL_SIZE) - 1);
+    int c1 = Math.min(GRID_COLS - 1, (int) (maxX / CELL_SIZE) + 1);
+    int r0 = Math.max(0, (int) (minY / CELL_SIZE) - 1);
+    int r1 = Math.min(GRID_ROWS - 1, (int) (maxY / CELL_SIZE) + 1);
+    for (int c = c0; c <= c1; c++) {
+      for (int r = r0; r <= r1; r++) {
+        NEAR_GROUND_GEOMETRY[c][r] = true;
+      }
+    }
+  }
+
   /** Axis-aligned bounding box with restitution coefficient. */
   private record AABB(
       double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double cor) {}
@@ -550,6 +593,36 @@ public class FuelPhysicsSim {
     public boolean deterministic = false;
     public long deterministicSeed = 42L;
     public boolean conservationMonitor = false;
+    // Level of detail: slow ground balls far from robots, hubs, obstacles and fast balls still
+    // substep, but with only drag, spin decay and ground friction (no contacts, CCD or walls)
+    public boolean lodEnabled = false;
+    public double lodSpeedThreshold = 1.0; // m/s, ground balls slower than this can go cheap
+    public double lodRobotMargin = 1.5; // m beyond the robot's half-diagonal
+    public double lodHubRadius = 2.0; // m from hub center
+    public double lodPromoteRadius = 1.5; // m around any airborne or fast ball
+    // Adaptive subticking: subticks becomes the finest step. Slow, rolling balls away from
+    // obstacles and robots take longer steps; balls that can touch share the shortest one.
+    public boolean adaptiveSubticks = false;
+    public double adaptiveStepTravel = 0.025; // m, furthest a ball may move in one of its steps
+    // m, same but while it touches a ball on a shorter stride: under baumgarteSlop, so its position
+    // between its own steps never reads as extra penetration
+    public double adaptiveContactTravel = 0.004;
+    public double adaptiveRobotMargin = 0.5; // m beyond the robot's half-diagonal
+    // Publishing, not physics. Delta mode sends only balls that moved (by id) on the Delta topic
+    // and the full Positions array on keyframes only.
+    public boolean publishDelta = false;
+    public int publishDivisor = 1; // publish every Nth tick
+    public int publishKeyframeInterval = 50; // publishes between full keyframes in delta mode
+    // Parallel stepping: integration, CCD, ball-field contacts and the bounds sweep run in chunks
+    // on a shared ForkJoinPool. 1 = serial. Same results as serial, bit for bit.
+    public int parallelism = 1;
+    public int parallelChunk = 64; // balls per chunk
+    // Integrate full-rate balls as a batch over flat arrays on the Vector API (desktop sim built
+    // with -PsimVector=true). Without it the batch runs on the scalar integrator instead.
+    public boolean vectorIntegrator = false;
+    // Ticks between re-sorts of ball storage into Morton (Z-order) order of the grid cell, so
+    // balls that are near each other on the field are near each other in the list. 0 = never.
+    public int reorderInterval = 50;
 
     /** Default: everything on. */
     public PhysicsConfig() {}
@@ -576,6 +649,22 @@ public class FuelPhysicsSim {
       c.deterministic = deterministic;
       c.deterministicSeed = deterministicSeed;
       c.conservationMonitor = conservationMonitor;
+      c.lodEnabled = lodEnabled;
+      c.lodSpeedThreshold = lodSpeedThreshold;
+      c.lodRobotMargin = lodRobotMargin;
+      c.lodHubRadius = lodHubRadius;
+      c.lodPromoteRadius = lodPromoteRadius;
+      c.adaptiveSubticks = adaptiveSubticks;
+      c.adaptiveStepTravel = adaptiveStepTravel;
+      c.adaptiveContactTravel = adaptiveContactTravel;
+      c.adaptiveRobotMargin = adaptiveRobotMargin;
+      c.publishDelta = publishDelta;
+      c.publishDivisor = publishDivisor;
+      c.publishKeyframeInterval = publishKeyframeInterval;
+      c.parallelism = parallelism;
+      c.parallelChunk = parallelChunk;
+      c.vectorIntegrator = vectorIntegrator;
+      c.reorderInterval = reorderInterval;
       return c;
     }
   }
@@ -602,6 +691,18 @@ public class FuelPhysicsSim {
     boolean intaked;
     boolean outOfBounds;
 
+    // Coarse friction-only substeps this tick (LOD), reclassified at the start of every tick
+    boolean lod;
+
+    // Subticks per step this tick (adaptive subticking). Steps on every stride-th subtick.
+    int stride = 1;
+
+    // Stable id for delta publishing, and the position last sent under it (NaN = never sent)
+    int id;
+    float sentX = Float.NaN;
+    float sentY = Float.NaN;
+    float sentZ = Float.NaN;
+
     SimBall(Translation3d pos, Translation3d vel, Translation3d omega) {
       this.pos = pos;
       this.vel = vel;
@@ -648,6 +749,41 @@ public class FuelPhysicsSim {
     }
   }
 
+  /**
+   * Contacts plus the pool they're allocated from. The sim has one; in parallel mode each chunk of
+   * balls gets its own for ball-field contacts, appended to the sim's list in chunk order.
+   */
+  private static final class ContactBuffer {
+    final List<Contact> pool;
+    final List<Contact> list;
+    int poolIndex;
+
+    ContactBuffer(List<Contact> pool, List<Contact> list) {
+      this.pool = pool;
+      this.list = list;
+    }
+
+    ContactBuffer() {
+      this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    /** Grab a contact from the pool (grows the pool if we run out). */
+    Contact allocate() {
+      if (poolIndex >= pool.size()) {
+        Contact c = new Contact();
+        pool.add(c);
+        poolIndex++;
+        return c;
+      }
+      return pool.get(poolIndex++);
+    }
+
+    void reset() {
+      list.clear();
+      poolIndex = 0;
+    }
+  }
+
   /** A hub that can be scored in. Detects balls falling through the opening. */
   public static class ScoringTarget {
     final Translation2d center;
@@ -690,8 +826,9 @@ public class FuelPhysicsSim {
   /** Intake zone defined in robot-relative coordinates. Picks up balls that enter the box. */
   static class IntakeZone {
     final double xMin, xMax, yMin, yMax;
-    final BooleanSupplier active;
-    final Runnable callback;
+    // Not final: FuelPhysicsThread swaps these for snapshot-backed versions while it runs
+    BooleanSupplier active;
+    Runnable callback;
 
     IntakeZone(
         double xMin,
@@ -726,15 +863,212 @@ public class FuelPhysicsSim {
     }
   }
 
+  /**
+   * A robot on the field: bumper footprint, intake zones and alliance. Pose and speeds come from
+   * suppliers and are sampled once per subtick.
+   */
+  public static class SimRobot {
+    double width; // along robot Y (m)
+    double length; // along robot X (m)
+    double bumperHeight; // m
+    Supplier<Pose2d> poseSupplier;
+    Supplier<ChassisSpeeds> speedsSupplier;
+    boolean blueAlliance;
+    final List<IntakeZone> intakes = new ArrayList<>();
+    int intaked;
+
+    // Last sample, field frame
+    Pose2d pose;
+    Translation2d vel = new Translation2d();
+
+    boolean isConfigured() {
+      return poseSupplier != null && speedsSupplier != null;
+    }
+
+    double halfDiagonal() {
+      return Math.hypot(length, width) / 2.0;
+    }
+
+    void sample() {
+      pose = poseSupplier.get();
+      ChassisSpeeds speeds = speedsSupplier.get();
+      vel = new Translation2d(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond);
+    }
+
+    public boolean isBlueAlliance() {
+      return blueAlliance;
+    }
+
+    /** Balls this robot's intakes have picked up. */
+    public int getIntakedCount() {
+      return intaked;
+    }
+  }
+
+  /**
+   * java.util.Random with the same LCG, but the 48-bit state can be read back and restored, which
+   * Random doesn't allow. Sequences match new Random(seed) exactly, so seeded runs are unchanged.
+   */
+  static final class SimRandom extends Random {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state; // no initializer, set from super() through setSeed
+
+    SimRandom(long seed) {
+      super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+      state = (seed ^ MULTIPLIER) & MASK;
+      super.setSeed(seed); // clears the cached nextGaussian
+    }
+
+    @Override
+    protected int next(int bits) {
+      state = (state * MULTIPLIER + ADDEND) & MASK;
+      return (int) (state >>> (48 - bits));
+    }
+
+    long getState() {
+      return state;
+    }
+
+    void setState(long state) {
+      this.state = state & MASK;
+    }
+  }
+
+  /**
+   * Full world state packed into one byte array: every ball (position, velocity, spin, previous
+   * position/velocity, sleep and stuck counters, flags), hub scores, counters, the RNG state and
+   * where the sim is in its reorder interval (ball order changes the solver's contact order).
+   * About 130 bytes per ball, so a 400-ball field is ~50KB. Keep it in memory to fork rollouts, or
+   * write it to disk and load it in a batch tool.
+   *
+   * <p>Physics config, robot suppliers and intake zones are setup, not state, and aren't included.
+   * Contacts are rebuilt every subtick with zeroed accumulators (no warm start carries across
+   * ticks), so there is nothing to save for them.
+   */
+  public static final class Snapshot {
+    static final int MAGIC = 0x46534E50; // "FSNP"
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 4 + 2 + 1 + 4 * 5 + 8 + 8 + 4 + 4;
+    static final int BALL_BYTES = 15 * 8 + 4 + 4 + 1;
+
+    private final byte[] data;
+
+    Snapshot(byte[] data) {
+      this.data = data;
+    }
+
+    /** Size of the packed state in bytes. */
+    public int sizeBytes() {
+      return data.length;
+    }
+
+    /** Raw bytes, for batch tools that manage their own storage. Don't modify. */
+    public byte[] toBytes() {
+      return data;
+    }
+
+    public static Snapshot fromBytes(byte[] data) {
+      return new Snapshot(data);
+    }
+
+    public void write(File file) throws IOException {
+      File parent = file.getParentFile();
+      if (parent != null) parent.mkdirs();
+      Files.write(file.toPath(), data);
+    }
+
+    public static Snapshot read(File file) throws IOException {
+      return new Snapshot(Files.readAllBytes(file.toPath()));
+    }
+  }
+
+  /**
+   * One frame from the Delta topic, decoded. Layout (big endian): i32 sequence, u8 flags (1 =
+   * keyframe), i32 ball count, i32 removed count, then per ball i32 id + 3 x f32 position (m), then
+   * the removed ids. A keyframe lists every ball, so a client drops any id it doesn't mention;
+   * otherwise only balls that moved since they were last sent are listed.
+   */
+  public static final class PositionDelta {
+    static final int HEADER_BYTES = 4 + 1 + 4 + 4;
+    static final int BALL_BYTES = 4 + 3 * 4;
+    static final int FLAG_KEYFRAME = 1;
+
+    public final int sequence;
+    public final boolean keyframe;
+    public final int[] ids;
+    public final float[] positions; // x, y, z per entry in ids
+    public final int[] removed;
+
+    private PositionDelta(int sequence, boolean keyframe, int count, int removedCount) {
+      this.sequence = sequence;
+      this.keyframe = keyframe;
+      this.ids = new int[count];
+      this.positions = new float[count * 3];
+      this.removed = new int[removedCount];
+    }
+
+    public static PositionDelta decode(byte[] data, int len) {
+      ByteBuffer buf = ByteBuffer.wrap(data, 0, len);
+      if (len < HEADER_BYTES) throw new IllegalArgumentException("Truncated delta");
+      int sequence = buf.getInt();
+      boolean keyframe = (buf.get() & FLAG_KEYFRAME) != 0;
+      int count = buf.getInt();
+      int removedCount = buf.getInt();
+      if (count < 0
+          || removedCount < 0
+          || buf.remaining() != count * BALL_BYTES + removedCount * 4) {
+        throw new IllegalArgumentException("Truncated delta");
+      }
+      PositionDelta delta = new PositionDelta(sequence, keyframe, count, removedCount);
+      for (int i = 0; i < count; i++) {
+        delta.ids[i] = buf.getInt();
+        delta.positions[i * 3] = buf.getFloat();
+        delta.positions[i * 3 + 1] = buf.getFloat();
+        delta.positions[i * 3 + 2] = buf.getFloat();
+      }
+      for (int i = 0; i < removedCount; i++) {
+        delta.removed[i] = buf.getInt();
+      }
+      return delta;
+    }
+
+    public static PositionDelta decode(byte[] data) {
+      return decode(data, data.length);
+    }
+  }
+
   // State
 
   private final List<SimBall> balls = new ArrayList<>();
   private final List<Contact> contacts = new ArrayList<>();
   private final List<Contact> contactPool = new ArrayList<>(); // pre-allocated contact pool
-  private int contactPoolIndex = 0;
+  private final ContactBuffer mainContacts = new ContactBuffer(contactPool, contacts);
+
+  // Parallel mode: one pool per thread count, shared by every sim; per-chunk scratch is ours
+  private static final ConcurrentHashMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+  private ContactBuffer[] chunkContacts = new ContactBuffer[0];
+  private int[] chunkSteps = new int[0];
+
+  // Morton re-sort scratch (see reorderBalls)
+  private int ticksSinceReorder = 0;
+  private int reorders = 0;
+  private long[] reorderKeys = new long[0];
+  private SimBall[] reorderScratch = new SimBall[0];
+  private int[] reorderIndex = new int[0];
+
+  // Batch integration: one slot per ball index, so chunks fill disjoint ranges
+  private final BallIntegrator.Batch batch = new BallIntegrator.Batch();
+  private BallIntegrator integrator = BallIntegrator.SCALAR;
 
   private PhysicsConfig config;
-  private Random rng;
+  private SimRandom rng;
 
   // Spatial hash grid for ball-ball broadphase
   @SuppressWarnings("unchecked")
@@ -744,15 +1078,10 @@ public class FuelPhysicsSim {
   private final ScoringTarget blueHub;
   private final ScoringTarget redHub;
 
-  // Robot registration
-  private Supplier<Pose2d> robotPoseSupplier;
-  private Supplier<ChassisSpeeds> robotSpeedsSupplier;
-  private double robotWidth;
-  private double robotLength;
-  private double bumperHeight;
-
-  // Intakes
-  private final List<IntakeZone> intakes = new ArrayList<>();
+  // Robot registration. Slot 0 is the robot configureRobot() describes, the rest come from
+  // addRobot() (partners and opponents).
+  static final int MAX_ROBOTS = 6;
+  private final List<SimRobot> robots = new ArrayList<>();
 
   // Counters
   private int totalLaunched;
@@ -760,8 +1089,23 @@ public class FuelPhysicsSim {
   private int totalIntaked;
   private double lastLaunchSpeed;
 
-  // Running state
-  private boolean running;
+  // Running state. Volatile so isRunning() is right from the loop while FuelPhysicsThread steps.
+  private volatile boolean running;
+
+  // LOD scheduler
+  private double[] hotXY = new double[64]; // x,y of airborne/fast balls this tick
+  private final int[] cellOccupancy = new int[GRID_COLS * GRID_ROWS];
+  private int lodBallCount;
+  private double lodSavedMs;
+  private double lodSavedMsTotal;
+
+  // Adaptive subticking scratch: per-cell ball lists and smallest stride, reused every tick
+  private final int[] cellHead = new int[GRID_COLS * GRID_ROWS];
+  private final int[] cellStride = new int[GRID_COLS * GRID_ROWS];
+  private int[] nextInCell = new int[512];
+  private int[] strideQueue = new int[512];
+  private int coarseBallCount;
+  private int ballSteps;
 
   // NetworkTables publishing
   private StructArrayPublisher<Translation3d> positionPublisher;
@@ -775,6 +1119,25 @@ public class FuelPhysicsSim {
   private IntegerPublisher contactCountPub;
   private DoublePublisher physicsTimePub;
   private DoublePublisher totalEnergyPub;
+  private IntegerPublisher lodBallsPub;
+  private DoublePublisher lodSavedMsPub;
+  private IntegerPublisher coarseBallsPub;
+  private IntegerPublisher ballStepsPub;
+  private RawPublisher deltaPublisher;
+  private IntegerPublisher deltaBytesPub;
+
+  // Publish scratch, reused while the ball counts hold steady
+  private Translation3d[] positionBuf = new Translation3d[0];
+  private Translation3d[] inFlightBuf = new Translation3d[0];
+  private byte[] deltaBuf = new byte[PositionDelta.HEADER_BYTES + 512 * PositionDelta.BALL_BYTES];
+  private ByteBuffer deltaView = ByteBuffer.wrap(deltaBuf);
+  private int deltaLength;
+  private int[] removedIds = new int[64];
+  private int removedCount;
+  private int nextBallId;
+  private int publishSeq;
+  private int ticksSincePublish;
+  private boolean keyframePending = true;
 
   // Last shot arc for trajectory visualization (predicted path in Field3d)
   private Translation3d[] lastShotArc = new Translation3d[0];
@@ -804,7 +1167,7 @@ public class FuelPhysicsSim {
    */
   public FuelPhysicsSim(String tableKey, PhysicsConfig config) {
     this.config = config;
-    this.rng = config.deterministic ? new Random(config.deterministicSeed) : new Random();
+    this.rng = new SimRandom(config.deterministic ? config.deterministicSeed : System.nanoTime());
 
     // Initialize spatial hash grid
     for (int i = 0; i < GRID_COLS; i++) {
@@ -841,6 +1204,12 @@ public class FuelPhysicsSim {
     contactCountPub = nt.getIntegerTopic(tableKey + "/Stats/ContactsPerTick").publish();
     physicsTimePub = nt.getDoubleTopic(tableKey + "/Stats/PhysicsMs").publish();
     totalEnergyPub = nt.getDoubleTopic(tableKey + "/Stats/TotalEnergy").publish();
+    lodBallsPub = nt.getIntegerTopic(tableKey + "/Stats/LODBalls").publish();
+    lodSavedMsPub = nt.getDoubleTopic(tableKey + "/Stats/LODSavedMs").publish();
+    coarseBallsPub = nt.getIntegerTopic(tableKey + "/Stats/CoarseBalls").publish();
+    ballStepsPub = nt.getIntegerTopic(tableKey + "/Stats/BallSteps").publish();
+    deltaPublisher = nt.getRawTopic(tableKey + "/Delta").publish("FuelPositionDelta");
+    deltaBytesPub = nt.getIntegerTopic(tableKey + "/Stats/DeltaBytes").publish();
 
     running = false;
     totalLaunched = 0;
@@ -884,11 +1253,55 @@ public class FuelPhysicsSim {
       double bumperHeight,
       Supplier<Pose2d> poseSupplier,
       Supplier<ChassisSpeeds> speedsSupplier) {
-    this.robotWidth = width;
-    this.robotLength = length;
-    this.bumperHeight = bumperHeight;
-    this.robotPoseSupplier = poseSupplier;
-    this.robotSpeedsSupplier = speedsSupplier;
+    SimRobot robot = primaryRobot();
+    robot.width = width;
+    robot.length = length;
+    robot.bumperHeight = bumperHeight;
+    robot.poseSupplier = poseSupplier;
+    robot.speedsSupplier = speedsSupplier;
+  }
+
+  /**
+   * Register another robot (alliance partner or opponent) for bumper collisions and intake pickup,
+   * up to MAX_ROBOTS including our own. Add its intakes with addIntakeZone(robot, ...).
+   *
+   * @param blueAlliance which alliance it drives for
+   * @return robot index, for addIntakeZone and getRobot
+   */
+  public int addRobot(
+      double width,
+      double length,
+      double bumperHeight,
+      Supplier<Pose2d> poseSupplier,
+      Supplier<ChassisSpeeds> speedsSupplier,
+      boolean blueAlliance) {
+    primaryRobot(); // slot 0 stays ours even if configureRobot() comes later
+    if (robots.size() >= MAX_ROBOTS) {
+      throw new IllegalStateException("At most " + MAX_ROBOTS + " robots");
+    }
+    SimRobot robot = new SimRobot();
+    robot.width = width;
+    robot.length = length;
+    robot.bumperHeight = bumperHeight;
+    robot.poseSupplier = poseSupplier;
+    robot.speedsSupplier = speedsSupplier;
+    robot.blueAlliance = blueAlliance;
+    robots.add(robot);
+    return robots.size() - 1;
+  }
+
+  /** Which alliance our own robot (the one from configureRobot) drives for. Default blue. */
+  public void setRobotAlliance(boolean blueAlliance) {
+    primaryRobot().blueAlliance = blueAlliance;
+  }
+
+  private SimRobot primaryRobot() {
+    if (robots.isEmpty()) {
+      SimRobot robot = new SimRobot();
+      robot.blueAlliance = true;
+      robots.add(robot);
+    }
+    return robots.get(0);
   }
 
   /**
@@ -908,7 +1321,7 @@ public class FuelPhysicsSim {
       double yMax,
       BooleanSupplier active,
       Runnable callback) {
-    intakes.add(new IntakeZone(xMin, xMax, yMin, yMax, active, callback));
+    primaryRobot().intakes.add(new IntakeZone(xMin, xMax, yMin, yMax, active, callback));
   }
 
   /** Add an intake zone without a callback. */
@@ -917,6 +1330,18 @@ public class FuelPhysicsSim {
     addIntakeZone(xMin, xMax, yMin, yMax, active, () -> {});
   }
 
+  /** Add an intake zone to a robot from addRobot(). Same robot-relative box as above. */
+  public void addIntakeZone(
+      int robot,
+      double xMin,
+      double xMax,
+      double yMin,
+      double yMax,
+      BooleanSupplier active,
+      Runnable callback) {
+    robots.get(robot).intakes.add(new IntakeZone(xMin, xMax, yMin, yMax, active, callback));
+  }
+
   /**
    * Shoot a ball into the sim.
    *
@@ -941,7 +1366,7 @@ public class FuelPhysicsSim {
   public void launchBall(Translation3d pos, Translation3d vel, Translation3d omega) {
     if (balls.size() >= MAX_BALLS) return;
     SimBall ball = new SimBall(pos, vel, omega);
-    balls.add(ball);
+    addBall(ball);
     totalLaunched++;
     lastLaunchSpeed = vel.getNorm();
 
@@ -957,18 +1382,24 @@ public class FuelPhysicsSim {
   /** Drop a ball at this position, sitting on the ground. */
   public void spawnBall(Translation3d pos) {
     if (balls.size() >= MAX_BALLS) return;
-    balls.add(new SimBall(pos));
+    addBall(new SimBall(pos));
   }
 
   /** Drop a ball with some initial velocity. */
   public void spawnBall(Translation3d pos, Translation3d vel) {
     if (balls.size() >= MAX_BALLS) return;
-    balls.add(new SimBall(pos, vel));
+    addBall(new SimBall(pos, vel));
   }
 
   /** Remove every ball from the sim. */
   public void clearBalls() {
     balls.clear();
+    keyframePending = true;
+  }
+
+  private void addBall(SimBall ball) {
+    ball.id = nextBallId++;
+    balls.add(ball);
   }
 
   /** Spawn all game pieces in their starting positions (neutral zone + depots). */
@@ -1010,16 +1441,113 @@ public class FuelPhysicsSim {
     }
   }
 
+  /** Capture the full world state. Cheap enough to call every tick (one pass, one array). */
+  public Snapshot snapshot() {
+    ByteBuffer buf =
+        ByteBuffer.allocate(Snapshot.HEADER_BYTES + balls.size() * Snapshot.BALL_BYTES);
+    buf.putInt(Snapshot.MAGIC);
+    buf.putShort(Snapshot.VERSION);
+    buf.put((byte) (running ? 1 : 0));
+    buf.putInt(totalLaunched);
+    buf.putInt(totalScored);
+    buf.putInt(totalIntaked);
+    buf.putInt(blueHub.score);
+    buf.putInt(redHub.score);
+    buf.putDouble(lastLaunchSpeed);
+    buf.putLong(rng.getState());
+    buf.putInt(ticksSinceReorder);
+    buf.putInt(balls.size());
+    for (SimBall b : balls) {
+      putVector(buf, b.pos);
+      putVector(buf, b.vel);
+      putVector(buf, b.omega);
+      putVector(buf, b.prevPos);
+      putVector(buf, b.prevVel);
+      buf.putInt(b.sleepCounter);
+      buf.putInt(b.elevatedSlowCounter);
+      buf.put((byte) ((b.sleeping ? 1 : 0) | (b.intaked ? 2 : 0) | (b.outOfBounds ? 4 : 0)));
+    }
+    return new Snapshot(buf.array());
+  }
+
+  /**
+   * Replace the world state with a snapshot. Ticking afterwards gives bit-identical results to
+   * ticking the sim the snapshot came from, given the same config and robot inputs.
+   *
+   * @throws IllegalArgumentException if the data isn't a snapshot this version can read
+   */
+  public void restore(Snapshot snapshot) {
+    ByteBuffer buf = ByteBuffer.wrap(snapshot.data);
+    if (snapshot.data.length < Snapshot.HEADER_BYTES || buf.getInt() != Snapshot.MAGIC) {
+      throw new IllegalArgumentException("Not a FuelPhysicsSim snapshot");
+    }
+    short version = buf.getShort();
+    if (version != Snapshot.VERSION) {
+      throw new IllegalArgumentException("Unsupported snapshot version " + version);
+    }
+    running = buf.get() != 0;
+    totalLaunched = buf.getInt();
+    totalScored = buf.getInt();
+    totalIntaked = buf.getInt();
+    blueHub.score = buf.getInt();
+    redHub.score = buf.getInt();
+    lastLaunchSpeed = buf.getDouble();
+    rng.setState(buf.getLong());
+    ticksSinceReorder = buf.getInt();
+    int count = buf.getInt();
+    if (count < 0 || buf.remaining() != count * Snapshot.BALL_BYTES) {
+      throw new IllegalArgumentException("Truncated snapshot");
+    }
+
+    balls.clear();
+    for (int i = 0; i < count; i++) {
+      SimBall b = new SimBall(getVector(buf), getVector(buf), getVector(buf));
+      b.prevPos = getVector(buf);
+      b.prevVel = getVector(buf);
+      b.sleepCounter = buf.getInt();
+      b.elevatedSlowCounter = buf.getInt();
+      int flags = buf.get();
+      b.sleeping = (flags & 1) != 0;
+      b.intaked = (flags & 2) != 0;
+      b.outOfBounds = (flags & 4) != 0;
+      addBall(b);
+    }
+    keyframePending = true;
+    mainContacts.reset();
+    lastShotArc = new Translation3d[0];
+  }
+
+  private static void putVector(ByteBuffer buf, Translation3d v) {
+    buf.putDouble(v.getX());
+    buf.putDouble(v.getY());
+    buf.putDouble(v.getZ());
+  }
+
+  private static Translation3d getVector(ByteBuffer buf) {
+    return new Translation3d(buf.getDouble(), buf.getDouble(), buf.getDouble());
+  }
+
   /**
-   * Step the sim forward one period (20ms) and publish ball positions to NT. Does nothing if the
-   * sim isn't enabled.
+   * Step the sim forward one period (20ms) and publish ball positions to NT every publishDivisor
+   * ticks. Does nothing if the sim isn't enabled.
    */
   public void tick() {
+    tick(PERIOD);
+  }
+
+  /**
+   * Step the sim forward dt seconds and publish every publishDivisor ticks. For callers running
+   * the sim at their own rate, like FuelPhysicsThread.
+   */
+  public void tick(double dt) {
     if (!running) return;
     long t0 = System.nanoTime();
-    advancePhysics(PERIOD);
+    advancePhysics(dt);
     lastPhysicsNanos = System.nanoTime() - t0;
-    publishPositions();
+    if (++ticksSincePublish >= Math.max(1, config.publishDivisor)) {
+      ticksSincePublish = 0;
+      publishPositions();
+    }
   }
 
   /**
@@ -1031,52 +1559,414 @@ public class FuelPhysicsSim {
     int ticks = Math.max(1, config.subticks);
     double subDt = dt / ticks;
 
+    // LOD and stride picks look at where the robots are now
+    for (int r = 0; r < robots.size(); r++) {
+      SimRobot robot = robots.get(r);
+      if (robot.isConfigured()) robot.sample();
+    }
+
+    // Lod balls take friction-only substeps with no contacts. classifyLod's clearance margins
+    // assume a normal robot period, so a long tick runs every ball through the full pipeline
+    long lodNanos = 0;
+    if (config.lodEnabled && dt <= 2 * PERIOD) {
+      long t0 = System.nanoTime();
+      classifyLod();
+      for (int i = 0; i < balls.size(); i++) {
+        SimBall ball = balls.get(i);
+        if (ball.lod) stepLod(ball, dt);
+      }
+      lodNanos = System.nanoTime() - t0;
+    } else if (lodBallCount > 0) {
+      for (SimBall ball : balls) ball.lod = false;
+      lodBallCount = 0;
+    }
+
+    if (config.adaptiveSubticks && ticks > 1) {
+      assignStrides(dt, ticks);
+    } else if (coarseBallCount > 0) {
+      for (SimBall ball : balls) ball.stride = 1;
+      coarseBallCount = 0;
+    }
+
+    long t1 = System.nanoTime();
+    ballSteps = 0;
     for (int tick = 0; tick < ticks; tick++) {
-      stepSubtick(subDt);
+      stepSubtick(subDt, tick);
+    }
+    long fullNanos = System.nanoTime() - t1;
+
+    // Time saved: what the LOD balls would have cost at this tick's per-ball full-fidelity rate,
+    // minus what their cheap step actually cost. An estimate, but from this tick's own timings.
+    int fullBalls = 0;
+    for (SimBall ball : balls) {
+      if (!ball.lod && !ball.intaked && !ball.outOfBounds) {
+        if (!(ball.sleeping && config.sleepingEnabled)) fullBalls++;
+      }
+    }
+    lodSavedMs =
+        lodBallCount > 0 && fullBalls > 0
+            ? Math.max(0, (fullNanos / (double) fullBalls * lodBallCount - lodNanos) / 1e6)
+            : 0;
+    lodSavedMsTotal += lodSavedMs;
+
+    if (config.reorderInterval > 0 && ++ticksSinceReorder >= config.reorderInterval) {
+      reorderBalls();
     }
 
     // Remove flagged balls
     removeFlaggedBalls();
   }
 
-  // Core physics pipeline
+  // Ball ordering
 
-  private void stepSubtick(double subDt) {
-    // Reset contact list
-    contactPoolIndex = 0;
-    contacts.clear();
+  /**
+   * Re-sort the ball list by the Morton code of each ball's grid cell. Balls spawn in placement
+   * and launch order, then roll all over the field, so after a while spatial-hash neighbors are far
+   * apart in the list and the broadphase jumps around the heap. In Z-order, a cell and its
+   * neighbors are mostly a short run of the list, and so are the pos/vel objects each step
+   * allocates for them.
+   *
+   * <p>Indices only live as long as a subtick (spatial hash, contacts), but contacts from the last
+   * one are remapped anyway so nothing reading them after the tick sees the wrong balls. Balls
+   * about to be removed sort to the very end, so removing them doesn't shift anyone else. Intake
+   * and scoring state is on the ball, and delta publishing uses the ball's stable id.
+   */
+  void reorderBalls() {
+    ticksSinceReorder = 0;
+    int n = balls.size();
+    if (n < 2) return;
+    if (reorderKeys.length < n) {
+      reorderKeys = new long[Math.max(n, reorderKeys.length * 2)];
+      reorderScratch = new SimBall[reorderKeys.length];
+      reorderIndex = new int[reorderKeys.length];
+    }
+    // Morton code in the high bits, old index in the low bits: sorts stably without boxing
+    boolean sorted = true;
+    for (int i = 0; i < n; i++) {
+      SimBall ball = balls.get(i);
+      long key = ball.intaked || ball.outOfBounds ? 0x7fffffffL : mortonCell(ball.pos);
+      reorderKeys[i] = (key << 32) | i;
+      if (i > 0 && reorderKeys[i] < reorderKeys[i - 1]) sorted = false;
+      reorderScratch[i] = ball;
+    }
+    if (sorted) return;
+    Arrays.sort(reorderKeys, 0, n);
+    for (int k = 0; k < n; k++) {
+      int old = (int) reorderKeys[k];
+      balls.set(k, reorderScratch[old]);
+      reorderIndex[old] = k;
+    }
+    Arrays.fill(reorderScratch, 0, n, null);
+    for (int i = 0; i < contacts.size(); i++) {
+      Contact c = contacts.get(i);
+      c.ballIndexA = reorderIndex[c.ballIndexA];
+      if (c.ballIndexB >= 0) c.ballIndexB = reorderIndex[c.ballIndexB];
+    }
+    reorders++;
+  }
+
+  /** Bit-interleaved column and row of the grid cell. Off-grid balls sort after the field. */
+  private static long mortonCell(Translation3d pos) {
+    int col = (int) (pos.getX() / CELL_SIZE);
+    int row = (int) (pos.getY() / CELL_SIZE);
+    if (pos.getX() < 0 || pos.getY() < 0 || col >= GRID_COLS || row >= GRID_ROWS) {
+      return 0x40000000L;
+    }
+    return spreadBits(col) | (spreadBits(row) << 1);
+  }
+
+  /** The low 15 bits of v moved to the even bit positions. */
+  private static long spreadBits(int v) {
+    long x = v & 0x7fff;
+    x = (x | (x << 8)) & 0x00ff00ffL;
+    x = (x | (x << 4)) & 0x0f0f0f0fL;
+    x = (x | (x << 2)) & 0x33333333L;
+    x = (x | (x << 1)) & 0x55555555L;
+    return x;
+  }
 
+  // Level of detail
+
+  /**
+   * Pick the balls that get the cheap step this tick: awake, on the carpet, slower than
+   * lodSpeedThreshold, no other ball in the surrounding grid cells, and clear of the robot, both
+   * hubs, ground-level geometry and every airborne or fast ball. Everything else (including
+   * anything a fast ball is heading for) gets full subticking.
+   */
+  private void classifyLod() {
+    // Hot balls: airborne or fast. They promote anything within lodPromoteRadius.
+    int hot = 0;
+    double fastSq = config.lodSpeedThreshold * config.lodSpeedThreshold;
+    Arrays.fill(cellOccupancy, 0);
     for (int i = 0; i < balls.size(); i++) {
       SimBall ball = balls.get(i);
       if (ball.intaked || ball.outOfBounds) continue;
+      int col = (int) (ball.pos.getX() / CELL_SIZE);
+      int row = (int) (ball.pos.getY() / CELL_SIZE);
+      if (col >= 0 && col < GRID_COLS && row >= 0 && row < GRID_ROWS) {
+        cellOccupancy[col * GRID_ROWS + row]++;
+      }
       if (ball.sleeping && config.sleepingEnabled) continue;
+      if (isOnCarpet(ball) && speedSq(ball.vel) < fastSq) continue;
+      if (hot * 2 + 2 > hotXY.length) hotXY = Arrays.copyOf(hotXY, hotXY.length * 2);
+      hotXY[hot * 2] = ball.pos.getX();
+      hotXY[hot * 2 + 1] = ball.pos.getY();
+      hot++;
+    }
 
-      // Save previous state
-      ball.prevPos = ball.pos;
-      ball.prevVel = ball.vel;
+    double hubRadiusSq = config.lodHubRadius * config.lodHubRadius;
+    double promoteSq = config.lodPromoteRadius * config.lodPromoteRadius;
 
-      // Compute forces and get acceleration
-      Translation3d accel = computeAcceleration(ball);
+    int count = 0;
+    for (int i = 0; i < balls.size(); i++) {
+      SimBall ball = balls.get(i);
+      ball.lod = false;
+      if (ball.intaked || ball.outOfBounds) continue;
+      if (ball.sleeping && config.sleepingEnabled) continue;
+      if (!isOnCarpet(ball) || speedSq(ball.vel) >= fastSq) continue;
+
+      double x = ball.pos.getX();
+      double y = ball.pos.getY();
+      int col = (int) (x / CELL_SIZE);
+      int row = (int) (y / CELL_SIZE);
+      if (col < 0 || col >= GRID_COLS || row < 0 || row >= GRID_ROWS) continue;
+      if (NEAR_GROUND_GEOMETRY[col][row]) continue;
+      if (hasNeighbour(col, row)) continue;
+      if (distSq(x, y, BLUE_HUB_CENTER) < hubRadiusSq) continue;
+      if (distSq(x, y, RED_HUB_CENTER) < hubRadiusSq) continue;
+      if (nearRobot(x, y, config.lodRobotMargin)) continue;
+
+      boolean nearHot = false;
+      for (int h = 0; h < hot && !nearHot; h++) {
+        double dx = x - hotXY[h * 2];
+        double dy = y - hotXY[h * 2 + 1];
+        nearHot = dx * dx + dy * dy < promoteSq;
+      }
+      if (nearHot) continue;
 
-      // Symplectic Euler: update velocity first so we don't accumulate energy drift
-      ball.vel = ball.vel.plus(accel.times(subDt));
-      ball.pos = ball.pos.plus(ball.vel.times(subDt));
+      ball.lod = true;
+      count++;
+    }
+    lodBallCount = count;
+  }
 
-      // Spin decay
+  /**
+   * Advances a slow ball on the carpet through dt, one substep of dt / subticks at a time, with the
+   * same drag, roll, spin decay and ground friction as the full pipeline so a lod ball rolls to the
+   * same spot. What it skips is the broadphase, contacts, CCD and wall/net/robot checks, which
+   * classifyLod has already ruled out for this tick.
+   */
+  private void stepLod(SimBall ball, double dt) {
+    ball.prevPos = ball.pos;
+    ball.prevVel = ball.vel;
+    int ticks = Math.max(1, config.subticks);
+    double subDt = dt / ticks;
+    double spinDecay = Math.exp(-subDt / config.spinDecayTau);
+    for (int s = 0; s < ticks; s++) {
+      double vx = ball.vel.getX();
+      double vy = ball.vel.getY();
+      if (config.dragEnabled) {
+        double drag = 1.0 - DRAG_ACCEL_FACTOR * Math.hypot(vx, vy) * subDt;
+        vx *= drag;
+        vy *= drag;
+      }
+      ball.vel = new Translation3d(vx, vy, 0);
+      // Just under the carpet so handleGroundContact runs and clamps it back up
+      ball.pos =
+          new Translation3d(
+              ball.pos.getX() + vx * subDt, ball.pos.getY() + vy * subDt, BALL_RADIUS - 1e-9);
       if (config.spinDecayEnabled && ball.omega.getNorm() > 1e-6) {
-        double decayFactor = Math.exp(-subDt / config.spinDecayTau);
-        ball.omega = ball.omega.times(decayFactor);
+        ball.omega = ball.omega.times(spinDecay);
       }
+      handleGroundContact(ball, subDt);
     }
+  }
+
+  /**
+   * Any other ball in the 3x3 cells around (col, row)? Cells are 0.25m and a cheap ball moves at
+   * most 2cm per tick, so two isolated balls can't reach each other before the next check.
+   */
+  private boolean hasNeighbour(int col, int row) {
+    int others = -1; // the ball itself
+    for (int c = Math.max(0, col - 1); c <= Math.min(GRID_COLS - 1, col + 1); c++) {
+      for (int r = Math.max(0, row - 1); r <= Math.min(GRID_ROWS - 1, row + 1); r++) {
+        others += cellOccupancy[c * GRID_ROWS + r];
+      }
+    }
+    return others > 0;
+  }
+
+  /** Within margin of any robot's half-diagonal circle, at the poses sampled this tick? */
+  private boolean nearRobot(double x, double y, double margin) {
+    for (int r = 0; r < robots.size(); r++) {
+      SimRobot robot = robots.get(r);
+      if (robot.pose == null || !robot.isConfigured()) continue;
+      double radius = robot.halfDiagonal() + margin;
+      if (distSq(x, y, robot.pose.getTranslation()) < radius * radius) return true;
+    }
+    return false;
+  }
 
-    // CCD for fast balls
-    if (config.ccdEnabled) {
+  private static boolean isOnCarpet(SimBall ball) {
+    return ball.pos.getZ() <= BALL_RADIUS + 0.01 && Math.abs(ball.vel.getZ()) < 0.05;
+  }
+
+  private static double speedSq(Translation3d v) {
+    return v.getX() * v.getX() + v.getY() * v.getY() + v.getZ() * v.getZ();
+  }
+
+  private static double distSq(double x, double y, Translation2d p) {
+    double dx = x - p.getX();
+    double dy = y - p.getY();
+    return dx * dx + dy * dy;
+  }
+
+  // Adaptive subticking
+
+  /**
+   * Pick each ball's stride for this tick. A ball starts at the longest stride (a divisor of ticks)
+   * that keeps one of its steps under adaptiveStepTravel, or stride 1 if it is airborne, near
+   * ground-level geometry or near the robot. Then every ball's stride spreads to the cells its
+   * tick's travel covers plus one cell of margin, shortest strides first. A ball in those cells
+   * drops to the shorter stride unless it is slow enough to stay under adaptiveContactTravel on its
+   * own stride: then, between its steps, it sits still within the solver slop of where it really
+   * is, and the shorter-stride ball pairs with it every subtick (see generateBallBallContacts), so
+   * contacts across strides see the same positions and conserve momentum like any other.
+   */
+  private void assignStrides(double dt, int ticks) {
+    double subDt = dt / ticks;
+    Arrays.fill(cellHead, -1);
+    Arrays.fill(cellStride, Integer.MAX_VALUE);
+    if (nextInCell.length < balls.size()) {
+      nextInCell = new int[balls.size() * 2];
+      strideQueue = new int[balls.size() * 2];
+    }
+
+    for (int i = 0; i < balls.size(); i++) {
+      SimBall ball = balls.get(i);
+      ball.stride = 1;
+      if (ball.intaked || ball.outOfBounds || ball.lod) continue;
+      if (ball.sleeping && config.sleepingEnabled) continue;
+      int col = (int) (ball.pos.getX() / CELL_SIZE);
+      int row = (int) (ball.pos.getY() / CELL_SIZE);
+      if (col < 0 || col >= GRID_COLS || row < 0 || row >= GRID_ROWS) continue;
+      int cell = col * GRID_ROWS + row;
+      nextInCell[i] = cellHead[cell];
+      cellHead[cell] = i;
+
+      if (!isOnCarpet(ball) || NEAR_GROUND_GEOMETRY[col][row]) continue;
+      if (nearRobot(ball.pos.getX(), ball.pos.getY(), config.adaptiveRobotMargin)) continue;
+      ball.stride = longestStride(ball, ticks, ticks, subDt, config.adaptiveStepTravel);
+    }
+
+    // Shortest strides first: a ball only ever moves to a shorter stride, so each ball is queued
+    // at most once per stride and the whole pass stays linear in the ball count.
+    for (int stride = 1; stride < ticks; stride++) {
+      if (ticks % stride != 0) continue;
+      int head = 0;
+      int tail = 0;
       for (int i = 0; i < balls.size(); i++) {
         SimBall ball = balls.get(i);
-        if (ball.intaked || ball.outOfBounds) continue;
-        if (ball.sleeping && config.sleepingEnabled) continue;
-        if (ball.vel.getNorm() > config.ccdSpeedThreshold) {
-          handleCCD(ball);
+        if (ball.stride == stride && !ball.lod && !ball.intaked && !ball.outOfBounds) {
+          if (!(ball.sleeping && config.sleepingEnabled)) strideQueue[tail++] = i;
+        }
+      }
+      while (head < tail) {
+        SimBall ball = balls.get(strideQueue[head++]);
+        double x = ball.pos.getX();
+        double y = ball.pos.getY();
+        double x1 = x + ball.vel.getX() * dt;
+        double y1 = y + ball.vel.getY() * dt;
+        int c0 = Math.max(0, (int) (Math.min(x, x1) / CELL_SIZE) - 1);
+        int c1 = Math.min(GRID_COLS - 1, (int) (Math.max(x, x1) / CELL_SIZE) + 1);
+        int r0 = Math.max(0, (int) (Math.min(y, y1) / CELL_SIZE) - 1);
+        int r1 = Math.min(GRID_ROWS - 1, (int) (Math.max(y, y1) / CELL_SIZE) + 1);
+        for (int c = c0; c <= c1; c++) {
+          for (int r = r0; r <= r1; r++) {
+            int cell = c * GRID_ROWS + r;
+            if (cellStride[cell] <= stride) continue;
+            cellStride[cell] = stride;
+            for (int j = cellHead[cell]; j >= 0; j = nextInCell[j]) {
+              SimBall other = balls.get(j);
+              if (other.stride <= stride) continue;
+              // Slow enough that its position between steps stays inside the solver slop: it can
+              // keep a longer stride and be paired from the shorter-stride side meanwhile
+              int safe =
+                  longestStride(other, ticks, other.stride, subDt, config.adaptiveContactTravel);
+              other.stride = Math.max(stride, safe);
+              if (other.stride == stride) strideQueue[tail++] = j;
+            }
+          }
+        }
+      }
+    }
+
+    int coarse = 0;
+    for (SimBall ball : balls) {
+      if (ball.stride > 1) coarse++;
+    }
+    coarseBallCount = coarse;
+  }
+
+  /** Longest stride up to max that divides ticks and keeps one step's travel under limit. */
+  private static int longestStride(SimBall ball, int ticks, int max, double subDt, double limit) {
+    double speed = Math.sqrt(speedSq(ball.vel));
+    for (int stride = max; stride > 1; stride--) {
+      if (ticks % stride == 0 && speed * stride * subDt <= limit) return stride;
+    }
+    return 1;
+  }
+
+  /** Does this ball step on this subtick? Stride-s balls step on subticks s-1, 2s-1, ... */
+  private static boolean isDue(SimBall ball, int subtick) {
+    return (subtick + 1) % ball.stride == 0;
+  }
+
+  // Core physics pipeline
+
+  /**
+   * One subtick. With adaptive subticking a ball only steps on every stride-th subtick (with a
+   * stride-times-longer dt), so everything after integration skips balls that aren't due.
+   */
+  private void stepSubtick(double subDt, int subtick) {
+    // Reset contact list
+    mainContacts.reset();
+
+    if (config.vectorIntegrator) prepareBatch(subDt);
+
+    // Integration and CCD only touch the ball itself, so a chunk can do both in one pass
+    if (config.parallelism > 1) {
+      int chunks = chunkCount();
+      if (chunkSteps.length < chunks) chunkSteps = new int[chunks];
+      forEachChunk(
+          (chunk, start, end) -> {
+            int steps = 0;
+            if (config.vectorIntegrator) {
+              steps = integrateBatch(start, end, subDt, subtick);
+            } else {
+              for (int i = start; i < end; i++) {
+                if (integrateBall(balls.get(i), subDt, subtick)) steps++;
+              }
+            }
+            if (config.ccdEnabled) {
+              for (int i = start; i < end; i++) ccdBall(balls.get(i), subtick);
+            }
+            chunkSteps[chunk] = steps;
+          });
+      for (int c = 0; c < chunks; c++) ballSteps += chunkSteps[c];
+    } else {
+      if (config.vectorIntegrator) {
+        ballSteps += integrateBatch(0, balls.size(), subDt, subtick);
+      } else {
+        for (int i = 0; i < balls.size(); i++) {
+          if (integrateBall(balls.get(i), subDt, subtick)) ballSteps++;
+        }
+      }
+
+      // CCD for fast balls
+      if (config.ccdEnabled) {
+        for (int i = 0; i < balls.size(); i++) {
+          ccdBall(balls.get(i), subtick);
         }
       }
     }
@@ -1085,8 +1975,8 @@ public class FuelPhysicsSim {
     buildSpatialHash();
 
     // Generate contacts: ball-ball via spatial hash, ball-field via narrowphase
-    generateBallBallContacts();
-    generateBallFieldContacts();
+    generateBallBallContacts(subtick);
+    generateBallFieldContacts(subtick);
 
     // Sequential impulse solver
     solveContacts();
@@ -1095,9 +1985,20 @@ public class FuelPhysicsSim {
     for (int i = 0; i < balls.size(); i++) {
       SimBall ball = balls.get(i);
       if (ball.intaked || ball.outOfBounds) continue;
-      if (ball.sleeping && config.sleepingEnabled) continue;
+      if (ball.lod || (ball.sleeping && config.sleepingEnabled)) continue;
+      if (!isDue(ball, subtick)) continue;
       handleWallBounce(ball);
-      handleGroundContact(ball, subDt);
+      if (ball.stride > 1) {
+        // Kinetic and rolling friction take turns whenever spin decay opens a little slip, so a
+        // single long friction step loses most of the rolling resistance. Keep friction on the
+        // fine substep; it's the broadphase and contacts that coarse balls are saving.
+        handleGroundContact(ball, subDt);
+        if (config.frictionEnabled) {
+          for (int k = 1; k < ball.stride; k++) applyGroundFriction(ball, subDt);
+        }
+      } else {
+        handleGroundContact(ball, subDt);
+      }
       handleBumpCollisions(ball);
     }
 
@@ -1112,40 +2013,18 @@ public class FuelPhysicsSim {
     for (int i = 0; i < balls.size(); i++) {
       SimBall ball = balls.get(i);
       if (ball.intaked || ball.outOfBounds) continue;
-      if (ball.sleeping && config.sleepingEnabled) continue;
+      if (ball.lod || (ball.sleeping && config.sleepingEnabled)) continue;
+      if (!isDue(ball, subtick)) continue;
       handleNetCollision(ball, blueHub);
       handleNetCollision(ball, redHub);
     }
 
-    // Robot interaction
-    if (robotPoseSupplier != null && robotSpeedsSupplier != null) {
-      Pose2d robotPose = robotPoseSupplier.get();
-      ChassisSpeeds speeds = robotSpeedsSupplier.get();
-      Translation2d robotVel =
-          new Translation2d(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond);
-
-      // Wake radius: robot half-diagonal plus margin so balls react before contact
-      double wakeRadius = Math.hypot(robotLength, robotWidth) / 2.0 + 0.3;
-      double wakeRadiusSq = wakeRadius * wakeRadius;
-
-      for (int i = 0; i < balls.size(); i++) {
-        SimBall ball = balls.get(i);
-        if (ball.intaked || ball.outOfBounds) continue;
-        // Wake sleeping balls near the robot so bumpers push them
-        if (ball.sleeping && config.sleepingEnabled) {
-          double dx = ball.pos.getX() - robotPose.getX();
-          double dy = ball.pos.getY() - robotPose.getY();
-          if (dx * dx + dy * dy < wakeRadiusSq) {
-            wakeBall(ball);
-          } else {
-            continue;
-          }
-        }
-        // Intake first so balls are consumed before bumper pushes them away
-        handleIntakePickup(ball, robotPose);
-        if (ball.intaked) continue;
-        handleRobotCollision(ball, robotPose, robotVel);
-      }
+    // Robot interaction: each robot only visits the hash cells around its footprint
+    for (int r = 0; r < robots.size(); r++) {
+      SimRobot robot = robots.get(r);
+      if (!robot.isConfigured()) continue;
+      robot.sample();
+      handleRobotBalls(robot, subtick);
     }
 
     // Sleep update
@@ -1156,33 +2035,14 @@ public class FuelPhysicsSim {
     }
 
     // Out-of-bounds cleanup (includes NaN guard, upper Z limit, and stuck-on-obstacle removal)
-    for (int i = 0; i < balls.size(); i++) {
-      SimBall ball = balls.get(i);
-      if (!Double.isFinite(ball.pos.getX())
-          || !Double.isFinite(ball.pos.getY())
-          || !Double.isFinite(ball.pos.getZ())
-          || !Double.isFinite(ball.vel.getX())
-          || !Double.isFinite(ball.vel.getY())
-          || !Double.isFinite(ball.vel.getZ())
-          || !Double.isFinite(ball.omega.getX())
-          || !Double.isFinite(ball.omega.getY())
-          || !Double.isFinite(ball.omega.getZ())
-          || ball.pos.getX() < -2.0
-          || ball.pos.getX() > FIELD_LENGTH + 2.0
-          || ball.pos.getY() < -2.0
-          || ball.pos.getY() > FIELD_WIDTH + 2.0
-          || ball.pos.getZ() < -1.0
-          || ball.pos.getZ() > 15.0) {
-        ball.outOfBounds = true;
-      }
-      // Remove balls stuck on elevated obstacles
-      if (ball.pos.getZ() > BALL_RADIUS + 0.3 && ball.vel.getNorm() < 0.5) {
-        ball.elevatedSlowCounter++;
-        if (ball.elevatedSlowCounter > 250) {
-          ball.outOfBounds = true;
-        }
-      } else {
-        ball.elevatedSlowCounter = 0;
+    if (config.parallelism > 1) {
+      forEachChunk(
+          (chunk, start, end) -> {
+            for (int i = start; i < end; i++) checkBounds(balls.get(i));
+          });
+    } else {
+      for (int i = 0; i < balls.size(); i++) {
+        checkBounds(balls.get(i));
       }
     }
 
@@ -1192,6 +2052,206 @@ public class FuelPhysicsSim {
     }
   }
 
+  /**
+   * Gravity, drag and Magnus, then symplectic Euler and spin decay for one ball that's due this
+   * subtick. Returns false if it sat this one out.
+   */
+  private boolean integrateBall(SimBall ball, double subDt, int subtick) {
+    if (ball.intaked || ball.outOfBounds) return false;
+    if (ball.lod || (ball.sleeping && config.sleepingEnabled)) return false;
+    if (!isDue(ball, subtick)) return false;
+    double stepDt = subDt * ball.stride;
+
+    // Save previous state
+    ball.prevPos = ball.pos;
+    ball.prevVel = ball.vel;
+
+    // Compute forces and get acceleration
+    Translation3d accel = computeAcceleration(ball);
+
+    if (ball.stride > 1) {
+      // Coarse balls are rolling on the carpet by construction. Over a long step gravity would
+      // build up enough fall speed to bounce, so let the carpet carry the weight instead, the way
+      // the per-subtick ground clamp does. Just under the carpet so ground friction still runs.
+      ball.vel = new Translation3d(ball.vel.getX(), ball.vel.getY(), 0);
+      ball.vel = ball.vel.plus(new Translation3d(accel.getX(), accel.getY(), 0).times(stepDt));
+      ball.pos =
+          new Translation3d(
+              ball.pos.getX() + ball.vel.getX() * stepDt,
+              ball.pos.getY() + ball.vel.getY() * stepDt,
+              BALL_RADIUS - 1e-9);
+    } else {
+      // Symplectic Euler: update velocity first so we don't accumulate energy drift
+      ball.vel = ball.vel.plus(accel.times(stepDt));
+      ball.pos = ball.pos.plus(ball.vel.times(stepDt));
+    }
+
+    // Spin decay
+    if (config.spinDecayEnabled && ball.omega.getNorm() > 1e-6) {
+      double decayFactor = Math.exp(-stepDt / config.spinDecayTau);
+      ball.omega = ball.omega.times(decayFactor);
+    }
+    return true;
+  }
+
+  private void prepareBatch(double subDt) {
+    BallIntegrator vector = BallIntegrator.vector();
+    integrator = vector != null ? vector : BallIntegrator.SCALAR;
+    batch.ensureCapacity(balls.size());
+    batch.dt = subDt;
+    batch.gravity = GRAVITY;
+    batch.dragFactor = DRAG_ACCEL_FACTOR;
+    batch.magnusFactor = MAGNUS_ACCEL_FACTOR;
+    batch.airborneZ = BALL_RADIUS + 0.01;
+    batch.drag = config.dragEnabled;
+    batch.magnus = config.magnusEnabled;
+    batch.spinDecay = config.spinDecayEnabled;
+    batch.spinDecayFactor = Math.exp(-subDt / config.spinDecayTau);
+  }
+
+  /**
+   * integrateBall() for balls [start, end), with the full-rate ones gathered into the batch slots
+   * of the same range, run through the integrator and written back. Coarse balls keep the
+   * per-ball path. Returns the number of balls stepped.
+   */
+  private int integrateBatch(int start, int end, double subDt, int subtick) {
+    BallIntegrator.Batch b = batch;
+    int steps = 0;
+    int n = start;
+    for (int i = start; i < end; i++) {
+      SimBall ball = balls.get(i);
+      if (ball.stride > 1) {
+        if (integrateBall(ball, subDt, subtick)) steps++;
+        continue;
+      }
+      if (ball.intaked || ball.outOfBounds) continue;
+      if (ball.lod || (ball.sleeping && config.sleepingEnabled)) continue;
+      b.ball[n] = i;
+      b.px[n] = ball.pos.getX();
+      b.py[n] = ball.pos.getY();
+      b.pz[n] = ball.pos.getZ();
+      b.vx[n] = ball.vel.getX();
+      b.vy[n] = ball.vel.getY();
+      b.vz[n] = ball.vel.getZ();
+      b.wx[n] = ball.omega.getX();
+      b.wy[n] = ball.omega.getY();
+      b.wz[n] = ball.omega.getZ();
+      n++;
+    }
+    integrator.integrate(b, start, n);
+    for (int k = start; k < n; k++) {
+      SimBall ball = balls.get(b.ball[k]);
+      ball.prevPos = ball.pos;
+      ball.prevVel = ball.vel;
+      ball.pos = new Translation3d(b.px[k], b.py[k], b.pz[k]);
+      ball.vel = new Translation3d(b.vx[k], b.vy[k], b.vz[k]);
+      if (config.spinDecayEnabled) ball.omega = new Translation3d(b.wx[k], b.wy[k], b.wz[k]);
+    }
+    return steps + n - start;
+  }
+
+  /** Which batch integrator the last vectorIntegrator step used, for telemetry. */
+  public String getIntegratorName() {
+    return config.vectorIntegrator ? integrator.toString() : "per-ball";
+  }
+
+  private void ccdBall(SimBall ball, int subtick) {
+    if (ball.intaked || ball.outOfBounds) return;
+    if (ball.lod || (ball.sleeping && config.sleepingEnabled)) return;
+    if (!isDue(ball, subtick)) return;
+    if (ball.vel.getNorm() > config.ccdSpeedThreshold) {
+      handleCCD(ball);
+    }
+  }
+
+  private void checkBounds(SimBall ball) {
+    if (!Double.isFinite(ball.pos.getX())
+        || !Double.isFinite(ball.pos.getY())
+        || !Double.isFinite(ball.pos.getZ())
+        || !Double.isFinite(ball.vel.getX())
+        || !Double.isFinite(ball.vel.getY())
+        || !Double.isFinite(ball.vel.getZ())
+        || !Double.isFinite(ball.omega.getX())
+        || !Double.isFinite(ball.omega.getY())
+        || !Double.isFinite(ball.omega.getZ())
+        || ball.pos.getX() < -2.0
+        || ball.pos.getX() > FIELD_LENGTH + 2.0
+        || ball.pos.getY() < -2.0
+        || ball.pos.getY() > FIELD_WIDTH + 2.0
+        || ball.pos.getZ() < -1.0
+        || ball.pos.getZ() > 15.0) {
+      ball.outOfBounds = true;
+    }
+    // Remove balls stuck on elevated obstacles
+    if (ball.pos.getZ() > BALL_RADIUS + 0.3 && ball.vel.getNorm() < 0.5) {
+      ball.elevatedSlowCounter++;
+      if (ball.elevatedSlowCounter > 250) {
+        ball.outOfBounds = true;
+      }
+    } else {
+      ball.elevatedSlowCounter = 0;
+    }
+  }
+
+  // Parallel chunks
+
+  @FunctionalInterface
+  private interface ChunkOp {
+    void run(int chunk, int start, int end);
+  }
+
+  private int chunkCount() {
+    int size = Math.max(1, config.parallelChunk);
+    return (balls.size() + size - 1) / size;
+  }
+
+  /**
+   * Run op over the balls in parallelChunk-sized slices on the shared pool for this parallelism.
+   * Each chunk owns its balls for the call; anything shared goes in per-chunk slots the caller
+   * merges afterwards in chunk order.
+   */
+  private void forEachChunk(ChunkOp op) {
+    int size = Math.max(1, config.parallelChunk);
+    int chunks = chunkCount();
+    if (chunks <= 1) {
+      if (chunks == 1) op.run(0, 0, balls.size());
+      return;
+    }
+    pool(config.parallelism).invoke(new ChunkTask(op, 0, chunks, size, balls.size()));
+  }
+
+  private static ForkJoinPool pool(int parallelism) {
+    return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+  }
+
+  /** Splits a chunk range in half until each task has one chunk. */
+  private static final class ChunkTask extends RecursiveAction {
+    private final ChunkOp op;
+    private final int from;
+    private final int to;
+    private final int size;
+    private final int count;
+
+    ChunkTask(ChunkOp op, int from, int to, int size, int count) {
+      this.op = op;
+      this.from = from;
+      this.to = to;
+      this.size = size;
+      this.count = count;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        op.run(from, from * size, Math.min(count, (from + 1) * size));
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new ChunkTask(op, from, mid, size, count), new ChunkTask(op, mid, to, size, count));
+    }
+  }
+
   /** Compute acceleration: gravity + drag + Magnus lift. Magnus only kicks in when airborne. */
   private Translation3d computeAcceleration(SimBall ball) {
     // Gravity always acts
@@ -1391,11 +2451,12 @@ public class FuelPhysicsSim {
 
   // Narrowphase contact generation
 
-  private void generateBallBallContacts() {
+  private void generateBallBallContacts(int subtick) {
     for (int i = 0; i < balls.size(); i++) {
       SimBall ballA = balls.get(i);
       if (ballA.intaked || ballA.outOfBounds) continue;
-      if (ballA.sleeping && config.sleepingEnabled) continue;
+      if (ballA.lod || (ballA.sleeping && config.sleepingEnabled)) continue;
+      if (!isDue(ballA, subtick)) continue;
 
       int col = (int) (ballA.pos.getX() / CELL_SIZE);
       int row = (int) (ballA.pos.getY() / CELL_SIZE);
@@ -1409,9 +2470,16 @@ public class FuelPhysicsSim {
           for (int k = 0; k < cell.size(); k++) {
             int j = cell.get(k);
             if (j == i) continue; // same ball
-            if (j < i && !(config.sleepingEnabled && balls.get(j).sleeping)) continue;
-
             SimBall ballB = balls.get(j);
+            // Sleeping, LOD and not-due balls never run this loop as A, so pair them from
+            // either side. A not-due B is a slow ball assignStrides left on a longer stride.
+            if (j < i
+                && !(config.sleepingEnabled && ballB.sleeping)
+                && !ballB.lod
+                && isDue(ballB, subtick)) {
+              continue;
+            }
+
             double dx = ballA.pos.getX() - ballB.pos.getX();
             double dy = ballA.pos.getY() - ballB.pos.getY();
             double dz = ballA.pos.getZ() - ballB.pos.getZ();
@@ -1448,25 +2516,48 @@ public class FuelPhysicsSim {
     }
   }
 
-  private void generateBallFieldContacts() {
+  private void generateBallFieldContacts(int subtick) {
+    if (config.parallelism > 1) {
+      int chunks = chunkCount();
+      if (chunkContacts.length < chunks) {
+        int old = chunkContacts.length;
+        chunkContacts = Arrays.copyOf(chunkContacts, chunks);
+        for (int c = old; c < chunks; c++) chunkContacts[c] = new ContactBuffer();
+      }
+      forEachChunk(
+          (chunk, start, end) -> {
+            ContactBuffer out = chunkContacts[chunk];
+            out.reset();
+            for (int i = start; i < end; i++) generateBallFieldContacts(i, subtick, out);
+          });
+      // Chunk order is ball order, so the solver sees the same contact order as a serial step
+      for (int c = 0; c < chunks; c++) contacts.addAll(chunkContacts[c].list);
+      return;
+    }
     for (int i = 0; i < balls.size(); i++) {
-      SimBall ball = balls.get(i);
-      if (ball.intaked || ball.outOfBounds) continue;
-      if (ball.sleeping && config.sleepingEnabled) continue;
+      generateBallFieldContacts(i, subtick, mainContacts);
+    }
+  }
 
-      // AABB obstacles
-      for (AABB aabb : AABB_OBSTACLES) {
-        generateSphereAABBContact(i, ball, aabb);
-      }
+  private void generateBallFieldContacts(int i, int subtick, ContactBuffer out) {
+    SimBall ball = balls.get(i);
+    if (ball.intaked || ball.outOfBounds) return;
+    if (ball.lod || (ball.sleeping && config.sleepingEnabled)) return;
+    if (!isDue(ball, subtick)) return;
 
-      // Cylinder obstacles
-      for (CylinderObstacle cyl : CYLINDER_OBSTACLES) {
-        generateSphereCylinderContact(i, ball, cyl);
-      }
+    // AABB obstacles
+    for (AABB aabb : AABB_OBSTACLES) {
+      generateSphereAABBContact(i, ball, aabb, out);
+    }
+
+    // Cylinder obstacles
+    for (CylinderObstacle cyl : CYLINDER_OBSTACLES) {
+      generateSphereCylinderContact(i, ball, cyl, out);
     }
   }
 
-  private void generateSphereAABBContact(int ballIndex, SimBall ball, AABB aabb) {
+  private void generateSphereAABBContact(
+      int ballIndex, SimBall ball, AABB aabb, ContactBuffer out) {
     // Find nearest point on AABB to sphere center
     double cx = Math.max(aabb.minX(), Math.min(ball.pos.getX(), aabb.maxX()));
     double cy = Math.max(aabb.minY(), Math.min(ball.pos.getY(), aabb.maxY()));
@@ -1479,7 +2570,7 @@ public class FuelPhysicsSim {
 
     if (distSq < BALL_RADIUS * BALL_RADIUS && distSq >= 1e-9) {
       double dist = Math.sqrt(distSq);
-      Contact c = allocateContact();
+      Contact c = out.allocate();
       c.ballIndexA = ballIndex;
       c.ballIndexB = -1;
       c.normal = new Translation3d(dx / dist, dy / dist, dz / dist);
@@ -1489,13 +2580,13 @@ public class FuelPhysicsSim {
       c.friction = config.frictionEnabled ? MU_WALL : 0;
       c.normalImpulseAccum = 0;
       c.tangentImpulseAccum = 0;
-      contacts.add(c);
+      out.list.add(c);
     } else if (distSq < 1e-9) {
       // Ball center is inside AABB.
       Translation3d normal = computeEntryFaceNormal(ball.prevPos, ball.pos, aabb);
       if (normal != null) {
         double pen = computeAABBPenetration(ball.pos, aabb);
-        Contact c = allocateContact();
+        Contact c = out.allocate();
         c.ballIndexA = ballIndex;
         c.ballIndexB = -1;
         c.normal = normal;
@@ -1505,7 +2596,7 @@ public class FuelPhysicsSim {
         c.friction = config.frictionEnabled ? MU_WALL : 0;
         c.normalImpulseAccum = 0;
         c.tangentImpulseAccum = 0;
-        contacts.add(c);
+        out.list.add(c);
       }
     }
   }
@@ -1607,7 +2698,8 @@ public class FuelPhysicsSim {
     return bestNormal != null ? bestNormal : computeAABBNormal(to, aabb);
   }
 
-  private void generateSphereCylinderContact(int ballIndex, SimBall ball, CylinderObstacle cyl) {
+  private void generateSphereCylinderContact(
+      int ballIndex, SimBall ball, CylinderObstacle cyl, ContactBuffer out) {
     if (cyl.abLenSq() < 1e-12) return;
 
     // Find nearest point on line segment to ball center
@@ -1631,7 +2723,7 @@ public class FuelPhysicsSim {
 
     if (distSq < minDist * minDist && distSq > 0) {
       double dist = Math.sqrt(distSq);
-      Contact c = allocateContact();
+      Contact c = out.allocate();
       c.ballIndexA = ballIndex;
       c.ballIndexB = -1;
       c.normal = new Translation3d(dx / dist, dy / dist, dz / dist);
@@ -1641,7 +2733,7 @@ public class FuelPhysicsSim {
       c.friction = config.frictionEnabled ? MU_WALL : 0;
       c.normalImpulseAccum = 0;
       c.tangentImpulseAccum = 0;
-      contacts.add(c);
+      out.list.add(c);
     }
   }
 
@@ -1848,51 +2940,8 @@ public class FuelPhysicsSim {
         }
       }
 
-      // Ground friction: uses surface velocity (vel + omega x r) so spin-on-contact works
       if (config.frictionEnabled) {
-        double surfVelX = ball.vel.getX() - ball.omega.getY() * BALL_RADIUS;
-        double surfVelY = ball.vel.getY() + ball.omega.getX() * BALL_RADIUS;
-        double surfSpeed = Math.sqrt(surfVelX * surfVelX + surfVelY * surfVelY);
-        double hSpeed =
-            Math.sqrt(ball.vel.getX() * ball.vel.getX() + ball.vel.getY() * ball.vel.getY());
-
-        if (surfSpeed > 0.01) {
-          // friction opposes surface velocity
-          double fdx = -surfVelX / surfSpeed;
-          double fdy = -surfVelY / surfSpeed;
-
-          double maxImpulse = (2.0 / 7.0) * BALL_MASS * surfSpeed;
-          double frictionImpulse =
-              Math.min(MU_GROUND_KINETIC * BALL_MASS * GRAVITY * subDt, maxImpulse);
-
-          // Friction changes both linear and angular velocity
-          ball.vel =
-              new Translation3d(
-                  ball.vel.getX() + fdx * frictionImpulse / BALL_MASS,
-                  ball.vel.getY() + fdy * frictionImpulse / BALL_MASS,
-                  ball.vel.getZ());
-          if (config.spinTransferEnabled) {
-            // Torque
-            ball.omega =
-                new Translation3d(
-                    ball.omega.getX()
-                        + BALL_RADIUS * fdy * frictionImpulse / BALL_MOMENT_OF_INERTIA,
-                    ball.omega.getY()
-                        - BALL_RADIUS * fdx * frictionImpulse / BALL_MOMENT_OF_INERTIA,
-                    ball.omega.getZ());
-          }
-        } else if (hSpeed > 1e-4) {
-          // Rolling resistance decelerates vel and omega together
-          double decel = MU_GROUND_ROLLING * GRAVITY * subDt;
-          double scale = Math.max(0, hSpeed - decel) / hSpeed;
-          ball.vel =
-              new Translation3d(ball.vel.getX() * scale, ball.vel.getY() * scale, ball.vel.getZ());
-          if (config.spinTransferEnabled) {
-            ball.omega =
-                new Translation3d(
-                    ball.omega.getX() * scale, ball.omega.getY() * scale, ball.omega.getZ());
-          }
-        }
+        applyGroundFriction(ball, subDt);
       }
 
       // Settle near-zero vertical velocity when on ground
@@ -1902,6 +2951,54 @@ public class FuelPhysicsSim {
     }
   }
 
+  /**
+   * Carpet friction for one substep: kinetic friction on the surface velocity (vel + omega x r) so
+   * spin-on-contact works, or rolling resistance once the contact point has stopped slipping.
+   */
+  private void applyGroundFriction(SimBall ball, double subDt) {
+    double surfVelX = ball.vel.getX() - ball.omega.getY() * BALL_RADIUS;
+    double surfVelY = ball.vel.getY() + ball.omega.getX() * BALL_RADIUS;
+    double surfSpeed = Math.sqrt(surfVelX * surfVelX + surfVelY * surfVelY);
+    double hSpeed =
+        Math.sqrt(ball.vel.getX() * ball.vel.getX() + ball.vel.getY() * ball.vel.getY());
+
+    if (surfSpeed > 0.01) {
+      // friction opposes surface velocity
+      double fdx = -surfVelX / surfSpeed;
+      double fdy = -surfVelY / surfSpeed;
+
+      double maxImpulse = (2.0 / 7.0) * BALL_MASS * surfSpeed;
+      double frictionImpulse =
+          Math.min(MU_GROUND_KINETIC * BALL_MASS * GRAVITY * subDt, maxImpulse);
+
+      // Friction changes both linear and angular velocity
+      ball.vel =
+          new Translation3d(
+              ball.vel.getX() + fdx * frictionImpulse / BALL_MASS,
+              ball.vel.getY() + fdy * frictionImpulse / BALL_MASS,
+              ball.vel.getZ());
+      if (config.spinTransferEnabled) {
+        // Torque
+        ball.omega =
+            new Translation3d(
+                ball.omega.getX() + BALL_RADIUS * fdy * frictionImpulse / BALL_MOMENT_OF_INERTIA,
+                ball.omega.getY() - BALL_RADIUS * fdx * frictionImpulse / BALL_MOMENT_OF_INERTIA,
+                ball.omega.getZ());
+      }
+    } else if (hSpeed > 1e-4) {
+      // Rolling resistance decelerates vel and omega together
+      double decel = MU_GROUND_ROLLING * GRAVITY * subDt;
+      double scale = Math.max(0, hSpeed - decel) / hSpeed;
+      ball.vel =
+          new Translation3d(ball.vel.getX() * scale, ball.vel.getY() * scale, ball.vel.getZ());
+      if (config.spinTransferEnabled) {
+        ball.omega =
+            new Translation3d(
+                ball.omega.getX() * scale, ball.omega.getY() * scale, ball.omega.getZ());
+      }
+    }
+  }
+
   /** Handle collisions with the tent-shaped bump ramps. */
   private void handleBumpCollisions(SimBall ball) {
     for (BumpSegment seg : BUMP_SEGMENTS) {
@@ -1979,16 +3076,60 @@ public class FuelPhysicsSim {
     }
   }
 
-  private void handleRobotCollision(SimBall ball, Pose2d robotPose, Translation2d robotVel) {
-    if (ball.pos.getZ() > bumperHeight) return;
+  /**
+   * Bumpers and intakes for one robot against the balls in the hash cells within its wake radius.
+   * The hash was built this subtick; the solver has only nudged balls by millimetres since, well
+   * inside the 0.3m wake margin, so no ball near the bumpers is missed.
+   */
+  private void handleRobotBalls(SimRobot robot, int subtick) {
+    // Wake radius: robot half-diagonal plus margin so balls react before contact
+    double wakeRadius = robot.halfDiagonal() + 0.3;
+    double wakeRadiusSq = wakeRadius * wakeRadius;
+    double rx = robot.pose.getX();
+    double ry = robot.pose.getY();
+    int c0 = Math.max(0, (int) Math.floor((rx - wakeRadius) / CELL_SIZE));
+    int c1 = Math.min(GRID_COLS - 1, (int) Math.floor((rx + wakeRadius) / CELL_SIZE));
+    int r0 = Math.max(0, (int) Math.floor((ry - wakeRadius) / CELL_SIZE));
+    int r1 = Math.min(GRID_ROWS - 1, (int) Math.floor((ry + wakeRadius) / CELL_SIZE));
+
+    for (int c = c0; c <= c1; c++) {
+      for (int r = r0; r <= r1; r++) {
+        List<Integer> cell = grid[c][r];
+        for (int k = 0; k < cell.size(); k++) {
+          SimBall ball = balls.get(cell.get(k));
+          if (ball.intaked || ball.outOfBounds || ball.lod) continue;
+          if (!isDue(ball, subtick)) continue;
+          // Wake sleeping balls near the robot so bumpers push them
+          if (ball.sleeping && config.sleepingEnabled) {
+            double dx = ball.pos.getX() - rx;
+            double dy = ball.pos.getY() - ry;
+            if (dx * dx + dy * dy < wakeRadiusSq) {
+              wakeBall(ball);
+            } else {
+              continue;
+            }
+          }
+          // Intake first so balls are consumed before bumper pushes them away
+          handleIntakePickup(ball, robot);
+          if (ball.intaked) continue;
+          handleRobotCollision(ball, robot);
+        }
+      }
+    }
+  }
+
+  private void handleRobotCollision(SimBall ball, SimRobot robot) {
+    if (ball.pos.getZ() > robot.bumperHeight) return;
+    Pose2d robotPose = robot.pose;
+    Translation2d robotVel = robot.vel;
 
     Translation2d relPos =
         new Pose2d(ball.pos.toTranslation2d(), Rotation2d.kZero)
             .relativeTo(robotPose)
             .getTranslation();
 
-    double halfL = robotLength / 2.0 + BALL_RADIUS;
-    double halfW = robotWidth / 2.0 + BALL_RADIUS;
+    double halfL = robot.length / 2.0 + BALL_RADIUS;
+    double halfW = robot.width / 2.0 + BALL_RADIUS;
 
     if (relPos.getX() < -halfL
         || relPos.getX() > halfL
@@ -2034,10 +3175,11 @@ public class FuelPhysicsSim {
     }
   }
 
-  private void handleIntakePickup(SimBall ball, Pose2d robotPose) {
-    for (IntakeZone intake : intakes) {
-      if (intake.shouldIntake(ball, robotPose, bumperHeight)) {
+  private void handleIntakePickup(SimBall ball, SimRobot robot) {
+    for (IntakeZone intake : robot.intakes) {
+      if (intake.shouldIntake(ball, robot.pose, robot.bumperHeight)) {
         ball.intaked = true;
+        robot.intaked++;
         totalIntaked++;
         return;
       }
@@ -2165,20 +3307,33 @@ public class FuelPhysicsSim {
 
   /** Grab a contact from the pool (grows the pool if we run out). */
   private Contact allocateContact() {
-    if (contactPoolIndex >= contactPool.size()) {
-      Contact c = new Contact();
-      contactPool.add(c);
-      contactPoolIndex++;
-      return c;
-    }
-    return contactPool.get(contactPoolIndex++);
+    return mainContacts.allocate();
   }
 
   /** Clean up balls that got eaten by intakes or flew out of bounds. */
   private void removeFlaggedBalls() {
+    if (config.publishDelta && !keyframePending) {
+      for (int i = 0; i < balls.size(); i++) {
+        SimBall b = balls.get(i);
+        if (b.intaked || b.outOfBounds) recordRemoved(b.id);
+      }
+    }
     balls.removeIf(b -> b.intaked || b.outOfBounds);
   }
 
+  private void recordRemoved(int id) {
+    if (removedCount == removedIds.length) {
+      if (removedCount >= MAX_BALLS) {
+        // Not being published; the next keyframe resyncs clients anyway
+        keyframePending = true;
+        removedCount = 0;
+        return;
+      }
+      removedIds = Arrays.copyOf(removedIds, removedCount * 2);
+    }
+    removedIds[removedCount++] = id;
+  }
+
   // Trajectory prediction
 
   /**
@@ -2207,24 +3362,44 @@ public class FuelPhysicsSim {
 
   /** Push ball positions and sim stats to NetworkTables for visualization. */
   public void publishPositions() {
-    // All ball positions (for Field3d rendering)
-    Translation3d[] positions = new Translation3d[balls.size()];
-    for (int i = 0; i < balls.size(); i++) {
-      positions[i] = balls.get(i).pos;
+    publishSeq++;
+    boolean keyframe =
+        keyframePending || publishSeq % Math.max(1, config.publishKeyframeInterval) == 0;
+
+    // All ball positions (for Field3d rendering). Delta mode only sends them on keyframes.
+    if (!config.publishDelta || keyframe) {
+      if (positionBuf.length != balls.size()) positionBuf = new Translation3d[balls.size()];
+      for (int i = 0; i < balls.size(); i++) {
+        positionBuf[i] = balls.get(i).pos;
+      }
+      positionPublisher.set(positionBuf);
+    }
+    if (config.publishDelta) {
+      deltaLength = encodeDelta(keyframe);
+      deltaPublisher.set(deltaBuf, 0, deltaLength);
+      deltaBytesPub.set(deltaLength);
+    } else {
+      // Clients lose track while we're not sending deltas, so resync when they start again
+      keyframePending = true;
     }
-    positionPublisher.set(positions);
 
     // In-flight positions only (airborne balls, can render separately in Field3d)
-    List<Translation3d> inFlight = new ArrayList<>();
+    int inFlight = 0;
     int sleeping = 0;
-    for (SimBall b : balls) {
+    for (int i = 0; i < balls.size(); i++) {
+      SimBall b = balls.get(i);
       if (b.intaked || b.outOfBounds) continue;
-      if (b.pos.getZ() > BALL_RADIUS + 0.1) {
-        inFlight.add(b.pos);
-      }
+      if (b.pos.getZ() > BALL_RADIUS + 0.1) inFlight++;
       if (b.sleeping) sleeping++;
     }
-    inFlightPublisher.set(inFlight.toArray(new Translation3d[0]));
+    if (inFlightBuf.length != inFlight) inFlightBuf = new Translation3d[inFlight];
+    int n = 0;
+    for (int i = 0; i < balls.size() && n < inFlight; i++) {
+      SimBall b = balls.get(i);
+      if (b.intaked || b.outOfBounds) continue;
+      if (b.pos.getZ() > BALL_RADIUS + 0.1) inFlightBuf[n++] = b.pos;
+    }
+    inFlightPublisher.set(inFlightBuf);
 
     // Last shot arc (predicted trajectory visible in Field3d)
     lastShotArcPublisher.set(lastShotArc);
@@ -2239,8 +3414,62 @@ public class FuelPhysicsSim {
     sleepingBallsPub.set(sleeping);
     contactCountPub.set(contacts.size());
     physicsTimePub.set(lastPhysicsNanos / 1_000_000.0);
-    computeConservationQuantities();
-    totalEnergyPub.set(totalKE + totalPE);
+    lodBallsPub.set(lodBallCount);
+    lodSavedMsPub.set(lodSavedMs);
+    coarseBallsPub.set(coarseBallCount);
+    ballStepsPub.set(ballSteps);
+    if (config.conservationMonitor) {
+      computeConservationQuantities();
+      totalEnergyPub.set(totalKE + totalPE);
+    }
+  }
+
+  /**
+   * Pack the balls whose float position changed since they were last sent (every ball on a
+   * keyframe) plus the ids removed since the last frame into deltaBuf. Returns the length.
+   */
+  private int encodeDelta(boolean keyframe) {
+    int needed =
+        PositionDelta.HEADER_BYTES
+            + balls.size() * PositionDelta.BALL_BYTES
+            + (keyframe ? 0 : removedCount * 4);
+    if (deltaBuf.length < needed) {
+      deltaBuf = new byte[needed * 2];
+      deltaView = ByteBuffer.wrap(deltaBuf);
+    }
+    ByteBuffer buf = deltaView;
+    buf.clear();
+    buf.putInt(publishSeq);
+    buf.put((byte) (keyframe ? PositionDelta.FLAG_KEYFRAME : 0));
+    buf.putInt(0); // count, patched below
+    buf.putInt(keyframe ? 0 : removedCount);
+    int count = 0;
+    for (int i = 0; i < balls.size(); i++) {
+      SimBall b = balls.get(i);
+      float x = (float) b.pos.getX();
+      float y = (float) b.pos.getY();
+      float z = (float) b.pos.getZ();
+      if (!keyframe && x == b.sentX && y == b.sentY && z == b.sentZ) continue;
+      buf.putInt(b.id).putFloat(x).putFloat(y).putFloat(z);
+      b.sentX = x;
+      b.sentY = y;
+      b.sentZ = z;
+      count++;
+    }
+    if (!keyframe) {
+      for (int i = 0; i < removedCount; i++) {
+        buf.putInt(removedIds[i]);
+      }
+    }
+    buf.putInt(PositionDelta.HEADER_BYTES - 8, count);
+    removedCount = 0;
+    keyframePending = false;
+    return buf.position();
+  }
+
+  /** The last frame sent on the Delta topic, decoded. Null before the first one. */
+  PositionDelta getLastDelta() {
+    return deltaLength > 0 ? PositionDelta.decode(deltaBuf, deltaLength) : null;
   }
 
   public int getBallCount() {
@@ -2295,7 +3524,7 @@ public class FuelPhysicsSim {
   public void setConfig(PhysicsConfig config) {
     this.config = config;
     if (config.deterministic) {
-      this.rng = new Random(config.deterministicSeed);
+      this.rng = new SimRandom(config.deterministicSeed);
     }
   }
 
@@ -2303,7 +3532,7 @@ public class FuelPhysicsSim {
   public void setDeterministic(long seed) {
     config.deterministic = true;
     config.deterministicSeed = seed;
-    this.rng = new Random(seed);
+    this.rng = new SimRandom(seed);
   }
 
   // Translational + rotational KE
@@ -2334,6 +3563,24 @@ public class FuelPhysicsSim {
     return totalIntaked;
   }
 
+  /** Balls picked up by every robot on one alliance. */
+  public int getTotalIntaked(boolean blueAlliance) {
+    int count = 0;
+    for (SimRobot robot : robots) {
+      if (robot.blueAlliance == blueAlliance) count += robot.intaked;
+    }
+    return count;
+  }
+
+  /** Registered robots, including our own slot 0 once configureRobot or addRobot has run. */
+  public int getRobotCount() {
+    return robots.size();
+  }
+
+  public SimRobot getRobot(int index) {
+    return robots.get(index);
+  }
+
   public double getLastLaunchSpeed() {
     return lastLaunchSpeed;
   }
@@ -2359,6 +3606,36 @@ public class FuelPhysicsSim {
     return balls;
   }
 
+  /** Balls that stepped fewer times than config.subticks last tick (adaptive subticking). */
+  public int getCoarseBallCount() {
+    return coarseBallCount;
+  }
+
+  /** Ball integration steps taken last tick, summed over balls. Fixed subticking: awake * N. */
+  public int getBallSteps() {
+    return ballSteps;
+  }
+
+  /** Morton re-sorts that actually changed the ball order. */
+  public int getReorderCount() {
+    return reorders;
+  }
+
+  /** Balls that took the cheap LOD step last tick. */
+  public int getLodBallCount() {
+    return lodBallCount;
+  }
+
+  /** Estimated physics time the LOD scheduler saved last tick, ms. */
+  public double getLodSavedMs() {
+    return lodSavedMs;
+  }
+
+  /** Estimated physics time the LOD scheduler has saved since construction, ms. */
+  public double getLodSavedMsTotal() {
+    return lodSavedMsTotal;
+  }
+
   public int getSleepingBallCount() {
     int count = 0;
     for (SimBall ball : balls) {
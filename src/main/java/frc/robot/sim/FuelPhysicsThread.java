@@ -0,0 +1,414 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a FuelPhysicsSim on its own fixed-rate thread (250Hz, one step per tick, no subticking) so
+ * a heavy physics step with hundreds of balls can't push the robot loop past 20ms.
+ *
+ * <p>The loop and the physics thread only meet at four points:
+ *
+ * <ul>
+ *   <li>Robot pose, speeds and intake state go in through an immutable {@link Inputs} snapshot the
+ *       loop swaps in atomically each cycle with sampleInputs(). While the thread runs, every
+ *       robot's suppliers and intake zones read from that snapshot instead of the subsystems.
+ *   <li>Launches, spawns and clears go through submit() and run on the physics thread before its
+ *       next step.
+ *   <li>Ball state comes out through {@link State} buffers: the physics thread fills its back
+ *       buffer and trades it for the shared one with a single atomic swap, the loop trades its
+ *       front buffer for the shared one in latest(). A third buffer is what keeps it lock-free:
+ *       the writer never gets the buffer the reader holds, so neither side waits or tears.
+ *   <li>Intake pickups are counted on the physics thread and the callbacks run on the loop thread
+ *       in sampleInputs(), so SimFuelManager's held-ball count stays single-threaded.
+ * </ul>
+ *
+ * <p>Start it after every robot and intake zone is registered. Not for lockstep runs: the thread
+ * follows the wall clock, not the stepped sim clock.
+ */
+public class FuelPhysicsThread {
+  public static final double DEFAULT_RATE_HZ = 250.0;
+  private static final double ROBOT_PERIOD = 0.02;
+  private static final int MAX_CATCH_UP_STEPS = 5; // beyond this, drop sim time instead
+
+  /** What the loop hands the physics thread, one entry per registered robot. */
+  static final class Inputs {
+    final Pose2d[] poses;
+    final ChassisSpeeds[] speeds;
+    final boolean[] intakeActive; // one per intake zone, robot order then zone order
+
+    Inputs(Pose2d[] poses, ChassisSpeeds[] speeds, boolean[] intakeActive) {
+      this.poses = poses;
+      this.speeds = speeds;
+      this.intakeActive = intakeActive;
+    }
+  }
+
+  /** Ball positions and counters from one physics step. Only read it on the thread that got it. */
+  public static final class State {
+    float[] positions = new float[0]; // x, y, z per ball
+    int ballCount;
+    int ballsInFlight;
+    int totalLaunched;
+    int totalScored;
+    int totalIntaked;
+    int blueScore;
+    int redScore;
+    double lastLaunchSpeed;
+    double physicsMs;
+    int lodBalls;
+    double lodSavedMs;
+    double lodSavedMsTotal;
+    int coarseBalls;
+    int ballSteps;
+    long step;
+
+    /** Copy what the loop logs out of the sim. Reuses the position array when it fits. */
+    void capture(FuelPhysicsSim sim, double physicsMs, long step) {
+      List<FuelPhysicsSim.SimBall> balls = sim.getBalls();
+      int n = balls.size();
+      if (positions.length < n * 3) positions = new float[n * 3 + 96];
+      int inFlight = 0;
+      for (int i = 0; i < n; i++) {
+        FuelPhysicsSim.SimBall b = balls.get(i);
+        float z = (float) b.pos.getZ();
+        positions[i * 3] = (float) b.pos.getX();
+        positions[i * 3 + 1] = (float) b.pos.getY();
+        positions[i * 3 + 2] = z;
+        if (z > FuelPhysicsSim.getBallRadius() + 0.1) inFlight++;
+      }
+      ballCount = n;
+      ballsInFlight = inFlight;
+      totalLaunched = sim.getTotalLaunched();
+      totalScored = sim.getTotalScored();
+      totalIntaked = sim.getTotalIntaked();
+      blueScore = sim.getBlueScore();
+      redScore = sim.getRedScore();
+      lastLaunchSpeed = sim.getLastLaunchSpeed();
+      lodBalls = sim.getLodBallCount();
+      lodSavedMs = sim.getLodSavedMs();
+      lodSavedMsTotal = sim.getLodSavedMsTotal();
+      coarseBalls = sim.getCoarseBallCount();
+      ballSteps = sim.getBallSteps();
+      this.physicsMs = physicsMs;
+      this.step = step;
+    }
+
+    public int getBallCount() {
+      return ballCount;
+    }
+
+    public int getBallsInFlight() {
+      return ballsInFlight;
+    }
+
+    public int getBallsOnGround() {
+      return ballCount - ballsInFlight;
+    }
+
+    public float getX(int ball) {
+      return positions[ball * 3];
+    }
+
+    public float getY(int ball) {
+      return positions[ball * 3 + 1];
+    }
+
+    public float getZ(int ball) {
+      return positions[ball * 3 + 2];
+    }
+
+    public int getTotalLaunched() {
+      return totalLaunched;
+    }
+
+    public int getTotalScored() {
+      return totalScored;
+    }
+
+    public int getTotalIntaked() {
+      return totalIntaked;
+    }
+
+    public int getBlueScore() {
+      return blueScore;
+    }
+
+    public int getRedScore() {
+      return redScore;
+    }
+
+    public double getLastLaunchSpeed() {
+      return lastLaunchSpeed;
+    }
+
+    public double getPhysicsMs() {
+      return physicsMs;
+    }
+
+    public int getLodBallCount() {
+      return lodBalls;
+    }
+
+    public double getLodSavedMs() {
+      return lodSavedMs;
+    }
+
+    public double getLodSavedMsTotal() {
+      return lodSavedMsTotal;
+    }
+
+    public int getCoarseBallCount() {
+      return coarseBalls;
+    }
+
+    public int getBallSteps() {
+      return ballSteps;
+    }
+
+    /** Physics steps taken when this state was captured. */
+    public long getStep() {
+      return step;
+    }
+  }
+
+  private static final int FRESH = 4; // set on the shared index when the writer left a new state
+
+  private final FuelPhysicsSim sim;
+  private final double dt;
+  private final long periodNanos;
+
+  private final AtomicReference<Inputs> inputs = new AtomicReference<>();
+  private final ConcurrentLinkedQueue<Consumer<FuelPhysicsSim>> commands =
+      new ConcurrentLinkedQueue<>();
+  private final State[] buffers = {new State(), new State(), new State()};
+  private final AtomicInteger shared = new AtomicInteger(1);
+  private int backIndex = 0; // physics thread only
+  private int frontIndex = 2; // loop thread only
+
+  // The suppliers and intake zones the thread stands in for, restored by stop()
+  private final List<FuelPhysicsSim.SimRobot> robots = new ArrayList<>();
+  private final List<Supplier<Pose2d>> poseSources = new ArrayList<>();
+  private final List<Supplier<ChassisSpeeds>> speedSources = new ArrayList<>();
+  private final List<FuelPhysicsSim.IntakeZone> zones = new ArrayList<>();
+  private final List<BooleanSupplier> zoneActiveSources = new ArrayList<>();
+  private final List<Runnable> zoneCallbacks = new ArrayList<>();
+  private AtomicInteger[] pendingPickups = new AtomicInteger[0];
+  private FuelPhysicsSim.PhysicsConfig loopConfig;
+
+  private Thread thread;
+  private volatile boolean running = false;
+  private volatile long steps = 0;
+  private volatile long overruns = 0;
+  private volatile long stepFailures = 0;
+  private volatile String lastStepError = "";
+
+  public FuelPhysicsThread(FuelPhysicsSim sim) {
+    this(sim, DEFAULT_RATE_HZ);
+  }
+
+  public FuelPhysicsThread(FuelPhysicsSim sim, double rateHz) {
+    this.sim = sim;
+    this.dt = 1.0 / rateHz;
+    this.periodNanos = Math.round(1e9 / rateHz);
+  }
+
+  /** Hand the robots over to the snapshot and start stepping. */
+  public synchronized void start() {
+    if (running) return;
+    adoptRobots();
+    sampleInputs();
+
+    // The thread's steps are already fine-grained; publish at about the robot loop rate
+    loopConfig = sim.getConfig();
+    FuelPhysicsSim.PhysicsConfig cfg = loopConfig.copy();
+    cfg.subticks = 1;
+    cfg.adaptiveSubticks = false;
+    cfg.publishDivisor =
+        Math.max(1, (int) Math.round(ROBOT_PERIOD / dt)) * Math.max(1, cfg.publishDivisor);
+    sim.setConfig(cfg);
+
+    running = true;
+    thread = new Thread(this::run, "FuelPhysics");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Stop stepping, finish queued commands and give the robots their suppliers back. */
+  public synchronized void stop() {
+    if (!running) return;
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+    drainCommands();
+    sim.setConfig(loopConfig);
+    releaseRobots();
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Call once per robot loop: samples every robot's real pose, speeds and intake state into a new
+   * snapshot, and runs the intake callbacks for balls picked up since the last call.
+   */
+  public void sampleInputs() {
+    int n = robots.size();
+    Pose2d[] poses = new Pose2d[n];
+    ChassisSpeeds[] speeds = new ChassisSpeeds[n];
+    for (int r = 0; r < n; r++) {
+      poses[r] = poseSources.get(r).get();
+      speeds[r] = speedSources.get(r).get();
+    }
+    boolean[] active = new boolean[zones.size()];
+    for (int z = 0; z < active.length; z++) {
+      active[z] = zoneActiveSources.get(z).getAsBoolean();
+    }
+    inputs.set(new Inputs(poses, speeds, active));
+
+    for (int z = 0; z < pendingPickups.length; z++) {
+      for (int k = pendingPickups[z].getAndSet(0); k > 0; k--) {
+        zoneCallbacks.get(z).run();
+      }
+    }
+  }
+
+  /** Run this on the physics thread before its next step (launches, spawns, clears). */
+  public void submit(Consumer<FuelPhysicsSim> command) {
+    commands.add(command);
+  }
+
+  /**
+   * The newest state the physics thread has finished. The returned object stays valid and
+   * unchanged until the next call.
+   */
+  public State latest() {
+    if ((shared.get() & FRESH) != 0) {
+      frontIndex = shared.getAndSet(frontIndex) & 3;
+    }
+    return buffers[frontIndex];
+  }
+
+  public long getSteps() {
+    return steps;
+  }
+
+  /** Times the thread fell so far behind it dropped sim time instead of catching up. */
+  public long getOverruns() {
+    return overruns;
+  }
+
+  /** Steps that threw. The thread carries on from whatever state the failed step left. */
+  public long getStepFailures() {
+    return stepFailures;
+  }
+
+  /** Exception class of the most recent failed step, empty if none has failed. */
+  public String getLastStepError() {
+    return lastStepError;
+  }
+
+  private void run() {
+    long next = System.nanoTime();
+    while (running) {
+      guardedStep();
+      next += periodNanos;
+      long lag = System.nanoTime() - next;
+      if (lag > MAX_CATCH_UP_STEPS * periodNanos) {
+        next = System.nanoTime();
+        overruns++;
+      } else if (lag < 0) {
+        LockSupport.parkNanos(-lag);
+      }
+    }
+  }
+
+  /** step(), counting a failure instead of letting it kill the thread. */
+  void guardedStep() {
+    try {
+      step();
+    } catch (Throwable t) {
+      lastStepError = t.getClass().getSimpleName();
+      stepFailures++;
+    }
+  }
+
+  /** One physics step and state handoff. Package-private so tests can step without the clock. */
+  void step() {
+    drainCommands();
+    long t0 = System.nanoTime();
+    sim.tick(dt);
+    double physicsMs = (System.nanoTime() - t0) / 1e6;
+    long n = ++steps;
+
+    buffers[backIndex].capture(sim, physicsMs, n);
+    backIndex = shared.getAndSet(backIndex | FRESH) & 3;
+  }
+
+  private void drainCommands() {
+    Consumer<FuelPhysicsSim> command;
+    while ((command = commands.poll()) != null) {
+      command.accept(sim);
+    }
+  }
+
+  private void adoptRobots() {
+    for (int r = 0; r < sim.getRobotCount(); r++) {
+      FuelPhysicsSim.SimRobot robot = sim.getRobot(r);
+      if (!robot.isConfigured()) continue;
+      int index = robots.size();
+      robots.add(robot);
+      poseSources.add(robot.poseSupplier);
+      speedSources.add(robot.speedsSupplier);
+      robot.poseSupplier = () -> inputs.get().poses[index];
+      robot.speedsSupplier = () -> inputs.get().speeds[index];
+      for (FuelPhysicsSim.IntakeZone zone : robot.intakes) {
+        int z = zones.size();
+        zones.add(zone);
+        zoneActiveSources.add(zone.active);
+        zoneCallbacks.add(zone.callback);
+        zone.active = () -> inputs.get().intakeActive[z];
+      }
+    }
+    pendingPickups = new AtomicInteger[zones.size()];
+    for (int z = 0; z < pendingPickups.length; z++) {
+      AtomicInteger pending = new AtomicInteger();
+      pendingPickups[z] = pending;
+      zones.get(z).callback = pending::incrementAndGet;
+    }
+  }
+
+  private void releaseRobots() {
+    sampleInputs(); // last pickups
+    for (int r = 0; r < robots.size(); r++) {
+      robots.get(r).poseSupplier = poseSources.get(r);
+      robots.get(r).speedsSupplier = speedSources.get(r);
+    }
+    for (int z = 0; z < zones.size(); z++) {
+      zones.get(z).active = zoneActiveSources.get(z);
+      zones.get(z).callback = zoneCallbacks.get(z);
+    }
+    robots.clear();
+    poseSources.clear();
+    speedSources.clear();
+    zones.clear();
+    zoneActiveSources.clear();
+    zoneCallbacks.clear();
+    pendingPickups = new AtomicInteger[0];
+  }
+}
@@ -0,0 +1,96 @@
+package frc.robot.sim;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.telemetry.SafeLog;
+import frc.robot.util.InputTrace;
+import java.io.File;
+
+/**
+ * Replays a driver/copilot input trace recorded by InputRecorder on the real robot (or converted
+ * from a match WPILOG with InputTrace.main) through SimInputPlayback. DS mode follows the flags in
+ * the trace, so an auto + teleop recording runs auto then teleop just like the match did.
+ *
+ * <p>Run under lockstep to benchmark loop time and scoring against real driving instead of
+ * scripted inputs; the simMatrix summary picks up the numbers like any other scenario.
+ *
+ * <p>Launch: ./gradlew simulateJava -PsimLockstep=true -PsimScenario=InputReplay
+ * -PsimInputTrace=logs/inputs/inputs_practice_1760000000_1.trace
+ */
+public class InputReplayScenario implements SimScenario {
+  private static final double SETUP_DELAY = 1.0;
+  private static final double TAIL_SEC = 2.0; // let the last shots land before finishing
+
+  private final SimInputPlayback input = new SimInputPlayback();
+  private InputTrace trace = null;
+  private double startTime;
+  private int appliedFlags = -1;
+  private boolean finished = false;
+
+  @Override
+  public String getName() {
+    return "InputReplay";
+  }
+
+  @Override
+  public void init() {
+    finished = false;
+    appliedFlags = -1;
+    startTime = -1;
+    trace = null;
+
+    String path = System.getProperty("simInputTrace", "");
+    try {
+      if (!path.isEmpty()) trace = InputTrace.read(new File(path));
+    } catch (Throwable t) {
+      SafeLog.put("Sim/InputReplay/Error", String.valueOf(t.getMessage()));
+    }
+    if (trace == null || trace.getFrameCount() == 0) {
+      SafeLog.put("Sim/InputReplay/Error", path.isEmpty() ? "No -DsimInputTrace given" : path);
+      finished = true;
+      return;
+    }
+
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.setAutonomous(false);
+    DriverStationSim.setTest(false);
+    DriverStationSim.notifyNewData();
+    input.startTrace(trace);
+
+    SafeLog.put("Sim/InputReplay/Frames", trace.getFrameCount());
+    SafeLog.put("Sim/InputReplay/DurationSec", trace.getDurationSec());
+  }
+
+  @Override
+  public void execute(double timestampSec) {
+    if (finished) return;
+    if (startTime < 0) startTime = timestampSec + SETUP_DELAY;
+    double elapsed = timestampSec - startTime;
+    if (elapsed < 0) return;
+
+    int flags = input.playTrace(elapsed);
+    if (flags != appliedFlags && flags != 0) {
+      appliedFlags = flags;
+      DriverStationSim.setEnabled((flags & InputTrace.FLAG_ENABLED) != 0);
+      DriverStationSim.setAutonomous((flags & InputTrace.FLAG_AUTONOMOUS) != 0);
+      DriverStationSim.setTest((flags & InputTrace.FLAG_TEST) != 0);
+      DriverStationSim.notifyNewData();
+    }
+
+    SafeLog.put("Sim/InputReplay/ElapsedSec", elapsed);
+    SafeLog.put("Sim/InputReplay/FramesApplied", input.getTraceFramesApplied());
+
+    if (input.isTraceFinished() && elapsed > trace.getDurationSec() + TAIL_SEC) {
+      input.releaseAll();
+      DriverStationSim.setEnabled(false);
+      DriverStationSim.notifyNewData();
+      finished = true;
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    return finished;
+  }
+}
@@ -11,6 +11,7 @@ import frc.robot.telemetry.SafeLog;
 import frc.robot.util.TunableNumber;
 import java.util.List;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /** Wires SimDeviceManager shot detection to FuelPhysicsSim ball physics. */
@@ -24,10 +25,23 @@ public class SimFuelManager {
   private static final TunableNumber sleepingToggle =
       new TunableNumber("Sim/FuelSim/SleepingEnabled", 1);
   private static final TunableNumber ccdToggle = new TunableNumber("Sim/FuelSim/CCDEnabled", 1);
+  private static final TunableNumber lodToggle = new TunableNumber("Sim/FuelSim/LODEnabled", 1);
+  private static final TunableNumber adaptiveToggle =
+      new TunableNumber("Sim/FuelSim/AdaptiveSubticks", 1);
+  private static final TunableNumber publishDelta =
+      new TunableNumber("Sim/FuelSim/PublishDelta", 0);
+  private static final TunableNumber publishDivisor =
+      new TunableNumber("Sim/FuelSim/PublishDivisor", 1);
 
   private final FuelPhysicsSim sim;
   private boolean lastShotSignal = false;
 
+  // -DsimPhysicsThread=true: physics on its own 250Hz thread, the loop only reads its state
+  private boolean physicsThreadRequested = false;
+  private FuelPhysicsThread physicsThread = null;
+  private final FuelPhysicsThread.State syncState = new FuelPhysicsThread.State();
+  private long syncSteps = 0;
+
   // Ball tracking: how many balls the robot is currently holding.
   // Only enforced when intake is registered (otherwise shots fire freely for backward compat).
   private int ballsHeld = 0;
@@ -35,6 +49,7 @@ public class SimFuelManager {
   private static final int MAX_BALLS_HELD = 50;
   private static volatile boolean simBallPresent = true; // default true until intake is wired
   private boolean adaptiveShotSpeed = true; // true = always-score, false = real RPM physics
+  private boolean physicsPresetLocked = false;
 
   // Actual ball trail: tracks the in-flight ball's XY after each shot for "predicted vs actual"
   private static final int MAX_TRAIL_POINTS = 100;
@@ -94,6 +109,20 @@ public class SimFuelManager {
     sim.configureRobot(width, length, bumperHeight, poseSupplier, speedsSupplier);
   }
 
+  /**
+   * Add another robot (defender, alliance partner) that pushes balls around. Returns its index in
+   * the physics sim, for FuelPhysicsSim.addIntakeZone(robot, ...) if it should pick balls up too.
+   */
+  public int addRobot(
+      double width,
+      double length,
+      double bumperHeight,
+      Supplier<Pose2d> poseSupplier,
+      Supplier<ChassisSpeeds> speedsSupplier,
+      boolean blueAlliance) {
+    return sim.addRobot(width, length, bumperHeight, poseSupplier, speedsSupplier, blueAlliance);
+  }
+
   /** Register a bounding box where balls get picked up when the intake is running. */
   public void addIntakeZone(
       double xMin, double xMax, double yMin, double yMax, BooleanSupplier active) {
@@ -119,8 +148,15 @@ public class SimFuelManager {
 
       if (!isEnabled) return;
 
-      // Update feature flags from TunableNumbers
-      updateConfigFromTunables();
+      // Robots and intakes are all registered by the first update
+      if (physicsThreadRequested && physicsThread == null) {
+        startPhysicsThread(FuelPhysicsThread.DEFAULT_RATE_HZ);
+      }
+
+      // Update feature flags from TunableNumbers. The physics thread owns the config while it runs.
+      if (physicsThread == null) {
+        updateConfigFromTunables();
+      }
 
       // Detect rising edge of shot signal.
       // When intake is registered, require ballsHeld > 0 (realistic practice mode).
@@ -142,31 +178,57 @@ public class SimFuelManager {
       // Update static flag for ScoringTelemetry
       simBallPresent = !intakeRegistered || ballsHeld > 0;
 
-      // Run physics
+      // Run physics, or with the physics thread just hand it this cycle's inputs
       long startNs = System.nanoTime();
-      sim.tick();
+      FuelPhysicsThread.State state;
+      if (physicsThread != null) {
+        physicsThread.sampleInputs();
+        state = physicsThread.latest();
+      } else {
+        sim.tick();
+        state = syncState;
+        state.capture(sim, (System.nanoTime() - startNs) / 1_000_000.0, ++syncSteps);
+      }
       double elapsedMs = (System.nanoTime() - startNs) / 1_000_000.0;
 
       // Actual ball trail: track the highest in-flight ball each frame
       lastRobotPose = robotPose;
-      updateActualBallTrail();
+      updateActualBallTrail(state);
 
       // Log telemetry
-      SafeLog.put("Sim/Fuel/BallsInFlight", sim.getBallsInFlight());
-      SafeLog.put("Sim/Fuel/BallsOnGround", sim.getBallsOnGround());
-      SafeLog.put("Sim/Fuel/TotalLaunched", sim.getTotalLaunched());
-      SafeLog.put("Sim/Fuel/TotalScored", sim.getTotalScored());
-      SafeLog.put("Sim/Fuel/TotalIntaked", sim.getTotalIntaked());
+      SafeLog.put("Sim/Fuel/BallsInFlight", state.getBallsInFlight());
+      SafeLog.put("Sim/Fuel/BallsOnGround", state.getBallsOnGround());
+      SafeLog.put("Sim/Fuel/TotalLaunched", state.getTotalLaunched());
+      SafeLog.put("Sim/Fuel/TotalScored", state.getTotalScored());
+      SafeLog.put("Sim/Fuel/TotalIntaked", state.getTotalIntaked());
       SafeLog.put("Sim/Fuel/BallsHeld", ballsHeld);
-      SafeLog.put("Sim/Fuel/LastLaunchSpeedMps", sim.getLastLaunchSpeed());
-      SafeLog.put("Sim/Fuel/PhysicsStepMs", elapsedMs);
+      SafeLog.put("Sim/Fuel/LastLaunchSpeedMps", state.getLastLaunchSpeed());
+      SafeLog.put("Sim/Fuel/PhysicsStepMs", state.getPhysicsMs());
+      SafeLog.put("Sim/Fuel/LoopMs", elapsedMs);
+      SafeLog.put("Sim/Fuel/LOD/Balls", state.getLodBallCount());
+      SafeLog.put("Sim/Fuel/LOD/SavedMs", state.getLodSavedMs());
+      SafeLog.put("Sim/Fuel/LOD/SavedMsTotal", state.getLodSavedMsTotal());
+      SafeLog.put("Sim/Fuel/Adaptive/CoarseBalls", state.getCoarseBallCount());
+      SafeLog.put("Sim/Fuel/Adaptive/BallSteps", state.getBallSteps());
+      SafeLog.put("Sim/Fuel/Integrator", sim.getIntegratorName());
       SafeLog.put("Sim/Fuel/ActualBallTrail", actualBallTrail);
+      SafeLog.put("Sim/Fuel/Thread/Running", physicsThread != null);
+      if (physicsThread != null) {
+        SafeLog.put("Sim/Fuel/Thread/Steps", physicsThread.getSteps());
+        SafeLog.put("Sim/Fuel/Thread/Overruns", physicsThread.getOverruns());
+        long failures = physicsThread.getStepFailures();
+        SafeLog.put("Sim/Fuel/Thread/StepFailures", failures);
+        if (failures > 0) {
+          SafeLog.put("Health/CrashBarrier/FuelPhysics", true);
+          SafeLog.put("Health/CrashBarrier/FuelPhysicsError", physicsThread.getLastStepError());
+        }
+      }
 
       // Height diagnostics: count balls in Z ranges to identify floating balls
       int above05 = 0, above1 = 0, above2 = 0;
       double maxZ = 0;
-      for (var pos : sim.getBallPositions()) {
-        double z = pos.getZ();
+      for (int i = 0; i < state.getBallCount(); i++) {
+        double z = state.getZ(i);
         if (z > maxZ) maxZ = z;
         if (z > 0.5) above05++;
         if (z > 1.0) above1++;
@@ -187,9 +249,9 @@ public class SimFuelManager {
    * ball scores (gets removed by BallPhysicsSim), extend the trail to the hub center so you see the
    * full path. When the ball misses and lands, freeze the trail as-is.
    */
-  private void updateActualBallTrail() {
-    int totalLaunched = sim.getTotalLaunched();
-    int totalScored = sim.getTotalScored();
+  private void updateActualBallTrail(FuelPhysicsThread.State state) {
+    int totalLaunched = state.getTotalLaunched();
+    int totalScored = state.getTotalScored();
 
     // New shot fired: reset trail and start tracking
     if (totalLaunched > prevTotalLaunched) {
@@ -217,25 +279,25 @@ public class SimFuelManager {
     if (!trackingBall) return;
 
     // Find the highest-Z ball (most likely the one we just shot)
-    List<Translation3d> positions = sim.getBallPositions();
-    Translation3d highest = null;
+    int highest = -1;
     double maxZ = -1;
-    for (Translation3d pos : positions) {
-      if (pos.getZ() > maxZ) {
-        maxZ = pos.getZ();
-        highest = pos;
+    for (int i = 0; i < state.getBallCount(); i++) {
+      if (state.getZ(i) > maxZ) {
+        maxZ = state.getZ(i);
+        highest = i;
       }
     }
 
     // Record its XY if still in flight (Z > 0.3m, above ground resting height)
-    if (highest != null && maxZ > 0.3 && actualTrailCount < MAX_TRAIL_POINTS) {
+    if (highest >= 0 && maxZ > 0.3 && actualTrailCount < MAX_TRAIL_POINTS) {
+      double x = state.getX(highest);
+      double y = state.getY(highest);
       double dx = 0, dy = 0;
       if (actualTrailCount > 0) {
-        dx = highest.getX() - actualTrailBuffer[actualTrailCount - 1].getX();
-        dy = highest.getY() - actualTrailBuffer[actualTrailCount - 1].getY();
+        dx = x - actualTrailBuffer[actualTrailCount - 1].getX();
+        dy = y - actualTrailBuffer[actualTrailCount - 1].getY();
       }
-      actualTrailBuffer[actualTrailCount++] =
-          new Pose2d(highest.getX(), highest.getY(), new Rotation2d(Math.atan2(dy, dx)));
+      actualTrailBuffer[actualTrailCount++] = new Pose2d(x, y, new Rotation2d(Math.atan2(dy, dx)));
 
       // Build output array
       actualBallTrail = new Pose2d[actualTrailCount];
@@ -293,7 +355,7 @@ public class SimFuelManager {
     double vy = vHorizontal * Math.sin(robotYaw);
 
     Translation3d launchVel = new Translation3d(vx, vy, vVertical);
-    sim.launchBall(launchPos, launchVel, DEFAULT_SPIN_RPM);
+    withSim(fuel -> fuel.launchBall(launchPos, launchVel, DEFAULT_SPIN_RPM));
   }
 
   /** Launch a ball using raw RPM-to-speed conversion. For testing specific RPM values. */
@@ -309,16 +371,53 @@ public class SimFuelManager {
     double vy = vHorizontal * Math.sin(robotYaw);
 
     Translation3d launchVel = new Translation3d(vx, vy, vVertical);
-    sim.launchBall(launchPos, launchVel, DEFAULT_SPIN_RPM);
+    withSim(fuel -> fuel.launchBall(launchPos, launchVel, DEFAULT_SPIN_RPM));
+  }
+
+  /** Run now, or on the physics thread before its next step when that's running. */
+  private void withSim(Consumer<FuelPhysicsSim> action) {
+    if (physicsThread != null) {
+      physicsThread.submit(action);
+    } else {
+      action.accept(sim);
+    }
+  }
+
+  /**
+   * Move physics onto its own fixed-rate thread. Call after every robot and intake zone is
+   * registered; update() then only samples inputs and reads the thread's latest state.
+   */
+  public void startPhysicsThread(double rateHz) {
+    if (physicsThread != null) return;
+    physicsThread = new FuelPhysicsThread(sim, rateHz);
+    physicsThread.start();
+  }
+
+  /** Back to stepping physics inside update(). */
+  public void stopPhysicsThread() {
+    if (physicsThread == null) return;
+    physicsThread.stop();
+    physicsThread = null;
+  }
+
+  public boolean isPhysicsThreadRunning() {
+    return physicsThread != null;
   }
 
   private void updateConfigFromTunables() {
     FuelPhysicsSim.PhysicsConfig cfg = sim.getConfig();
+    // Publishing isn't physics, so it stays tunable under a preset
+    cfg.publishDelta = publishDelta.get() >= 0.5;
+    cfg.publishDivisor = Math.max(1, (int) publishDivisor.get());
+    // A preset from the command line is the whole point of that run, don't let tunables undo it
+    if (physicsPresetLocked) return;
     cfg.subticks = Math.max(1, (int) subticks.get());
     cfg.magnusEnabled = magnusToggle.get() >= 0.5;
     cfg.frictionEnabled = frictionToggle.get() >= 0.5;
     cfg.sleepingEnabled = sleepingToggle.get() >= 0.5;
     cfg.ccdEnabled = ccdToggle.get() >= 0.5;
+    cfg.lodEnabled = lodToggle.get() >= 0.5;
+    cfg.adaptiveSubticks = adaptiveToggle.get() >= 0.5;
   }
 
   /**
@@ -337,23 +436,90 @@ public class SimFuelManager {
     launchAdaptive(robotPose, robotYaw);
   }
 
+  /**
+   * Apply -DsimSeed, -DsimPhysics, -DsimPhysicsThread, -DsimPhysicsParallelism and -DsimVector from
+   * the command line (used by the simMatrix Gradle task). Call before placeFieldBalls() so the seed
+   * covers ball placement too.
+   */
+  public void applyCliConfig() {
+    String seed = System.getProperty("simSeed", "");
+    if (!seed.isEmpty()) {
+      sim.setDeterministic(Long.parseLong(seed));
+    }
+    // The thread runs on wall time, lockstep steps the clock faster than that
+    physicsThreadRequested = Boolean.getBoolean("simPhysicsThread") && !SimLockstep.isRequested();
+    // Stepping is bit-identical to serial, so this is safe under lockstep and seeded runs
+    sim.getConfig().parallelism = Math.max(1, Integer.getInteger("simPhysicsParallelism", 1));
+    // Falls back to the scalar batch if the Vector API integrator isn't in this build
+    sim.getConfig().vectorIntegrator = Boolean.getBoolean("simVector");
+    String preset = System.getProperty("simPhysics", "");
+    if (!preset.isEmpty() && !preset.equals("default")) {
+      applyPhysicsPreset(sim.getConfig(), preset);
+      physicsPresetLocked = true;
+    }
+  }
+
+  /** Everything -DsimPhysics accepts. */
+  static final List<String> PHYSICS_PRESETS = List.of("default", "full", "fast", "noSpin");
+
+  /**
+   * Throws, listing the valid names, if -DsimPhysics isn't a known preset. Robot calls this before
+   * any sim setup so a typo stops the run instead of quietly running with no fuel sim.
+   */
+  public static void checkCliPreset() {
+    String preset = System.getProperty("simPhysics", "");
+    if (!preset.isEmpty() && !PHYSICS_PRESETS.contains(preset)) {
+      throw new IllegalArgumentException(
+          "Unknown -DsimPhysics=" + preset + ", expected one of " + PHYSICS_PRESETS);
+    }
+  }
+
+  /**
+   * Named physics configs for comparing runs. "default" is whatever the tunables say, "full" is
+   * test fidelity (10 subticks, no LOD or adaptive subticks), "fast" trades accuracy for speed,
+   * "noSpin" turns off Magnus and spin transfer.
+   */
+  static void applyPhysicsPreset(FuelPhysicsSim.PhysicsConfig cfg, String preset) {
+    switch (preset) {
+      case "full" -> {
+        cfg.subticks = 10;
+        cfg.lodEnabled = false;
+        cfg.adaptiveSubticks = false;
+      }
+      case "fast" -> {
+        cfg.subticks = 2;
+        cfg.lodEnabled = true;
+        cfg.adaptiveSubticks = true;
+        cfg.solverIterations = 2;
+        cfg.ccdEnabled = false;
+      }
+      case "noSpin" -> {
+        cfg.magnusEnabled = false;
+        cfg.spinTransferEnabled = false;
+      }
+      default ->
+          throw new IllegalArgumentException(
+              "Unknown physics preset: " + preset + ", expected one of " + PHYSICS_PRESETS);
+    }
+  }
+
   public FuelPhysicsSim getSim() {
     return sim;
   }
 
   public void placeFieldBalls() {
-    sim.placeFieldBalls();
+    withSim(FuelPhysicsSim::placeFieldBalls);
   }
 
   public void enable() {
-    sim.enable();
+    withSim(FuelPhysicsSim::enable);
   }
 
   public void disable() {
-    sim.disable();
+    withSim(FuelPhysicsSim::disable);
   }
 
   public void clearBalls() {
-    sim.clearBalls();
+    withSim(FuelPhysicsSim::clearBalls);
   }
 }
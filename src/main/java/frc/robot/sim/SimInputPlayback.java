@@ -2,6 +2,7 @@ package frc.robot.sim;
 
 import edu.wpi.first.wpilibj.simulation.DriverStationSim;
 import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import frc.robot.util.InputTrace;
 
 /**
  * Deterministic Xbox controller input playback for simulation. Wraps XboxControllerSim(0) to match
@@ -19,6 +20,11 @@ public class SimInputPlayback {
   private final XboxControllerSim xbox;
   private final XboxControllerSim copilot;
 
+  // Recorded trace playback (InputRecorder files)
+  private InputTrace trace = null;
+  private int traceCursor = 0;
+  private int traceFlags = 0;
+
   public SimInputPlayback() {
     xbox = new XboxControllerSim(0);
     copilot = new XboxControllerSim(1);
@@ -158,6 +164,64 @@ public class SimInputPlayback {
     notifyDS();
   }
 
+  // === Recorded trace playback ===
+
+  /** Start playing a recorded trace from its first frame. Releases everything first. */
+  public void startTrace(InputTrace recorded) {
+    releaseAll();
+    trace = recorded;
+    traceCursor = 0;
+    traceFlags = 0;
+  }
+
+  /**
+   * Apply every frame due by elapsedSec (sim time since startTrace). Frames land on the first cycle
+   * at or after their timestamp, so with the same robot period the same frames hit the same cycle
+   * in both real-time and lockstep runs.
+   *
+   * @return mode flags (InputTrace.FLAG_*) of the latest frame applied, 0 before the first one
+   */
+  public int playTrace(double elapsedSec) {
+    if (trace == null) return 0;
+    int due = trace.advance(traceCursor, elapsedSec);
+    if (due == traceCursor) return traceFlags;
+    for (int f = traceCursor; f < due; f++) {
+      applyFrame(f);
+    }
+    traceCursor = due;
+    notifyDS();
+    return traceFlags;
+  }
+
+  public boolean isTraceFinished() {
+    return trace == null || traceCursor >= trace.getFrameCount();
+  }
+
+  public int getTraceFramesApplied() {
+    return traceCursor;
+  }
+
+  private void applyFrame(int f) {
+    int port = trace.getPort(f);
+    traceFlags = trace.getFlags(f);
+    XboxControllerSim pad = port == 0 ? xbox : copilot;
+    DriverStationSim.setJoystickButtons(port, trace.getButtons(f));
+    pad.setPOV(trace.getPov(f));
+    for (int a = 0; a < InputTrace.AXES; a++) {
+      pad.setRawAxis(a, trace.getAxis(f, a));
+    }
+    if (port == 0) {
+      // Drive sticks go through SimDriveOverride like scripted playback, RobotContainer adds it to
+      // the HAL axis, so zero the HAL copy to avoid doubling it
+      SimDriveOverride.setX(trace.getAxis(f, 0));
+      SimDriveOverride.setY(trace.getAxis(f, 1));
+      SimDriveOverride.setOmega(trace.getAxis(f, 4));
+      pad.setRawAxis(0, 0);
+      pad.setRawAxis(1, 0);
+      pad.setRawAxis(4, 0);
+    }
+  }
+
   private void notifyDS() {
     DriverStationSim.notifyNewData();
   }
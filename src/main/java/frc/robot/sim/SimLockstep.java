@@ -0,0 +1,90 @@
+package frc.robot.sim;
+
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Lockstep sim: pauses the HAL sim clock and steps it one robot period at a time as fast as the
+ * CPU allows. stepTiming() waits until every notifier (the robot loop included) is back to waiting
+ * before it advances, so each step is exactly one full robot cycle: robotPeriodic,
+ * simulationPeriodic (SimDeviceManager, SimFuelManager, scenarios) and the MapleSim drivetrain all
+ * see the same 20ms dt they would in real time, just without the sleep in between.
+ *
+ * <p>Everything that reads FPGA time sees sim time, so logs and scenario timelines are the same as
+ * a real-time run. Anything timed with FPGA time inside one cycle (tracer segments, loop time)
+ * reads zero because the clock doesn't move mid-cycle. Wall time per cycle is tracked here instead.
+ *
+ * <p>Launch: ./gradlew simulateJava -PsimLockstep=true -PsimScenario=RapidFire
+ */
+public final class SimLockstep {
+  private static volatile boolean running = false;
+  private static volatile long steps = 0;
+  private static volatile long startWallNs = 0;
+  private static volatile double lastStepWallMs = 0;
+  private static volatile double maxStepWallMs = 0;
+  private static double periodSec = 0.02;
+
+  private SimLockstep() {}
+
+  /** True when the sim was launched with -DsimLockstep=true. */
+  public static boolean isRequested() {
+    return Boolean.parseBoolean(System.getProperty("simLockstep", "false"));
+  }
+
+  public static boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Pause the sim clock and start stepping it from a daemon thread. Call once from
+   * simulationInit(), before the robot loop starts waiting on its notifier.
+   */
+  public static synchronized void start(double robotPeriodSec) {
+    if (running) return;
+    periodSec = robotPeriodSec;
+    SimHooks.pauseTiming();
+    running = true;
+    startWallNs = System.nanoTime();
+
+    Thread stepper = new Thread(SimLockstep::stepLoop, "SimLockstep");
+    stepper.setDaemon(true);
+    stepper.start();
+  }
+
+  /** Stop stepping and hand the clock back to real time. */
+  public static synchronized void stop() {
+    if (!running) return;
+    running = false;
+    SimHooks.resumeTiming();
+  }
+
+  private static void stepLoop() {
+    while (running) {
+      long t0 = System.nanoTime();
+      // Blocks until the robot loop has finished the cycle this step woke up
+      SimHooks.stepTiming(periodSec);
+      double ms = (System.nanoTime() - t0) / 1e6;
+      lastStepWallMs = ms;
+      if (ms > maxStepWallMs) maxStepWallMs = ms;
+      steps++;
+    }
+  }
+
+  public static long getSteps() {
+    return steps;
+  }
+
+  /** Sim seconds per wall second. 1.0 is real time. */
+  public static double getRealTimeFactor() {
+    double wallSec = (System.nanoTime() - startWallNs) / 1e9;
+    return wallSec > 0 ? steps * periodSec / wallSec : 0;
+  }
+
+  /** Wall time the last robot cycle took, ms. This is the loop time in lockstep mode. */
+  public static double getLastStepWallMs() {
+    return lastStepWallMs;
+  }
+
+  public static double getMaxStepWallMs() {
+    return maxStepWallMs;
+  }
+}
@@ -0,0 +1,137 @@
+package frc.robot.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+/**
+ * Per-run numbers for the simMatrix report: shots, scored, loop time distribution, overruns and
+ * crash-barrier trips. Loop times go into a fixed 0.1ms histogram so p99 costs nothing per cycle.
+ * Written as one flat JSON object when the run exits.
+ */
+public class SimRunSummary {
+  static final double BIN_MS = 0.1;
+  static final int BINS = 1000; // 0..100ms, everything above lands in the last bin
+  static final double OVERRUN_MS = 20.0;
+
+  private final String scenario;
+  private final String alliance;
+  private final String seed;
+  private final String physics;
+
+  private final int[] loopHistogram = new int[BINS];
+  private long cycles = 0;
+  private double maxLoopMs = 0;
+  private double totalLoopMs = 0;
+  private int overruns = 0;
+
+  private int crashBarrierTrips = 0;
+  private int shots = 0;
+  private int scored = 0;
+  private int blueScore = 0;
+  private int redScore = 0;
+  private int scenariosCompleted = 0;
+  private double simSeconds = 0;
+  private double wallSeconds = 0;
+
+  public SimRunSummary(String scenario, String alliance, String seed, String physics) {
+    this.scenario = scenario;
+    this.alliance = alliance;
+    this.seed = seed;
+    this.physics = physics;
+  }
+
+  /** Summary labelled from the -DsimScenario/-DsimAlliance/-DsimSeed/-DsimPhysics properties. */
+  public static SimRunSummary fromSystemProperties() {
+    return new SimRunSummary(
+        System.getProperty("simScenario", ""),
+        System.getProperty("simAlliance", ""),
+        System.getProperty("simSeed", ""),
+        System.getProperty("simPhysics", "default"));
+  }
+
+  public void recordLoop(double loopMs) {
+    cycles++;
+    totalLoopMs += loopMs;
+    if (loopMs > maxLoopMs) maxLoopMs = loopMs;
+    if (loopMs > OVERRUN_MS) overruns++;
+    int bin = (int) (loopMs / BIN_MS);
+    loopHistogram[Math.max(0, Math.min(BINS - 1, bin))]++;
+  }
+
+  /** Latest cumulative counters. Totals, not deltas, so this can be called every cycle. */
+  public void setCounters(
+      int crashBarrierTrips, int shots, int scored, int blueScore, int redScore, int completed) {
+    this.crashBarrierTrips = crashBarrierTrips;
+    this.shots = shots;
+    this.scored = scored;
+    this.blueScore = blueScore;
+    this.redScore = redScore;
+    this.scenariosCompleted = completed;
+  }
+
+  public void setElapsed(double simSeconds, double wallSeconds) {
+    this.simSeconds = simSeconds;
+    this.wallSeconds = wallSeconds;
+  }
+
+  /** Loop time at percentile p (0-100), upper edge of the histogram bin. */
+  public double loopPercentileMs(double p) {
+    if (cycles == 0) return 0;
+    long target = (long) Math.ceil(cycles * p / 100.0);
+    long seen = 0;
+    for (int i = 0; i < BINS; i++) {
+      seen += loopHistogram[i];
+      if (seen >= target) return (i + 1) * BIN_MS;
+    }
+    return BINS * BIN_MS;
+  }
+
+  public long getCycles() {
+    return cycles;
+  }
+
+  public int getOverruns() {
+    return overruns;
+  }
+
+  public String toJson() {
+    return String.format(
+        Locale.ROOT,
+        "{\"scenario\":\"%s\",\"alliance\":\"%s\",\"seed\":\"%s\",\"physics\":\"%s\","
+            + "\"scenariosCompleted\":%d,\"cycles\":%d,\"simSeconds\":%.3f,\"wallSeconds\":%.3f,"
+            + "\"shots\":%d,\"scored\":%d,\"blueScore\":%d,\"redScore\":%d,"
+            + "\"loopMeanMs\":%.3f,\"loopP50Ms\":%.1f,\"loopP99Ms\":%.1f,\"loopMaxMs\":%.3f,"
+            + "\"overruns\":%d,\"crashBarrierTrips\":%d}",
+        escape(scenario),
+        escape(alliance),
+        escape(seed),
+        escape(physics),
+        scenariosCompleted,
+        cycles,
+        simSeconds,
+        wallSeconds,
+        shots,
+        scored,
+        blueScore,
+        redScore,
+        cycles > 0 ? totalLoopMs / cycles : 0,
+        loopPercentileMs(50),
+        loopPercentileMs(99),
+        maxLoopMs,
+        overruns,
+        crashBarrierTrips);
+  }
+
+  public void write(File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null) parent.mkdirs();
+    Files.writeString(file.toPath(), toJson() + "\n", StandardCharsets.UTF_8);
+  }
+
+  private static String escape(String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
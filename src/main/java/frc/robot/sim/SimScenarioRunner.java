@@ -1,18 +1,41 @@
 package frc.robot.sim;
 
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Robot;
 import frc.robot.telemetry.SafeLog;
-import java.util.HashMap;
+import frc.robot.telemetry.TelemetryManager;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import org.littletonrobotics.junction.Logger;
 
 public class SimScenarioRunner {
-  private final Map<String, SimScenario> scenarios = new HashMap<>();
+  private final Map<String, SimScenario> scenarios = new LinkedHashMap<>();
   private SimScenario activeScenario = null;
   private String lastRequestedScenario = "";
   private final boolean cliLaunched;
   private int exitDelayCycles = -1; // countdown after CLI scenario finishes
 
+  // CLI queue for -DsimScenario=all or a comma list, run back to back
+  private final ArrayDeque<String> cliQueue = new ArrayDeque<>();
+  private int nextScenarioDelayCycles = -1;
+  private int completedCount = 0;
+  private static final int BETWEEN_SCENARIO_CYCLES = 50; // 1s disabled between queued scenarios
+
+  // simMatrix run parameters and per-run summary
+  private final AllianceStationID allianceOverride;
+  private final SimRunSummary summary = SimRunSummary.fromSystemProperties();
+  private final String summaryPath = System.getProperty("simSummary", "");
+  private final long startWallNs = System.nanoTime();
+  private final double startSimSec = Timer.getFPGATimestamp();
+  private FuelPhysicsSim fuelSim = null;
+
   public SimScenarioRunner() {
     register(new CompetitionMatchScenario());
     register(new SubsystemSuiteScenario());
@@ -24,17 +47,36 @@ public class SimScenarioRunner {
     register(new AMDAShowcaseScenario());
     register(new SignalCoverageScenario());
     register(new HubShiftPracticeScenario());
+    register(new InputReplayScenario());
 
-    // CLI support: -DsimScenario=SignalCoverage
+    // CLI support: -DsimScenario=SignalCoverage, -DsimScenario=RapidFire,Brownout, or all
     String cliScenario = System.getProperty("simScenario", "");
     cliLaunched = !cliScenario.isEmpty();
-    if (cliLaunched) {
-      SmartDashboard.putString("Sim/RunScenario", cliScenario);
+    if (cliScenario.equalsIgnoreCase("all")) {
+      cliQueue.addAll(scenarios.keySet());
     } else {
-      SmartDashboard.putString("Sim/RunScenario", "");
+      for (String name : cliScenario.split(",")) {
+        if (!name.isBlank()) cliQueue.add(name.trim());
+      }
+    }
+    String first = cliQueue.poll();
+    SmartDashboard.putString("Sim/RunScenario", first != null ? first : "");
+
+    String alliance = System.getProperty("simAlliance", "");
+    if (alliance.equalsIgnoreCase("Red")) {
+      allianceOverride = AllianceStationID.Red1;
+    } else if (alliance.equalsIgnoreCase("Blue")) {
+      allianceOverride = AllianceStationID.Blue1;
+    } else {
+      allianceOverride = null;
     }
   }
 
+  /** Fuel sim to read shots/scored from for the run summary. */
+  public void setFuelSim(FuelPhysicsSim sim) {
+    this.fuelSim = sim;
+  }
+
   private void register(SimScenario scenario) {
     scenarios.put(scenario.getName(), scenario);
   }
@@ -49,13 +91,48 @@ public class SimScenarioRunner {
         activeScenario = scenarios.get(requested);
         if (activeScenario != null) {
           activeScenario.init();
+          // Scenarios pick their own alliance in init(), the matrix overrides it afterwards
+          if (allianceOverride != null) {
+            DriverStationSim.setAllianceStationId(allianceOverride);
+            DriverStationSim.notifyNewData();
+          }
+        } else if (cliLaunched && !requested.isEmpty()) {
+          // Typo on the command line shouldn't leave a headless run hanging forever
+          SafeLog.put("Sim/ScenarioRunner/Error", "Unknown scenario: " + requested);
+          if (!cliQueue.isEmpty()) {
+            nextScenarioDelayCycles = 0;
+          } else {
+            exitDelayCycles = 250;
+          }
         }
       }
 
+      if (SimLockstep.isRunning()) {
+        SafeLog.put("Sim/Lockstep/RealTimeFactor", SimLockstep.getRealTimeFactor());
+        SafeLog.put("Sim/Lockstep/StepWallMs", SimLockstep.getLastStepWallMs());
+      }
+      if (cliLaunched) {
+        recordSummary();
+      }
+
+      // Queued CLI scenarios: short disabled gap, then start the next one
+      if (nextScenarioDelayCycles >= 0) {
+        nextScenarioDelayCycles--;
+        if (nextScenarioDelayCycles < 0) {
+          SmartDashboard.putString("Sim/RunScenario", cliQueue.poll());
+        }
+        return;
+      }
+
       // Auto-exit: after CLI scenario completes, wait 5s for log flush then exit
       if (cliLaunched && exitDelayCycles >= 0) {
         exitDelayCycles--;
         if (exitDelayCycles == 0) {
+          // CI greps for this line
+          DriverStation.reportWarning("Sim scenarios completed: " + completedCount, false);
+          writeSummary();
+          // In lockstep those 5s go by in a blink, so make sure the log is actually flushed
+          Logger.end();
           System.exit(0);
         }
         return;
@@ -66,7 +143,11 @@ public class SimScenarioRunner {
           SafeLog.put("Sim/ScenarioActive", false);
           SafeLog.put("Sim/ScenarioName", "COMPLETED: " + activeScenario.getName());
           activeScenario = null;
-          if (cliLaunched) {
+          completedCount++;
+          SafeLog.put("Sim/ScenariosCompleted", completedCount);
+          if (cliLaunched && !cliQueue.isEmpty()) {
+            nextScenarioDelayCycles = BETWEEN_SCENARIO_CYCLES;
+          } else if (cliLaunched) {
             exitDelayCycles = 250; // ~5s at 50Hz for log flush
           }
         } else {
@@ -82,4 +163,35 @@ public class SimScenarioRunner {
       SafeLog.put("Sim/ScenarioRunner/Error", e.getClass().getSimpleName());
     }
   }
+
+  private void recordSummary() {
+    // In lockstep FPGA time stands still inside a cycle, so wall time per step is the loop time
+    double loopMs =
+        SimLockstep.isRunning()
+            ? SimLockstep.getLastStepWallMs()
+            : TelemetryManager.getInstance().getLoopTimeMs();
+    summary.recordLoop(loopMs);
+    if (fuelSim != null) {
+      summary.setCounters(
+          Robot.getCrashBarrierTrips(),
+          fuelSim.getTotalLaunched(),
+          fuelSim.getTotalScored(),
+          fuelSim.getBlueScore(),
+          fuelSim.getRedScore(),
+          completedCount);
+    } else {
+      summary.setCounters(Robot.getCrashBarrierTrips(), 0, 0, 0, 0, completedCount);
+    }
+  }
+
+  private void writeSummary() {
+    if (summaryPath.isEmpty()) return;
+    summary.setElapsed(
+        Timer.getFPGATimestamp() - startSimSec, (System.nanoTime() - startWallNs) / 1e9);
+    try {
+      summary.write(new File(summaryPath));
+    } catch (IOException e) {
+      DriverStation.reportWarning("Sim summary write failed: " + e.getMessage(), false);
+    }
+  }
 }
@@ -3,6 +3,7 @@ package frc.robot.subsystems;
 import com.ctre.phoenix6.controls.VelocityVoltage;
 import frc.robot.Constants;
 import frc.robot.Constants.JamProtectionConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.JamProtection;
 import frc.robot.util.TunableNumber;
 
@@ -78,6 +79,7 @@ public class Agitator extends TalonActuator {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     try {
       TunableNumber.ifChanged(
           () -> updatePID(kP.get(), kI.get(), kD.get(), kF.get()), kP, kI, kD, kF);
@@ -92,6 +94,7 @@ public class Agitator extends TalonActuator {
     } catch (Throwable t) {
       // CAN failure degrades jam detection, never kills drive control
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   public boolean isRunning() {
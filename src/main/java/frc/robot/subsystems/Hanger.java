@@ -2,6 +2,7 @@ package frc.robot.subsystems;
 
 import frc.robot.Constants;
 import frc.robot.Constants.HangerConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.TunableNumber;
 
 public class Hanger extends MaxActuator {
@@ -32,11 +33,13 @@ public class Hanger extends MaxActuator {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     try {
       TunableNumber.ifChanged(() -> updatePID(kP.get(), 0, kD.get(), 0), kP, kD);
     } catch (Throwable t) {
       // CAN fault during PID update must not kill scheduler
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   @Override
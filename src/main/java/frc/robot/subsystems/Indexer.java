@@ -7,6 +7,7 @@ import com.revrobotics.spark.config.SparkFlexConfig;
 import frc.robot.Constants;
 import frc.robot.Constants.IndexerConstants;
 import frc.robot.Constants.JamProtectionConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.JamProtection;
 import frc.robot.util.TunableNumber;
 
@@ -88,6 +89,7 @@ public class Indexer extends FlexActuator {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     try {
       TunableNumber.ifChanged(
           () -> updatePID(kP.get(), kI.get(), kD.get(), kF.get()), kP, kI, kD, kF);
@@ -102,6 +104,7 @@ public class Indexer extends FlexActuator {
     } catch (Throwable t) {
       // CAN failure degrades jam detection, never kills drive control
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   public JamProtection getJamProtection() {
@@ -2,6 +2,7 @@ package frc.robot.subsystems;
 
 import frc.robot.Constants;
 import frc.robot.Constants.IntakePivotConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.TunableNumber;
 
 public class IntakePivot extends TalonActuator {
@@ -98,12 +99,14 @@ public class IntakePivot extends TalonActuator {
   }
 
   public void periodic() {
+    long start = System.nanoTime();
     try {
       TunableNumber.ifChanged(
           () -> updatePID(kP.get(), kI.get(), kD.get(), kF.get()), kP, kI, kD, kF);
     } catch (Throwable t) {
       // CAN fault during PID update must not kill scheduler
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   public static IntakePivot getInstance() {
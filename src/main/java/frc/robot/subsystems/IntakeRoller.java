@@ -7,6 +7,7 @@ import com.revrobotics.spark.config.SparkFlexConfig;
 import frc.robot.Constants;
 import frc.robot.Constants.JamProtectionConstants;
 import frc.robot.Constants.MotorConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.JamProtection;
 import frc.robot.util.TunableNumber;
 
@@ -57,6 +58,7 @@ public class IntakeRoller extends FlexActuator {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     // JamProtection detects and reports only. It never overrides the motor.
     // Telemetry reads the state; the driver decides what to do about it.
     try {
@@ -64,6 +66,7 @@ public class IntakeRoller extends FlexActuator {
     } catch (Throwable t) {
       // CAN failure degrades jam detection, never kills drive control
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   public JamProtection getJamProtection() {
@@ -10,6 +10,7 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import edu.wpi.first.math.filter.SlewRateLimiter;
 import frc.robot.Constants;
 import frc.robot.Constants.ShooterConstants;
+import frc.robot.telemetry.ExecutionProfiler;
 import frc.robot.util.TunableNumber;
 
 public class Shooter extends MaxActuator {
@@ -86,12 +87,14 @@ public class Shooter extends MaxActuator {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     try {
       TunableNumber.ifChanged(
           () -> updatePID(kP.get(), kI.get(), kD.get(), kF.get()), kP, kI, kD, kF);
     } catch (Throwable t) {
       // CAN fault during PID update must not kill scheduler
     }
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   public void move(double speed) {
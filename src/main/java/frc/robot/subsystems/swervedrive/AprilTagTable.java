@@ -0,0 +1,223 @@
+package frc.robot.subsystems.swervedrive;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.util.FieldGeometry;
+import java.util.Arrays;
+
+/**
+ * Every tag on the field, worked out once from the {@link AprilTagFieldLayout}. The layout hands
+ * back a fresh Optional per getTagPose() call and callers convert to Pose2d every time; this keeps
+ * the 3D and 2D poses, the facing direction, alliance and hub per tag id in plain arrays.
+ *
+ * <p>A coarse grid over the field answers "which tags face this spot" and "which hub tag is
+ * closest" with one array read. Everything is final after construction, so the table is safe to
+ * share between the vision loop, commands and telemetry.
+ */
+public final class AprilTagTable {
+
+  /** Grid cell size for the spatial index. */
+  public static final double CELL_M = 0.5;
+
+  /** Tags farther than this from a cell don't count as visible from it. */
+  public static final double VISIBLE_RANGE_M = 6.0;
+
+  /** Tags this close to a hub center are on that hub. */
+  public static final double HUB_TAG_RADIUS_M = FieldGeometry.Hub.BASE_SIDE_M;
+
+  /** hubOf() for tags that aren't on a hub. */
+  public static final int NO_HUB = 0;
+
+  public static final int BLUE_HUB = 1;
+  public static final int RED_HUB = 2;
+
+  // 2026 REBUILT: blue tags 1-16, red tags 17-32
+  private static final int BLUE_TAG_MAX = 16;
+
+  // Visible sets are one long per cell
+  private static final int MAX_INDEXED_ID = 63;
+
+  private final int maxId;
+  private final Pose3d[] pose;
+  private final Pose2d[] pose2d;
+  private final double[] x;
+  private final double[] y;
+  private final double[] normalX;
+  private final double[] normalY;
+  private final int[] hub;
+  private final int[] ids;
+
+  private final int columns;
+  private final int rows;
+  private final long[] visible;
+  private final byte[] nearestBlueHubTag;
+  private final byte[] nearestRedHubTag;
+
+  public AprilTagTable(AprilTagFieldLayout layout) {
+    int max = 0;
+    for (AprilTag tag : layout.getTags()) max = Math.max(max, tag.ID);
+    if (max > MAX_INDEXED_ID) {
+      throw new IllegalArgumentException("Tag id " + max + " is too big for the visible-tag index");
+    }
+    maxId = max;
+    pose = new Pose3d[max + 1];
+    pose2d = new Pose2d[max + 1];
+    x = new double[max + 1];
+    y = new double[max + 1];
+    normalX = new double[max + 1];
+    normalY = new double[max + 1];
+    hub = new int[max + 1];
+
+    int count = 0;
+    for (AprilTag tag : layout.getTags()) {
+      if (tag.ID < 0 || pose[tag.ID] != null) continue;
+      count++;
+      pose[tag.ID] = tag.pose;
+      pose2d[tag.ID] = tag.pose.toPose2d();
+      x[tag.ID] = tag.pose.getX();
+      y[tag.ID] = tag.pose.getY();
+      double yaw = tag.pose.getRotation().getZ();
+      normalX[tag.ID] = Math.cos(yaw);
+      normalY[tag.ID] = Math.sin(yaw);
+      hub[tag.ID] = hubNear(x[tag.ID], y[tag.ID]);
+    }
+    ids = new int[count];
+    for (int id = 0, k = 0; id <= max; id++) {
+      if (pose[id] != null) ids[k++] = id;
+    }
+
+    columns = (int) Math.ceil(FieldGeometry.FIELD_LENGTH_M / CELL_M);
+    rows = (int) Math.ceil(FieldGeometry.FIELD_WIDTH_M / CELL_M);
+    visible = new long[columns * rows];
+    nearestBlueHubTag = new byte[columns * rows];
+    nearestRedHubTag = new byte[columns * rows];
+    Arrays.fill(nearestBlueHubTag, (byte) -1);
+    Arrays.fill(nearestRedHubTag, (byte) -1);
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < columns; col++) {
+        indexCell(row * columns + col, (col + 0.5) * CELL_M, (row + 0.5) * CELL_M);
+      }
+    }
+  }
+
+  private static int hubNear(double tagX, double tagY) {
+    if (FieldGeometry.Hub.BLUE_CENTER.getDistance(new Translation2d(tagX, tagY))
+        <= HUB_TAG_RADIUS_M) {
+      return BLUE_HUB;
+    }
+    if (FieldGeometry.Hub.RED_CENTER.getDistance(new Translation2d(tagX, tagY))
+        <= HUB_TAG_RADIUS_M) {
+      return RED_HUB;
+    }
+    return NO_HUB;
+  }
+
+  private void indexCell(int cell, double cellX, double cellY) {
+    double bestBlue = Double.POSITIVE_INFINITY;
+    double bestRed = Double.POSITIVE_INFINITY;
+    for (int id : ids) {
+      if (!faces(id, cellX, cellY)) continue;
+      double d = Math.hypot(cellX - x[id], cellY - y[id]);
+      if (d > VISIBLE_RANGE_M) continue;
+      visible[cell] |= 1L << id;
+      if (hub[id] == BLUE_HUB && d < bestBlue) {
+        bestBlue = d;
+        nearestBlueHubTag[cell] = (byte) id;
+      } else if (hub[id] == RED_HUB && d < bestRed) {
+        bestRed = d;
+        nearestRedHubTag[cell] = (byte) id;
+      }
+    }
+  }
+
+  /** True if the point is on the printed side of the tag. */
+  public boolean faces(int id, double fieldX, double fieldY) {
+    return contains(id) && distanceInFront(id, fieldX, fieldY) > 0;
+  }
+
+  /** Signed distance from the tag's plane to the point, positive on the printed side. */
+  public double distanceInFront(int id, double fieldX, double fieldY) {
+    return normalX[id] * (fieldX - x[id]) + normalY[id] * (fieldY - y[id]);
+  }
+
+  /** True if the layout has this tag. */
+  public boolean contains(int id) {
+    return id >= 0 && id <= maxId && pose[id] != null;
+  }
+
+  /** Every tag id in the layout, ascending. Don't modify. */
+  public int[] getIds() {
+    return ids;
+  }
+
+  /** The tag's field pose, or null if the layout doesn't have it. */
+  public Pose3d getPose(int id) {
+    return contains(id) ? pose[id] : null;
+  }
+
+  /** The tag's field pose on the carpet, or null if the layout doesn't have it. */
+  public Pose2d getPose2d(int id) {
+    return contains(id) ? pose2d[id] : null;
+  }
+
+  public double getX(int id) {
+    return x[id];
+  }
+
+  public double getY(int id) {
+    return y[id];
+  }
+
+  /** Unit vector the tag faces, X component. */
+  public double getNormalX(int id) {
+    return normalX[id];
+  }
+
+  /** Unit vector the tag faces, Y component. */
+  public double getNormalY(int id) {
+    return normalY[id];
+  }
+
+  /** Straight-line distance on the carpet from a point to the tag. */
+  public double distance(int id, double fieldX, double fieldY) {
+    return Math.hypot(fieldX - x[id], fieldY - y[id]);
+  }
+
+  /** Which alliance the tag belongs to. Works for ids outside the layout too. */
+  public static boolean isBlueTag(int id) {
+    return id <= BLUE_TAG_MAX;
+  }
+
+  /** BLUE_HUB, RED_HUB or NO_HUB. */
+  public int hubOf(int id) {
+    return contains(id) ? hub[id] : NO_HUB;
+  }
+
+  /**
+   * Tags facing the grid cell under this point and within VISIBLE_RANGE_M of its center, as a bit
+   * per id. Points off the field use the nearest edge cell. Walls and robots aren't considered.
+   */
+  public long visibleFrom(double fieldX, double fieldY) {
+    return visible[cellOf(fieldX, fieldY)];
+  }
+
+  /** True if the tag is in visibleFrom() for this point. */
+  public boolean isVisibleFrom(int id, double fieldX, double fieldY) {
+    return id >= 0 && id <= MAX_INDEXED_ID && (visibleFrom(fieldX, fieldY) & (1L << id)) != 0;
+  }
+
+  /** The closest hub tag visible from this point's cell, or -1 if none of them are. */
+  public int nearestHubTag(double fieldX, double fieldY, boolean blueHub) {
+    int cell = cellOf(fieldX, fieldY);
+    return blueHub ? nearestBlueHubTag[cell] : nearestRedHubTag[cell];
+  }
+
+  private int cellOf(double fieldX, double fieldY) {
+    int col = Math.max(0, Math.min(columns - 1, (int) Math.floor(fieldX / CELL_M)));
+    int row = Math.max(0, Math.min(rows - 1, (int) Math.floor(fieldY / CELL_M)));
+    return row * columns + col;
+  }
+}
@@ -33,6 +33,7 @@ import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Cameras;
 import frc.robot.Constants;
+import frc.robot.telemetry.ExecutionProfiler;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
@@ -138,6 +139,7 @@ public class SwerveSubsystem extends SubsystemBase {
 
   @Override
   public void periodic() {
+    long start = System.nanoTime();
     // When vision is enabled we must manually update odometry in SwerveDrive
     if (visionDriveTest) {
       swerveDrive.updateOdometry();
@@ -153,6 +155,7 @@ public class SwerveSubsystem extends SubsystemBase {
       }
     }
     // Drive telemetry now handled by DriveTelemetry class
+    ExecutionProfiler.periodics().recordSince(this, start);
   }
 
   @Override
@@ -10,6 +10,7 @@ import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform2d;
 import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
@@ -27,7 +28,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 import org.photonvision.EstimatedRobotPose;
-import org.photonvision.PhotonUtils;
 import org.photonvision.simulation.VisionSystemSim;
 import org.photonvision.targeting.PhotonPipelineResult;
 import org.photonvision.targeting.PhotonTrackedTarget;
@@ -43,6 +43,12 @@ public class Vision {
   public static final AprilTagFieldLayout fieldLayout =
       AprilTagFieldLayout.loadField(AprilTagFields.k2026RebuiltAndymark);
 
+  /** Tag poses and the visible-tag index, built once from {@link #fieldLayout}. */
+  public static final AprilTagTable tagTable = new AprilTagTable(fieldLayout);
+
+  /** How far behind a tag's plane getbestCamera() still trusts a camera that reports it. */
+  private static final double BEHIND_TAG_MARGIN_M = 0.5;
+
   /** Ambiguity defined as a value between (0,1). Used in {@link Vision#filterPose}. */
   private final double maximumAmbiguity = 0.25;
 
@@ -69,7 +75,6 @@ public class Vision {
   private boolean lastHasTarget = false;
 
   // Vision filtering stats (read by VisionTelemetry)
-  private double autoStartTimestamp = 0;
   private int acceptedCount = 0;
   private int rejectedCount = 0;
   private int[] rejectionsByGate = new int[RejectionReason.values().length];
@@ -78,6 +83,22 @@ public class Vision {
   private double blendWeight = 0;
   private boolean manualOverride = false;
 
+  // values() copies the array on every call; the pose loop runs every cycle
+  private static final Cameras[] CAMERAS = Cameras.values();
+
+  // Filter scratch per camera, indexed by ordinal
+  private final VisionFilter.Evaluation[] evaluations =
+      new VisionFilter.Evaluation[CAMERAS.length];
+
+  // This loop's estimate per camera, indexed by ordinal
+  private final EstimatedRobotPose[] estimates = new EstimatedRobotPose[CAMERAS.length];
+
+  /** Where accepted measurements go. SwerveDrive::addVisionMeasurement on the robot. */
+  @FunctionalInterface
+  public interface MeasurementSink {
+    void addVisionMeasurement(Pose2d pose, double timestampSec, Matrix<N3, N1> stdDevs);
+  }
+
   /**
    * Constructor for the Vision class.
    *
@@ -87,6 +108,10 @@ public class Vision {
   public Vision(Supplier<Pose2d> currentPose, Field2d field) {
     this.currentPose = currentPose;
     this.field2d = field;
+    for (Cameras c : CAMERAS) {
+      evaluations[c.ordinal()] =
+          new VisionFilter.Evaluation(c.getSingleTagStdDevs(), c.getMultiTagStdDevs());
+    }
 
     if (Robot.isSimulation()) {
       visionSim = new VisionSystemSim("Vision");
@@ -109,9 +134,9 @@ public class Vision {
    * @return The target pose of the AprilTag.
    */
   public static Pose2d getAprilTagPose(int aprilTag, Transform2d robotOffset) {
-    Optional<Pose3d> aprilTagPose3d = fieldLayout.getTagPose(aprilTag);
-    if (aprilTagPose3d.isPresent()) {
-      return aprilTagPose3d.get().toPose2d().transformBy(robotOffset);
+    Pose2d aprilTagPose = tagTable.getPose2d(aprilTag);
+    if (aprilTagPose != null) {
+      return aprilTagPose.transformBy(robotOffset);
     } else {
       throw new RuntimeException(
           "Cannot get AprilTag " + aprilTag + " from field " + fieldLayout.toString());
@@ -138,20 +163,6 @@ public class Vision {
       visionSim.update(swerveDrive.getSimulationDriveTrainPose().get());
     }
 
-    // Track auto start for pose jump grace period
-    if (DriverStation.isAutonomousEnabled() && autoStartTimestamp == 0) {
-      autoStartTimestamp = Timer.getFPGATimestamp();
-    } else if (!DriverStation.isAutonomousEnabled()) {
-      autoStartTimestamp = 0;
-    }
-
-    // Skip POSE_JUMP gate until we've accepted at least one pose, otherwise
-    // the first vision correction after boot gets rejected and vision locks out forever
-    double autoElapsed =
-        (acceptedCount == 0)
-            ? 0
-            : (autoStartTimestamp > 0) ? Timer.getFPGATimestamp() - autoStartTimestamp : 999;
-
     if (manualOverride) {
       return;
     }
@@ -167,16 +178,31 @@ public class Vision {
     // Alliance for opposing-tag rejection
     boolean isBlue = DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Blue;
 
-    blendingActive = false;
-    blendWeight = 0;
-
     double now = Timer.getFPGATimestamp();
 
-    boolean underDefense = VisionFilter.isUnderDefense(gyroRateDps, speedMps);
+    // Read once so a capture records the same connection state the loop below acts on
+    int connectedMask = 0;
+    for (Cameras camera : CAMERAS) {
+      if (camera.camera.isConnected()) connectedMask |= 1 << camera.ordinal();
+    }
+
+    if (VisionRecorder.isWanted()) {
+      VisionRecorder.getInstance()
+          .recordState(
+              now,
+              currentFusedPose.getX(),
+              currentFusedPose.getY(),
+              currentFusedPose.getRotation().getRadians(),
+              gyroHeading.getRadians(),
+              gyroRateDps,
+              speedMps,
+              isBlue,
+              connectedMask);
+    }
 
     // Find freshest frame across all cameras so we can skip stale ones
     double freshestTimestamp = 0;
-    for (Cameras cam : Cameras.values()) {
+    for (Cameras cam : CAMERAS) {
       if (!cam.resultsList.isEmpty()) {
         for (PhotonPipelineResult r : cam.resultsList) {
           freshestTimestamp = Math.max(freshestTimestamp, r.getTimestampSeconds());
@@ -184,17 +210,55 @@ public class Vision {
       }
     }
 
-    for (Cameras camera : Cameras.values()) {
-      if (!camera.camera.isConnected()) {
+    for (Cameras camera : CAMERAS) {
+      estimates[camera.ordinal()] = null;
+      if ((connectedMask & (1 << camera.ordinal())) == 0) {
         continue;
       }
-
       Optional<EstimatedRobotPose> poseEst = getEstimatedGlobalPose(camera);
-      if (poseEst.isEmpty()) {
-        continue;
+      if (poseEst.isPresent()) {
+        estimates[camera.ordinal()] = poseEst.get();
       }
+    }
 
-      EstimatedRobotPose est = poseEst.get();
+    fuseEstimates(
+        estimates,
+        freshestTimestamp,
+        now,
+        currentFusedPose,
+        gyroHeading,
+        gyroRateDps,
+        speedMps,
+        isBlue,
+        swerveDrive::addVisionMeasurement);
+  }
+
+  /**
+   * Run this loop's estimate from each camera through the filter and hand the keepers to sink.
+   * updatePoseEstimation() calls it with the live odometry; VisionReplay calls it with captured
+   * frames and a recorded robot state.
+   *
+   * @param estimates Latest estimate per camera, indexed by ordinal. Null if there wasn't one.
+   * @param freshestTimestamp Newest result timestamp across all cameras, 0 if none.
+   */
+  void fuseEstimates(
+      EstimatedRobotPose[] estimates,
+      double freshestTimestamp,
+      double now,
+      Pose2d currentFusedPose,
+      Rotation2d gyroHeading,
+      double gyroRateDps,
+      double speedMps,
+      boolean isBlue,
+      MeasurementSink sink) {
+    blendingActive = false;
+    blendWeight = 0;
+
+    for (Cameras camera : CAMERAS) {
+      EstimatedRobotPose est = estimates[camera.ordinal()];
+      if (est == null) {
+        continue;
+      }
 
       // Reject future timestamps
       double age = now - est.timestampSeconds;
@@ -211,54 +275,23 @@ public class Vision {
 
       int tagCount = est.targetsUsed.size();
       double worstAmbiguity = getWorstAmbiguity(est);
-      double avgDist = getAverageTagDistance(est, swerveDrive);
-
-      // Collect tag IDs for opposing alliance gate
-      int[] estTagIds = new int[est.targetsUsed.size()];
-      for (int i = 0; i < est.targetsUsed.size(); i++) {
-        estTagIds[i] = est.targetsUsed.get(i).getFiducialId();
+      double avgDist = getAverageTagDistance(est);
+
+      // One pass through the gates; std devs and blend weight come back with the verdict
+      VisionFilter.Evaluation eval = evaluations[camera.ordinal()];
+      eval.setRobotState(gyroHeading, gyroRateDps, speedMps, isBlue);
+      eval.setFrame(est.estimatedPose, tagCount, worstAmbiguity, age, avgDist);
+      for (int i = 0; i < tagCount; i++) {
+        eval.addTagId(est.targetsUsed.get(i).getFiducialId());
       }
+      RejectionReason reason = eval.evaluate();
 
-      RejectionReason reason =
-          VisionFilter.evaluate(
-              est.estimatedPose,
-              tagCount,
-              worstAmbiguity,
-              gyroHeading,
-              currentFusedPose,
-              autoElapsed,
-              gyroRateDps,
-              speedMps,
-              age,
-              isBlue,
-              estTagIds,
-              avgDist,
-              underDefense);
-
-      // If ambiguous, try resolving by picking the PnP solution closer to odometry
-      Pose3d poseToFilter = est.estimatedPose;
-      boolean resolvedAmbiguity = false;
+      // If ambiguous, try resolving by picking the PnP solution closer to odometry.
+      // Every other frame gate already passed, so only the pose gates run again.
       if (reason == RejectionReason.AMBIGUITY && tagCount == 1) {
         Optional<Pose3d> resolved = resolveAmbiguousPose(est, camera, currentFusedPose);
         if (resolved.isPresent()) {
-          poseToFilter = resolved.get();
-          resolvedAmbiguity = true;
-          // Re-run remaining gates on resolved pose (skip ambiguity check)
-          reason =
-              VisionFilter.evaluate(
-                  poseToFilter,
-                  tagCount,
-                  0.0, // pass ambiguity gate this time
-                  gyroHeading,
-                  currentFusedPose,
-                  autoElapsed,
-                  gyroRateDps,
-                  speedMps,
-                  age,
-                  isBlue,
-                  estTagIds,
-                  avgDist,
-                  underDefense);
+          reason = eval.resolve(resolved.get());
         }
       }
 
@@ -271,36 +304,17 @@ public class Vision {
 
       acceptedCount++;
 
-      Matrix<N3, N1> stdDevs =
-          VisionFilter.computeStdDevs(
-              tagCount,
-              avgDist,
-              speedMps,
-              camera.getSingleTagStdDevs(),
-              camera.getMultiTagStdDevs());
-
-      // Under defense, odometry drifts from wheel slip so we trust vision more
-      if (underDefense) {
-        stdDevs = stdDevs.times(VisionFilter.DEFENSE_STD_DEV_SCALE);
-      }
-
-      // Resolved ambiguity is still less confident than an unambiguous reading
-      if (resolvedAmbiguity) {
-        stdDevs = stdDevs.times(VisionFilter.AMBIGUITY_STD_DEV_INFLATE);
-      }
-
       // Pose blending for single-tag close estimates
-      Pose2d poseToUse = poseToFilter.toPose2d();
-      if (tagCount == 1 && avgDist < VisionFilter.BLEND_DISTANCE_THRESHOLD_M) {
-        double w = VisionFilter.computeBlendWeight(avgDist);
-        if (w > 0) {
-          poseToUse = VisionFilter.blendPose(currentFusedPose, poseToUse, w);
-          blendingActive = true;
-          blendWeight = Math.max(blendWeight, w);
-        }
+      Pose2d poseToUse = eval.getPose().toPose2d();
+      double w = eval.getBlendWeight();
+      if (w > 0) {
+        poseToUse = VisionFilter.blendPose(currentFusedPose, poseToUse, w);
+        blendingActive = true;
+        blendWeight = Math.max(blendWeight, w);
       }
 
-      swerveDrive.addVisionMeasurement(poseToUse, est.timestampSeconds, stdDevs);
+      // The estimator reads the std devs right away, so the context can reuse its matrix
+      sink.addVisionMeasurement(poseToUse, est.timestampSeconds, eval.getStdDevs());
     }
   }
 
@@ -315,8 +329,8 @@ public class Vision {
     }
 
     PhotonTrackedTarget target = est.targetsUsed.get(0);
-    Optional<Pose3d> tagFieldPose = fieldLayout.getTagPose(target.getFiducialId());
-    if (tagFieldPose.isEmpty()) {
+    Pose3d tagFieldPose = tagTable.getPose(target.getFiducialId());
+    if (tagFieldPose == null) {
       return Optional.empty();
     }
 
@@ -328,12 +342,13 @@ public class Vision {
     Transform3d altCamToTarget = target.getAlternateCameraToTarget();
     Transform3d robotToCam = camera.getRobotToCamera();
     Pose3d altPose =
-        tagFieldPose.get().transformBy(altCamToTarget.inverse()).transformBy(robotToCam.inverse());
+        tagFieldPose.transformBy(altCamToTarget.inverse()).transformBy(robotToCam.inverse());
 
     // Pick whichever is closer to current odometry
     double bestDist =
-        bestPose.toPose2d().getTranslation().getDistance(currentPose.getTranslation());
-    double altDist = altPose.toPose2d().getTranslation().getDistance(currentPose.getTranslation());
+        Math.hypot(bestPose.getX() - currentPose.getX(), bestPose.getY() - currentPose.getY());
+    double altDist =
+        Math.hypot(altPose.getX() - currentPose.getX(), altPose.getY() - currentPose.getY());
 
     return Optional.of(altDist < bestDist ? altPose : bestPose);
   }
@@ -348,18 +363,15 @@ public class Vision {
   }
 
   /** Get average distance from estimated pose to all visible tags. */
-  private double getAverageTagDistance(EstimatedRobotPose est, SwerveDrive swerveDrive) {
+  private double getAverageTagDistance(EstimatedRobotPose est) {
     double totalDist = 0;
     int count = 0;
-    for (var target : est.targetsUsed) {
-      var tagPose = fieldLayout.getTagPose(target.getFiducialId());
-      if (tagPose.isPresent()) {
-        totalDist +=
-            tagPose
-                .get()
-                .toPose2d()
-                .getTranslation()
-                .getDistance(est.estimatedPose.toPose2d().getTranslation());
+    double x = est.estimatedPose.getX();
+    double y = est.estimatedPose.getY();
+    for (int i = 0; i < est.targetsUsed.size(); i++) {
+      int id = est.targetsUsed.get(i).getFiducialId();
+      if (tagTable.contains(id)) {
+        totalDist += tagTable.distance(id, x, y);
         count++;
       }
     }
@@ -406,9 +418,11 @@ public class Vision {
    * @return Distance
    */
   public double getDistanceFromAprilTag(int id) {
-    Optional<Pose3d> tag = fieldLayout.getTagPose(id);
-    return tag.map(pose3d -> PhotonUtils.getDistanceToPose(currentPose.get(), pose3d.toPose2d()))
-        .orElse(-1.0);
+    if (!tagTable.contains(id)) {
+      return -1.0;
+    }
+    Pose2d robot = currentPose.get();
+    return tagTable.distance(id, robot.getX(), robot.getY());
   }
 
   /**
@@ -463,7 +477,22 @@ public class Vision {
     PhotonTrackedTarget bestTarget = null;
     Cameras bestCamEnum = null;
 
-    for (Cameras c : Cameras.values()) {
+    // No camera can report a tag that isn't on the field
+    if (!tagTable.contains(id)) {
+      return null;
+    }
+
+    Pose2d robot = currentPose.get();
+    double cos = robot.getRotation().getCos();
+    double sin = robot.getRotation().getSin();
+    for (Cameras c : CAMERAS) {
+      // A camera well behind the tag's plane is looking at its back, so a report of it there is a
+      // misread id. The margin keeps odometry drift from hiding a real detection.
+      Translation3d offset = c.getRobotToCamera().getTranslation();
+      double camX = robot.getX() + offset.getX() * cos - offset.getY() * sin;
+      double camY = robot.getY() + offset.getX() * sin + offset.getY() * cos;
+      if (tagTable.distanceInFront(id, camX, camY) < -BEHIND_TAG_MARGIN_M) continue;
+
       Optional<PhotonPipelineResult> optionalResult = c.getLatestResult();
 
       if (optionalResult.isPresent() && optionalResult.get().hasTargets()) {
@@ -495,8 +524,8 @@ public class Vision {
 
     List<Pose2d> poses = new ArrayList<>();
     for (PhotonTrackedTarget target : targets) {
-      if (fieldLayout.getTagPose(target.getFiducialId()).isPresent()) {
-        Pose2d targetPose = fieldLayout.getTagPose(target.getFiducialId()).get().toPose2d();
+      Pose2d targetPose = tagTable.getPose2d(target.getFiducialId());
+      if (targetPose != null) {
         poses.add(targetPose);
       }
     }
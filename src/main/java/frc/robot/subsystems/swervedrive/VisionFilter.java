@@ -1,18 +1,24 @@
 package frc.robot.subsystems.swervedrive;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
+import java.util.Arrays;
 
 /**
  * Pure-math vision pose filter. No WPILib sim deps, fully unit-testable.
  *
- * <p>10-gate rejection, distance/velocity std dev scaling, and single-tag pose blending.
+ * <p>10-gate rejection, distance/velocity std dev scaling, and single-tag pose blending. Gates run
+ * cheapest first and stop at the first failure, so the reason reported is the first cheap check
+ * that failed, not a fixed gate number. {@link Evaluation} is the allocation-free per-camera path.
  */
 public final class VisionFilter {
 
@@ -48,12 +54,14 @@ public final class VisionFilter {
   public static final double AMBIGUITY_HARD_REJECT = 0.8;
   public static final double AMBIGUITY_STD_DEV_INFLATE = 4.0;
 
-  // 2026 REBUILT: blue tags 1-16, red tags 17-32
-  private static final int BLUE_TAG_MAX = 16;
-
   // Skip pose jump check during early auto
   private static final double AUTO_GRACE_PERIOD_SEC = 2.0;
 
+  // Gate thresholds in the units the pose gives us, so the gates don't convert per frame
+  private static final double MAX_ROLL_PITCH_RAD = Math.toRadians(MAX_ROLL_PITCH_DEG);
+  private static final double MAX_HEADING_DIVERGENCE_RAD =
+      Math.toRadians(MAX_HEADING_DIVERGENCE_DEG);
+
   public enum RejectionReason {
     ACCEPTED,
     AMBIGUITY,
@@ -155,70 +163,73 @@ public final class VisionFilter {
       int[] tagIds,
       double avgTagDistanceM,
       boolean underDefense) {
-
-    // Gate 1: Ambiguity (single-tag only). Between 0.25-0.8 we try to resolve
-    // rather than reject, so only hard-reject truly unresolvable estimates.
-    if (tagCount == 1 && worstAmbiguity > AMBIGUITY_HARD_REJECT) {
-      return RejectionReason.AMBIGUITY;
+    RejectionReason reason =
+        checkFrame(
+            tagCount,
+            worstAmbiguity,
+            gyroRateDegPerSec,
+            robotSpeedMps,
+            ageSec,
+            isBlueAlliance,
+            tagIds,
+            tagIds.length,
+            avgTagDistanceM,
+            underDefense);
+    if (reason != RejectionReason.ACCEPTED) {
+      return reason;
     }
+    double gyroRad = gyroHeading != null ? gyroHeading.getRadians() : Double.NaN;
+    reason = checkPose(visionPose, tagCount, gyroRad);
 
-    // Gate 2: Z-height sanity (robot can't fly or be underground)
-    if (Math.abs(visionPose.getZ()) > MAX_Z_HEIGHT_M) {
-      return RejectionReason.Z_HEIGHT;
-    }
-
-    // Gate 3: Roll/pitch sanity (extreme tilt = bad PnP solve)
-    double rollDeg = Math.toDegrees(visionPose.getRotation().getX());
-    double pitchDeg = Math.toDegrees(visionPose.getRotation().getY());
-    if (Math.abs(rollDeg) > MAX_ROLL_PITCH_DEG || Math.abs(pitchDeg) > MAX_ROLL_PITCH_DEG) {
-      return RejectionReason.ROLL_PITCH;
-    }
-
-    // Gate 4: Field bounds (robot can't be outside the walls)
-    Pose2d pose2d = visionPose.toPose2d();
-    double x = pose2d.getX();
-    double y = pose2d.getY();
-    if (x < -FIELD_MARGIN_M
-        || x > FIELD_LENGTH_M + FIELD_MARGIN_M
-        || y < -FIELD_MARGIN_M
-        || y > FIELD_WIDTH_M + FIELD_MARGIN_M) {
-      return RejectionReason.FIELD_BOUNDS;
-    }
-
-    // Gate 5: Heading divergence (single-tag heading is unreliable, gyro is truth)
-    if (tagCount == 1 && gyroHeading != null) {
-      double headingDiffDeg = Math.abs(pose2d.getRotation().minus(gyroHeading).getDegrees());
-      if (headingDiffDeg > MAX_HEADING_DIVERGENCE_DEG) {
-        return RejectionReason.HEADING_DIVERGENCE;
-      }
-    }
-
-    // Gate 6: Pose jump (can't teleport, but skip during early auto).
+    // Pose jump (can't teleport, but skip during early auto).
     // Under defense the robot can genuinely be shoved several meters.
     // if (currentPose != null && autoElapsedSec > AUTO_GRACE_PERIOD_SEC) {
-    //   double jumpM = pose2d.getTranslation().getDistance(currentPose.getTranslation());
+    //   double jumpM =
+    //       visionPose.toPose2d().getTranslation().getDistance(currentPose.getTranslation());
     //   double jumpLimit = underDefense ? MAX_POSE_JUMP_M * 2.0 : MAX_POSE_JUMP_M;
     //   if (jumpM > jumpLimit) {
     //     return RejectionReason.POSE_JUMP;
     //   }
     // }
 
-    // Gate 7: Gyro rate. Skip under defense because wheel slip makes odometry
+    return reason;
+  }
+
+  /**
+   * The gates that don't look at the pose, cheapest first. Ambiguity goes last so a frame that
+   * fails it has passed everything else here, and resolving it only has to re-run checkPose().
+   */
+  private static RejectionReason checkFrame(
+      int tagCount,
+      double worstAmbiguity,
+      double gyroRateDegPerSec,
+      double robotSpeedMps,
+      double ageSec,
+      boolean isBlueAlliance,
+      int[] tagIds,
+      int tagIdCount,
+      double avgTagDistanceM,
+      boolean underDefense) {
+    // Gyro rate. Skip under defense because wheel slip makes odometry
     // drift worse than any motion blur on the tags.
     if (!underDefense && Math.abs(gyroRateDegPerSec) > MAX_GYRO_RATE_DEG_PER_SEC) {
       return RejectionReason.GYRO_RATE;
     }
 
-    // Gate 8: Opposing alliance single-tag (cross-field single-tag is too noisy)
-    if (tagCount == 1 && tagIds.length > 0) {
-      int id = tagIds[0];
-      boolean tagIsBlue = id <= BLUE_TAG_MAX;
+    // Distance (single-tag beyond 5m has too much pixel error)
+    if (tagCount == 1 && avgTagDistanceM > MAX_SINGLE_TAG_DISTANCE_M) {
+      return RejectionReason.DISTANCE;
+    }
+
+    // Opposing alliance single-tag (cross-field single-tag is too noisy)
+    if (tagCount == 1 && tagIdCount > 0) {
+      boolean tagIsBlue = AprilTagTable.isBlueTag(tagIds[0]);
       if (tagIsBlue != isBlueAlliance) {
         return RejectionReason.OPPOSING_ALLIANCE;
       }
     }
 
-    // Gate 9: Staleness (speed-dependent: tighter when moving fast)
+    // Staleness (speed-dependent: tighter when moving fast)
     if (ageSec > 0) {
       double speedFraction = Math.min(1.0, robotSpeedMps / STALE_SPEED_CUTOFF_MPS);
       double staleLimit =
@@ -229,14 +240,233 @@ public final class VisionFilter {
       }
     }
 
-    // Gate 10: Distance (single-tag beyond 5m has too much pixel error)
-    if (tagCount == 1 && avgTagDistanceM > MAX_SINGLE_TAG_DISTANCE_M) {
-      return RejectionReason.DISTANCE;
+    // Ambiguity (single-tag only). Between 0.25-0.8 we try to resolve
+    // rather than reject, so only hard-reject truly unresolvable estimates.
+    if (tagCount == 1 && worstAmbiguity > AMBIGUITY_HARD_REJECT) {
+      return RejectionReason.AMBIGUITY;
+    }
+    return RejectionReason.ACCEPTED;
+  }
+
+  /** The gates on the pose itself, cheapest first. No allocation. */
+  private static RejectionReason checkPose(Pose3d visionPose, int tagCount, double gyroRad) {
+    // Z-height sanity (robot can't fly or be underground)
+    if (Math.abs(visionPose.getZ()) > MAX_Z_HEIGHT_M) {
+      return RejectionReason.Z_HEIGHT;
+    }
+
+    // Field bounds (robot can't be outside the walls)
+    double x = visionPose.getX();
+    double y = visionPose.getY();
+    if (x < -FIELD_MARGIN_M
+        || x > FIELD_LENGTH_M + FIELD_MARGIN_M
+        || y < -FIELD_MARGIN_M
+        || y > FIELD_WIDTH_M + FIELD_MARGIN_M) {
+      return RejectionReason.FIELD_BOUNDS;
+    }
+
+    // Roll/pitch sanity (extreme tilt = bad PnP solve)
+    Rotation3d rotation = visionPose.getRotation();
+    if (Math.abs(rotation.getX()) > MAX_ROLL_PITCH_RAD
+        || Math.abs(rotation.getY()) > MAX_ROLL_PITCH_RAD) {
+      return RejectionReason.ROLL_PITCH;
+    }
+
+    // Heading divergence (single-tag heading is unreliable, gyro is truth)
+    if (tagCount == 1 && !Double.isNaN(gyroRad)) {
+      double headingDiff = Math.abs(MathUtil.angleModulus(rotation.getZ() - gyroRad));
+      if (headingDiff > MAX_HEADING_DIVERGENCE_RAD) {
+        return RejectionReason.HEADING_DIVERGENCE;
+      }
     }
 
     return RejectionReason.ACCEPTED;
   }
 
+  /**
+   * Reusable per-camera filter state, so the vision loop doesn't allocate per frame. Set the robot
+   * state once per loop and the frame per estimate, then evaluate() runs every gate and, if the
+   * frame passes, writes its std devs into a matrix this object owns and works out the blend
+   * weight. An AMBIGUITY result can be retried with resolve() and the other PnP solution.
+   *
+   * <p>The std dev matrix is overwritten by the next evaluation; hand it off (e.g. to
+   * addVisionMeasurement, which copies what it needs) before reusing the context.
+   */
+  public static final class Evaluation {
+    private final double singleX;
+    private final double singleY;
+    private final double multiX;
+    private final double multiY;
+    private final double multiTheta;
+
+    // Robot state
+    private double gyroRad = Double.NaN;
+    private double gyroRateDps;
+    private double speedMps;
+    private boolean blueAlliance = true;
+    private boolean underDefense;
+
+    // Frame
+    private Pose3d pose;
+    private int tagCount;
+    private double worstAmbiguity;
+    private double ageSec;
+    private double avgTagDistanceM;
+    private int[] tagIds = new int[8];
+    private int tagIdCount;
+
+    // Result
+    private RejectionReason reason = RejectionReason.ACCEPTED;
+    private boolean resolvedAmbiguity;
+    private double blendWeight;
+    private final Matrix<N3, N1> stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+    /** Base std devs are read once; cameras don't change them at runtime. */
+    public Evaluation(Matrix<N3, N1> singleTagBase, Matrix<N3, N1> multiTagBase) {
+      singleX = singleTagBase.get(0, 0);
+      singleY = singleTagBase.get(1, 0);
+      multiX = multiTagBase.get(0, 0);
+      multiY = multiTagBase.get(1, 0);
+      multiTheta = multiTagBase.get(2, 0);
+    }
+
+    /** Once per loop. A null heading skips the heading-divergence gate. */
+    public void setRobotState(
+        Rotation2d gyroHeading, double gyroRateDps, double speedMps, boolean blueAlliance) {
+      this.gyroRad = gyroHeading != null ? gyroHeading.getRadians() : Double.NaN;
+      this.gyroRateDps = gyroRateDps;
+      this.speedMps = speedMps;
+      this.blueAlliance = blueAlliance;
+      this.underDefense = VisionFilter.isUnderDefense(gyroRateDps, speedMps);
+    }
+
+    /** Once per estimate. Fill tag ids with addTagId(). */
+    public void setFrame(
+        Pose3d pose, int tagCount, double worstAmbiguity, double ageSec, double avgTagDistanceM) {
+      this.pose = pose;
+      this.tagCount = tagCount;
+      this.worstAmbiguity = worstAmbiguity;
+      this.ageSec = ageSec;
+      this.avgTagDistanceM = avgTagDistanceM;
+      tagIdCount = 0;
+    }
+
+    public void addTagId(int id) {
+      if (tagIdCount == tagIds.length) tagIds = Arrays.copyOf(tagIds, tagIds.length * 2);
+      tagIds[tagIdCount++] = id;
+    }
+
+    /** Run the gates on the frame; if it passes, work out its std devs and blend weight. */
+    public RejectionReason evaluate() {
+      resolvedAmbiguity = false;
+      reason =
+          checkFrame(
+              tagCount,
+              worstAmbiguity,
+              gyroRateDps,
+              speedMps,
+              ageSec,
+              blueAlliance,
+              tagIds,
+              tagIdCount,
+              avgTagDistanceM,
+              underDefense);
+      if (reason == RejectionReason.ACCEPTED) {
+        reason = checkPose(pose, tagCount, gyroRad);
+      }
+      if (reason == RejectionReason.ACCEPTED) {
+        computeWeights();
+      }
+      return reason;
+    }
+
+    /**
+     * Retry an AMBIGUITY rejection with the PnP solution picked by the caller. Everything but the
+     * pose gates already passed, and an accepted result gets inflated std devs.
+     */
+    public RejectionReason resolve(Pose3d resolvedPose) {
+      pose = resolvedPose;
+      resolvedAmbiguity = true;
+      reason = checkPose(pose, tagCount, gyroRad);
+      if (reason == RejectionReason.ACCEPTED) {
+        computeWeights();
+      }
+      return reason;
+    }
+
+    private void computeWeights() {
+      double x;
+      double y;
+      double theta;
+      if (tagCount == 0) {
+        stdDevs.set(0, 0, Double.MAX_VALUE);
+        stdDevs.set(1, 0, Double.MAX_VALUE);
+        stdDevs.set(2, 0, Double.MAX_VALUE);
+        blendWeight = 0;
+        return;
+      } else if (tagCount == 1) {
+        x = singleX;
+        y = singleY;
+        theta = Double.POSITIVE_INFINITY;
+      } else {
+        x = multiX;
+        y = multiY;
+        theta = multiTheta;
+      }
+      double scale = stdDevScale(avgTagDistanceM, speedMps);
+      x *= scale;
+      y *= scale;
+      theta *= scale;
+      // Under defense, odometry drifts from wheel slip so we trust vision more
+      if (underDefense) {
+        x *= DEFENSE_STD_DEV_SCALE;
+        y *= DEFENSE_STD_DEV_SCALE;
+        theta *= DEFENSE_STD_DEV_SCALE;
+      }
+      // Resolved ambiguity is still less confident than an unambiguous reading
+      if (resolvedAmbiguity) {
+        x *= AMBIGUITY_STD_DEV_INFLATE;
+        y *= AMBIGUITY_STD_DEV_INFLATE;
+        theta *= AMBIGUITY_STD_DEV_INFLATE;
+      }
+      stdDevs.set(0, 0, x);
+      stdDevs.set(1, 0, y);
+      stdDevs.set(2, 0, theta);
+
+      blendWeight =
+          tagCount == 1 && avgTagDistanceM < BLEND_DISTANCE_THRESHOLD_M
+              ? computeBlendWeight(avgTagDistanceM)
+              : 0;
+    }
+
+    public RejectionReason getReason() {
+      return reason;
+    }
+
+    /** The pose the gates ran on: the estimate, or the resolved one after resolve(). */
+    public Pose3d getPose() {
+      return pose;
+    }
+
+    public boolean isResolvedAmbiguity() {
+      return resolvedAmbiguity;
+    }
+
+    public boolean isUnderDefense() {
+      return underDefense;
+    }
+
+    /** Std devs for the last accepted frame. Owned by this context, overwritten next frame. */
+    public Matrix<N3, N1> getStdDevs() {
+      return stdDevs;
+    }
+
+    /** Single-tag pose blend weight for the last accepted frame, 0 = don't blend. */
+    public double getBlendWeight() {
+      return blendWeight;
+    }
+  }
+
   /**
    * Compute final std devs with distance, velocity, and tag-count scaling.
    *
@@ -268,6 +498,16 @@ public final class VisionFilter {
       base = multiTagBase;
     }
 
+    double combinedScale = stdDevScale(avgDistanceM, robotSpeedMps);
+
+    return VecBuilder.fill(
+        base.get(0, 0) * combinedScale,
+        base.get(1, 0) * combinedScale,
+        base.get(2, 0) * combinedScale);
+  }
+
+  /** Distance and velocity multiplier on the base std devs. */
+  private static double stdDevScale(double avgDistanceM, double robotSpeedMps) {
     // Distance-squared scaling (photogrammetry: pixel error grows quadratically)
     double distScale = 1.0 + (avgDistanceM * avgDistanceM / DISTANCE_SCALE_DIVISOR);
 
@@ -277,12 +517,7 @@ public final class VisionFilter {
     // Cap velocity scale to prevent total vision blackout at high speed
     velScale = Math.min(velScale, 5.0);
 
-    double combinedScale = distScale * velScale;
-
-    return VecBuilder.fill(
-        base.get(0, 0) * combinedScale,
-        base.get(1, 0) * combinedScale,
-        base.get(2, 0) * combinedScale);
+    return distScale * velScale;
   }
 
   /**
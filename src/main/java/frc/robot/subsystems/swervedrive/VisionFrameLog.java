@@ -0,0 +1,220 @@
+package frc.robot.subsystems.swervedrive;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.photonvision.common.dataflow.structures.Packet;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Captured camera results plus the odometry the filter saw alongside them, for replaying vision
+ * offline (see VisionReplay).
+ *
+ * <p>File format (big endian): magic "VF5962", u16 version, then records until EOF. A state record
+ * starts each robot loop: u8 'S', f64 FPGA seconds, f64 fused x, f64 fused y, f64 fused heading
+ * (rad), f64 gyro heading (rad), f64 gyro rate (deg/s), f64 field speed (m/s), u8 flags, u8
+ * connected cameras (bit per camera ordinal). Frame records after it are the results read that
+ * loop: u8 'F', u8 camera ordinal, i64 NT receive time (us), u16 length, then the result in
+ * PhotonVision's own wire format.
+ */
+public final class VisionFrameLog {
+  public static final int FLAG_BLUE = 1;
+  public static final int FLAG_AUTONOMOUS = 2;
+
+  static final byte[] MAGIC = {'V', 'F', '5', '9', '6', '2'};
+  static final int VERSION = 2;
+  static final int STATE = 'S';
+  static final int FRAME = 'F';
+  static final int MAX_PAYLOAD = 0xFFFF;
+
+  private VisionFrameLog() {}
+
+  /** One robot loop: what odometry said, and the camera results read during it. */
+  public static final class Loop {
+    public final double timeSec;
+    public final double poseX;
+    public final double poseY;
+    public final double fusedHeadingRad;
+    public final double headingRad;
+    public final double gyroRateDps;
+    public final double speedMps;
+    public final int flags;
+    public final int connectedMask;
+    final List<Frame> frames = new ArrayList<>();
+
+    Loop(
+        double timeSec,
+        double poseX,
+        double poseY,
+        double fusedHeadingRad,
+        double headingRad,
+        double gyroRateDps,
+        double speedMps,
+        int flags,
+        int connectedMask) {
+      this.timeSec = timeSec;
+      this.poseX = poseX;
+      this.poseY = poseY;
+      this.fusedHeadingRad = fusedHeadingRad;
+      this.headingRad = headingRad;
+      this.gyroRateDps = gyroRateDps;
+      this.speedMps = speedMps;
+      this.flags = flags;
+      this.connectedMask = connectedMask;
+    }
+
+    public List<Frame> getFrames() {
+      return Collections.unmodifiableList(frames);
+    }
+
+    public boolean isBlue() {
+      return (flags & FLAG_BLUE) != 0;
+    }
+
+    /** Whether the camera with this ordinal was connected when the loop ran. */
+    public boolean isConnected(int camera) {
+      return (connectedMask & (1 << camera)) != 0;
+    }
+  }
+
+  /** One PhotonPipelineResult as it came off the network table. */
+  public static final class Frame {
+    public final int camera;
+    public final long receiveMicros;
+    final byte[] payload;
+
+    Frame(int camera, long receiveMicros, byte[] payload) {
+      this.camera = camera;
+      this.receiveMicros = receiveMicros;
+      this.payload = payload;
+    }
+
+    /** Decode back into a result with the original receive time. */
+    public PhotonPipelineResult toResult() {
+      PhotonPipelineResult result = PhotonPipelineResult.photonStruct.unpack(new Packet(payload));
+      result.setReceiveTimestampMicros(receiveMicros);
+      return result;
+    }
+  }
+
+  // --- Encoding, used by VisionRecorder ---
+
+  static void writeHeader(DataOutputStream out) throws IOException {
+    out.write(MAGIC);
+    out.writeShort(VERSION);
+  }
+
+  static void writeState(
+      DataOutputStream out,
+      double timeSec,
+      double poseX,
+      double poseY,
+      double fusedHeadingRad,
+      double headingRad,
+      double gyroRateDps,
+      double speedMps,
+      int flags,
+      int connectedMask)
+      throws IOException {
+    out.writeByte(STATE);
+    out.writeDouble(timeSec);
+    out.writeDouble(poseX);
+    out.writeDouble(poseY);
+    out.writeDouble(fusedHeadingRad);
+    out.writeDouble(headingRad);
+    out.writeDouble(gyroRateDps);
+    out.writeDouble(speedMps);
+    out.writeByte(flags);
+    out.writeByte(connectedMask);
+  }
+
+  /** Returns false (and writes nothing) if the payload is too big for the length field. */
+  static boolean writeFrame(
+      DataOutputStream out, int camera, long receiveMicros, byte[] payload, int length)
+      throws IOException {
+    if (length > MAX_PAYLOAD) return false;
+    out.writeByte(FRAME);
+    out.writeByte(camera);
+    out.writeLong(receiveMicros);
+    out.writeShort(length);
+    out.write(payload, 0, length);
+    return true;
+  }
+
+  /** A result in PhotonVision's wire format, the same bytes the coprocessor publishes. */
+  static byte[] pack(PhotonPipelineResult result) {
+    Packet packet = new Packet(256);
+    PhotonPipelineResult.photonStruct.pack(packet, result);
+    return packet.getWrittenDataCopy();
+  }
+
+  // --- Decoding ---
+
+  public static List<Loop> read(File file) throws IOException {
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Every loop in the log. Frames before the first state record are dropped, and so is a record
+   * torn by a power cut at the end.
+   */
+  public static List<Loop> read(InputStream stream) throws IOException {
+    DataInputStream header = new DataInputStream(stream);
+    byte[] magic = new byte[MAGIC.length];
+    header.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a vision frame log");
+    }
+    int version = header.readUnsignedShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported vision frame log version " + version);
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.readAllBytes()));
+    List<Loop> loops = new ArrayList<>();
+    Loop current = null;
+    try {
+      while (true) {
+        int kind = in.read();
+        if (kind < 0) break;
+        if (kind == STATE) {
+          current =
+              new Loop(
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readDouble(),
+                  in.readUnsignedByte(),
+                  in.readUnsignedByte());
+          loops.add(current);
+        } else if (kind == FRAME) {
+          int camera = in.readUnsignedByte();
+          long receiveMicros = in.readLong();
+          byte[] payload = new byte[in.readUnsignedShort()];
+          in.readFully(payload);
+          if (current != null) current.frames.add(new Frame(camera, receiveMicros, payload));
+        } else {
+          throw new IOException("Corrupt vision frame log: record type " + kind);
+        }
+      }
+    } catch (EOFException e) {
+      // Torn last record
+    }
+    return loops;
+  }
+}
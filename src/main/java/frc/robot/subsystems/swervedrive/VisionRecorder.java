@@ -0,0 +1,239 @@
+package frc.robot.subsystems.swervedrive;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.Constants;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.littletonrobotics.junction.Logger;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Capture mode for vision: writes every raw camera result, plus the odometry state the filter saw
+ * that loop, into a {@link VisionFrameLog} for each enabled period. Replay it with VisionReplay.
+ *
+ * <p>Off unless Constants.VISION_CAPTURE is set or the JVM has -DvisionCapture=true. The loop
+ * thread only encodes into an in-memory chunk; full chunks go to a daemon writer thread, same as
+ * InputRecorder, so the loop never touches the filesystem.
+ */
+public class VisionRecorder {
+  private static volatile VisionRecorder instance;
+
+  private static final boolean WANTED =
+      Constants.VISION_CAPTURE || Boolean.getBoolean("visionCapture");
+
+  static final int CHUNK_BYTES = 64 * 1024; // a few seconds of four busy cameras
+  private static final int MAX_PENDING_CHUNKS = 64;
+
+  private final File outputDir;
+  private final ExecutorService writer;
+
+  // Writer-thread state
+  private DataOutputStream out;
+
+  // Loop-thread state
+  private boolean recording = false;
+  private ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_BYTES);
+  private DataOutputStream chunkOut = new DataOutputStream(chunk);
+  private int framesThisSession = 0;
+  private int sessions = 0;
+  private int droppedChunks = 0;
+  private int skippedFrames = 0;
+
+  private final AtomicInteger pendingChunks = new AtomicInteger();
+  private volatile int writeFailures = 0;
+  private volatile String currentFile = "none";
+
+  public static VisionRecorder getInstance() {
+    if (instance == null) {
+      instance = new VisionRecorder(defaultOutputDir());
+    }
+    return instance;
+  }
+
+  VisionRecorder(File outputDir) {
+    this.outputDir = outputDir;
+    this.writer =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "VisionRecorder");
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+  }
+
+  private static File defaultOutputDir() {
+    if (RobotBase.isReal()) {
+      File usb = new File("/U/logs");
+      return usb.isDirectory() ? new File(usb, "vision") : new File("/home/lvuser/vision");
+    }
+    return new File("logs/vision");
+  }
+
+  /** True if capture mode is on for this boot. */
+  public static boolean isWanted() {
+    return WANTED;
+  }
+
+  /**
+   * Call once per loop from the vision update, before any camera is read. Starts a file on enable,
+   * closes it on disable, and writes the odometry state the frames that follow are judged against.
+   */
+  public void recordState(
+      double timeSec,
+      double poseX,
+      double poseY,
+      double fusedHeadingRad,
+      double headingRad,
+      double gyroRateDps,
+      double speedMps,
+      boolean blue,
+      int connectedMask) {
+    boolean enabled = DriverStation.isEnabled();
+    if (enabled && !recording) {
+      start();
+    } else if (!enabled && recording) {
+      stop();
+      return;
+    }
+    if (!recording) return;
+
+    if (chunk.size() >= CHUNK_BYTES) flush();
+    int flags =
+        (blue ? VisionFrameLog.FLAG_BLUE : 0)
+            | (DriverStation.isAutonomous() ? VisionFrameLog.FLAG_AUTONOMOUS : 0);
+    try {
+      VisionFrameLog.writeState(
+          chunkOut,
+          timeSec,
+          poseX,
+          poseY,
+          fusedHeadingRad,
+          headingRad,
+          gyroRateDps,
+          speedMps,
+          flags,
+          connectedMask);
+    } catch (IOException e) {
+      // ByteArrayOutputStream doesn't throw
+    }
+  }
+
+  /** Call with the results just read from a camera. */
+  public void recordFrames(int camera, List<PhotonPipelineResult> results) {
+    if (!recording) return;
+    for (int i = 0; i < results.size(); i++) {
+      PhotonPipelineResult result = results.get(i);
+      try {
+        byte[] payload = VisionFrameLog.pack(result);
+        if (VisionFrameLog.writeFrame(
+            chunkOut, camera, result.ntReceiveTimestampMicros, payload, payload.length)) {
+          framesThisSession++;
+        } else {
+          skippedFrames++;
+        }
+      } catch (Throwable t) {
+        skippedFrames++;
+      }
+    }
+  }
+
+  private void start() {
+    recording = true;
+    sessions++;
+    framesThisSession = 0;
+    chunk.reset();
+
+    String session =
+        DriverStation.isFMSAttached()
+            ? DriverStation.getEventName() + "_" + DriverStation.getMatchNumber()
+            : "practice";
+    long epochSec = System.currentTimeMillis() / 1000;
+    String name = String.format("vision_%s_%d_%d.vframes", session, epochSec, sessions);
+    File file = new File(outputDir, name.replaceAll("[^A-Za-z0-9_.-]", "_"));
+    writer.execute(() -> open(file));
+  }
+
+  private void stop() {
+    recording = false;
+    flush();
+    writer.execute(this::close);
+  }
+
+  /** Hand the current chunk to the writer and start a fresh one. */
+  private void flush() {
+    if (chunk.size() == 0) return;
+    if (pendingChunks.get() >= MAX_PENDING_CHUNKS) {
+      // Writer is stuck (USB pulled?). Drop rather than grow without bound.
+      droppedChunks++;
+      chunk.reset();
+      return;
+    }
+    ByteArrayOutputStream full = chunk;
+    chunk = new ByteArrayOutputStream(CHUNK_BYTES);
+    chunkOut = new DataOutputStream(chunk);
+    pendingChunks.incrementAndGet();
+    writer.execute(() -> write(full));
+  }
+
+  private void open(File file) {
+    try {
+      if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+        throw new IOException("cannot create " + outputDir);
+      }
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      VisionFrameLog.writeHeader(out);
+      currentFile = file.getPath();
+    } catch (Throwable t) {
+      out = null;
+      writeFailures++;
+    }
+  }
+
+  private void write(ByteArrayOutputStream data) {
+    try {
+      if (out != null) data.writeTo(out);
+    } catch (Throwable t) {
+      writeFailures++;
+    } finally {
+      pendingChunks.decrementAndGet();
+    }
+  }
+
+  private void close() {
+    try {
+      if (out != null) out.close();
+    } catch (Throwable t) {
+      writeFailures++;
+    } finally {
+      out = null;
+    }
+  }
+
+  public void log() {
+    Logger.recordOutput("Health/VisionRecorder/Recording", recording);
+    Logger.recordOutput("Health/VisionRecorder/Frames", framesThisSession);
+    Logger.recordOutput("Health/VisionRecorder/PendingChunks", pendingChunks.get());
+    Logger.recordOutput("Health/VisionRecorder/DroppedChunks", droppedChunks);
+    Logger.recordOutput("Health/VisionRecorder/SkippedFrames", skippedFrames);
+    Logger.recordOutput("Health/VisionRecorder/WriteFailures", writeFailures);
+    Logger.recordOutput("Health/VisionRecorder/File", currentFile);
+  }
+
+  public boolean isRecording() {
+    return recording;
+  }
+
+  public int getFramesThisSession() {
+    return framesThisSession;
+  }
+}
@@ -0,0 +1,170 @@
+package frc.robot.subsystems.swervedrive;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+import frc.robot.Cameras;
+import frc.robot.subsystems.swervedrive.VisionFilter.RejectionReason;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Feeds a {@link VisionFrameLog} capture back through Vision's filter with no robot attached, as
+ * fast as the CPU allows. Each loop's recorded odometry stands in for the SwerveDrive, and accepted
+ * measurements go to a sink that only counts them and measures how far they land from where
+ * odometry thought the robot was.
+ *
+ * <p>Pose estimation is redone from the raw results with fresh estimators set up like the ones in
+ * Cameras, so changes to the estimation side show up too. A camera that was disconnected in a loop
+ * contributes nothing that loop, as on the robot.
+ *
+ * <p>Usage: ./gradlew visionReplay -PvisionLog=logs/vision/x.vframes
+ */
+public final class VisionReplay {
+
+  private VisionReplay() {}
+
+  /** What one replay did. */
+  public static final class Report {
+    public int loops;
+    public int frames;
+    public int accepted;
+    public int rejected;
+    public final int[] rejectionsByGate = new int[RejectionReason.values().length];
+    public long nanos;
+    public double offsetSumM;
+
+    public double getMicrosPerFrame() {
+      return frames > 0 ? nanos / 1e3 / frames : 0;
+    }
+
+    /** Mean distance from an accepted measurement to the recorded odometry pose. */
+    public double getMeanOffsetM() {
+      return accepted > 0 ? offsetSumM / accepted : 0;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(
+          String.format(
+              "%d loops, %d frames, %.2f us/frame%n", loops, frames, getMicrosPerFrame()));
+      sb.append(
+          String.format(
+              "accepted %d, rejected %d, mean offset from odometry %.3f m%n",
+              accepted, rejected, getMeanOffsetM()));
+      for (RejectionReason reason : RejectionReason.values()) {
+        if (reason == RejectionReason.ACCEPTED) continue;
+        sb.append(String.format("  %-20s %d%n", reason, rejectionsByGate[reason.ordinal()]));
+      }
+      return sb.toString();
+    }
+  }
+
+  /** Replay every loop through vision, which should be fresh so its counters start at zero. */
+  public static Report run(Vision vision, List<VisionFrameLog.Loop> loops) {
+    Cameras[] cameras = Cameras.values();
+    PhotonPoseEstimator[] estimators = new PhotonPoseEstimator[cameras.length];
+    for (Cameras camera : cameras) {
+      PhotonPoseEstimator estimator =
+          new PhotonPoseEstimator(
+              Vision.fieldLayout,
+              PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR,
+              camera.getRobotToCamera());
+      estimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+      estimators[camera.ordinal()] = estimator;
+    }
+
+    // Decode up front so the timing below is just estimation and filtering
+    List<List<List<PhotonPipelineResult>>> decoded = new ArrayList<>(loops.size());
+    for (VisionFrameLog.Loop loop : loops) {
+      List<List<PhotonPipelineResult>> perCamera = new ArrayList<>(cameras.length);
+      for (int c = 0; c < cameras.length; c++) perCamera.add(new ArrayList<>());
+      for (VisionFrameLog.Frame frame : loop.getFrames()) {
+        if (frame.camera < cameras.length) perCamera.get(frame.camera).add(frame.toResult());
+      }
+      decoded.add(perCamera);
+    }
+
+    Report report = new Report();
+    Pose2d[] odometry = new Pose2d[1];
+    Vision.MeasurementSink sink =
+        (pose, timestampSec, stdDevs) ->
+            report.offsetSumM += pose.getTranslation().getDistance(odometry[0].getTranslation());
+
+    // Same carry-over as Cameras: the estimate sticks until a camera has new results, and the
+    // freshest-frame check looks at the previous loop's results
+    EstimatedRobotPose[] estimates = new EstimatedRobotPose[cameras.length];
+    double[] newestResult = new double[cameras.length];
+
+    long t0 = System.nanoTime();
+    for (int l = 0; l < loops.size(); l++) {
+      VisionFrameLog.Loop loop = loops.get(l);
+      double freshest = 0;
+      for (double t : newestResult) freshest = Math.max(freshest, t);
+
+      List<List<PhotonPipelineResult>> perCamera = decoded.get(l);
+      for (int c = 0; c < cameras.length; c++) {
+        List<PhotonPipelineResult> results = perCamera.get(c);
+        newestResult[c] = 0;
+        if (!loop.isConnected(c)) {
+          // Live still counts these toward the freshest frame but never estimates from them
+          for (PhotonPipelineResult result : results) {
+            newestResult[c] = Math.max(newestResult[c], result.getTimestampSeconds());
+          }
+          estimates[c] = null;
+          continue;
+        }
+        if (results.isEmpty()) continue;
+        Optional<EstimatedRobotPose> est = Optional.empty();
+        for (PhotonPipelineResult result : results) {
+          est = estimators[c].update(result);
+          newestResult[c] = Math.max(newestResult[c], result.getTimestampSeconds());
+          report.frames++;
+        }
+        estimates[c] = est.orElse(null);
+      }
+
+      odometry[0] = new Pose2d(loop.poseX, loop.poseY, new Rotation2d(loop.fusedHeadingRad));
+      vision.fuseEstimates(
+          estimates,
+          freshest,
+          loop.timeSec,
+          odometry[0],
+          new Rotation2d(loop.headingRad),
+          loop.gyroRateDps,
+          loop.speedMps,
+          loop.isBlue(),
+          sink);
+      report.loops++;
+    }
+    report.nanos = System.nanoTime() - t0;
+
+    report.accepted = vision.getAcceptedCount();
+    report.rejected = vision.getRejectedCount();
+    int[] gates = vision.getRejectionsByGate();
+    System.arraycopy(gates, 0, report.rejectionsByGate, 0, report.rejectionsByGate.length);
+    return report;
+  }
+
+  /** Usage: VisionReplay capture.vframes */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: VisionReplay <capture.vframes>");
+      return;
+    }
+    HAL.initialize(500, 0);
+    List<VisionFrameLog.Loop> loops = VisionFrameLog.read(new File(args[0]));
+    Report report = run(new Vision(Pose2d::new, new Field2d()), loops);
+    System.out.print(report);
+    System.exit(0);
+  }
+}
@@ -37,6 +37,30 @@ public class CommandsTelemetry implements SubsystemTelemetry {
   private int ghostCommandCount = 0;
   private boolean ghostCommandAlert = false;
 
+  // Execute-time profile. The scheduler has no before-execute hook, so each command is timed from
+  // a mark: an anchor on the button loop sets it just before the command phase, and every execute,
+  // finish and interrupt hook moves it up. A command's sample is therefore its execute() plus the
+  // previous command's isFinished(), which is a read or two for nearly every command.
+  static final int PROFILE_TOP_N = 5;
+  private static final double PROFILE_WINDOW_SEC = 1.0;
+  private final ExecutionProfiler commandProfile = new ExecutionProfiler();
+  private final int[] topSlots = new int[PROFILE_TOP_N];
+  private boolean anchorBound = false;
+  private boolean anchoredThisLoop = false;
+  private long markNanos = 0;
+  private double lastProfileRoll = Double.NaN;
+
+  private String[] topCommands = new String[0];
+  private double[] topCommandMsPerSec = new double[0];
+  private double[] topCommandMeanUs = new double[0];
+  private double[] topCommandP95Us = new double[0];
+  private double[] topCommandMaxUs = new double[0];
+  private String[] topPeriodics = new String[0];
+  private double[] topPeriodicMsPerSec = new double[0];
+  private double[] topPeriodicMeanUs = new double[0];
+  private double[] topPeriodicP95Us = new double[0];
+  private double[] topPeriodicMaxUs = new double[0];
+
   public CommandsTelemetry() {
     setupCallbacks();
   }
@@ -82,6 +106,8 @@ public class CommandsTelemetry implements SubsystemTelemetry {
                 }
 
                 commandNames.remove(command);
+                commandProfile.forget(command);
+                markNanos = System.nanoTime();
 
                 finishedCount++;
               } catch (Throwable t) {
@@ -101,15 +127,51 @@ public class CommandsTelemetry implements SubsystemTelemetry {
                 }
 
                 commandNames.remove(command);
+                commandProfile.forget(command);
+                markNanos = System.nanoTime();
 
                 interruptedCount++;
               } catch (Throwable t) {
               }
             });
+    CommandScheduler.getInstance()
+        .onCommandExecute(
+            command -> {
+              try {
+                long now = System.nanoTime();
+                if (anchoredThisLoop) {
+                  int slot = commandProfile.cachedSlot(command);
+                  if (slot < 0) slot = commandProfile.bind(command, sanitizeName(command));
+                  commandProfile.record(slot, now - markNanos);
+                }
+                markNanos = now;
+              } catch (Throwable t) {
+              }
+            });
+  }
+
+  /**
+   * The anchor goes on the button loop, which the scheduler polls after subsystem periodic() and
+   * right before executing commands. Bound on the first update() so it lands after every binding
+   * RobotContainer made and the time spent in their conditions doesn't count against a command.
+   */
+  private void bindProfileAnchor() {
+    CommandScheduler.getInstance()
+        .getActiveButtonLoop()
+        .bind(
+            () -> {
+              markNanos = System.nanoTime();
+              anchoredThisLoop = true;
+            });
+    anchorBound = true;
   }
 
   @Override
   public void update() {
+    if (!anchorBound) bindProfileAnchor();
+    // Commands only get timed in loops where the anchor ran first
+    anchoredThisLoop = false;
+
     if (activeCommandCounts.isEmpty()) {
       activeList = "none";
     } else {
@@ -140,6 +202,48 @@ public class CommandsTelemetry implements SubsystemTelemetry {
     ghostCommandCount = ghosts.size();
     ghostCommandAlert = ghostCommandCount > 0;
     ghostCommandList = ghosts.isEmpty() ? "none" : String.join(", ", ghosts);
+
+    if (Double.isNaN(lastProfileRoll)) lastProfileRoll = now;
+    if (now - lastProfileRoll >= PROFILE_WINDOW_SEC) {
+      rollProfiles(now - lastProfileRoll);
+      lastProfileRoll = now;
+    }
+  }
+
+  /** Close both profile windows and rank them. Once a second, so the string work is fine here. */
+  void rollProfiles(double windowSec) {
+    commandProfile.roll(windowSec);
+    int n = commandProfile.top(topSlots);
+    topCommands = new String[n];
+    topCommandMsPerSec = new double[n];
+    topCommandMeanUs = new double[n];
+    topCommandP95Us = new double[n];
+    topCommandMaxUs = new double[n];
+    for (int i = 0; i < n; i++) {
+      int slot = topSlots[i];
+      topCommands[i] = commandProfile.getName(slot);
+      topCommandMsPerSec[i] = commandProfile.getMsPerSec(slot);
+      topCommandMeanUs[i] = commandProfile.getMeanMicros(slot);
+      topCommandP95Us[i] = commandProfile.getQuantileMicros(slot, 0.95);
+      topCommandMaxUs[i] = commandProfile.getMaxMicros(slot);
+    }
+
+    ExecutionProfiler periodics = ExecutionProfiler.periodics();
+    periodics.roll(windowSec);
+    n = periodics.top(topSlots);
+    topPeriodics = new String[n];
+    topPeriodicMsPerSec = new double[n];
+    topPeriodicMeanUs = new double[n];
+    topPeriodicP95Us = new double[n];
+    topPeriodicMaxUs = new double[n];
+    for (int i = 0; i < n; i++) {
+      int slot = topSlots[i];
+      topPeriodics[i] = periodics.getName(slot);
+      topPeriodicMsPerSec[i] = periodics.getMsPerSec(slot);
+      topPeriodicMeanUs[i] = periodics.getMeanMicros(slot);
+      topPeriodicP95Us[i] = periodics.getQuantileMicros(slot, 0.95);
+      topPeriodicMaxUs[i] = periodics.getMaxMicros(slot);
+    }
   }
 
   @Override
@@ -147,6 +251,18 @@ public class CommandsTelemetry implements SubsystemTelemetry {
     SafeLog.put("Commands/GhostCount", ghostCommandCount);
     SafeLog.put("Commands/GhostAlert", ghostCommandAlert);
 
+    // Most expensive first by total time; refreshed once a second
+    SafeLog.put("Commands/Profile/Top", topCommands);
+    SafeLog.put("Commands/Profile/MsPerSec", topCommandMsPerSec);
+    SafeLog.put("Commands/Profile/MeanUs", topCommandMeanUs);
+    SafeLog.put("Commands/Profile/P95Us", topCommandP95Us);
+    SafeLog.put("Commands/Profile/MaxUs", topCommandMaxUs);
+    SafeLog.put("Commands/Profile/Periodic/Top", topPeriodics);
+    SafeLog.put("Commands/Profile/Periodic/MsPerSec", topPeriodicMsPerSec);
+    SafeLog.put("Commands/Profile/Periodic/MeanUs", topPeriodicMeanUs);
+    SafeLog.put("Commands/Profile/Periodic/P95Us", topPeriodicP95Us);
+    SafeLog.put("Commands/Profile/Periodic/MaxUs", topPeriodicMaxUs);
+
     if (Constants.TUNING_MODE) {
       SafeLog.put("Commands/ActiveCount", activeCount);
       SafeLog.put("Commands/ActiveList", activeList);
@@ -164,6 +280,10 @@ public class CommandsTelemetry implements SubsystemTelemetry {
     return "Commands";
   }
 
+  public int getActiveCount() {
+    return activeCount;
+  }
+
   public int getTotalExecutions() {
     return totalExecutions;
   }
@@ -184,6 +304,20 @@ public class CommandsTelemetry implements SubsystemTelemetry {
     return ghostCommandList;
   }
 
+  /** Commands that used the most execute time in the last closed window, most expensive first. */
+  public String[] getTopCommands() {
+    return topCommands;
+  }
+
+  public double[] getTopCommandMsPerSec() {
+    return topCommandMsPerSec;
+  }
+
+  /** Subsystems whose periodic() cost the most in the last closed window. */
+  public String[] getTopPeriodics() {
+    return topPeriodics;
+  }
+
   private boolean isDefaultCommand(Command command) {
     for (Subsystem sub : command.getRequirements()) {
       if (CommandScheduler.getInstance().getDefaultCommand(sub) == command) {
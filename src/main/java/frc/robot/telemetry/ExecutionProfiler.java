@@ -0,0 +1,189 @@
+package frc.robot.telemetry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Execution-time histograms per named slot: one per command name, or one per subsystem for
+ * periodic(). Everything lives in flat primitive arrays, so a sample is a map hit and a few array
+ * writes. Samples collect in an open window; roll() closes it (CommandsTelemetry does that once a
+ * second) and the closed window is what top() ranks and telemetry publishes.
+ *
+ * <p>Loop thread only.
+ */
+public final class ExecutionProfiler {
+  public static final int MAX_SLOTS = 64;
+
+  /** Bucket 0 is under 1 us; bucket b holds [2^(b-1), 2^b) us. The last one catches the rest. */
+  public static final int BUCKETS = 24;
+
+  // Commands get rebuilt on every button press; don't let dead ones pile up if finish is missed
+  private static final int MAX_OWNERS = 256;
+
+  private static final ExecutionProfiler PERIODICS = new ExecutionProfiler();
+
+  private final Map<String, Integer> slotByName = new HashMap<>();
+  private final Map<Object, Integer> slotByOwner = new IdentityHashMap<>();
+  private final String[] names = new String[MAX_SLOTS];
+  private int slotCount = 0;
+  private int droppedSamples = 0;
+
+  // Open window
+  private final int[] count = new int[MAX_SLOTS];
+  private final long[] totalNanos = new long[MAX_SLOTS];
+  private final long[] maxNanos = new long[MAX_SLOTS];
+  private final int[] histogram = new int[MAX_SLOTS * BUCKETS];
+
+  // Last closed window
+  private final int[] closedCount = new int[MAX_SLOTS];
+  private final long[] closedTotalNanos = new long[MAX_SLOTS];
+  private final long[] closedMaxNanos = new long[MAX_SLOTS];
+  private final int[] closedHistogram = new int[MAX_SLOTS * BUCKETS];
+  private double closedWindowSec = 0;
+
+  /** Shared profile for subsystem periodic() methods. */
+  public static ExecutionProfiler periodics() {
+    return PERIODICS;
+  }
+
+  /** Slot already bound to owner, or -1. */
+  public int cachedSlot(Object owner) {
+    Integer slot = slotByOwner.get(owner);
+    return slot != null ? slot : -1;
+  }
+
+  /** Bind owner to the slot for name, making the slot if there's room. -1 once full. */
+  public int bind(Object owner, String name) {
+    Integer slot = slotByName.get(name);
+    if (slot == null) {
+      if (slotCount == MAX_SLOTS) return -1;
+      slot = slotCount++;
+      slotByName.put(name, slot);
+      names[slot] = name;
+    }
+    if (slotByOwner.size() >= MAX_OWNERS) slotByOwner.clear();
+    slotByOwner.put(owner, slot);
+    return slot;
+  }
+
+  /** Drop owner's binding. Its slot and history stay under the name. */
+  public void forget(Object owner) {
+    slotByOwner.remove(owner);
+  }
+
+  /** Add one sample. Ignored if slot is -1 (out of slots). */
+  public void record(int slot, long nanos) {
+    if (slot < 0) {
+      droppedSamples++;
+      return;
+    }
+    count[slot]++;
+    totalNanos[slot] += nanos;
+    if (nanos > maxNanos[slot]) maxNanos[slot] = nanos;
+    histogram[slot * BUCKETS + bucketOf(nanos)]++;
+  }
+
+  /**
+   * Time owner from startNanos (System.nanoTime()) to now, named after its class. For the end of
+   * a subsystem's periodic(); never throws.
+   */
+  public void recordSince(Object owner, long startNanos) {
+    try {
+      long nanos = System.nanoTime() - startNanos;
+      int slot = cachedSlot(owner);
+      if (slot < 0) slot = bind(owner, owner.getClass().getSimpleName());
+      record(slot, nanos);
+    } catch (Throwable t) {
+      // Profiling must never take a subsystem down
+    }
+  }
+
+  static int bucketOf(long nanos) {
+    long micros = nanos / 1000;
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  /** Close the open window, which covered windowSec, and start a new one. */
+  public void roll(double windowSec) {
+    System.arraycopy(count, 0, closedCount, 0, slotCount);
+    System.arraycopy(totalNanos, 0, closedTotalNanos, 0, slotCount);
+    System.arraycopy(maxNanos, 0, closedMaxNanos, 0, slotCount);
+    System.arraycopy(histogram, 0, closedHistogram, 0, slotCount * BUCKETS);
+    Arrays.fill(count, 0, slotCount, 0);
+    Arrays.fill(totalNanos, 0, slotCount, 0);
+    Arrays.fill(maxNanos, 0, slotCount, 0);
+    Arrays.fill(histogram, 0, slotCount * BUCKETS, 0);
+    closedWindowSec = windowSec;
+  }
+
+  /**
+   * The slots that used the most total time in the closed window, most expensive first, written
+   * into out. Slots with no samples are skipped. Returns how many were written.
+   */
+  public int top(int[] out) {
+    int n = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      if (closedCount[slot] == 0) continue;
+      // Insertion into a short sorted list; out is only a handful long
+      int i = Math.min(n, out.length - 1);
+      if (n == out.length && closedTotalNanos[slot] <= closedTotalNanos[out[i]]) continue;
+      while (i > 0 && closedTotalNanos[out[i - 1]] < closedTotalNanos[slot]) {
+        out[i] = out[i - 1];
+        i--;
+      }
+      out[i] = slot;
+      if (n < out.length) n++;
+    }
+    return n;
+  }
+
+  public String getName(int slot) {
+    return names[slot];
+  }
+
+  public int getSlotCount() {
+    return slotCount;
+  }
+
+  /** Samples that didn't fit because every slot was taken. */
+  public int getDroppedSamples() {
+    return droppedSamples;
+  }
+
+  /** Samples in the closed window. */
+  public int getCount(int slot) {
+    return closedCount[slot];
+  }
+
+  public double getMeanMicros(int slot) {
+    return closedCount[slot] > 0 ? closedTotalNanos[slot] / 1e3 / closedCount[slot] : 0;
+  }
+
+  public double getMaxMicros(int slot) {
+    return closedMaxNanos[slot] / 1e3;
+  }
+
+  /** Milliseconds of loop time the slot used per second of the closed window. */
+  public double getMsPerSec(int slot) {
+    return closedWindowSec > 0 ? closedTotalNanos[slot] / 1e6 / closedWindowSec : 0;
+  }
+
+  /**
+   * Upper edge of the histogram bucket holding quantile q (0-1) of the closed window, in us. Good
+   * to a factor of two, which is plenty for spotting the expensive one.
+   */
+  public double getQuantileMicros(int slot, double q) {
+    int n = closedCount[slot];
+    if (n == 0) return 0;
+    int rank = (int) Math.ceil(q * n);
+    int seen = 0;
+    for (int b = 0; b < BUCKETS; b++) {
+      seen += closedHistogram[slot * BUCKETS + b];
+      if (seen >= rank) return 1L << b;
+    }
+    return 1L << (BUCKETS - 1);
+  }
+}
@@ -0,0 +1,241 @@
+package frc.robot.telemetry;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM health: garbage made by each robotPeriodic() phase, GC pauses, heap headroom.
+ *
+ * <p>Robot.safeCall() brackets every phase with threadAllocatedBytes() and recordPhase(), and
+ * startCycle() at the top of robotPeriodic() closes out the previous loop. Everything reported is
+ * from the last complete loop, so it lags by one. Allocation comes from HotSpot's per-thread
+ * counter and only covers the main robot thread; NT, vision and logger threads aren't counted,
+ * but their GCs still pause the loop and show up in the GC numbers.
+ *
+ * <p>The phase bookkeeping is static because there is one loop thread and Robot has to reach it
+ * before TelemetryManager exists. Loop thread only.
+ */
+public class JvmTelemetry implements SubsystemTelemetry {
+  static final int MAX_PHASES = 32;
+
+  // Same line SystemHealthTelemetry counts overruns against
+  private static final double LOOP_OVERRUN_MS = 25.0;
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+  private static final List<GarbageCollectorMXBean> COLLECTORS =
+      ManagementFactory.getGarbageCollectorMXBeans();
+
+  // Per-phase bytes. Keys are built once so logging them doesn't allocate every loop.
+  private static final Map<String, Integer> phaseSlots = new HashMap<>();
+  private static final String[] phaseNames = new String[MAX_PHASES];
+  private static final String[] phaseKeys = new String[MAX_PHASES];
+  private static final long[] phaseBytes = new long[MAX_PHASES];
+  private static final long[] lastPhaseBytes = new long[MAX_PHASES];
+  private static int phaseCount = 0;
+
+  // Whole-loop totals, sampled at each startCycle()
+  private static long cycleStartNanos = 0;
+  private static long cycleStartBytes = 0;
+  private static long cycleStartGcCount = 0;
+  private static long cycleStartGcMs = 0;
+
+  private static double lastCycleMs = 0;
+  private static long lastCycleBytes = 0;
+  private static long lastCycleGcCount = 0;
+  private static long lastCycleGcMs = 0;
+  private static int overruns = 0;
+  private static int gcOverruns = 0;
+  private static long gcOverrunMs = 0;
+
+  private long gcCount = 0;
+  private long gcTimeMs = 0;
+  private double heapUsedMb = 0;
+  private double heapMaxMb = 0;
+  private double heapHeadroomMb = 0;
+  private double heapHeadroomPct = 100;
+  private long otherBytes = 0;
+  private String topAllocator = "none";
+  private long topAllocatorBytes = 0;
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    try {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+        if (hotspot.isThreadAllocatedMemorySupported()) {
+          hotspot.setThreadAllocatedMemoryEnabled(true);
+          return hotspot;
+        }
+      }
+    } catch (Throwable t) {
+      // Not HotSpot, or not allowed; phases just won't be measured
+    }
+    return null;
+  }
+
+  /** Bytes the calling thread has allocated so far, or -1 if this JVM can't say. */
+  public static long threadAllocatedBytes() {
+    try {
+      return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    } catch (Throwable t) {
+      return -1;
+    }
+  }
+
+  /**
+   * Charge what the calling thread allocated since bytesBefore (from threadAllocatedBytes()) to
+   * the named phase. A phase that runs more than once a loop adds up.
+   */
+  public static void recordPhase(String name, long bytesBefore) {
+    if (bytesBefore < 0) return;
+    long bytes = threadAllocatedBytes() - bytesBefore;
+    Integer slot = phaseSlots.get(name);
+    if (slot == null) {
+      if (phaseCount == MAX_PHASES) return;
+      slot = phaseCount++;
+      phaseSlots.put(name, slot);
+      phaseNames[slot] = name;
+      phaseKeys[slot] = "JVM/Alloc/" + name + "Bytes";
+    }
+    phaseBytes[slot] += bytes;
+  }
+
+  /** Call first thing in robotPeriodic(). Closes the previous loop and starts a new one. */
+  public static void startCycle() {
+    try {
+      long now = System.nanoTime();
+      long bytes = Math.max(0, threadAllocatedBytes());
+      long count = 0;
+      long ms = 0;
+      for (int i = 0; i < COLLECTORS.size(); i++) {
+        GarbageCollectorMXBean gc = COLLECTORS.get(i);
+        count += Math.max(0, gc.getCollectionCount());
+        ms += Math.max(0, gc.getCollectionTime());
+      }
+      if (cycleStartNanos != 0) {
+        closeCycle(
+            (now - cycleStartNanos) / 1e6,
+            bytes - cycleStartBytes,
+            count - cycleStartGcCount,
+            ms - cycleStartGcMs);
+      }
+      cycleStartNanos = now;
+      cycleStartBytes = bytes;
+      cycleStartGcCount = count;
+      cycleStartGcMs = ms;
+    } catch (Throwable t) {
+      // JVM health is nice to have; never cost the loop
+    }
+  }
+
+  static void closeCycle(double cycleMs, long bytes, long gcs, long gcMs) {
+    lastCycleMs = cycleMs;
+    lastCycleBytes = bytes;
+    lastCycleGcCount = gcs;
+    lastCycleGcMs = gcMs;
+    if (cycleMs > LOOP_OVERRUN_MS) {
+      overruns++;
+      // Serial GC stops every thread, so a collection inside an overrun loop is a suspect
+      if (gcs > 0) {
+        gcOverruns++;
+        gcOverrunMs += gcMs;
+      }
+    }
+    System.arraycopy(phaseBytes, 0, lastPhaseBytes, 0, phaseCount);
+    Arrays.fill(phaseBytes, 0, phaseCount, 0);
+  }
+
+  @Override
+  public void update() {
+    long count = 0;
+    long ms = 0;
+    for (int i = 0; i < COLLECTORS.size(); i++) {
+      GarbageCollectorMXBean gc = COLLECTORS.get(i);
+      count += Math.max(0, gc.getCollectionCount());
+      ms += Math.max(0, gc.getCollectionTime());
+    }
+    gcCount = count;
+    gcTimeMs = ms;
+
+    Runtime rt = Runtime.getRuntime();
+    long max = rt.maxMemory();
+    long used = rt.totalMemory() - rt.freeMemory();
+    heapUsedMb = used / BYTES_PER_MB;
+    heapMaxMb = max / BYTES_PER_MB;
+    heapHeadroomMb = (max - used) / BYTES_PER_MB;
+    heapHeadroomPct = max > 0 ? 100.0 * (max - used) / max : 100;
+
+    long phaseTotal = 0;
+    int top = -1;
+    for (int i = 0; i < phaseCount; i++) {
+      phaseTotal += lastPhaseBytes[i];
+      if (top < 0 || lastPhaseBytes[i] > lastPhaseBytes[top]) top = i;
+    }
+    otherBytes = Math.max(0, lastCycleBytes - phaseTotal);
+    topAllocator = top >= 0 && lastPhaseBytes[top] > 0 ? phaseNames[top] : "none";
+    topAllocatorBytes = top >= 0 ? lastPhaseBytes[top] : 0;
+  }
+
+  @Override
+  public void log() {
+    SafeLog.put("JVM/AllocBytesPerCycle", lastCycleBytes);
+    SafeLog.put("JVM/TopAllocator", topAllocator);
+    SafeLog.put("JVM/TopAllocatorBytes", topAllocatorBytes);
+    SafeLog.put("JVM/GcCount", gcCount);
+    SafeLog.put("JVM/GcTimeMs", gcTimeMs);
+    SafeLog.put("JVM/LastCycleGcCount", lastCycleGcCount);
+    SafeLog.put("JVM/LastCycleGcMs", lastCycleGcMs);
+    SafeLog.put("JVM/LastCycleMs", lastCycleMs);
+    SafeLog.put("JVM/Overruns", overruns);
+    SafeLog.put("JVM/GcOverruns", gcOverruns);
+    SafeLog.put("JVM/GcOverrunMs", gcOverrunMs);
+    SafeLog.put("JVM/HeapUsedMB", heapUsedMb);
+    SafeLog.put("JVM/HeapMaxMB", heapMaxMb);
+    SafeLog.put("JVM/HeapHeadroomMB", heapHeadroomMb);
+    SafeLog.put("JVM/HeapHeadroomPct", heapHeadroomPct);
+
+    // Per phase, last loop. Whatever isn't in a safeCall (mode periodic, AdvantageKit) is Other.
+    for (int i = 0; i < phaseCount; i++) {
+      SafeLog.put(phaseKeys[i], lastPhaseBytes[i]);
+    }
+    SafeLog.put("JVM/Alloc/OtherBytes", otherBytes);
+  }
+
+  @Override
+  public String getName() {
+    return "JVM";
+  }
+
+  /** Bytes the named phase allocated in the last complete loop, 0 if never seen. */
+  public static long getLastPhaseBytes(String name) {
+    Integer slot = phaseSlots.get(name);
+    return slot != null ? lastPhaseBytes[slot] : 0;
+  }
+
+  public static long getLastCycleBytes() {
+    return lastCycleBytes;
+  }
+
+  public static int getOverruns() {
+    return overruns;
+  }
+
+  /** Overrun loops that had at least one GC in them. */
+  public static int getGcOverruns() {
+    return gcOverruns;
+  }
+
+  public double getHeapHeadroomPct() {
+    return heapHeadroomPct;
+  }
+
+  public String getTopAllocator() {
+    return topAllocator;
+  }
+}
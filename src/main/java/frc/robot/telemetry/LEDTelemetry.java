@@ -11,6 +11,11 @@ public class LEDTelemetry implements SubsystemTelemetry {
   private boolean hardwareAvailable = false;
   private double currentBrightness = 0;
   private int stateChangeCount = 0;
+  private double renderMs = 0;
+  private double maxRenderMs = 0;
+  private long ledWrites = 0;
+  private long skippedWrites = 0;
+  private int frameRebuilds = 0;
 
   public LEDTelemetry() {
     this.ledDisplay = LEDStatusDisplay.getInstance();
@@ -29,12 +34,18 @@ public class LEDTelemetry implements SubsystemTelemetry {
       hardwareAvailable = ledDisplay.isHardwareAvailable();
       currentBrightness = ledDisplay.getCurrentBrightness();
       stateChangeCount = ledDisplay.getStateChangeCount();
+      renderMs = ledDisplay.getLastRenderMs();
+      maxRenderMs = ledDisplay.getMaxRenderMs();
+      ledWrites = ledDisplay.getLedWrites();
+      skippedWrites = ledDisplay.getSkippedWrites();
+      frameRebuilds = ledDisplay.getFrameRebuilds();
     } catch (Throwable t) {
       state = "DISABLED";
       description = "Normal";
       hardwareAvailable = false;
       currentBrightness = 0;
       stateChangeCount = 0;
+      renderMs = 0;
     }
   }
 
@@ -43,10 +54,15 @@ public class LEDTelemetry implements SubsystemTelemetry {
     SafeLog.put("LED/State", state);
     SafeLog.put("LED/Device/Connected", hardwareAvailable);
     SafeLog.put("LED/StateChangeCount", stateChangeCount);
+    SafeLog.put("LED/Render/LastMs", renderMs);
+    SafeLog.put("LED/Render/MaxMs", maxRenderMs);
+    SafeLog.put("LED/Render/Writes", ledWrites);
+    SafeLog.put("LED/Render/SkippedWrites", skippedWrites);
 
     if (Constants.TUNING_MODE) {
       SafeLog.put("LED/Brightness", currentBrightness);
       SafeLog.put("LED/Description", description);
+      SafeLog.put("LED/Render/FrameRebuilds", frameRebuilds);
     }
   }
 
@@ -299,6 +299,14 @@ public class SystemHealthTelemetry implements SubsystemTelemetry {
     return loopOverrunCount;
   }
 
+  public int getCanBusOffCount() {
+    return canBusOff;
+  }
+
+  public double getCanUtilization() {
+    return canUtilization;
+  }
+
   public double getVoltageSlope() {
     return voltageSlope;
   }
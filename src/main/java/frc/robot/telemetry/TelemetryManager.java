@@ -56,8 +56,11 @@ public class TelemetryManager {
   private CANHealthTelemetry canHealthTelemetry;
   private DriverFeedbackTelemetry driverFeedbackTelemetry;
   private LEDTelemetry ledTelemetry;
+  private JvmTelemetry jvmTelemetry;
   private AgitatorTelemetry agitatorTelemetry;
 
+  private final TelemetrySnapshot snapshot = new TelemetrySnapshot();
+
   public static TelemetryManager getInstance() {
     if (instance == null) {
       instance = new TelemetryManager();
@@ -95,6 +98,7 @@ public class TelemetryManager {
             driveTelemetry);
     driverFeedbackTelemetry = new DriverFeedbackTelemetry();
     ledTelemetry = new LEDTelemetry();
+    jvmTelemetry = new JvmTelemetry();
 
     // Competition: always registered
     telemetryList.add(systemHealthTelemetry);
@@ -113,6 +117,7 @@ public class TelemetryManager {
     telemetryList.add(driverFeedbackTelemetry);
     telemetryList.add(ledTelemetry);
     telemetryList.add(agitatorTelemetry);
+    telemetryList.add(jvmTelemetry);
 
     // Debug only: skipped in competition updateAll() to cut ~119 signals + LoggedTracer overhead
     tuningOnlyList.add(hangerTelemetry);
@@ -218,9 +223,66 @@ public class TelemetryManager {
 
     SafeLog.logAndReset();
 
+    captureSnapshot();
     runSafely(this::logHealth, "Health/Telemetry");
   }
 
+  /**
+   * Copy this cycle's values into the shared snapshot. Each group has its own try so one broken
+   * telemetry class only leaves its own fields stale.
+   */
+  private void captureSnapshot() {
+    snapshot.timestamp = Timer.getFPGATimestamp();
+    try {
+      snapshot.batteryVoltage = RobotController.getBatteryVoltage();
+      snapshot.loopTimeMs = systemHealthTelemetry.getLoopTimeMs();
+      snapshot.totalCurrentAmps = systemHealthTelemetry.getTotalCurrentAmps();
+      snapshot.canTxErrors = SystemHealthTelemetry.getCanTxErrorsSafely();
+      snapshot.canRxErrors = SystemHealthTelemetry.getCanRxErrorsSafely();
+      snapshot.canBusOffCount = systemHealthTelemetry.getCanBusOffCount();
+      snapshot.canUtilization = systemHealthTelemetry.getCanUtilization();
+      snapshot.brownoutRisk = systemHealthTelemetry.isBrownoutRisk();
+    } catch (Throwable t) {
+      cycleFailures++;
+      lastFailedName = "Snapshot/SystemHealth";
+    }
+    try {
+      snapshot.shooterVelocityRPM = shooterTelemetry.getVelocityRPM();
+      snapshot.motorTempsC[TelemetrySnapshot.MOTOR_SHOOTER] = shooterTelemetry.getTemperature();
+      snapshot.shooterStalled = shooterTelemetry.isStalled();
+    } catch (Throwable t) {
+      cycleFailures++;
+      lastFailedName = "Snapshot/Shooter";
+    }
+    try {
+      snapshot.motorTempsC[TelemetrySnapshot.MOTOR_INDEXER] = indexerTelemetry.getTemperature();
+      snapshot.indexerStalled = indexerTelemetry.isStalled();
+      snapshot.indexerJam = indexerTelemetry.isJamDetected();
+      snapshot.motorTempsC[TelemetrySnapshot.MOTOR_INTAKE] = intakeTelemetry.getTemperature();
+      snapshot.intakeStalled = intakeTelemetry.isStalled();
+      snapshot.intakeJam = intakeTelemetry.isJamDetected();
+      snapshot.motorTempsC[TelemetrySnapshot.MOTOR_INTAKE_ACTUATOR] =
+          intakeActuatorTelemetry.getTemperature();
+      snapshot.motorTempsC[TelemetrySnapshot.MOTOR_AGITATOR] = agitatorTelemetry.getTemperature();
+    } catch (Throwable t) {
+      cycleFailures++;
+      lastFailedName = "Snapshot/Mechanisms";
+    }
+    try {
+      snapshot.bandwidthPercent = networkTelemetry.getBandwidthPercent();
+      snapshot.bandwidthWarning = networkTelemetry.isWarning();
+      snapshot.bandwidthCritical = networkTelemetry.isCritical();
+    } catch (Throwable t) {
+      cycleFailures++;
+      lastFailedName = "Snapshot/Network";
+    }
+  }
+
+  /** Latest per-cycle snapshot. Same instance every call, overwritten by updateAll(). */
+  public TelemetrySnapshot getSnapshot() {
+    return snapshot;
+  }
+
   private void checkStaleness() {
     double now = Timer.getFPGATimestamp();
     for (Map.Entry<String, StalenessTracker> entry : stalenessTrackers.entrySet()) {
@@ -346,6 +408,14 @@ public class TelemetryManager {
     return getSafely(() -> systemHealthTelemetry.getLoopOverrunCount(), 0);
   }
 
+  public int getActiveCommandCount() {
+    return getSafely(() -> commandsTelemetry.getActiveCount(), 0);
+  }
+
+  public int getTotalCommandExecutions() {
+    return getSafely(() -> commandsTelemetry.getTotalExecutions(), 0);
+  }
+
   public boolean isBrownoutRisk() {
     return getSafely(() -> systemHealthTelemetry.isBrownoutRisk(), false);
   }
@@ -0,0 +1,63 @@
+package frc.robot.telemetry;
+
+/**
+ * Primitive copy of the signals that alerting and prediction read every cycle. Filled once at the
+ * end of TelemetryManager.updateAll() so consumers read plain fields instead of going through a
+ * getSafely() lambda per value. One instance, reused every cycle, never reallocated.
+ */
+public final class TelemetrySnapshot {
+  public static final int MOTOR_SHOOTER = 0;
+  public static final int MOTOR_INDEXER = 1;
+  public static final int MOTOR_INTAKE = 2;
+  public static final int MOTOR_INTAKE_ACTUATOR = 3;
+  public static final int MOTOR_AGITATOR = 4;
+  public static final int MOTOR_COUNT = 5;
+
+  public static final String[] MOTOR_NAMES = {
+    "Shooter", "Indexer", "Intake", "IntakeActuator", "Agitator"
+  };
+
+  public double timestamp = 0;
+  public double batteryVoltage = 12.0;
+  public double loopTimeMs = 0;
+  public double totalCurrentAmps = 0;
+  public double shooterVelocityRPM = 0;
+  public final double[] motorTempsC = new double[MOTOR_COUNT];
+
+  // -1 until SystemHealthTelemetry has sampled the CAN status once
+  public int canTxErrors = -1;
+  public int canRxErrors = -1;
+  public int canBusOffCount = 0;
+  public double canUtilization = 0;
+
+  public boolean brownoutRisk = false;
+  public boolean shooterStalled = false;
+  public boolean indexerStalled = false;
+  public boolean intakeStalled = false;
+  public boolean indexerJam = false;
+  public boolean intakeJam = false;
+
+  public double bandwidthPercent = 0;
+  public boolean bandwidthWarning = false;
+  public boolean bandwidthCritical = false;
+
+  TelemetrySnapshot() {}
+
+  /** Hottest motor temperature this cycle. */
+  public double maxMotorTempC() {
+    double max = motorTempsC[0];
+    for (int i = 1; i < MOTOR_COUNT; i++) {
+      if (motorTempsC[i] > max) max = motorTempsC[i];
+    }
+    return max;
+  }
+
+  /**
+   * Higher of the Tx and Rx error counters, or -1 if CAN status hasn't been sampled. Each counter
+   * hits error-passive on its own, so this is the one to watch.
+   */
+  public int canErrorMax() {
+    if (canTxErrors < 0 || canRxErrors < 0) return -1;
+    return Math.max(canTxErrors, canRxErrors);
+  }
+}
@@ -5,22 +5,18 @@ import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.RobotBase;
-import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants.BatteryThresholds;
-import frc.robot.subsystems.Indexer;
-import frc.robot.subsystems.IntakeRoller;
-import frc.robot.subsystems.Shooter;
 import frc.robot.telemetry.TelemetryManager;
-import java.util.ArrayList;
-import java.util.HashMap;
+import frc.robot.telemetry.TelemetrySnapshot;
+import frc.robot.util.AlertRule.Notify;
 import java.util.List;
-import java.util.Map;
 import org.littletonrobotics.junction.Logger;
 
 /**
- * Monitors battery, motor temps, CAN bus, and loop timing. Elastic notifications are debounced to
- * prevent spam.
+ * Monitors battery, motor temps, CAN bus, and loop timing. Conditions are a declarative rule table
+ * (AlertRule) evaluated against the per-cycle TelemetrySnapshot. Alerts and Elastic notifications
+ * fire on transitions, and every transition is kept in a queryable timeline.
  */
 public class AlertManager {
   private static final AlertManager instance = new AlertManager();
@@ -42,43 +38,115 @@ public class AlertManager {
   // Battery hysteresis: once warning triggers, don't clear until voltage rises above CLEAR
   // threshold
   public static final double BATTERY_WARNING_CLEAR_V = 12.0;
-  private boolean inBatteryWarning = false;
 
   // Only warn about low battery when disabled (pre-match). Mid-match sag is normal.
   private final Debouncer disabledDebouncer = new Debouncer(1.5, Debouncer.DebounceType.kRising);
 
-  // WPILib Alerts for Driver Station
-  private final Alert batteryLowAlert = new Alert("Battery voltage low", AlertType.kWarning);
-  private final Alert batteryCriticalAlert =
-      new Alert("BATTERY CRITICAL - Replace now!", AlertType.kError);
-  private final Alert shooterTempAlert = new Alert("Shooter motor overheating", AlertType.kWarning);
-  private final Alert indexerTempAlert = new Alert("Indexer motor overheating", AlertType.kWarning);
-  private final Alert intakeTempAlert = new Alert("Intake motor overheating", AlertType.kWarning);
-  private final Alert intakeActuatorTempAlert =
-      new Alert("IntakeActuator motor overheating", AlertType.kWarning);
-  private final Alert canUtilizationAlert =
-      new Alert("CAN bus utilization high", AlertType.kWarning);
-  private final Alert canBusOffAlert = new Alert("CAN bus error detected", AlertType.kError);
-  private final Alert loopTimeWarningAlert =
-      new Alert("Loop time exceeding 20ms", AlertType.kWarning);
-  private final Alert loopTimeErrorAlert = new Alert("Loop time critical >40ms", AlertType.kError);
-  private final Alert indexerJamAlert = new Alert("Indexer jam detected", AlertType.kWarning);
-  private final Alert intakeJamAlert = new Alert("Intake jam detected", AlertType.kWarning);
-  private final Alert bandwidthWarningAlert =
-      new Alert("Network bandwidth > 70%", AlertType.kWarning);
-  private final Alert bandwidthCriticalAlert =
-      new Alert("Network bandwidth > 90% - REDUCE CAMERA!", AlertType.kError);
-
-  private final Alert brownoutRiskAlert =
-      new Alert("BROWNOUT IMMINENT - reduce power!", AlertType.kError);
-  private final Alert shooterStallAlert = new Alert("Shooter motor stalled", AlertType.kWarning);
-  private final Alert indexerStallAlert = new Alert("Indexer motor stalled", AlertType.kWarning);
-  private final Alert intakeStallAlert = new Alert("Intake motor stalled", AlertType.kWarning);
-
-  private final List<String> activeAlerts = new ArrayList<>();
-
-  // Elastic notification debouncing
-  private final Map<String, Double> lastElasticNotifyTimes = new HashMap<>();
+  // Signal vector the rules read. Filled from the snapshot each cycle, never reallocated.
+  static final int SIG_BATTERY_V = 0;
+  static final int SIG_DISABLED = 1;
+  static final int SIG_BROWNOUT_RISK = 2;
+  static final int SIG_SHOOTER_TEMP = 3;
+  static final int SIG_INDEXER_TEMP = 4;
+  static final int SIG_INTAKE_TEMP = 5;
+  static final int SIG_SHOOTER_STALL = 6;
+  static final int SIG_INDEXER_STALL = 7;
+  static final int SIG_INTAKE_STALL = 8;
+  static final int SIG_INDEXER_JAM = 9;
+  static final int SIG_INTAKE_JAM = 10;
+  static final int SIG_CAN_BUS_OFF = 11;
+  static final int SIG_CAN_UTILIZATION = 12;
+  static final int SIG_BANDWIDTH_PERCENT = 13;
+  static final int SIG_BANDWIDTH_WARNING = 14;
+  static final int SIG_BANDWIDTH_CRITICAL = 15;
+  static final int SIG_LOOP_MS = 16;
+  static final int SIGNAL_COUNT = 17;
+
+  private final double[] signals = new double[SIGNAL_COUNT];
+
+  // Order matters: a rule can only be superseded by one listed above it
+  private static List<AlertRule> buildRules() {
+    return List.of(
+        AlertRule.below("BatteryCritical", SIG_BATTERY_V, BATTERY_CRITICAL_V)
+            .alert("BATTERY CRITICAL - Replace now!", AlertType.kError)
+            .notify(Notify.ALWAYS, "Battery Critical", "Battery at %.1fV - REPLACE NOW!", true)
+            .notifyDebounce(BATTERY_DEBOUNCE_TIME_S),
+        AlertRule.below("BatteryLow", SIG_BATTERY_V, BATTERY_WARNING_V)
+            .clearAt(BATTERY_WARNING_CLEAR_V)
+            .gate(SIG_DISABLED)
+            .supersededBy("BatteryCritical")
+            .alert("Battery voltage low", AlertType.kWarning)
+            .notify(Notify.SKIP_ON_FMS, "Battery Low", "Battery at %.1fV", false)
+            .notifyDebounce(BATTERY_DEBOUNCE_TIME_S),
+        AlertRule.whenTrue("BrownoutRisk", SIG_BROWNOUT_RISK)
+            .alert("BROWNOUT IMMINENT - reduce power!", AlertType.kError)
+            .notify(
+                Notify.ALWAYS,
+                "BROWNOUT IMMINENT",
+                "Voltage dropping fast at %.1fV - reduce power!",
+                true)
+            .notifyValue(SIG_BATTERY_V)
+            .notifyDebounce(BATTERY_DEBOUNCE_TIME_S),
+        motorTempRule("Shooter", SIG_SHOOTER_TEMP),
+        motorTempRule("Indexer", SIG_INDEXER_TEMP),
+        motorTempRule("Intake", SIG_INTAKE_TEMP),
+        stallRule("Shooter", SIG_SHOOTER_STALL),
+        stallRule("Indexer", SIG_INDEXER_STALL),
+        stallRule("Intake", SIG_INTAKE_STALL),
+        AlertRule.above("CANBusOff", SIG_CAN_BUS_OFF, 0)
+            .alert("CAN bus error detected", AlertType.kError)
+            .notify(Notify.ALWAYS, "CAN Bus Error", "CAN bus off detected - check wiring!", true)
+            .notifyDebounce(DEBOUNCE_TIME_S),
+        AlertRule.above("CANUtilizationHigh", SIG_CAN_UTILIZATION, CAN_UTILIZATION_WARNING)
+            .supersededBy("CANBusOff")
+            .alert("CAN bus utilization high", AlertType.kWarning),
+        jamRule("Indexer", SIG_INDEXER_JAM),
+        jamRule("Intake", SIG_INTAKE_JAM),
+        AlertRule.whenTrue("BandwidthCritical", SIG_BANDWIDTH_CRITICAL)
+            .alert("Network bandwidth > 90% - REDUCE CAMERA!", AlertType.kError)
+            .notify(
+                Notify.ALWAYS, "Bandwidth Critical", "%.0f%% - REDUCE CAMERA RESOLUTION!", true)
+            .notifyValue(SIG_BANDWIDTH_PERCENT)
+            .notifyDebounce(DEBOUNCE_TIME_S),
+        AlertRule.whenTrue("BandwidthWarning", SIG_BANDWIDTH_WARNING)
+            .supersededBy("BandwidthCritical")
+            .alert("Network bandwidth > 70%", AlertType.kWarning),
+        AlertRule.above("LoopTimeCritical", SIG_LOOP_MS, LOOP_TIME_ERROR_MS)
+            .group(AlertRule.GROUP_LOOP)
+            .alert("Loop time critical >40ms", AlertType.kError),
+        AlertRule.above("LoopTimeWarning", SIG_LOOP_MS, LOOP_TIME_WARNING_MS)
+            .group(AlertRule.GROUP_LOOP)
+            .supersededBy("LoopTimeCritical")
+            .alert("Loop time exceeding 20ms", AlertType.kWarning));
+  }
+
+  private static AlertRule motorTempRule(String name, int signal) {
+    return AlertRule.above(name + "Overheat", signal, MOTOR_TEMP_WARNING_C)
+        .alert(name + " motor overheating", AlertType.kWarning)
+        .notify(Notify.ALWAYS, name + " Overheating", name + " at %.0f°C - CRITICAL!", true)
+        .notifyPast(MOTOR_TEMP_CRITICAL_C)
+        .notifyDebounce(DEBOUNCE_TIME_S);
+  }
+
+  private static AlertRule stallRule(String name, int signal) {
+    return AlertRule.whenTrue(name + "Stall", signal)
+        .alert(name + " motor stalled", AlertType.kWarning)
+        .notify(
+            Notify.ALWAYS,
+            name + " Stalled",
+            name + " motor stalled - check for obstruction",
+            true)
+        .notifyDebounce(DEBOUNCE_TIME_S);
+  }
+
+  private static AlertRule jamRule(String name, int signal) {
+    return AlertRule.whenTrue(name + "Jam", signal)
+        .alert(name + " jam detected", AlertType.kWarning)
+        .notify(Notify.ALWAYS, name + " Jam", name + " jam detected - clear manually", true)
+        .notifyDebounce(DEBOUNCE_TIME_S);
+  }
+
+  private final AlertRuleEngine rules = new AlertRuleEngine(buildRules());
 
   private AlertManager() {}
 
@@ -91,174 +159,32 @@ public class AlertManager {
    * logActiveAlerts() after both.
    */
   public void checkAll() {
-    activeAlerts.clear();
-
-    checkBattery();
-    checkBrownoutRisk();
-    checkMotorTemps();
-    checkMotorStalls();
-    checkCANBus();
-    checkJams();
-    checkBandwidth();
+    TelemetrySnapshot snap = TelemetryManager.getInstance().getSnapshot();
+    signals[SIG_BATTERY_V] = snap.batteryVoltage;
+    signals[SIG_DISABLED] = disabledDebouncer.calculate(DriverStation.isDisabled()) ? 1 : 0;
+    signals[SIG_BROWNOUT_RISK] = snap.brownoutRisk ? 1 : 0;
+    signals[SIG_SHOOTER_TEMP] = snap.motorTempsC[TelemetrySnapshot.MOTOR_SHOOTER];
+    signals[SIG_INDEXER_TEMP] = snap.motorTempsC[TelemetrySnapshot.MOTOR_INDEXER];
+    signals[SIG_INTAKE_TEMP] = snap.motorTempsC[TelemetrySnapshot.MOTOR_INTAKE];
+    signals[SIG_SHOOTER_STALL] = snap.shooterStalled ? 1 : 0;
+    signals[SIG_INDEXER_STALL] = snap.indexerStalled ? 1 : 0;
+    signals[SIG_INTAKE_STALL] = snap.intakeStalled ? 1 : 0;
+    signals[SIG_INDEXER_JAM] = snap.indexerJam ? 1 : 0;
+    signals[SIG_INTAKE_JAM] = snap.intakeJam ? 1 : 0;
+    signals[SIG_CAN_BUS_OFF] = snap.canBusOffCount;
+    signals[SIG_CAN_UTILIZATION] = snap.canUtilization;
+    signals[SIG_BANDWIDTH_PERCENT] = snap.bandwidthPercent;
+    signals[SIG_BANDWIDTH_WARNING] = snap.bandwidthWarning ? 1 : 0;
+    signals[SIG_BANDWIDTH_CRITICAL] = snap.bandwidthCritical ? 1 : 0;
+
+    rules.evaluate(
+        AlertRule.GROUP_PERIODIC, signals, Timer.getFPGATimestamp(), DriverStation.isFMSAttached());
   }
 
   /** Log active alerts. Call after checkAll() and checkLoopTime() complete. */
   public void logActiveAlerts() {
-    Logger.recordOutput("Alerts/ActiveCount", activeAlerts.size());
-    Logger.recordOutput(
-        "Alerts/ActiveList", activeAlerts.isEmpty() ? "none" : String.join(", ", activeAlerts));
-  }
-
-  private void checkBattery() {
-    double voltage = RobotController.getBatteryVoltage();
-    boolean isDisabled = disabledDebouncer.calculate(DriverStation.isDisabled());
-
-    if (voltage < BATTERY_CRITICAL_V) {
-      // CRITICAL: always on, brownout danger
-      inBatteryWarning = true;
-      batteryCriticalAlert.set(true);
-      batteryLowAlert.set(false);
-      addAlert("BatteryCritical");
-      notifyElasticBattery(
-          "BatteryCritical",
-          "Battery Critical",
-          String.format("Battery at %.1fV - REPLACE NOW!", voltage),
-          true);
-    } else if (isDisabled
-        && (voltage < BATTERY_WARNING_V
-            || (inBatteryWarning && voltage < BATTERY_WARNING_CLEAR_V))) {
-      // WARNING: only when disabled (pre-match). Mid-match sag is normal.
-      // Skip the Elastic notification on FMS since drivers can't see the
-      // dashboard between matches either (queue marshals rush them out).
-      inBatteryWarning = true;
-      batteryCriticalAlert.set(false);
-      batteryLowAlert.set(true);
-      addAlert("BatteryLow");
-      if (!DriverStation.isFMSAttached()) {
-        notifyElasticBattery(
-            "BatteryLow", "Battery Low", String.format("Battery at %.1fV", voltage), false);
-      }
-    } else {
-      inBatteryWarning = false;
-      batteryCriticalAlert.set(false);
-      batteryLowAlert.set(false);
-    }
-  }
-
-  private void checkBrownoutRisk() {
-    try {
-      TelemetryManager tm = TelemetryManager.getInstance();
-      if (tm.isBrownoutRisk()) {
-        brownoutRiskAlert.set(true);
-        addAlert("BrownoutRisk");
-        notifyElasticBattery(
-            "BrownoutRisk",
-            "BROWNOUT IMMINENT",
-            String.format(
-                "Voltage dropping fast at %.1fV - reduce power!",
-                RobotController.getBatteryVoltage()),
-            true);
-      } else {
-        brownoutRiskAlert.set(false);
-      }
-    } catch (Throwable t) {
-      brownoutRiskAlert.set(false);
-    }
-  }
-
-  private void checkMotorTemps() {
-    checkOneMotorTemp("Shooter", shooterTempAlert, () -> Shooter.getInstance().getTemperature());
-    checkOneMotorTemp("Indexer", indexerTempAlert, () -> Indexer.getInstance().getTemperature());
-    checkOneMotorTemp("Intake", intakeTempAlert, () -> IntakeRoller.getInstance().getTemperature());
-  }
-
-  //   checkOneMotorTemp(
-  //       "IntakeActuator",
-  //       intakeActuatorTempAlert,
-  //       () -> IntakePivot.getInstance().getTemperature());
-  // }
-
-  private void checkOneMotorTemp(
-      String name, Alert alert, java.util.function.DoubleSupplier tempFn) {
-    try {
-      double temp = tempFn.getAsDouble();
-      if (temp > MOTOR_TEMP_WARNING_C) {
-        alert.set(true);
-        addAlert(name + "Overheat");
-        if (temp > MOTOR_TEMP_CRITICAL_C) {
-          notifyElastic(
-              name + "Overheat",
-              name + " Overheating",
-              String.format("%s at %.0f°C - CRITICAL!", name, temp),
-              true);
-        }
-      } else {
-        alert.set(false);
-      }
-    } catch (Throwable t) {
-      alert.set(false);
-    }
-  }
-
-  private void checkMotorStalls() {
-    try {
-      TelemetryManager tm = TelemetryManager.getInstance();
-
-      if (tm.isShooterStalled()) {
-        shooterStallAlert.set(true);
-        addAlert("ShooterStall");
-        notifyElastic(
-            "ShooterStall",
-            "Shooter Stalled",
-            "Shooter motor stalled - check for obstruction",
-            true);
-      } else {
-        shooterStallAlert.set(false);
-      }
-
-      if (tm.isIndexerStalled()) {
-        indexerStallAlert.set(true);
-        addAlert("IndexerStall");
-        notifyElastic(
-            "IndexerStall",
-            "Indexer Stalled",
-            "Indexer motor stalled - check for obstruction",
-            true);
-      } else {
-        indexerStallAlert.set(false);
-      }
-
-      if (tm.isIntakeStalled()) {
-        intakeStallAlert.set(true);
-        addAlert("IntakeStall");
-        notifyElastic(
-            "IntakeStall", "Intake Stalled", "Intake motor stalled - check for obstruction", true);
-      } else {
-        intakeStallAlert.set(false);
-      }
-    } catch (Throwable t) {
-      shooterStallAlert.set(false);
-      indexerStallAlert.set(false);
-      intakeStallAlert.set(false);
-    }
-  }
-
-  private void checkCANBus() {
-    var canStatus = RobotController.getCANStatus();
-
-    if (canStatus.busOffCount > 0) {
-      canBusOffAlert.set(true);
-      canUtilizationAlert.set(false);
-      addAlert("CANBusOff");
-      notifyElastic("CANBusOff", "CAN Bus Error", "CAN bus off detected - check wiring!", true);
-    } else if (canStatus.percentBusUtilization > CAN_UTILIZATION_WARNING) {
-      canBusOffAlert.set(false);
-      canUtilizationAlert.set(true);
-      addAlert("CANUtilizationHigh");
-    } else {
-      canBusOffAlert.set(false);
-      canUtilizationAlert.set(false);
-    }
+    Logger.recordOutput("Alerts/ActiveCount", rules.getActiveCount());
+    Logger.recordOutput("Alerts/ActiveList", rules.getActiveList());
   }
 
   /**
@@ -267,104 +193,43 @@ public class AlertManager {
    * running in the same thread.
    */
   public void checkLoopTime(double loopTimeMs) {
-    if (RobotBase.isSimulation()) {
-      loopTimeErrorAlert.set(false);
-      loopTimeWarningAlert.set(false);
-      return;
-    }
-    if (loopTimeMs > LOOP_TIME_ERROR_MS) {
-      loopTimeErrorAlert.set(true);
-      loopTimeWarningAlert.set(false);
-      addAlert("LoopTimeCritical");
-    } else if (loopTimeMs > LOOP_TIME_WARNING_MS) {
-      loopTimeErrorAlert.set(false);
-      loopTimeWarningAlert.set(true);
-      addAlert("LoopTimeWarning");
-    } else {
-      loopTimeErrorAlert.set(false);
-      loopTimeWarningAlert.set(false);
-    }
+    signals[SIG_LOOP_MS] = RobotBase.isSimulation() ? 0 : loopTimeMs;
+    rules.evaluate(
+        AlertRule.GROUP_LOOP, signals, Timer.getFPGATimestamp(), DriverStation.isFMSAttached());
   }
 
-  private void checkJams() {
-    if (TelemetryManager.getInstance().isIndexerJamDetected()) {
-      indexerJamAlert.set(true);
-      addAlert("IndexerJam");
-      notifyElastic("IndexerJam", "Indexer Jam", "Indexer jam detected - clear manually", true);
-    } else {
-      indexerJamAlert.set(false);
-    }
-
-    if (TelemetryManager.getInstance().isIntakeJamDetected()) {
-      intakeJamAlert.set(true);
-      addAlert("IntakeJam");
-      notifyElastic("IntakeJam", "Intake Jam", "Intake jam detected - clear manually", true);
-    } else {
-      intakeJamAlert.set(false);
-    }
-  }
-
-  private void checkBandwidth() {
-    TelemetryManager tm = TelemetryManager.getInstance();
-
-    if (tm.isBandwidthCritical()) {
-      bandwidthCriticalAlert.set(true);
-      bandwidthWarningAlert.set(false);
-      addAlert("BandwidthCritical");
-      notifyElastic(
-          "BandwidthCritical",
-          "Bandwidth Critical",
-          String.format("%.0f%% - REDUCE CAMERA RESOLUTION!", tm.getBandwidthPercent()),
-          true);
-    } else if (tm.isBandwidthWarning()) {
-      bandwidthCriticalAlert.set(false);
-      bandwidthWarningAlert.set(true);
-      addAlert("BandwidthWarning");
-    } else {
-      bandwidthCriticalAlert.set(false);
-      bandwidthWarningAlert.set(false);
-    }
+  /** Clears all debounce timers. Call on mode transitions if desired. */
+  public void clearDebounce() {
+    rules.clearNotifyDebounce();
   }
 
-  private void addAlert(String alertName) {
-    activeAlerts.add(alertName);
+  public List<String> getActiveAlerts() {
+    return rules.getActiveNames();
   }
 
-  /** Sends notification to Elastic with debouncing. */
-  private void notifyElastic(String key, String title, String message, boolean isError) {
-    notifyElasticWithDebounce(key, title, message, isError, DEBOUNCE_TIME_S);
+  public int getActiveAlertCount() {
+    return rules.getActiveCount();
   }
 
-  /** Battery alerts use a longer debounce to avoid spam with weak batteries. */
-  private void notifyElasticBattery(String key, String title, String message, boolean isError) {
-    notifyElasticWithDebounce(key, title, message, isError, BATTERY_DEBOUNCE_TIME_S);
+  public boolean isAlertActive(String name) {
+    return rules.isActive(name);
   }
 
-  private void notifyElasticWithDebounce(
-      String key, String title, String message, boolean isError, double debounceSec) {
-    double now = Timer.getFPGATimestamp();
-    Double lastTime = lastElasticNotifyTimes.get(key);
-
-    if (lastTime == null || (now - lastTime) > debounceSec) {
-      if (isError) {
-        ElasticUtil.sendError(title, message);
-      } else {
-        ElasticUtil.sendWarning(title, message);
-      }
-      lastElasticNotifyTimes.put(key, now);
-    }
+  /** How many times the alert has gone active since boot. */
+  public int getActivationCount(String name) {
+    return rules.getActivationCount(name);
   }
 
-  /** Clears all debounce timers. Call on mode transitions if desired. */
-  public void clearDebounce() {
-    lastElasticNotifyTimes.clear();
+  /** Alert on/off transitions since the given FPGA timestamp, oldest first. */
+  public List<String> getAlertTimeline(double sinceTimestamp) {
+    return rules.getTimeline(sinceTimestamp);
   }
 
-  public List<String> getActiveAlerts() {
-    return new ArrayList<>(activeAlerts);
+  AlertRuleEngine getRules() {
+    return rules;
   }
 
-  public int getActiveAlertCount() {
-    return activeAlerts.size();
+  Alert getAlert(String name) {
+    return rules.getAlert(name);
   }
 }
@@ -0,0 +1,142 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Alert.AlertType;
+
+/**
+ * One row of the alert rule table: which signal, which way, threshold/clear level, debounce,
+ * severity and how to notify. Built once at startup, never touched per cycle.
+ *
+ * <p>Example: {@code AlertRule.below("BatteryLow", SIG_BATTERY_V, 11.5).clearAt(12.0)}
+ */
+public final class AlertRule {
+  /** Elastic notification policy. */
+  public enum Notify {
+    NONE,
+    ALWAYS,
+    // drivers can't see the dashboard in the queue, so don't bother on FMS
+    SKIP_ON_FMS
+  }
+
+  /** Rules in this group run from checkAll(). */
+  public static final int GROUP_PERIODIC = 0;
+  /** Rules in this group run from checkLoopTime(). */
+  public static final int GROUP_LOOP = 1;
+
+  final String name;
+  final int signal;
+  final boolean above;
+  final double threshold;
+  double clearThreshold;
+  double debounceSec = 0;
+  AlertType severity = AlertType.kWarning;
+  String text;
+  int gateSignal = -1;
+  String supersededBy = null;
+  int group = GROUP_PERIODIC;
+
+  Notify notify = Notify.NONE;
+  String notifyTitle = null;
+  String notifyFormat = null;
+  int notifySignal = -1;
+  double notifyLevel = Double.NaN;
+  double notifyDebounceSec = 5.0;
+  boolean notifyAsError = false;
+
+  private AlertRule(String name, int signal, boolean above, double threshold) {
+    this.name = name;
+    this.signal = signal;
+    this.above = above;
+    this.threshold = threshold;
+    this.clearThreshold = threshold;
+    this.text = name;
+  }
+
+  /** Active while signal is above threshold. */
+  public static AlertRule above(String name, int signal, double threshold) {
+    return new AlertRule(name, signal, true, threshold);
+  }
+
+  /** Active while signal is below threshold. */
+  public static AlertRule below(String name, int signal, double threshold) {
+    return new AlertRule(name, signal, false, threshold);
+  }
+
+  /** Active while a 0/1 signal is 1. */
+  public static AlertRule whenTrue(String name, int signal) {
+    return new AlertRule(name, signal, true, 0.5);
+  }
+
+  /** Hysteresis: once active, stays active until the signal crosses this level instead. */
+  public AlertRule clearAt(double level) {
+    this.clearThreshold = level;
+    return this;
+  }
+
+  /** Condition must hold this long before the alert goes active. */
+  public AlertRule debounce(double seconds) {
+    this.debounceSec = seconds;
+    return this;
+  }
+
+  /** Driver Station alert text and severity. */
+  public AlertRule alert(String text, AlertType severity) {
+    this.text = text;
+    this.severity = severity;
+    return this;
+  }
+
+  /** Only evaluate while this 0/1 signal is 1. Closed gate clears the latch. */
+  public AlertRule gate(int signal) {
+    this.gateSignal = signal;
+    return this;
+  }
+
+  /**
+   * A more severe rule for the same condition (e.g. BatteryCritical over BatteryLow). While it is
+   * active this rule reports inactive but stays latched, so it picks up when the severe one clears.
+   * The other rule must come earlier in the table.
+   */
+  public AlertRule supersededBy(String ruleName) {
+    this.supersededBy = ruleName;
+    return this;
+  }
+
+  public AlertRule group(int group) {
+    this.group = group;
+    return this;
+  }
+
+  /**
+   * Send an Elastic notification on the rising edge. format gets the value of the rule's own
+   * signal through String.format.
+   */
+  public AlertRule notify(Notify policy, String title, String format, boolean asError) {
+    this.notify = policy;
+    this.notifyTitle = title;
+    this.notifyFormat = format;
+    this.notifyAsError = asError;
+    return this;
+  }
+
+  /** Format the notification with a different signal than the one the rule watches. */
+  public AlertRule notifyValue(int signal) {
+    this.notifySignal = signal;
+    return this;
+  }
+
+  /** Only notify once the signal is past this level, not as soon as the alert goes active. */
+  public AlertRule notifyPast(double level) {
+    this.notifyLevel = level;
+    return this;
+  }
+
+  /** Minimum time between notifications for this rule, even if it flaps. */
+  public AlertRule notifyDebounce(double seconds) {
+    this.notifyDebounceSec = seconds;
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,303 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Alert;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates an AlertRule table against a primitive signal vector. All per-rule state lives in
+ * parallel arrays and the per-cycle path does not allocate: strings are only built on a transition
+ * or a notification.
+ *
+ * <p>Every on/off transition goes into a fixed-size timeline ring that can be queried afterwards
+ * (how many times did IndexerJam fire this match, when did BrownoutRisk last trip).
+ */
+public class AlertRuleEngine {
+  private static final int TIMELINE_SIZE = 256;
+
+  // Rule definitions, flattened from AlertRule
+  private final int ruleCount;
+  private final String[] names;
+  private final int[] signal;
+  private final boolean[] above;
+  private final double[] threshold;
+  private final double[] clearThreshold;
+  private final double[] debounceSec;
+  private final int[] gateSignal;
+  private final int[] supersededBy;
+  private final int[] group;
+  private final Alert[] alerts;
+
+  private final AlertRule.Notify[] notify;
+  private final String[] notifyTitle;
+  private final String[] notifyFormat;
+  private final int[] notifySignal;
+  private final double[] notifyLevel;
+  private final double[] notifyDebounceSec;
+  private final boolean[] notifyAsError;
+
+  // Per-rule state
+  private final boolean[] latched;
+  private final boolean[] active;
+  private final double[] latchedSince;
+  private final boolean[] notifiedThisActivation;
+  private final double[] lastNotifyTime;
+  private final int[] activationCount;
+  private final double[] lastActivationTime;
+
+  private int activeCount = 0;
+  private boolean activeListDirty = true;
+  private String activeList = "none";
+
+  // Transition timeline ring
+  private final int[] timelineRule = new int[TIMELINE_SIZE];
+  private final double[] timelineTime = new double[TIMELINE_SIZE];
+  private final double[] timelineValue = new double[TIMELINE_SIZE];
+  private final boolean[] timelineRising = new boolean[TIMELINE_SIZE];
+  private int timelineHead = 0;
+  private int timelineCount = 0;
+
+  public AlertRuleEngine(List<AlertRule> rules) {
+    ruleCount = rules.size();
+    names = new String[ruleCount];
+    signal = new int[ruleCount];
+    above = new boolean[ruleCount];
+    threshold = new double[ruleCount];
+    clearThreshold = new double[ruleCount];
+    debounceSec = new double[ruleCount];
+    gateSignal = new int[ruleCount];
+    supersededBy = new int[ruleCount];
+    group = new int[ruleCount];
+    alerts = new Alert[ruleCount];
+    notify = new AlertRule.Notify[ruleCount];
+    notifyTitle = new String[ruleCount];
+    notifyFormat = new String[ruleCount];
+    notifySignal = new int[ruleCount];
+    notifyLevel = new double[ruleCount];
+    notifyDebounceSec = new double[ruleCount];
+    notifyAsError = new boolean[ruleCount];
+
+    latched = new boolean[ruleCount];
+    active = new boolean[ruleCount];
+    latchedSince = new double[ruleCount];
+    notifiedThisActivation = new boolean[ruleCount];
+    lastNotifyTime = new double[ruleCount];
+    activationCount = new int[ruleCount];
+    lastActivationTime = new double[ruleCount];
+
+    for (int i = 0; i < ruleCount; i++) {
+      AlertRule r = rules.get(i);
+      if (indexOf(r.name) >= 0) {
+        throw new IllegalArgumentException("Duplicate alert rule: " + r.name);
+      }
+      names[i] = r.name;
+      signal[i] = r.signal;
+      above[i] = r.above;
+      threshold[i] = r.threshold;
+      clearThreshold[i] = r.clearThreshold;
+      debounceSec[i] = r.debounceSec;
+      gateSignal[i] = r.gateSignal;
+      group[i] = r.group;
+      alerts[i] = new Alert(r.text, r.severity);
+
+      supersededBy[i] = -1;
+      if (r.supersededBy != null) {
+        int s = indexOf(r.supersededBy);
+        if (s < 0) {
+          throw new IllegalArgumentException(
+              r.name + " superseded by " + r.supersededBy + ", which must come earlier");
+        }
+        supersededBy[i] = s;
+      }
+
+      notify[i] = r.notify;
+      notifyTitle[i] = r.notifyTitle;
+      notifyFormat[i] = r.notifyFormat;
+      notifySignal[i] = r.notifySignal >= 0 ? r.notifySignal : r.signal;
+      notifyLevel[i] = r.notifyLevel;
+      notifyDebounceSec[i] = r.notifyDebounceSec;
+      notifyAsError[i] = r.notifyAsError;
+
+      lastNotifyTime[i] = Double.NaN;
+      lastActivationTime[i] = Double.NaN;
+    }
+  }
+
+  /** Evaluate every rule in the group. O(rules), no allocation unless something transitions. */
+  public void evaluate(int ruleGroup, double[] signals, double now, boolean fmsAttached) {
+    for (int i = 0; i < ruleCount; i++) {
+      if (group[i] == ruleGroup) {
+        evaluateRule(i, signals, now, fmsAttached);
+      }
+    }
+  }
+
+  private void evaluateRule(int i, double[] signals, double now, boolean fmsAttached) {
+    double v = signals[signal[i]];
+    boolean wasLatched = latched[i];
+    boolean superseded = supersededBy[i] >= 0 && active[supersededBy[i]];
+
+    if (superseded) {
+      // Severe level implies this one, hold the latch so we take over when it clears
+      latched[i] = true;
+    } else if ((gateSignal[i] >= 0 && signals[gateSignal[i]] < 0.5) || Double.isNaN(v)) {
+      latched[i] = false;
+    } else if (above[i]) {
+      latched[i] = wasLatched ? v > clearThreshold[i] : v > threshold[i];
+    } else {
+      latched[i] = wasLatched ? v < clearThreshold[i] : v < threshold[i];
+    }
+
+    if (latched[i] && !wasLatched) {
+      latchedSince[i] = now;
+    }
+
+    boolean nowActive =
+        latched[i] && !superseded && (now - latchedSince[i]) >= debounceSec[i];
+
+    if (nowActive != active[i]) {
+      active[i] = nowActive;
+      alerts[i].set(nowActive);
+      activeCount += nowActive ? 1 : -1;
+      activeListDirty = true;
+      recordTransition(i, now, v, nowActive);
+      if (nowActive) {
+        activationCount[i]++;
+        lastActivationTime[i] = now;
+        notifiedThisActivation[i] = false;
+      }
+    }
+
+    if (nowActive && !notifiedThisActivation[i] && notify[i] != AlertRule.Notify.NONE) {
+      maybeNotify(i, signals, now, fmsAttached, v);
+    }
+  }
+
+  private void maybeNotify(int i, double[] signals, double now, boolean fmsAttached, double v) {
+    if (!Double.isNaN(notifyLevel[i])) {
+      boolean past = above[i] ? v > notifyLevel[i] : v < notifyLevel[i];
+      if (!past) return;
+    }
+    notifiedThisActivation[i] = true;
+    if (notify[i] == AlertRule.Notify.SKIP_ON_FMS && fmsAttached) return;
+    if (!Double.isNaN(lastNotifyTime[i]) && (now - lastNotifyTime[i]) <= notifyDebounceSec[i]) {
+      return;
+    }
+    lastNotifyTime[i] = now;
+    String message = String.format(notifyFormat[i], signals[notifySignal[i]]);
+    if (notifyAsError[i]) {
+      ElasticUtil.sendError(notifyTitle[i], message);
+    } else {
+      ElasticUtil.sendWarning(notifyTitle[i], message);
+    }
+  }
+
+  private void recordTransition(int rule, double now, double value, boolean rising) {
+    timelineRule[timelineHead] = rule;
+    timelineTime[timelineHead] = now;
+    timelineValue[timelineHead] = value;
+    timelineRising[timelineHead] = rising;
+    timelineHead = (timelineHead + 1) % TIMELINE_SIZE;
+    if (timelineCount < TIMELINE_SIZE) timelineCount++;
+    EventMarker.mark(EventMarker.ALERT, names[rule] + (rising ? " ON" : " OFF"));
+  }
+
+  /** Forget notification timestamps so the next activation notifies immediately. */
+  public void clearNotifyDebounce() {
+    for (int i = 0; i < ruleCount; i++) {
+      lastNotifyTime[i] = Double.NaN;
+    }
+  }
+
+  /** Comma-separated active rule names, rebuilt only after a transition. */
+  public String getActiveList() {
+    if (activeListDirty) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < ruleCount; i++) {
+        if (active[i]) {
+          if (sb.length() > 0) sb.append(", ");
+          sb.append(names[i]);
+        }
+      }
+      activeList = sb.length() > 0 ? sb.toString() : "none";
+      activeListDirty = false;
+    }
+    return activeList;
+  }
+
+  public List<String> getActiveNames() {
+    List<String> list = new ArrayList<>(activeCount);
+    for (int i = 0; i < ruleCount; i++) {
+      if (active[i]) list.add(names[i]);
+    }
+    return list;
+  }
+
+  public int getActiveCount() {
+    return activeCount;
+  }
+
+  public boolean isActive(String name) {
+    int i = indexOf(name);
+    return i >= 0 && active[i];
+  }
+
+  /** True while the condition holds, even if superseded or still debouncing. */
+  public boolean isLatched(String name) {
+    int i = indexOf(name);
+    return i >= 0 && latched[i];
+  }
+
+  public int getActivationCount(String name) {
+    int i = indexOf(name);
+    return i >= 0 ? activationCount[i] : 0;
+  }
+
+  /** FPGA time of the most recent activation, NaN if never. */
+  public double getLastActivationTime(String name) {
+    int i = indexOf(name);
+    return i >= 0 ? lastActivationTime[i] : Double.NaN;
+  }
+
+  /** Transitions at or after sinceTimestamp, oldest first, as "[t] Name ON (value)". */
+  public List<String> getTimeline(double sinceTimestamp) {
+    List<String> out = new ArrayList<>();
+    int start = (timelineHead - timelineCount + TIMELINE_SIZE) % TIMELINE_SIZE;
+    for (int k = 0; k < timelineCount; k++) {
+      int idx = (start + k) % TIMELINE_SIZE;
+      if (timelineTime[idx] < sinceTimestamp) continue;
+      out.add(
+          String.format(
+              "[%.2f] %s %s (%.2f)",
+              timelineTime[idx],
+              names[timelineRule[idx]],
+              timelineRising[idx] ? "ON" : "OFF",
+              timelineValue[idx]));
+    }
+    return out;
+  }
+
+  public int getTimelineCount() {
+    return timelineCount;
+  }
+
+  /** Driver Station alert backing a rule, null if unknown. */
+  Alert getAlert(String name) {
+    int i = indexOf(name);
+    return i >= 0 ? alerts[i] : null;
+  }
+
+  boolean hasPendingNotifyDebounce() {
+    for (int i = 0; i < ruleCount; i++) {
+      if (!Double.isNaN(lastNotifyTime[i])) return true;
+    }
+    return false;
+  }
+
+  private int indexOf(String name) {
+    for (int i = 0; i < ruleCount; i++) {
+      if (name.equals(names[i])) return i;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,343 @@
+package frc.robot.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.commands.PathPlannerAuto;
+import com.pathplanner.lib.path.PathPlannerPath;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Lazy replacement for AutoBuilder.buildAutoChooser(). buildAutoChooser() parses every .auto and
+ * .path file and builds every command at boot, which is most of our startup time. This lists auto
+ * names from the filenames only, then while disabled loads just the one the drivers picked.
+ *
+ * <p>Loading is two steps. A background thread reads the selected .auto file and every path it
+ * uses, which is all the file I/O and JSON parsing (and gives us the field preview and a broken
+ * file before the match). The command is then built on the main thread from update(), because
+ * command composition touches CommandScheduler state that isn't thread safe. The build walks the
+ * parsed auto the same way PathPlannerAuto does but follows the already loaded paths, so the main
+ * thread never touches a file and PathPlanner's loaders only ever run on the loader thread.
+ */
+public class AutoRegistry {
+  public static final String NONE = "None";
+  private static final String AUTO_EXTENSION = ".auto";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  // How long a cold build waits on the loader before parsing the selected auto itself
+  static final long COLD_PARSE_WAIT_MS = 100;
+
+  /** An .auto file read off the main thread, with every path it follows already loaded. */
+  private record ParsedAuto(
+      JsonNode command, boolean resetOdom, Map<String, PathPlannerPath> paths, Pose2d start) {}
+
+  private final File autoDir;
+
+  private final SendableChooser<String> chooser = new SendableChooser<>();
+  private final Map<String, Supplier<Command>> codeAutos = new LinkedHashMap<>();
+  private final List<String> fileAutos;
+
+  // Main thread only
+  private final Map<String, Command> builtCommands = new HashMap<>();
+  private String lastSelected = null;
+  private String pendingName = null;
+  private Future<?> pendingParse = null;
+
+  // Written by the loader thread, read by the main thread
+  private final Map<String, ParsedAuto> parsedAutos = new ConcurrentHashMap<>();
+  private final Map<String, Pose2d[]> previewPoses = new ConcurrentHashMap<>();
+  private final Map<String, String> parseErrors = new ConcurrentHashMap<>();
+  private volatile double lastParseMs = 0;
+
+  private final ExecutorService loader;
+
+  private double lastBuildMs = 0;
+  private int buildCount = 0;
+  private int coldBuilds = 0;
+  private int coldParseTimeouts = 0;
+
+  public AutoRegistry(File autoDir, String defaultAuto) {
+    this.autoDir = autoDir;
+    fileAutos = listAutoNames(autoDir);
+    chooser.setDefaultOption(NONE, NONE);
+    for (String name : fileAutos) {
+      if (name.equals(defaultAuto)) {
+        chooser.setDefaultOption(name, name);
+      } else {
+        chooser.addOption(name, name);
+      }
+    }
+    loader =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "AutoLoader");
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+  }
+
+  /** Auto names from *.auto filenames, sorted. No file contents are read. */
+  static List<String> listAutoNames(File autoDir) {
+    List<String> names = new ArrayList<>();
+    File[] files = autoDir.listFiles();
+    if (files == null) return names;
+    for (File f : files) {
+      String fileName = f.getName();
+      if (f.isFile() && fileName.endsWith(AUTO_EXTENSION)) {
+        names.add(fileName.substring(0, fileName.length() - AUTO_EXTENSION.length()));
+      }
+    }
+    names.sort(null);
+    return names;
+  }
+
+  /** Add an auto that isn't a PathPlanner file. The supplier only runs if it gets selected. */
+  public void addOption(String name, Supplier<Command> factory) {
+    codeAutos.put(name, factory);
+    chooser.addOption(name, name);
+  }
+
+  public SendableChooser<String> getChooser() {
+    return chooser;
+  }
+
+  public List<String> getAutoNames() {
+    List<String> all = new ArrayList<>(fileAutos);
+    all.addAll(codeAutos.keySet());
+    return all;
+  }
+
+  /**
+   * Call every disabled cycle. Kicks off a parse when the selection changes and builds the command
+   * once the parse has finished. At most one build per selection change.
+   */
+  public void update() {
+    String selected = chooser.getSelected();
+    if (selected == null) selected = NONE;
+
+    if (!selected.equals(lastSelected)) {
+      lastSelected = selected;
+      Logger.recordOutput("Auto/Selected", selected);
+      if (!NONE.equals(selected) && !builtCommands.containsKey(selected)) {
+        startParse(selected);
+      }
+      Pose2d[] preview = previewPoses.get(selected);
+      Logger.recordOutput("Auto/Preview", preview != null ? preview : new Pose2d[0]);
+    }
+
+    if (pendingParse != null && pendingParse.isDone()) {
+      String name = pendingName;
+      pendingParse = null;
+      pendingName = null;
+      String error = parseErrors.get(name);
+      if (error != null) {
+        ElasticUtil.sendWarning("Auto", name + " failed to load: " + error);
+      } else if (name.equals(lastSelected) && !builtCommands.containsKey(name)) {
+        build(name);
+        Logger.recordOutput("Auto/Preview", previewPoses.getOrDefault(name, new Pose2d[0]));
+      }
+    }
+
+    // Selection moved on while the old parse was running, so queue the new one now
+    if (pendingParse == null
+        && !NONE.equals(lastSelected)
+        && !builtCommands.containsKey(lastSelected)
+        && !parseErrors.containsKey(lastSelected)) {
+      startParse(lastSelected);
+    }
+
+    log();
+  }
+
+  private void startParse(String name) {
+    if (pendingParse != null) return;
+    if (codeAutos.containsKey(name) || parsedAutos.containsKey(name)) {
+      // Nothing to parse ahead of time, build straight away
+      build(name);
+      return;
+    }
+    pendingName = name;
+    pendingParse = loader.submit(() -> parse(name));
+  }
+
+  // Loader thread, or the main thread on a cold build while the loader is idle
+  private void parse(String name) {
+    long start = System.nanoTime();
+    try {
+      JsonNode root = MAPPER.readTree(new File(autoDir, name + AUTO_EXTENSION));
+      JsonNode command = root.path("command");
+      boolean choreo = root.path("choreoAuto").asBoolean(false);
+      Map<String, PathPlannerPath> paths = new HashMap<>();
+      List<Pose2d> poses = new ArrayList<>();
+      Pose2d startPose = null;
+      for (String pathName : pathNames(command)) {
+        PathPlannerPath path = paths.get(pathName);
+        if (path == null) {
+          path =
+              choreo
+                  ? PathPlannerPath.fromChoreoTrajectory(pathName)
+                  : PathPlannerPath.fromPathFile(pathName);
+          paths.put(pathName, path);
+        }
+        if (startPose == null) startPose = path.getStartingHolonomicPose().orElse(null);
+        poses.addAll(path.getPathPoses());
+      }
+      parsedAutos.put(
+          name,
+          new ParsedAuto(command, root.path("resetOdom").asBoolean(false), paths, startPose));
+      previewPoses.put(name, poses.toArray(new Pose2d[0]));
+    } catch (Throwable t) {
+      parseErrors.put(name, String.valueOf(t.getMessage()));
+    }
+    lastParseMs = (System.nanoTime() - start) / 1e6;
+  }
+
+  /** Names of the paths an auto's command tree follows, in the order they run. */
+  static List<String> pathNames(JsonNode command) {
+    List<String> names = new ArrayList<>();
+    collectPathNames(command, names);
+    return names;
+  }
+
+  private static void collectPathNames(JsonNode command, List<String> names) {
+    JsonNode data = command.path("data");
+    if ("path".equals(command.path("type").asText())) {
+      names.add(data.path("pathName").asText());
+      return;
+    }
+    for (JsonNode child : data.path("commands")) {
+      collectPathNames(child, names);
+    }
+  }
+
+  // Main thread
+  private Command build(String name) {
+    long start = System.nanoTime();
+    Command command;
+    try {
+      Supplier<Command> factory = codeAutos.get(name);
+      command = factory != null ? factory.get() : buildFromParsed(name);
+    } catch (Throwable t) {
+      ElasticUtil.sendWarning("Auto", name + " failed to build: " + t.getMessage());
+      command = Commands.none();
+    }
+    builtCommands.put(name, command);
+    buildCount++;
+    lastBuildMs = (System.nanoTime() - start) / 1e6;
+    return command;
+  }
+
+  /** Same command PathPlannerAuto(name) would make, from the loader thread's parsed copy. */
+  private Command buildFromParsed(String name) throws Exception {
+    ParsedAuto auto = parsedAutos.get(name);
+    if (auto == null) {
+      // Cold build. Give a running parse a moment to finish rather than load the same files on
+      // two threads, but never hang enable on a stuck loader. Past that, parse just this auto here.
+      if (pendingParse != null) {
+        try {
+          pendingParse.get(COLD_PARSE_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          coldParseTimeouts++;
+        }
+      }
+      if (!parsedAutos.containsKey(name)) parse(name);
+      auto = parsedAutos.get(name);
+      if (auto == null) throw new IllegalStateException(parseErrors.get(name));
+    }
+    Command command = toCommand(auto.command(), auto.paths());
+    if (auto.resetOdom() && auto.start() != null) {
+      command = Commands.sequence(AutoBuilder.resetOdom(auto.start()), command);
+    }
+    PathPlannerAuto wrapped = new PathPlannerAuto(command, auto.start());
+    wrapped.setName(name);
+    return wrapped;
+  }
+
+  private static Command toCommand(JsonNode command, Map<String, PathPlannerPath> paths) {
+    JsonNode data = command.path("data");
+    switch (command.path("type").asText()) {
+      case "path":
+        return AutoBuilder.followPath(paths.get(data.path("pathName").asText()));
+      case "named":
+        return NamedCommands.getCommand(data.path("name").asText());
+      case "wait":
+        return Commands.waitSeconds(data.path("waitTime").asDouble());
+      case "sequential":
+        return Commands.sequence(children(data, paths));
+      case "parallel":
+        return Commands.parallel(children(data, paths));
+      case "race":
+        return Commands.race(children(data, paths));
+      case "deadline":
+        Command[] group = children(data, paths);
+        if (group.length == 0) return Commands.none();
+        return Commands.deadline(group[0], Arrays.copyOfRange(group, 1, group.length));
+      default:
+        return Commands.none();
+    }
+  }
+
+  private static Command[] children(JsonNode data, Map<String, PathPlannerPath> paths) {
+    JsonNode commands = data.path("commands");
+    Command[] out = new Command[commands.size()];
+    for (int i = 0; i < out.length; i++) {
+      out[i] = toCommand(commands.get(i), paths);
+    }
+    return out;
+  }
+
+  /**
+   * Command for the current selection. Normally already built while disabled. If not (selection
+   * changed right before enable, or no disabled time at all) it is built here, which is logged as a
+   * cold build.
+   */
+  public Command getSelected() {
+    String selected = chooser.getSelected();
+    if (selected == null || NONE.equals(selected)) return Commands.none();
+    Command command = builtCommands.get(selected);
+    if (command == null) {
+      coldBuilds++;
+      command = build(selected);
+    }
+    return command;
+  }
+
+  private void log() {
+    Logger.recordOutput("Auto/Registry/Count", fileAutos.size() + codeAutos.size());
+    Logger.recordOutput("Auto/Registry/Built", builtCommands.size());
+    Logger.recordOutput("Auto/Registry/BuildCount", buildCount);
+    Logger.recordOutput("Auto/Registry/ColdBuilds", coldBuilds);
+    Logger.recordOutput("Auto/Registry/ColdParseTimeouts", coldParseTimeouts);
+    Logger.recordOutput("Auto/Registry/LastParseMs", lastParseMs);
+    Logger.recordOutput("Auto/Registry/LastBuildMs", lastBuildMs);
+    Logger.recordOutput("Auto/Registry/Loading", pendingParse != null);
+    Logger.recordOutput("Auto/Registry/Failed", parseErrors.keySet().toArray(new String[0]));
+  }
+
+  public boolean isReady(String name) {
+    return builtCommands.containsKey(name);
+  }
+
+  public int getColdBuilds() {
+    return coldBuilds;
+  }
+}
@@ -0,0 +1,350 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.RobotBase;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Always-on flight recorder. Keeps the last ~5s of key signals in a preallocated ring, and dumps
+ * it to disk when something goes wrong (uncaught exception, crash barrier trip, loop overrun).
+ *
+ * <p>Overruns and other routine triggers share a cooldown and a per-boot cap, and are dropped while
+ * a write is running. Crash dumps ("Uncaught", "CrashBarrier_*") skip all of that so an overrun
+ * just before a crash can't swallow it: they queue behind any write in flight, and only a repeat
+ * of the same barrier inside the cooldown, or a barrier past its own cap, is dropped. "Uncaught"
+ * is never dropped.
+ *
+ * <p>record() is called once per loop and writes primitives only, no allocation. A trigger freezes
+ * the ring into a second preallocated buffer and a background thread writes it out, so the main
+ * loop never touches the filesystem.
+ *
+ * <p>File format (big endian): magic "FR5962", u16 version, u16 channel count, u32 sample count,
+ * UTF reason, f64 trigger timestamp, UTF channel names, then samples oldest first. Timestamp is
+ * f64, every other channel is f32.
+ */
+public class FlightRecorder {
+  private static volatile FlightRecorder instance;
+
+  // 250 samples = 5s at 50Hz
+  public static final int CAPACITY = 250;
+  public static final double LOOP_OVERRUN_TRIGGER_MS = 40.0;
+
+  public static final int CH_TIMESTAMP = 0;
+  public static final int CH_LOOP_MS = 1;
+  public static final int CH_BATTERY_V = 2;
+  public static final int CH_SHOOTER_RPM = 3;
+  public static final int CH_ACTIVE_COMMANDS = 4;
+  public static final int CH_COMMAND_STARTS = 5;
+  public static final int CH_POSE_X = 6;
+  public static final int CH_POSE_Y = 7;
+  public static final int CH_HEADING_RAD = 8;
+  public static final int CH_CAN_TX_ERRORS = 9;
+  public static final int CH_CAN_RX_ERRORS = 10;
+  public static final int CHANNELS = 11;
+
+  static final String[] CHANNEL_NAMES = {
+    "Timestamp",
+    "LoopMs",
+    "BatteryV",
+    "ShooterRPM",
+    "ActiveCommands",
+    "CommandStarts",
+    "PoseX",
+    "PoseY",
+    "HeadingRad",
+    "CANTxErrors",
+    "CANRxErrors"
+  };
+
+  static final byte[] MAGIC = {'F', 'R', '5', '9', '6', '2'};
+  static final int VERSION = 1;
+
+  public static final String UNCAUGHT = "Uncaught";
+  public static final String CRASH_BARRIER_PREFIX = "CrashBarrier_";
+
+  // One routine dump per 10s max, and a hard cap per boot so a crash loop can't fill the disk
+  private static final double TRIGGER_COOLDOWN_SEC = 10.0;
+  static final int MAX_ROUTINE_DUMPS_PER_BOOT = 20;
+  static final int MAX_CRASH_DUMPS_PER_BOOT = 50;
+
+  // Sample-major: [sample * CHANNELS + channel]
+  private final double[] ring = new double[CAPACITY * CHANNELS];
+  private int writeIndex = 0;
+  private int sampleCount = 0;
+
+  /** A frozen copy of the ring handed to the writer thread, chronological order. */
+  private static final class Dump {
+    final double[] samples = new double[CAPACITY * CHANNELS];
+    int count;
+    String reason;
+    double timestamp;
+  }
+
+  // Two preallocated, enough for an overrun in flight plus a crash behind it. Anything past that
+  // is a crash dump and allocates; it's about to go down anyway.
+  private final ConcurrentLinkedQueue<Dump> spareDumps = new ConcurrentLinkedQueue<>();
+
+  private final File outputDir;
+  private final ExecutorService writer;
+  private final AtomicInteger writesInFlight = new AtomicInteger();
+  private volatile Future<?> pendingWrite = null;
+
+  private double lastTriggerTime = Double.NEGATIVE_INFINITY;
+  private final Map<String, Double> lastCrashTriggerTime = new HashMap<>();
+  private int routineDumpCount = 0;
+  private int crashDumpCount = 0;
+  private int dumpCount = 0;
+  private int droppedTriggers = 0;
+  private volatile int writeFailures = 0;
+  private volatile String lastDumpFile = "none";
+  private String lastReason = "none";
+
+  public static FlightRecorder getInstance() {
+    if (instance == null) {
+      instance = new FlightRecorder(defaultOutputDir());
+    }
+    return instance;
+  }
+
+  FlightRecorder(File outputDir) {
+    this.outputDir = outputDir;
+    spareDumps.add(new Dump());
+    spareDumps.add(new Dump());
+    this.writer =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "FlightRecorder");
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+  }
+
+  private static File defaultOutputDir() {
+    if (RobotBase.isReal()) {
+      // USB stick if mounted (same place WPILOGWriter goes), else internal flash
+      File usb = new File("/U/logs");
+      return usb.isDirectory()
+          ? new File(usb, "flightrecorder")
+          : new File("/home/lvuser/flightrecorder");
+    }
+    return new File("logs/flightrecorder");
+  }
+
+  /** Append one sample. Call once per loop, end of robotPeriodic(). */
+  public synchronized void record(
+      double timestamp,
+      double loopMs,
+      double batteryV,
+      double shooterRPM,
+      int activeCommands,
+      int commandStarts,
+      double poseX,
+      double poseY,
+      double headingRad,
+      int canTxErrors,
+      int canRxErrors) {
+    int base = writeIndex * CHANNELS;
+    ring[base + CH_TIMESTAMP] = timestamp;
+    ring[base + CH_LOOP_MS] = loopMs;
+    ring[base + CH_BATTERY_V] = batteryV;
+    ring[base + CH_SHOOTER_RPM] = shooterRPM;
+    ring[base + CH_ACTIVE_COMMANDS] = activeCommands;
+    ring[base + CH_COMMAND_STARTS] = commandStarts;
+    ring[base + CH_POSE_X] = poseX;
+    ring[base + CH_POSE_Y] = poseY;
+    ring[base + CH_HEADING_RAD] = headingRad;
+    ring[base + CH_CAN_TX_ERRORS] = canTxErrors;
+    ring[base + CH_CAN_RX_ERRORS] = canRxErrors;
+
+    writeIndex = (writeIndex + 1) % CAPACITY;
+    if (sampleCount < CAPACITY) {
+      sampleCount++;
+    }
+  }
+
+  /** Trigger a dump if loopMs crossed the overrun threshold. */
+  public void checkLoopOverrun(double loopMs, double now) {
+    if (loopMs > LOOP_OVERRUN_TRIGGER_MS) {
+      trigger("LoopOverrun", now);
+    }
+  }
+
+  /** Uncaught exceptions and crash barrier trips, which get past the routine limits. */
+  static boolean isCrashReason(String reason) {
+    return reason != null && (reason.equals(UNCAUGHT) || reason.startsWith(CRASH_BARRIER_PREFIX));
+  }
+
+  /**
+   * Freeze the ring and write it out in the background. A routine trigger is dropped (and counted)
+   * if a write is still running, we're inside the cooldown, or we've hit the per-boot cap. A crash
+   * trigger queues behind any running write; see the class comment for when it's dropped.
+   *
+   * @return true if a dump was queued
+   */
+  public synchronized boolean trigger(String reason, double now) {
+    try {
+      if (sampleCount == 0) return false;
+      boolean crash = isCrashReason(reason);
+      if (crash ? !admitCrash(reason, now) : !admitRoutine(now)) {
+        droppedTriggers++;
+        return false;
+      }
+
+      Dump dump = spareDumps.poll();
+      if (dump == null) {
+        if (!crash) {
+          droppedTriggers++;
+          return false;
+        }
+        dump = new Dump();
+      }
+      if (crash) {
+        lastCrashTriggerTime.put(reason, now);
+        crashDumpCount++;
+      } else {
+        lastTriggerTime = now;
+        routineDumpCount++;
+      }
+      lastReason = reason;
+      dump.count = copyChronological(dump.samples);
+      dump.reason = reason;
+      dump.timestamp = now;
+
+      writesInFlight.incrementAndGet();
+      dumpCount++;
+      Dump queued = dump;
+      pendingWrite = writer.submit(() -> writeDump(queued));
+      return true;
+    } catch (Throwable t) {
+      droppedTriggers++;
+      return false;
+    }
+  }
+
+  private boolean admitRoutine(double now) {
+    return writesInFlight.get() == 0
+        && now - lastTriggerTime >= TRIGGER_COOLDOWN_SEC
+        && routineDumpCount < MAX_ROUTINE_DUMPS_PER_BOOT;
+  }
+
+  private boolean admitCrash(String reason, double now) {
+    if (reason.equals(UNCAUGHT)) return true;
+    // A barrier tripping every loop would otherwise dump 50 times a second
+    Double last = lastCrashTriggerTime.get(reason);
+    return (last == null || now - last >= TRIGGER_COOLDOWN_SEC)
+        && crashDumpCount < MAX_CRASH_DUMPS_PER_BOOT;
+  }
+
+  /**
+   * Block until the last queued dump (and so every one before it) is on disk. Only for the uncaught
+   * exception path, where the JVM may be about to exit and the daemon writer would be killed
+   * mid-write.
+   */
+  public void awaitPendingWrite(long timeoutMs) {
+    Future<?> f = pendingWrite;
+    if (f == null) return;
+    try {
+      f.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (Throwable t) {
+      // timed out or failed, nothing more we can do
+    }
+  }
+
+  /** Copy ring into dst oldest-first. Returns number of samples copied. */
+  synchronized int copyChronological(double[] dst) {
+    if (sampleCount < CAPACITY) {
+      // Not wrapped yet, oldest sample is at index 0
+      System.arraycopy(ring, 0, dst, 0, sampleCount * CHANNELS);
+    } else {
+      // Wrapped: oldest sample is the next one to be overwritten
+      int tailLen = CAPACITY - writeIndex;
+      System.arraycopy(ring, writeIndex * CHANNELS, dst, 0, tailLen * CHANNELS);
+      System.arraycopy(ring, 0, dst, tailLen * CHANNELS, writeIndex * CHANNELS);
+    }
+    return sampleCount;
+  }
+
+  private void writeDump(Dump dump) {
+    try {
+      if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+        throw new IOException("cannot create " + outputDir);
+      }
+      String name =
+          String.format(
+              "flight_%d_%s.bin", (long) (dump.timestamp * 1000), sanitize(dump.reason));
+      File file = new File(outputDir, name);
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+        writeTo(out, dump.samples, dump.count, dump.reason, dump.timestamp);
+      }
+      lastDumpFile = file.getPath();
+    } catch (Throwable t) {
+      writeFailures++;
+    } finally {
+      spareDumps.offer(dump);
+      writesInFlight.decrementAndGet();
+    }
+  }
+
+  static void writeTo(
+      DataOutputStream out, double[] samples, int count, String reason, double triggerTime)
+      throws IOException {
+    out.write(MAGIC);
+    out.writeShort(VERSION);
+    out.writeShort(CHANNELS);
+    out.writeInt(count);
+    out.writeUTF(reason);
+    out.writeDouble(triggerTime);
+    for (String ch : CHANNEL_NAMES) {
+      out.writeUTF(ch);
+    }
+    for (int s = 0; s < count; s++) {
+      int base = s * CHANNELS;
+      out.writeDouble(samples[base + CH_TIMESTAMP]);
+      for (int c = 1; c < CHANNELS; c++) {
+        out.writeFloat((float) samples[base + c]);
+      }
+    }
+  }
+
+  private static String sanitize(String reason) {
+    return reason == null ? "unknown" : reason.replaceAll("[^A-Za-z0-9_-]", "_");
+  }
+
+  public void log() {
+    Logger.recordOutput("Health/FlightRecorder/Dumps", dumpCount);
+    Logger.recordOutput("Health/FlightRecorder/DroppedTriggers", droppedTriggers);
+    Logger.recordOutput("Health/FlightRecorder/WriteFailures", writeFailures);
+    Logger.recordOutput("Health/FlightRecorder/LastReason", lastReason);
+    Logger.recordOutput("Health/FlightRecorder/LastFile", lastDumpFile);
+  }
+
+  public int getSampleCount() {
+    return sampleCount;
+  }
+
+  public int getDumpCount() {
+    return dumpCount;
+  }
+
+  public int getDroppedTriggers() {
+    return droppedTriggers;
+  }
+
+  public String getLastDumpFile() {
+    return lastDumpFile;
+  }
+}
@@ -0,0 +1,239 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.RobotController;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Records the driver (port 0) and copilot (port 1) controllers into an {@link InputTrace} file for
+ * every enabled period, practice or match. Each enable starts a new file; disabling closes it.
+ *
+ * <p>The loop thread only compares the current stick state against the last frame and copies 26
+ * bytes into a chunk when something changed. Full chunks go to a daemon writer thread, same as
+ * FlightRecorder, so the loop never touches the filesystem.
+ *
+ * <p>Replay: SimInputPlayback.playTrace() / -DsimScenario=InputReplay -DsimInputTrace=file.
+ */
+public class InputRecorder {
+  private static volatile InputRecorder instance;
+
+  static final int CHUNK_FRAMES = 512; // ~13KB, about 10s of busy driving
+  private static final int MAX_PENDING_CHUNKS = 64;
+
+  private final File outputDir;
+  private final ExecutorService writer;
+
+  // Writer-thread state
+  private DataOutputStream out;
+
+  // Loop-thread state
+  private boolean recording = false;
+  private long startMicros = 0;
+  private byte[] chunk = new byte[CHUNK_FRAMES * InputTrace.FRAME_BYTES];
+  private int chunkFrames = 0;
+  private final int[] lastButtons = new int[InputTrace.PORTS];
+  private final int[] lastPov = new int[InputTrace.PORTS];
+  private final int[] lastFlags = new int[InputTrace.PORTS];
+  private final short[][] lastAxes = new short[InputTrace.PORTS][InputTrace.AXES];
+  private final short[] axesScratch = new short[InputTrace.AXES];
+  private final boolean[] hasFrame = new boolean[InputTrace.PORTS];
+
+  private final AtomicInteger pendingChunks = new AtomicInteger();
+  private int framesThisSession = 0;
+  private int sessions = 0;
+  private int droppedChunks = 0;
+  private volatile int writeFailures = 0;
+  private volatile String currentFile = "none";
+
+  public static InputRecorder getInstance() {
+    if (instance == null) {
+      instance = new InputRecorder(defaultOutputDir());
+    }
+    return instance;
+  }
+
+  InputRecorder(File outputDir) {
+    this.outputDir = outputDir;
+    this.writer =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "InputRecorder");
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+  }
+
+  private static File defaultOutputDir() {
+    if (RobotBase.isReal()) {
+      File usb = new File("/U/logs");
+      return usb.isDirectory() ? new File(usb, "inputs") : new File("/home/lvuser/inputs");
+    }
+    return new File("logs/inputs");
+  }
+
+  /** True on the real robot, or in sim with -DsimRecordInputs=true (a real pad plugged in). */
+  public static boolean isWanted() {
+    return RobotBase.isReal() || Boolean.getBoolean("simRecordInputs");
+  }
+
+  /** Call once per loop from robotPeriodic(). */
+  public void update() {
+    boolean enabled = DriverStation.isEnabled();
+    if (enabled && !recording) {
+      start();
+    } else if (!enabled && recording) {
+      stop();
+      return;
+    }
+    if (!recording) return;
+
+    int flags =
+        InputTrace.FLAG_ENABLED
+            | (DriverStation.isAutonomous() ? InputTrace.FLAG_AUTONOMOUS : 0)
+            | (DriverStation.isTest() ? InputTrace.FLAG_TEST : 0);
+    long t = RobotController.getFPGATime() - startMicros;
+    for (int port = 0; port < InputTrace.PORTS; port++) {
+      sample(port, t, flags);
+    }
+  }
+
+  void sample(int port, long timeMicros, int flags) {
+    int buttons = DriverStation.getStickButtons(port) & 0xFFFF;
+    int pov = DriverStation.getStickPOVCount(port) > 0 ? DriverStation.getStickPOV(port, 0) : -1;
+    int axisCount = Math.min(InputTrace.AXES, DriverStation.getStickAxisCount(port));
+    for (int a = 0; a < InputTrace.AXES; a++) {
+      double value = a < axisCount ? DriverStation.getStickAxis(port, a) : 0;
+      axesScratch[a] = InputTrace.quantizeAxis(value);
+    }
+    append(port, timeMicros, flags, buttons, pov, axesScratch);
+  }
+
+  /** Add a frame for port if anything differs from the last one written. */
+  void append(int port, long timeMicros, int flags, int buttons, int pov, short[] axes) {
+    if (hasFrame[port]
+        && lastButtons[port] == buttons
+        && lastPov[port] == pov
+        && lastFlags[port] == flags
+        && Arrays.equals(lastAxes[port], axes)) {
+      return;
+    }
+    hasFrame[port] = true;
+    lastButtons[port] = buttons;
+    lastPov[port] = pov;
+    lastFlags[port] = flags;
+    System.arraycopy(axes, 0, lastAxes[port], 0, InputTrace.AXES);
+
+    InputTrace.encodeFrame(
+        chunk, chunkFrames * InputTrace.FRAME_BYTES, timeMicros, port, flags, buttons, pov, axes);
+    chunkFrames++;
+    framesThisSession++;
+    if (chunkFrames == CHUNK_FRAMES) flush();
+  }
+
+  private void start() {
+    recording = true;
+    sessions++;
+    framesThisSession = 0;
+    chunkFrames = 0;
+    startMicros = RobotController.getFPGATime();
+    Arrays.fill(hasFrame, false);
+
+    String session =
+        DriverStation.isFMSAttached()
+            ? DriverStation.getEventName() + "_" + DriverStation.getMatchNumber()
+            : "practice";
+    long epochSec = System.currentTimeMillis() / 1000;
+    String name = String.format("inputs_%s_%d_%d.trace", session, epochSec, sessions);
+    File file = new File(outputDir, sanitize(name));
+    writer.execute(() -> open(file));
+  }
+
+  private void stop() {
+    recording = false;
+    flush();
+    writer.execute(this::close);
+  }
+
+  /** Hand the current chunk to the writer and start a fresh one. */
+  private void flush() {
+    if (chunkFrames == 0) return;
+    if (pendingChunks.get() >= MAX_PENDING_CHUNKS) {
+      // Writer is stuck (USB pulled?). Drop rather than grow without bound.
+      droppedChunks++;
+      chunkFrames = 0;
+      return;
+    }
+    byte[] full = chunk;
+    int len = chunkFrames * InputTrace.FRAME_BYTES;
+    chunk = new byte[CHUNK_FRAMES * InputTrace.FRAME_BYTES];
+    chunkFrames = 0;
+    pendingChunks.incrementAndGet();
+    writer.execute(() -> write(full, len));
+  }
+
+  private void open(File file) {
+    try {
+      if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+        throw new IOException("cannot create " + outputDir);
+      }
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      InputTrace.writeHeader(out);
+      currentFile = file.getPath();
+    } catch (Throwable t) {
+      out = null;
+      writeFailures++;
+    }
+  }
+
+  private void write(byte[] data, int len) {
+    try {
+      if (out != null) out.write(data, 0, len);
+    } catch (Throwable t) {
+      writeFailures++;
+    } finally {
+      pendingChunks.decrementAndGet();
+    }
+  }
+
+  private void close() {
+    try {
+      if (out != null) out.close();
+    } catch (Throwable t) {
+      writeFailures++;
+    } finally {
+      out = null;
+    }
+  }
+
+  private static String sanitize(String name) {
+    return name.replaceAll("[^A-Za-z0-9_.-]", "_");
+  }
+
+  public void log() {
+    Logger.recordOutput("Health/InputRecorder/Recording", recording);
+    Logger.recordOutput("Health/InputRecorder/Frames", framesThisSession);
+    Logger.recordOutput("Health/InputRecorder/PendingChunks", pendingChunks.get());
+    Logger.recordOutput("Health/InputRecorder/DroppedChunks", droppedChunks);
+    Logger.recordOutput("Health/InputRecorder/WriteFailures", writeFailures);
+    Logger.recordOutput("Health/InputRecorder/File", currentFile);
+  }
+
+  public boolean isRecording() {
+    return recording;
+  }
+
+  public int getFramesThisSession() {
+    return framesThisSession;
+  }
+}
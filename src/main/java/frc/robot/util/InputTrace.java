@@ -0,0 +1,292 @@
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recorded driver + copilot controller inputs, decoded into flat arrays for playback.
+ *
+ * <p>File format (big endian): magic "IN5962", u16 version, u8 port count, then frames until EOF.
+ * Each frame is 26 bytes: i64 microseconds since the recording started, u8 port, u8 mode flags,
+ * u16 button bits (bit n-1 = button n, same as DriverStation.getStickButtons), i16 POV (-1 when
+ * released), 6 x i16 axes scaled by 32767. A frame is only written when that port's state changes,
+ * so a driver sitting still costs nothing. Version 1 stored time as i32, which wrapped after 35.8
+ * minutes of practice or a converted log with long disabled gaps.
+ */
+public final class InputTrace {
+  public static final int PORTS = 2;
+  public static final int AXES = 6;
+  public static final int FRAME_BYTES = 26;
+
+  public static final int FLAG_ENABLED = 1;
+  public static final int FLAG_AUTONOMOUS = 2;
+  public static final int FLAG_TEST = 4;
+
+  static final byte[] MAGIC = {'I', 'N', '5', '9', '6', '2'};
+  static final int VERSION = 2;
+  private static final double AXIS_SCALE = 32767.0;
+
+  // WPILOG entry kinds, stored as port * 8 + kind
+  private static final int LOG_BUTTONS = 0;
+  private static final int LOG_AXES = 1;
+  private static final int LOG_POVS = 2;
+  private static final int LOG_ENABLED = 3;
+  private static final int LOG_AUTONOMOUS = 4;
+  private static final int LOG_TEST = 5;
+
+  private final int frameCount;
+  private final double[] timeSec;
+  private final byte[] port;
+  private final byte[] flags;
+  private final int[] buttons;
+  private final short[] pov;
+  private final double[] axes; // frame-major, AXES per frame
+
+  private InputTrace(int capacity) {
+    timeSec = new double[capacity];
+    port = new byte[capacity];
+    flags = new byte[capacity];
+    buttons = new int[capacity];
+    pov = new short[capacity];
+    axes = new double[capacity * AXES];
+    frameCount = capacity;
+  }
+
+  // --- Encoding, shared by InputRecorder and the WPILOG converter ---
+
+  static void writeHeader(DataOutputStream out) throws IOException {
+    out.write(MAGIC);
+    out.writeShort(VERSION);
+    out.writeByte(PORTS);
+  }
+
+  /** Quantize an axis the same way it will be stored, so change detection matches the file. */
+  static short quantizeAxis(double value) {
+    return (short) Math.round(Math.max(-1.0, Math.min(1.0, value)) * AXIS_SCALE);
+  }
+
+  /** Write one frame into dst at offset. Axes must already be quantized. */
+  static void encodeFrame(
+      byte[] dst,
+      int off,
+      long timeMicros,
+      int port,
+      int flags,
+      int buttons,
+      int pov,
+      short[] axes) {
+    for (int b = 0; b < 8; b++) {
+      dst[off + b] = (byte) (timeMicros >>> (56 - b * 8));
+    }
+    dst[off + 8] = (byte) port;
+    dst[off + 9] = (byte) flags;
+    dst[off + 10] = (byte) (buttons >>> 8);
+    dst[off + 11] = (byte) buttons;
+    dst[off + 12] = (byte) (pov >>> 8);
+    dst[off + 13] = (byte) pov;
+    for (int a = 0; a < AXES; a++) {
+      dst[off + 14 + a * 2] = (byte) (axes[a] >>> 8);
+      dst[off + 15 + a * 2] = (byte) axes[a];
+    }
+  }
+
+  // --- Decoding ---
+
+  public static InputTrace read(File file) throws IOException {
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      return read(in);
+    }
+  }
+
+  public static InputTrace read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(stream);
+    byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not an input trace");
+    }
+    int version = in.readUnsignedShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported input trace version " + version);
+    }
+    in.readUnsignedByte(); // port count, informational
+
+    byte[] body = in.readAllBytes();
+    int count = body.length / FRAME_BYTES; // a torn last frame from a power cut is dropped
+    InputTrace trace = new InputTrace(count);
+    DataInputStream frames = new DataInputStream(new ByteArrayInputStream(body));
+    try {
+      for (int i = 0; i < count; i++) {
+        trace.timeSec[i] = frames.readLong() / 1e6;
+        trace.port[i] = frames.readByte();
+        trace.flags[i] = frames.readByte();
+        trace.buttons[i] = frames.readUnsignedShort();
+        trace.pov[i] = frames.readShort();
+        for (int a = 0; a < AXES; a++) {
+          trace.axes[i * AXES + a] = frames.readShort() / AXIS_SCALE;
+        }
+      }
+    } catch (EOFException e) {
+      throw new IOException("Truncated input trace", e);
+    }
+    return trace;
+  }
+
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  /** Time of the last frame, seconds since the recording started. */
+  public double getDurationSec() {
+    return frameCount > 0 ? timeSec[frameCount - 1] : 0;
+  }
+
+  public double getTime(int frame) {
+    return timeSec[frame];
+  }
+
+  public int getPort(int frame) {
+    return port[frame];
+  }
+
+  public int getFlags(int frame) {
+    return flags[frame] & 0xFF;
+  }
+
+  public int getButtons(int frame) {
+    return buttons[frame];
+  }
+
+  public int getPov(int frame) {
+    return pov[frame];
+  }
+
+  public double getAxis(int frame, int axis) {
+    return axes[frame * AXES + axis];
+  }
+
+  /**
+   * Index of the first frame after time t, starting the search at cursor. Frames in [cursor,
+   * result) are the ones that became due since the last call. O(frames applied).
+   */
+  public int advance(int cursor, double t) {
+    int i = cursor;
+    while (i < frameCount && timeSec[i] <= t) i++;
+    return i;
+  }
+
+  // --- WPILOG conversion ---
+
+  /**
+   * Convert the AdvantageKit DriverStation entries in a match log into a trace. Only the enabled
+   * part is kept, with time zero at the first enabled sample.
+   */
+  public static int convertWpilog(File wpilog, File out) throws IOException {
+    DataLogReader reader = new DataLogReader(wpilog.getPath());
+    if (!reader.isValid()) {
+      throw new IOException("Not a WPILOG: " + wpilog);
+    }
+
+    // entry id -> port * 8 + kind
+    Map<Integer, Integer> entries = new HashMap<>();
+
+    int[] portButtons = new int[PORTS];
+    int[] portPov = {-1, -1};
+    short[][] portAxes = new short[PORTS][AXES];
+    boolean enabled = false;
+    boolean auto = false;
+    boolean test = false;
+    long startMicros = -1;
+    int frames = 0;
+
+    byte[] frame = new byte[FRAME_BYTES];
+    try (DataOutputStream dout =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)))) {
+      writeHeader(dout);
+
+      for (DataLogRecord record : reader) {
+        if (record.isStart()) {
+          DataLogRecord.StartRecordData start = record.getStartData();
+          int field = wpilogField(start.name);
+          if (field >= 0) entries.put(start.entry, field);
+          continue;
+        }
+        if (record.isControl()) continue;
+        Integer key = entries.get(record.getEntry());
+        if (key == null) continue;
+
+        int p = key / 8;
+        switch (key % 8) {
+          case LOG_BUTTONS -> portButtons[p] = (int) record.getInteger();
+          case LOG_AXES -> {
+            float[] values = record.getFloatArray();
+            for (int a = 0; a < AXES; a++) {
+              portAxes[p][a] = quantizeAxis(a < values.length ? values[a] : 0);
+            }
+          }
+          case LOG_POVS -> {
+            long[] values = record.getIntegerArray();
+            portPov[p] = values.length > 0 ? (int) values[0] : -1;
+          }
+          case LOG_ENABLED -> enabled = record.getBoolean();
+          case LOG_AUTONOMOUS -> auto = record.getBoolean();
+          case LOG_TEST -> test = record.getBoolean();
+          default -> {}
+        }
+
+        if (!enabled) continue;
+        if (startMicros < 0) startMicros = record.getTimestamp();
+        int modeFlags = FLAG_ENABLED | (auto ? FLAG_AUTONOMOUS : 0) | (test ? FLAG_TEST : 0);
+        long t = record.getTimestamp() - startMicros;
+        encodeFrame(frame, 0, t, p, modeFlags, portButtons[p], portPov[p], portAxes[p]);
+        dout.write(frame);
+        frames++;
+      }
+    }
+    return frames;
+  }
+
+  /** port * 8 + kind for an AdvantageKit DriverStation entry name, -1 if not one we want. */
+  private static int wpilogField(String name) {
+    if (name.endsWith("DriverStation/Enabled")) return LOG_ENABLED;
+    if (name.endsWith("DriverStation/Autonomous")) return LOG_AUTONOMOUS;
+    if (name.endsWith("DriverStation/Test")) return LOG_TEST;
+    for (int p = 0; p < PORTS; p++) {
+      String prefix = "DriverStation/Joystick" + p + "/";
+      int idx = name.indexOf(prefix);
+      if (idx < 0) continue;
+      String field = name.substring(idx + prefix.length());
+      return switch (field) {
+        case "ButtonValues" -> p * 8 + LOG_BUTTONS;
+        case "AxisValues" -> p * 8 + LOG_AXES;
+        case "POVs" -> p * 8 + LOG_POVS;
+        default -> -1;
+      };
+    }
+    return -1;
+  }
+
+  /** Usage: InputTrace match.wpilog driving.trace */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: InputTrace <match.wpilog> <out.trace>");
+      return;
+    }
+    int frames = convertWpilog(new File(args[0]), new File(args[1]));
+    System.out.println("Wrote " + frames + " frames to " + args[1]);
+  }
+}
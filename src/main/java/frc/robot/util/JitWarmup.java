@@ -0,0 +1,342 @@
+package frc.robot.util;
+
+import com.pathplanner.lib.commands.FollowPathCommand;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.HubScoringConstants;
+import frc.robot.Constants.ShotCalculatorConstants;
+import frc.robot.subsystems.swervedrive.VisionFilter;
+import frc.robot.subsystems.swervedrive.VisionFilter.RejectionReason;
+import frc.robot.telemetry.SafeLog;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Gets the code auto leans on hardest compiled before auto starts. Without it, the first auto
+ * cycles run the shot solver, vision filter and heading loop interpreted or in C1, and overrun
+ * right when it matters.
+ *
+ * <p>Call periodic() from disabledPeriodic(). Each call spends up to budgetMs feeding made-up
+ * inputs through those paths, round robin, in batches. None of them touch a motor, the drive, or
+ * state the real loop carries. A path is steady when its per-call latency has held for a few
+ * windows after enough calls for C2 to have had a go; then it's left alone. One that throws, or
+ * hasn't settled by MAX_CALLS, is dropped and logged as Failed or GaveUp, and keeps AllWarm false.
+ * PathPlanner's follow command gets its own warmup command, which drives nothing, scheduled a few
+ * times.
+ *
+ * <p>Telemetry log() paths aren't targets: robotPeriodic() already runs them every disabled loop.
+ */
+public class JitWarmup {
+  private static JitWarmup instance;
+
+  static final int BATCH = 32; // calls between clock reads
+  static final int WINDOW = 512; // calls per latency sample
+  static final int MIN_CALLS = 20_000; // well past C2's invocation threshold
+  static final int MAX_CALLS = 250_000; // stop trying on a path too noisy to settle
+  static final int STABLE_WINDOWS = 5;
+  static final double STABLE_TOLERANCE = 0.10;
+  static final int PATH_WARMUP_RUNS = 3;
+
+  private final TunableNumber kEnabled = new TunableNumber("JitWarmup/enabled", 1.0);
+  private final TunableNumber kBudgetMs = new TunableNumber("JitWarmup/budgetMs", 4.0);
+
+  private final Target[] targets;
+  private int next = 0;
+  private boolean allWarm = false;
+  private double spentMs = 0;
+
+  private Command pathWarmup;
+  private int pathWarmupRuns = 0;
+  private boolean pathWarmupFailed = false;
+
+  // Synthetic inputs, built once so the warmup itself isn't all allocation
+  private final Rotation2d[] headings = new Rotation2d[16];
+  private final Pose2d[] poses = new Pose2d[16];
+  private final Pose3d[] framePoses = new Pose3d[4];
+  private final HeadingController headingController = new HeadingController();
+  private final VisionFilter.Evaluation evaluation;
+  private final ChassisSpeeds speeds = new ChassisSpeeds();
+  private int shotIndex = 0;
+  private int visionIndex = 0;
+  private int headingIndex = 0;
+  private int aimIndex = 0;
+
+  /** One warmed path and its latency so far. */
+  static final class Target {
+    final String name;
+    private final DoubleSupplier call;
+    private final String callsKey;
+    private final String latencyKey;
+    private final String steadyKey;
+    private final String failedKey;
+    private final String gaveUpKey;
+
+    int calls = 0;
+    private int windowCalls = 0;
+    private long windowNanos = 0;
+    double lastWindowUs = Double.NaN;
+    int stableWindows = 0;
+    boolean steady = false;
+    boolean failed = false;
+    // Keeps the JIT from deciding the calls do nothing
+    double sink = 0;
+
+    Target(String name, DoubleSupplier call) {
+      this.name = name;
+      this.call = call;
+      callsKey = "JitWarmup/" + name + "/Calls";
+      latencyKey = "JitWarmup/" + name + "/LatencyUs";
+      steadyKey = "JitWarmup/" + name + "/Steady";
+      failedKey = "JitWarmup/" + name + "/Failed";
+      gaveUpKey = "JitWarmup/" + name + "/GaveUp";
+    }
+
+    /** Nothing more to do here: steady, threw, or ran MAX_CALLS without settling. */
+    boolean isDone() {
+      return steady || failed || calls >= MAX_CALLS;
+    }
+
+    /** Stopped at MAX_CALLS without ever settling. */
+    boolean gaveUp() {
+      return !steady && !failed && calls >= MAX_CALLS;
+    }
+
+    void runBatch(int n) {
+      long start = System.nanoTime();
+      double s = 0;
+      for (int i = 0; i < n; i++) s += call.getAsDouble();
+      long nanos = System.nanoTime() - start;
+      sink += s;
+      calls += n;
+      windowCalls += n;
+      windowNanos += nanos;
+      if (windowCalls >= WINDOW) {
+        recordWindow(windowNanos / 1e3 / windowCalls);
+        windowCalls = 0;
+        windowNanos = 0;
+      }
+    }
+
+    /** Steady once STABLE_WINDOWS windows in a row stay within tolerance of the one before. */
+    void recordWindow(double microsPerCall) {
+      if (!Double.isNaN(lastWindowUs)
+          && Math.abs(microsPerCall - lastWindowUs) <= STABLE_TOLERANCE * lastWindowUs) {
+        stableWindows++;
+      } else {
+        stableWindows = 0;
+      }
+      lastWindowUs = microsPerCall;
+      if (calls >= MIN_CALLS && stableWindows >= STABLE_WINDOWS) steady = true;
+    }
+
+    void log() {
+      SafeLog.put(callsKey, calls);
+      SafeLog.put(latencyKey, Double.isNaN(lastWindowUs) ? 0 : lastWindowUs);
+      SafeLog.put(steadyKey, steady);
+      SafeLog.put(failedKey, failed);
+      SafeLog.put(gaveUpKey, gaveUp());
+    }
+  }
+
+  public static JitWarmup getInstance() {
+    if (instance == null) {
+      instance = new JitWarmup();
+    }
+    return instance;
+  }
+
+  private JitWarmup() {
+    for (int i = 0; i < headings.length; i++) {
+      headings[i] = new Rotation2d(2 * Math.PI * i / headings.length - Math.PI);
+      double radius = 1.0 + 0.25 * i;
+      poses[i] =
+          new Pose2d(
+              HubScoringConstants.BLUE_HUB_CENTER.getX() - radius * Math.cos(0.3 * i),
+              HubScoringConstants.BLUE_HUB_CENTER.getY() + radius * Math.sin(0.3 * i),
+              headings[i]);
+    }
+    // Accepted multi-tag, accepted single-tag, ambiguous, flying
+    framePoses[0] = new Pose3d(3, 4, 0, new Rotation3d(0, 0, 0.1));
+    framePoses[1] = new Pose3d(2.5, 3.5, 0, new Rotation3d(0, 0, 0.12));
+    framePoses[2] = new Pose3d(3.2, 4.1, 0, new Rotation3d(0, 0, 0.08));
+    framePoses[3] = new Pose3d(3, 4, 2, new Rotation3d(0, 0, 0.1));
+    Matrix<N3, N1> singleTag = VecBuilder.fill(0.9, 0.9, 2.0);
+    Matrix<N3, N1> multiTag = VecBuilder.fill(0.3, 0.3, 0.6);
+    evaluation = new VisionFilter.Evaluation(singleTag, multiTag);
+
+    targets =
+        new Target[] {
+          new Target("ShotCalculator", this::shotCalculator),
+          new Target("VisionFilter", this::visionFilter),
+          new Target("HeadingController", this::headingController),
+          new Target("AimAndShoot", this::aimAndShoot),
+        };
+  }
+
+  // --- Targets ---
+
+  /** A moving shot from a grid that sweeps range, approach speed and strafe speed. */
+  private double shotCalculator() {
+    int i = shotIndex++;
+    double span =
+        ShotCalculatorConstants.MAX_SCORING_DISTANCE - ShotCalculatorConstants.MIN_SCORING_DISTANCE;
+    double distance = ShotCalculatorConstants.MIN_SCORING_DISTANCE + span * ((i % 37) / 37.0);
+    double radial = ShotCalculatorConstants.MAX_SOTM_SPEED * ((i % 11) / 5.0 - 1.0);
+    double tangential = ShotCalculatorConstants.MAX_SOTM_SPEED * ((i % 7) / 3.0 - 1.0);
+    return ShotCalculator.getInstance().warmUp(distance, radial, tangential);
+  }
+
+  /** Four kinds of frame through a private evaluation context, ambiguous ones resolved. */
+  private double visionFilter() {
+    int i = visionIndex++;
+    int kind = i & 3;
+    evaluation.setRobotState(headings[i & 15], (i % 9) * 20.0, (i % 5) * 0.8, (i & 4) == 0);
+    switch (kind) {
+      case 0:
+        evaluation.setFrame(framePoses[0], 2, 0.05, 0.02, 2.5);
+        evaluation.addTagId(5);
+        evaluation.addTagId(6);
+        break;
+      case 1:
+        evaluation.setFrame(framePoses[1], 1, 0.05, 0.02, 1.0);
+        evaluation.addTagId(7);
+        break;
+      case 2:
+        evaluation.setFrame(framePoses[0], 1, 0.4, 0.02, 2.0);
+        evaluation.addTagId(8);
+        break;
+      default:
+        evaluation.setFrame(framePoses[3], 2, 0.05, 0.02, 3.0);
+        evaluation.addTagId(9);
+        evaluation.addTagId(10);
+        break;
+    }
+    RejectionReason reason = evaluation.evaluate();
+    if (reason == RejectionReason.AMBIGUITY) reason = evaluation.resolve(framePoses[2]);
+    return reason.ordinal() + evaluation.getBlendWeight();
+  }
+
+  /** A private controller chasing a sweeping target; never drives anything. */
+  private double headingController() {
+    int i = headingIndex++;
+    if ((i & 1023) == 0) headingController.reset();
+    return headingController.calculate(
+        headings[i & 15], headings[(i * 7 + 3) & 15], (i % 9) * 0.2 - 0.8, 1.0 + (i % 5), 6.0);
+  }
+
+  /**
+   * What AimAndShootCommand.execute() works out besides its motor calls: the ShotMap lookups, the
+   * fallback aim and the field-to-robot speed conversion.
+   */
+  private double aimAndShoot() {
+    int i = aimIndex++;
+    Pose2d pose = poses[i & 15];
+    ShotMap shotMap = ShotMap.getInstance();
+    double sum = shotMap.getConfidence(pose);
+    if ((i & 7) == 0) {
+      sum += shotMap.getBestNearby(pose.getTranslation()).map(s -> s.confidence()).orElse(0.0);
+    }
+    Translation2d toHub = pose.getTranslation().minus(HubScoringConstants.BLUE_HUB_CENTER);
+    Rotation2d aim =
+        toHub.getAngle().plus(new Rotation2d(ShotCalculatorConstants.SHOOTER_ANGLE_OFFSET_RAD));
+    sum += Math.abs(aim.minus(pose.getRotation()).getRadians());
+    speeds.vxMetersPerSecond = (i % 5) * 0.5;
+    speeds.vyMetersPerSecond = (i % 3) * 0.5;
+    speeds.omegaRadiansPerSecond = sum;
+    ChassisSpeeds robotRelative = ChassisSpeeds.fromFieldRelativeSpeeds(speeds, pose.getRotation());
+    return sum + robotRelative.vxMetersPerSecond;
+  }
+
+  // --- Driving ---
+
+  /** Call from disabledPeriodic(). Spends at most budgetMs on whatever isn't warm yet. */
+  public void periodic() {
+    if (kEnabled.get() < 0.5) return;
+    long start = System.nanoTime();
+    long deadline = start + (long) (kBudgetMs.get() * 1e6);
+
+    try {
+      schedulePathWarmup();
+    } catch (Throwable t) {
+      pathWarmupRuns = PATH_WARMUP_RUNS; // not worth retrying every loop
+      pathWarmupFailed = true;
+    }
+
+    int idle = 0;
+    while (idle < targets.length && System.nanoTime() < deadline) {
+      Target target = targets[next];
+      next = (next + 1) % targets.length;
+      if (target.isDone()) {
+        idle++;
+        continue;
+      }
+      idle = 0;
+      try {
+        target.runBatch(BATCH);
+      } catch (Throwable t) {
+        target.failed = true;
+      }
+    }
+    spentMs = (System.nanoTime() - start) / 1e6;
+
+    // Only paths that actually settled count; a failed or abandoned one is logged, not warm
+    boolean warm = isPathFollowingWarm();
+    for (Target target : targets) warm &= target.steady;
+    if (warm && !allWarm) {
+      try {
+        ElasticUtil.sendInfo("JIT warm-up", "Auto paths at steady state");
+      } catch (Throwable t) {
+        // Dashboard notification is nice to have
+      }
+    }
+    allWarm = warm;
+
+    log();
+  }
+
+  private void schedulePathWarmup() {
+    if (pathWarmupRuns >= PATH_WARMUP_RUNS) return;
+    if (pathWarmup != null && pathWarmup.isScheduled()) return;
+    // Follows a dummy path into a dummy output; requires no subsystem and runs while disabled
+    pathWarmup = FollowPathCommand.warmupCommand();
+    CommandScheduler.getInstance().schedule(pathWarmup);
+    pathWarmupRuns++;
+  }
+
+  private boolean isPathFollowingWarm() {
+    return !pathWarmupFailed
+        && pathWarmupRuns >= PATH_WARMUP_RUNS
+        && (pathWarmup == null || !pathWarmup.isScheduled());
+  }
+
+  /** Call on enable so a path warmup still running doesn't eat into the first auto cycles. */
+  public void stop() {
+    if (pathWarmup != null) CommandScheduler.getInstance().cancel(pathWarmup);
+  }
+
+  private void log() {
+    for (Target target : targets) target.log();
+    SafeLog.put("JitWarmup/PathFollowing/Runs", pathWarmupRuns);
+    SafeLog.put("JitWarmup/PathFollowing/Steady", isPathFollowingWarm());
+    SafeLog.put("JitWarmup/PathFollowing/Failed", pathWarmupFailed);
+    SafeLog.put("JitWarmup/AllWarm", allWarm);
+    SafeLog.put("JitWarmup/SpentMs", spentMs);
+  }
+
+  public boolean isAllWarm() {
+    return allWarm;
+  }
+
+  double getBudgetMs() {
+    return kBudgetMs.get();
+  }
+}
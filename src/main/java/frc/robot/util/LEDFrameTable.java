@@ -0,0 +1,143 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+/**
+ * A precomputed animation: every frame the strip can show, as packed RGB bytes. Built once per
+ * brightness so the render loop just picks a frame index and copies it, no sin() or scale() per
+ * pixel per cycle.
+ *
+ * <p>Frames are shared arrays, so two blits of the same frame are the same object. The caller uses
+ * that to skip setData() when nothing changed.
+ */
+final class LEDFrameTable {
+  private final byte[][] frames;
+  private final int length;
+
+  private LEDFrameTable(int frameCount, int length) {
+    this.frames = new byte[frameCount][length * 3];
+    this.length = length;
+  }
+
+  int frameCount() {
+    return frames.length;
+  }
+
+  byte[] frame(int index) {
+    return frames[index];
+  }
+
+  /** Frame for a time inside a looping animation of the given period. */
+  byte[] frameAt(double time, double period) {
+    double t = time % period;
+    if (t < 0) t += period;
+    int idx = (int) (t / period * frames.length);
+    return frames[Math.min(idx, frames.length - 1)];
+  }
+
+  /** Frame for a cycle fraction, e.g. an integrated phase accumulator. */
+  byte[] frameAtPhase(double cycles) {
+    double frac = cycles - Math.floor(cycles);
+    int idx = (int) (frac * frames.length);
+    return frames[Math.min(idx, frames.length - 1)];
+  }
+
+  /** Copy a frame into the WPILib buffer. */
+  static void blit(byte[] frame, AddressableLEDBuffer buffer) {
+    int n = Math.min(buffer.getLength(), frame.length / 3);
+    for (int i = 0; i < n; i++) {
+      int o = i * 3;
+      buffer.setRGB(i, frame[o] & 0xFF, frame[o + 1] & 0xFF, frame[o + 2] & 0xFF);
+    }
+  }
+
+  private void set(int frame, int pixel, int r, int g, int b) {
+    int o = pixel * 3;
+    frames[frame][o] = (byte) r;
+    frames[frame][o + 1] = (byte) g;
+    frames[frame][o + 2] = (byte) b;
+  }
+
+  private void fill(int frame, int r, int g, int b) {
+    for (int i = 0; i < length; i++) {
+      set(frame, i, r, g, b);
+    }
+  }
+
+  static int scale(int value, double factor) {
+    return (int) Math.max(0, Math.min(255, value * factor));
+  }
+
+  // --- Builders ---
+
+  static LEDFrameTable solid(int length, int r, int g, int b, double factor) {
+    LEDFrameTable t = new LEDFrameTable(1, length);
+    t.fill(0, scale(r, factor), scale(g, factor), scale(b, factor));
+    return t;
+  }
+
+  /**
+   * One full sine breathe cycle sampled into frameCount steps. Brightness goes floor..1, frame 0 is
+   * the midpoint on the way up (sin = 0), same as the old per-cycle math at t = 0.
+   */
+  static LEDFrameTable breathe(
+      int length, int frameCount, int r, int g, int b, double bright, double floor) {
+    LEDFrameTable t = new LEDFrameTable(frameCount, length);
+    for (int f = 0; f < frameCount; f++) {
+      double raw = (Math.sin(2 * Math.PI * f / frameCount) + 1.0) / 2.0;
+      double phase = floor + raw * (1.0 - floor);
+      t.fill(f, scale(r, phase * bright), scale(g, phase * bright), scale(b, phase * bright));
+    }
+    return t;
+  }
+
+  /** Two adjacent bright segments slide along a dimmed strip, one frame per segment step. */
+  static LEDFrameTable chase(
+      int length, int segmentSize, int r, int g, int b, double bright, double dim) {
+    int totalSegments = (length + segmentSize - 1) / segmentSize;
+    LEDFrameTable t = new LEDFrameTable(totalSegments, length);
+    for (int active = 0; active < totalSegments; active++) {
+      for (int i = 0; i < length; i++) {
+        int seg = i / segmentSize;
+        if (seg == active || seg == (active + 1) % totalSegments) {
+          t.set(active, i, scale(r, bright), scale(g, bright), scale(b, bright));
+        } else {
+          t.set(active, i, scale(r, dim * bright), scale(g, dim * bright), scale(b, dim * bright));
+        }
+      }
+    }
+    return t;
+  }
+
+  /** Alternating bands of two colors, one frame per pixel of scroll over a full band pair. */
+  static LEDFrameTable dualChase(
+      int length, int segmentSize, int r1, int g1, int b1, int r2, int g2, int b2, double bright) {
+    int span = segmentSize * 2;
+    LEDFrameTable t = new LEDFrameTable(span, length);
+    for (int offset = 0; offset < span; offset++) {
+      for (int i = 0; i < length; i++) {
+        if ((i + offset) % span < segmentSize) {
+          t.set(offset, i, scale(r1, bright), scale(g1, bright), scale(b1, bright));
+        } else {
+          t.set(offset, i, scale(r2, bright), scale(g2, bright), scale(b2, bright));
+        }
+      }
+    }
+    return t;
+  }
+
+  /** Frame k has the first k pixels lit and the rest dimmed, k = 0..length. */
+  static LEDFrameTable progressBar(int length, int r, int g, int b, double bright, double dim) {
+    LEDFrameTable t = new LEDFrameTable(length + 1, length);
+    for (int lit = 0; lit <= length; lit++) {
+      for (int i = 0; i < length; i++) {
+        if (i < lit) {
+          t.set(lit, i, scale(r, bright), scale(g, bright), scale(b, bright));
+        } else {
+          t.set(lit, i, scale(r, dim * bright), scale(g, dim * bright), scale(b, dim * bright));
+        }
+      }
+    }
+    return t;
+  }
+}
@@ -46,6 +46,13 @@ public class LEDStatusDisplay {
   // toggle green/red at 50 Hz without this hold. 0.5s minimum locks it to 1 Hz max.
   private static final double MIN_STATE_HOLD_SEC = 0.5;
 
+  private static final double MATCH_OVER_PERIOD = 3.0;
+  private static final double VISION_LOCKED_PERIOD = 2.0;
+  private static final double WARNING_CHASE_PERIOD = 1.0;
+  private static final double CRITICAL_CHASE_PERIOD = 0.5;
+  private static final double LOOP_PERIOD_SEC = 0.02;
+  private static final int AIM_FRAME_COUNT = 64;
+
   private final AddressableLED led;
   private final AddressableLEDBuffer buffer;
   private final boolean hardwareAvailable;
@@ -69,6 +76,26 @@ public class LEDStatusDisplay {
   private double aimPhaseAccumulator = 0;
   private double aimLastUpdateTime = 0;
 
+  // Precomputed frames per state, rebuilt when brightness changes
+  private LEDFrameTable disabledFrames;
+  private LEDFrameTable idleFrames;
+  private LEDFrameTable readyFrames;
+  private LEDFrameTable matchOverFrames;
+  private LEDFrameTable visionLockedFrames;
+  private LEDFrameTable aimFrames;
+  private LEDFrameTable warningFrames;
+  private LEDFrameTable criticalFrames;
+  private LEDFrameTable spinupFrames;
+  private double framesBrightness = Double.NaN;
+  private int frameRebuilds = 0;
+
+  // Last frame sent to the strip, so we can skip setData() when nothing changed
+  private byte[] lastPushedFrame = null;
+  private long ledWrites = 0;
+  private long skippedWrites = 0;
+  private double lastRenderMs = 0;
+  private double maxRenderMs = 0;
+
   private static final TunableNumber brightness = new TunableNumber("LED/brightness", 0.8);
 
   // --- Test state override (slider 0-11 from Elastic, FMS-locked) ---
@@ -129,6 +156,8 @@ public class LEDStatusDisplay {
     led = tempLed;
     hardwareAvailable = tempAvailable;
 
+    buildFrames(brightness.get());
+
     SmartDashboard.putStringArray("LED/TestMenu", TEST_DESCRIPTIONS);
   }
 
@@ -170,8 +199,7 @@ public class LEDStatusDisplay {
       lastStateChangeTime = now;
     }
 
-    renderState(currentState, snapshot);
-    led.setData(buffer);
+    render(currentState, snapshot);
   }
 
   private StateSnapshot buildSnapshot() {
@@ -289,60 +317,79 @@ public class LEDStatusDisplay {
     return LEDState.IDLE;
   }
 
-  private void renderState(LEDState state, StateSnapshot s) {
-    double bright = brightness.get();
-    double now = Timer.getFPGATimestamp();
-
-    switch (state) {
-      case DISABLED ->
-          fillSolid(
-              scale(GREEN_R, LEDConstants.DIM_DISABLED * bright),
-              scale(GREEN_G, LEDConstants.DIM_DISABLED * bright),
-              scale(GREEN_B, LEDConstants.DIM_DISABLED * bright));
-
-      case IDLE ->
-          fillSolid(scale(GREEN_R, bright), scale(GREEN_G, bright), scale(GREEN_B, bright));
-
-      case MATCH_OVER -> {
-        double phase = breathePhase(now, 3.0);
-        fillSolid(
-            scale(GREEN_R, phase * bright),
-            scale(GREEN_G, phase * bright),
-            scale(GREEN_B, phase * bright));
-      }
-
-      case VISION_LOCKED -> {
-        double phase = breathePhase(now, 2.0);
-        fillSolid(
-            scale(BLUE_R, phase * bright),
-            scale(BLUE_G, phase * bright),
-            scale(BLUE_B, phase * bright));
-      }
-
-      case AUTO_RUNNING -> rainbowPattern.applyTo(buffer);
+  /**
+   * Rebuild every frame table for a brightness. Runs at startup and again only if the tunable
+   * brightness changes, so the per-cycle render is a table lookup and a copy.
+   */
+  private void buildFrames(double bright) {
+    disabledFrames =
+        LEDFrameTable.solid(
+            length, GREEN_R, GREEN_G, GREEN_B, LEDConstants.DIM_DISABLED * bright);
+    idleFrames = LEDFrameTable.solid(length, GREEN_R, GREEN_G, GREEN_B, bright);
+    readyFrames = LEDFrameTable.solid(length, BLUE_R, BLUE_G, BLUE_B, bright);
+    matchOverFrames =
+        LEDFrameTable.breathe(
+            length,
+            breatheFrameCount(MATCH_OVER_PERIOD),
+            GREEN_R,
+            GREEN_G,
+            GREEN_B,
+            bright,
+            BREATHE_FLOOR);
+    visionLockedFrames =
+        LEDFrameTable.breathe(
+            length,
+            breatheFrameCount(VISION_LOCKED_PERIOD),
+            BLUE_R,
+            BLUE_G,
+            BLUE_B,
+            bright,
+            BREATHE_FLOOR);
+    aimFrames =
+        LEDFrameTable.breathe(
+            length, AIM_FRAME_COUNT, BLUE_R, BLUE_G, BLUE_B, bright, BREATHE_FLOOR);
+    warningFrames =
+        LEDFrameTable.chase(
+            length, CHASE_SEGMENT_SIZE, ORANGE_R, ORANGE_G, ORANGE_B, bright, CHASE_DIM_FACTOR);
+    criticalFrames =
+        LEDFrameTable.dualChase(
+            length,
+            CHASE_SEGMENT_SIZE,
+            RED_R,
+            RED_G,
+            RED_B,
+            ORANGE_R,
+            ORANGE_G,
+            ORANGE_B,
+            bright);
+    spinupFrames =
+        LEDFrameTable.progressBar(length, BLUE_R, BLUE_G, BLUE_B, bright, CHASE_DIM_FACTOR);
+    framesBrightness = bright;
+    frameRebuilds++;
+  }
 
-      case WARNING -> {
-        // Orange dots slide along the strip, 1 Hz per LED, dim background.
-        renderChase(now, 1.0, ORANGE_R, ORANGE_G, ORANGE_B, bright);
-      }
+  // One frame per robot loop is as smooth as the strip can ever look
+  private static int breatheFrameCount(double period) {
+    return (int) Math.ceil(period / LOOP_PERIOD_SEC);
+  }
 
+  /**
+   * Pick the frame for this state and time. Returns null for patterns that aren't tabled (the
+   * rainbow), which means the caller has to write the buffer every cycle.
+   */
+  private byte[] selectFrame(LEDState state, StateSnapshot s, double now) {
+    return switch (state) {
+      case DISABLED -> disabledFrames.frame(0);
+      case IDLE -> idleFrames.frame(0);
+      case MATCH_OVER -> matchOverFrames.frameAt(now, MATCH_OVER_PERIOD);
+      case VISION_LOCKED -> visionLockedFrames.frameAt(now, VISION_LOCKED_PERIOD);
+      case AUTO_RUNNING -> null;
+      // Orange dots slide along the strip, 1 Hz per LED, dim background.
+      case WARNING -> warningFrames.frameAt(now, WARNING_CHASE_PERIOD);
       case SHOOTER_SPINUP -> {
         double pct = Math.max(0, Math.min(100, s.shooterAtSpeedPercent())) / 100.0;
-        int litCount = (int) (length * pct);
-        for (int i = 0; i < length; i++) {
-          if (i < litCount) {
-            buffer.setRGB(i, scale(BLUE_R, bright), scale(BLUE_G, bright), scale(BLUE_B, bright));
-          } else {
-            // Dim blue shows the "unfilled" portion of the bar
-            buffer.setRGB(
-                i,
-                scale(BLUE_R, CHASE_DIM_FACTOR * bright),
-                scale(BLUE_G, CHASE_DIM_FACTOR * bright),
-                scale(BLUE_B, CHASE_DIM_FACTOR * bright));
-          }
-        }
+        yield spinupFrames.frame((int) (length * pct));
       }
-
       case AIM_PROGRESS -> {
         double error = Math.max(0, s.progressiveAimError());
         // Closer aim = faster pulse. Clamped so it can't go above 1.5 Hz.
@@ -353,75 +400,41 @@ public class LEDStatusDisplay {
           aimPhaseAccumulator += dt / period;
         }
         aimLastUpdateTime = now;
-        double raw = (Math.sin(2 * Math.PI * aimPhaseAccumulator) + 1.0) / 2.0;
-        double phase = BREATHE_FLOOR + raw * (1.0 - BREATHE_FLOOR);
-        fillSolid(
-            scale(BLUE_R, phase * bright),
-            scale(BLUE_G, phase * bright),
-            scale(BLUE_B, phase * bright));
+        yield aimFrames.frameAtPhase(aimPhaseAccumulator);
       }
-
-      case READY_TO_SHOOT ->
-          fillSolid(scale(BLUE_R, bright), scale(BLUE_G, bright), scale(BLUE_B, bright));
-
-      case CRITICAL_ALERT -> {
-        // Red and orange bands that slide along the strip at 1 Hz, no LED goes dark.
-        // The old 20 Hz strobe broke R203-M and could trigger seizures.
-        renderDualChase(now, 0.5, RED_R, RED_G, RED_B, ORANGE_R, ORANGE_G, ORANGE_B, bright);
-      }
-    }
+      case READY_TO_SHOOT -> readyFrames.frame(0);
+      // Red and orange bands that slide along the strip at 1 Hz, no LED goes dark.
+      // The old 20 Hz strobe broke R203-M and could trigger seizures.
+      // One band pair (2 segments) scrolls past every 2 * period.
+      case CRITICAL_ALERT -> criticalFrames.frameAt(now, CRITICAL_CHASE_PERIOD * 2);
+    };
   }
 
-  /** Slides a bright chunk along the strip with the rest dimmed. */
-  private void renderChase(double now, double period, int r, int g, int b, double bright) {
-    int totalSegments = (length + CHASE_SEGMENT_SIZE - 1) / CHASE_SEGMENT_SIZE;
-    int activeSegment = (int) ((now / period) * totalSegments) % totalSegments;
-
-    for (int i = 0; i < length; i++) {
-      int seg = i / CHASE_SEGMENT_SIZE;
-      if (seg == activeSegment || seg == (activeSegment + 1) % totalSegments) {
-        buffer.setRGB(i, scale(r, bright), scale(g, bright), scale(b, bright));
-      } else {
-        // Dim instead of black so nothing ever fully turns off
-        buffer.setRGB(
-            i,
-            scale(r, CHASE_DIM_FACTOR * bright),
-            scale(g, CHASE_DIM_FACTOR * bright),
-            scale(b, CHASE_DIM_FACTOR * bright));
-      }
-    }
-  }
-
-  /** Two colors in alternating chunks that scroll together like a barber pole. */
-  private void renderDualChase(
-      double now, double period, int r1, int g1, int b1, int r2, int g2, int b2, double bright) {
-    // Shift the pattern over time so it looks like it's moving
-    int offset = (int) (now / period * CHASE_SEGMENT_SIZE) % (CHASE_SEGMENT_SIZE * 2);
-
-    for (int i = 0; i < length; i++) {
-      int pos = (i + offset) % (CHASE_SEGMENT_SIZE * 2);
-      if (pos < CHASE_SEGMENT_SIZE) {
-        buffer.setRGB(i, scale(r1, bright), scale(g1, bright), scale(b1, bright));
-      } else {
-        buffer.setRGB(i, scale(r2, bright), scale(g2, bright), scale(b2, bright));
-      }
+  /** Render and push to the strip, skipping setData() when the frame hasn't changed. */
+  private void render(LEDState state, StateSnapshot s) {
+    long start = System.nanoTime();
+    double bright = brightness.get();
+    if (bright != framesBrightness) {
+      buildFrames(bright);
     }
-  }
 
-  private void fillSolid(int r, int g, int b) {
-    for (int i = 0; i < length; i++) {
-      buffer.setRGB(i, r, g, b);
+    byte[] frame = selectFrame(state, s, Timer.getFPGATimestamp());
+    if (frame == null) {
+      rainbowPattern.applyTo(buffer);
+      led.setData(buffer);
+      lastPushedFrame = null;
+      ledWrites++;
+    } else if (frame != lastPushedFrame) {
+      LEDFrameTable.blit(frame, buffer);
+      led.setData(buffer);
+      lastPushedFrame = frame;
+      ledWrites++;
+    } else {
+      skippedWrites++;
     }
-  }
 
-  private static int scale(int value, double factor) {
-    return (int) Math.max(0, Math.min(255, value * factor));
-  }
-
-  private static double breathePhase(double time, double period) {
-    double raw = (Math.sin(2 * Math.PI * time / period) + 1.0) / 2.0;
-    // Floor so breathing never goes fully dark
-    return BREATHE_FLOOR + raw * (1.0 - BREATHE_FLOOR);
+    lastRenderMs = (System.nanoTime() - start) / 1e6;
+    if (lastRenderMs > maxRenderMs) maxRenderMs = lastRenderMs;
   }
 
   // --- Accessors for telemetry ---
@@ -442,6 +455,28 @@ public class LEDStatusDisplay {
     return stateChangeCount;
   }
 
+  /** Wall time of the last render + push, ms. */
+  public double getLastRenderMs() {
+    return lastRenderMs;
+  }
+
+  public double getMaxRenderMs() {
+    return maxRenderMs;
+  }
+
+  public long getLedWrites() {
+    return ledWrites;
+  }
+
+  /** Cycles where the frame matched what the strip already shows, so setData() was skipped. */
+  public long getSkippedWrites() {
+    return skippedWrites;
+  }
+
+  public int getFrameRebuilds() {
+    return frameRebuilds;
+  }
+
   public String getStateDescription() {
     int testVal = lastTestStateValue;
     if (testVal >= 0 && testVal < TEST_DESCRIPTIONS.length) {
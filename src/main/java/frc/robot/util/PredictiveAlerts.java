@@ -5,9 +5,14 @@ import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.RobotController;
 import frc.robot.Constants.BatteryThresholds;
 import frc.robot.telemetry.TelemetryManager;
+import frc.robot.telemetry.TelemetrySnapshot;
 import org.littletonrobotics.junction.Logger;
 
-/** Trend-based predictive alerts: voltage drop rate, temp rise rate, time-to-threshold. */
+/**
+ * Trend-based predictive alerts: time-to-threshold for battery voltage, every motor temperature,
+ * total current and CAN error counters. Each signal runs through a TrendEstimator so the per-cycle
+ * cost stays O(1) per signal regardless of window length.
+ */
 public class PredictiveAlerts {
   private static volatile PredictiveAlerts instance;
 
@@ -15,31 +20,62 @@ public class PredictiveAlerts {
   // false BatteryAtRisk. Sim uses 150 (~3s) because loop runs ~22ms there.
   private static final int SAMPLE_SIZE = RobotBase.isSimulation() ? 150 : 75;
 
-  private final double[] voltageSamples = new double[SAMPLE_SIZE];
-  private int sampleIndex = 0;
+  private static final int MOTOR_COUNT = TelemetrySnapshot.MOTOR_COUNT;
+
+  private final TrendEstimator voltageTrend = new TrendEstimator(SAMPLE_SIZE);
+  private final TrendEstimator currentTrend = new TrendEstimator(SAMPLE_SIZE);
+  private final TrendEstimator canErrorTrend = new TrendEstimator(SAMPLE_SIZE);
+  private final TrendEstimator[] tempTrends = new TrendEstimator[MOTOR_COUNT];
+
   private boolean samplesInitialized = false;
   private double voltageDropRate = 0; // V/s
   private double predictedTimeToWarning = -1;
   private double predictedTimeToShutdown = -1;
 
-  private final double[] tempSamples = new double[SAMPLE_SIZE];
-  private double tempRate = 0; // C/s
-  private double predictedTimeToOverheat = -1;
+  private final double[] motorTempRates = new double[MOTOR_COUNT]; // C/s
+  private final double[] motorTimeToOverheat = new double[MOTOR_COUNT];
+  private double tempRate = 0; // C/s, fastest-rising motor
+  private double predictedTimeToOverheat = -1; // soonest motor to overheat
+  private int overheatMotor = -1;
+
+  private double currentRate = 0; // A/s
+  private double predictedTimeToCurrentLimit = -1;
+  private double canErrorRate = 0; // counts/s
+  private double predictedTimeToCanErrorPassive = -1;
 
   private static final double VOLTAGE_WARNING = BatteryThresholds.WARNING_V;
   private static final double VOLTAGE_SHUTDOWN = BatteryThresholds.CRITICAL_V + 0.5;
   private static final double TEMP_OVERHEAT = 70.0;
+  // Main breaker rating. Short spikes above it are fine, a sustained climb toward it is not.
+  private static final double TOTAL_CURRENT_LIMIT_A = 120.0;
+  // A CAN controller goes error-passive once either its Tx or Rx counter reaches 128
+  private static final double CAN_ERROR_PASSIVE = 128.0;
   private static final double PREDICTION_WARN_SECONDS = 30.0;
 
+  // Minimum rates before we predict anything, below these the trend is just noise
+  private static final double MIN_VOLTAGE_RATE = 0.001;
+  private static final double MIN_TEMP_RATE = 0.01;
+  private static final double MIN_CURRENT_RATE = 0.5;
+  private static final double MIN_CAN_ERROR_RATE = 0.1;
+
+  private static final String[] MOTOR_TIME_KEYS = new String[MOTOR_COUNT];
+  private static final String[] MOTOR_RATE_KEYS = new String[MOTOR_COUNT];
+
+  static {
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      MOTOR_TIME_KEYS[i] = "Predict/Motors/" + TelemetrySnapshot.MOTOR_NAMES[i] + "/TimeToOverheat";
+      MOTOR_RATE_KEYS[i] = "Predict/Motors/" + TelemetrySnapshot.MOTOR_NAMES[i] + "/TempRate";
+    }
+  }
+
   // Alert state (prevent spam)
   private boolean batteryAlertSent = false;
   private boolean tempAlertSent = false;
 
   private PredictiveAlerts() {
-    double initialVoltage = RobotController.getBatteryVoltage();
-    for (int i = 0; i < SAMPLE_SIZE; i++) {
-      voltageSamples[i] = initialVoltage;
-      tempSamples[i] = 25.0; // Assume room temp
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      tempTrends[i] = new TrendEstimator(SAMPLE_SIZE);
+      motorTimeToOverheat[i] = -1;
     }
   }
 
@@ -53,33 +89,28 @@ public class PredictiveAlerts {
   /** Call once per loop cycle */
   public void update() {
     double voltage = RobotController.getBatteryVoltage();
-    voltageSamples[sampleIndex] = voltage;
-
-    TelemetryManager tm = TelemetryManager.getInstance();
-    double maxTemp =
-        Math.max(
-            tm.getShooterTemperature(),
-            Math.max(
-                tm.getIndexerTemperature(),
-                Math.max(
-                    tm.getIntakeTemperature(),
-                    Math.max(tm.getIntakeActuatorTemperature(), tm.getAgitatorTemperature()))));
-    tempSamples[sampleIndex] = maxTemp;
-
-    sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
-    if (sampleIndex == 0) {
-      samplesInitialized = true;
+    voltageTrend.add(voltage);
+
+    TelemetrySnapshot snap = TelemetryManager.getInstance().getSnapshot();
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      tempTrends[i].add(snap.motorTempsC[i]);
+    }
+    currentTrend.add(snap.totalCurrentAmps);
+    int canErrors = snap.canErrorMax();
+    if (canErrors >= 0) {
+      canErrorTrend.add(canErrors);
     }
 
     // Only calculate trends after we have a full window
+    samplesInitialized = voltageTrend.isFull();
     if (!samplesInitialized) {
       return;
     }
 
-    voltageDropRate = -calculateSlope(voltageSamples); // negate so positive = dropping
-    tempRate = calculateSlope(tempSamples);
+    double samplesPerSecond = 1000.0 / Math.max(1.0, snap.loopTimeMs);
 
-    if (voltageDropRate > 0.001) {
+    voltageDropRate = -voltageTrend.slopePerSecond(samplesPerSecond); // positive = dropping
+    if (voltageDropRate > MIN_VOLTAGE_RATE) {
       predictedTimeToWarning = (voltage - VOLTAGE_WARNING) / voltageDropRate;
       predictedTimeToShutdown = (voltage - VOLTAGE_SHUTDOWN) / voltageDropRate;
     } else {
@@ -87,35 +118,35 @@ public class PredictiveAlerts {
       predictedTimeToShutdown = -1;
     }
 
-    if (tempRate > 0.01) {
-      predictedTimeToOverheat = (TEMP_OVERHEAT - maxTemp) / tempRate;
-    } else {
-      predictedTimeToOverheat = -1;
+    tempRate = 0;
+    predictedTimeToOverheat = -1;
+    overheatMotor = -1;
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      TrendEstimator trend = tempTrends[i];
+      motorTempRates[i] = trend.slopePerSecond(samplesPerSecond);
+      motorTimeToOverheat[i] =
+          trend.timeToThreshold(TEMP_OVERHEAT, samplesPerSecond, MIN_TEMP_RATE);
+      if (motorTempRates[i] > tempRate) {
+        tempRate = motorTempRates[i];
+      }
+      if (motorTimeToOverheat[i] > 0
+          && (predictedTimeToOverheat < 0 || motorTimeToOverheat[i] < predictedTimeToOverheat)) {
+        predictedTimeToOverheat = motorTimeToOverheat[i];
+        overheatMotor = i;
+      }
     }
 
-    checkPredictiveAlerts();
-  }
+    currentRate = currentTrend.slopePerSecond(samplesPerSecond);
+    predictedTimeToCurrentLimit =
+        currentTrend.timeToThreshold(TOTAL_CURRENT_LIMIT_A, samplesPerSecond, MIN_CURRENT_RATE);
 
-  /**
-   * Calculate slope using simple linear regression. Returns change per second using actual loop
-   * rate from TelemetryManager.
-   */
-  private double calculateSlope(double[] samples) {
-    double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-    int n = SAMPLE_SIZE;
-
-    for (int i = 0; i < n; i++) {
-      sumX += i;
-      sumY += samples[(sampleIndex + i) % SAMPLE_SIZE]; // Start from oldest
-      sumXY += i * samples[(sampleIndex + i) % SAMPLE_SIZE];
-      sumX2 += i * i;
+    if (canErrorTrend.isFull()) {
+      canErrorRate = canErrorTrend.slopePerSecond(samplesPerSecond);
+      predictedTimeToCanErrorPassive =
+          canErrorTrend.timeToThreshold(CAN_ERROR_PASSIVE, samplesPerSecond, MIN_CAN_ERROR_RATE);
     }
 
-    double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
-    // Convert to per-second using actual loop rate
-    double loopTimeMs = TelemetryManager.getInstance().getLoopTimeMs();
-    double samplesPerSecond = 1000.0 / Math.max(1.0, loopTimeMs);
-    return slope * samplesPerSecond;
+    checkPredictiveAlerts();
   }
 
   private void checkPredictiveAlerts() {
@@ -140,7 +171,8 @@ public class PredictiveAlerts {
         ElasticUtil.sendWarning(
             "Temp Prediction",
             String.format(
-                "Shooter will overheat in %.0fs at current rate", predictedTimeToOverheat));
+                "%s will overheat in %.0fs at current rate",
+                getOverheatMotorName(), predictedTimeToOverheat));
         tempAlertSent = true;
       }
     } else {
@@ -153,9 +185,19 @@ public class PredictiveAlerts {
     Logger.recordOutput("Predict/TimeToVoltageWarn", predictedTimeToWarning);
     Logger.recordOutput("Predict/TimeToShutdown", predictedTimeToShutdown);
 
-    Logger.recordOutput("Predict/ShooterTempRate", tempRate);
+    Logger.recordOutput("Predict/ShooterTempRate", motorTempRates[TelemetrySnapshot.MOTOR_SHOOTER]);
     Logger.recordOutput("Predict/MaxMotorTempRate", tempRate);
     Logger.recordOutput("Predict/TimeToOverheat", predictedTimeToOverheat);
+    Logger.recordOutput("Predict/OverheatMotor", getOverheatMotorName());
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      Logger.recordOutput(MOTOR_RATE_KEYS[i], motorTempRates[i]);
+      Logger.recordOutput(MOTOR_TIME_KEYS[i], motorTimeToOverheat[i]);
+    }
+
+    Logger.recordOutput("Predict/CurrentRate", currentRate);
+    Logger.recordOutput("Predict/TimeToCurrentLimit", predictedTimeToCurrentLimit);
+    Logger.recordOutput("Predict/CANErrorRate", canErrorRate);
+    Logger.recordOutput("Predict/TimeToCANErrorPassive", predictedTimeToCanErrorPassive);
 
     Logger.recordOutput(
         "Predict/BatteryAtRisk",
@@ -168,14 +210,16 @@ public class PredictiveAlerts {
   /** Reset for new match */
   public void reset() {
     samplesInitialized = false;
-    sampleIndex = 0;
     batteryAlertSent = false;
     tempAlertSent = false;
 
-    double initialVoltage = RobotController.getBatteryVoltage();
-    for (int i = 0; i < SAMPLE_SIZE; i++) {
-      voltageSamples[i] = initialVoltage;
-      tempSamples[i] = 25.0;
+    voltageTrend.reset();
+    currentTrend.reset();
+    canErrorTrend.reset();
+    for (int i = 0; i < MOTOR_COUNT; i++) {
+      tempTrends[i].reset();
+      motorTempRates[i] = 0;
+      motorTimeToOverheat[i] = -1;
     }
   }
 
@@ -186,4 +230,21 @@ public class PredictiveAlerts {
   public boolean isTempAtRisk() {
     return predictedTimeToOverheat > 0 && predictedTimeToOverheat < PREDICTION_WARN_SECONDS;
   }
+
+  /** Seconds until the given motor (TelemetrySnapshot.MOTOR_*) overheats, or -1 if not rising. */
+  public double getMotorTimeToOverheat(int motor) {
+    return motorTimeToOverheat[motor];
+  }
+
+  public String getOverheatMotorName() {
+    return overheatMotor >= 0 ? TelemetrySnapshot.MOTOR_NAMES[overheatMotor] : "none";
+  }
+
+  public double getTimeToCurrentLimit() {
+    return predictedTimeToCurrentLimit;
+  }
+
+  public double getTimeToCANErrorPassive() {
+    return predictedTimeToCanErrorPassive;
+  }
 }
@@ -12,11 +12,20 @@ import frc.robot.Constants.HubScoringConstants;
 import frc.robot.Constants.ShotCalculatorConstants;
 import frc.robot.subsystems.swervedrive.SwerveSubsystem;
 import frc.robot.telemetry.SafeLog;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Ballistic fire control. Newton-method TOF solver with analytical derivative for shoot-on-the-move
  * heading compensation. Produces a cached LaunchParameters record every cycle.
  *
+ * <p>The same solver fills a ShotSolutionTable on a background thread at startup, so a moving shot
+ * is normally one trilinear lookup. Newton still runs every few cycles to check the table, whenever
+ * the query falls outside it, and until the table has landed.
+ *
  * <p>Call calculate() once per robotPeriodic() before CommandScheduler.run(). Commands read
  * getParameters() for the cached result.
  */
@@ -70,9 +79,54 @@ public class ShotCalculator {
 
   private final TunableNumber kRpmOverride = new TunableNumber("ShotCalc/RPMOverride", 0.0);
 
+  // 0 = run Newton every cycle, table off
+  private final TunableNumber kUseSolutionTable =
+      new TunableNumber("ShotCalc/useSolutionTable", 1.0);
+  private final TunableNumber kTableVerifyPeriod =
+      new TunableNumber(
+          "ShotCalc/tableVerifyPeriod", ShotCalculatorConstants.SOLUTION_TABLE_VERIFY_PERIOD);
+
   private final ShotLUT baseLUT = new ShotLUT();
   private final InterpolatingDoubleTreeMap correctionRpmMap = new InterpolatingDoubleTreeMap();
   private final InterpolatingDoubleTreeMap correctionTofMap = new InterpolatingDoubleTreeMap();
+  // correctionTofMap's points, copied for each table build so the builder never reads the live map
+  private final TreeMap<Double, Double> tofCorrections = new TreeMap<>();
+  private int tofRevision = 0; // bumped whenever the TOF curve changes
+
+  /** Everything a solution table's answers depend on besides the base LUT. */
+  private record TableKey(
+      double dragCoeff, int tofRevision, int maxIterations, double convergenceTolerance) {
+    boolean matches(double drag, int revision, int maxIter, double tolerance) {
+      return dragCoeff == drag
+          && tofRevision == revision
+          && maxIterations == maxIter
+          && convergenceTolerance == tolerance;
+    }
+  }
+
+  private record BuiltTable(TableKey key, ShotSolutionTable table, int failedCells, double ms) {}
+
+  // Written once per build by the builder thread, null until the first one lands
+  private volatile BuiltTable builtTable = null;
+  private volatile int tableBuildFailures = 0;
+  private final ExecutorService tableBuilder =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread t = new Thread(r, "ShotTableBuilder");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+          });
+  private Future<?> pendingTableBuild = null;
+  private TableKey requestedTableKey = null;
+  private final double[] tableOut = new double[2];
+  private final double[] warmUpOut = new double[2];
+  private int cyclesSinceVerify = 0;
+  private boolean tableUsed = false;
+  private double tableTofResidual = 0;
+  private double tableDistResidual = 0;
+  private double tableRpmResidual = 0;
+  private int tableMismatches = 0;
 
   // copilot D-pad RPM trim, applied on top of LUT + per-distance corrections
   private double rpmOffset = 0;
@@ -83,6 +137,8 @@ public class ShotCalculator {
   private int iterationsUsed = 0;
   private boolean warmStartUsed = false;
   private boolean velocityFiltered = false;
+  private double newtonProjDist = 0;
+  private int newtonIterations = 0;
   private boolean behindHub = false;
   private boolean speedCapped = false;
   private double solvedDistance = 0;
@@ -106,6 +162,9 @@ public class ShotCalculator {
   private final double[] convergenceDist = new double[MAX_CONVERGENCE_STEPS];
   private final double[] convergenceResidual = new double[MAX_CONVERGENCE_STEPS];
   private int convergenceCount = 0;
+  private final NewtonSolver newton =
+      new NewtonSolver(
+          baseLUT, correctionTofMap, convergenceTOF, convergenceDist, convergenceResidual);
   private final double[] diagTofTrail = new double[MAX_CONVERGENCE_STEPS];
   private final double[] diagDistTrail = new double[MAX_CONVERGENCE_STEPS];
   private final double[] diagResidualTrail = new double[MAX_CONVERGENCE_STEPS];
@@ -146,6 +205,8 @@ public class ShotCalculator {
 
   private ShotCalculator() {
     initializeBaselineLUT();
+    requestTableBuild(
+        kSOTMDragCoeff.get(), (int) kMaxIterations.get(), kConvergenceTolerance.get());
   }
 
   /**
@@ -263,31 +324,20 @@ public class ShotCalculator {
   }
 
   double effectiveTOF(double distance) {
-    double base = baseLUT.getTOF(distance);
-    Double correction = correctionTofMap.get(distance);
-    return base + (correction != null ? correction : 0.0);
+    return newton.effectiveTOF(distance);
   }
 
   double effectiveAngle(double distance) {
     return baseLUT.getAngle(distance);
   }
 
-  /**
-   * Drag-compensated effective TOF for velocity offset. The ball's inherited robot velocity decays
-   * exponentially during flight. Returns (1 - e^(-c * tof)) / c, reduces to raw tof when c ~ 0.
-   */
+  /** Drag-compensated effective TOF at the current drag coefficient. */
   private double dragCompensatedTOF(double tof) {
-    double c = kSOTMDragCoeff.get();
-    if (c < 1e-6) return tof;
-    return (1.0 - Math.exp(-c * tof)) / c;
+    return NewtonSolver.dragCompensatedTOF(tof, kSOTMDragCoeff.get());
   }
 
-  private static final double DERIV_H = 0.01;
-
   double tofMapDerivative(double d) {
-    double tHigh = effectiveTOF(d + DERIV_H);
-    double tLow = effectiveTOF(d - DERIV_H);
-    return (tHigh - tLow) / (2.0 * DERIV_H);
+    return newton.tofMapDerivative(d);
   }
 
   /** Called once per cycle before CommandScheduler.run(). Caches the result. */
@@ -421,72 +471,45 @@ public class ShotCalculator {
       projDist = distance;
       iterationsUsed = 0;
       warmStartUsed = false;
+      tableUsed = false;
     } else {
-      int maxIter = (int) kMaxIterations.get();
-      double convTol = kConvergenceTolerance.get();
-
-      double tof;
-      if (previousTOF > 0) {
-        tof = previousTOF;
-        warmStartUsed = true;
-      } else {
-        tof = effectiveTOF(distance);
-        warmStartUsed = false;
+      boolean fromTable = false;
+      if (kUseSolutionTable.get() >= 0.5 && isSolutionTableCurrent()) {
+        double radial = (vx * rx + vy * ry) / distance;
+        double tangential = (vy * rx - vx * ry) / distance;
+        fromTable = lookupTable(builtTable.table(), distance, radial, tangential, tableOut);
       }
+      int verifyPeriod = (int) kTableVerifyPeriod.get();
+      boolean runNewton = !fromTable || (verifyPeriod > 0 && ++cyclesSinceVerify >= verifyPeriod);
 
-      projDist = distance;
+      solvedTOF = tableOut[0];
+      projDist = tableOut[1];
       iterationsUsed = 0;
+      warmStartUsed = false;
       convergenceCount = 0;
-
-      for (int i = 0; i < maxIter; i++) {
-        double prevTOF = tof;
-
-        double driftTOF = dragCompensatedTOF(tof);
-        double prx = rx - vx * driftTOF;
-        double pry = ry - vy * driftTOF;
-        projDist = Math.hypot(prx, pry);
-
-        if (projDist < 0.01) {
-          tof = effectiveTOF(distance);
-          iterationsUsed = maxIter + 1;
-          break;
+      if (runNewton) {
+        cyclesSinceVerify = 0;
+        warmStartUsed = previousTOF > 0;
+        double startTOF = warmStartUsed ? previousTOF : effectiveTOF(distance);
+        double newtonTOF = solveNewton(rx, ry, vx, vy, distance, startTOF, true);
+        if (fromTable) {
+          tableTofResidual = tableOut[0] - newtonTOF;
+          tableDistResidual = tableOut[1] - newtonProjDist;
+          tableRpmResidual = effectiveRPM(tableOut[1]) - effectiveRPM(newtonProjDist);
+          // Both already solve the shot, so a disagreement means the TOF curve's kinks give
+          // two answers. Keep the table's, it doesn't jump with the warm start.
+          if (Math.abs(tableTofResidual)
+              > ShotCalculatorConstants.SOLUTION_TABLE_MAX_TOF_RESIDUAL) {
+            tableMismatches++;
+          }
         }
-
-        double lookupTOF = effectiveTOF(projDist);
-
-        if (convergenceCount < MAX_CONVERGENCE_STEPS) {
-          convergenceTOF[convergenceCount] = tof;
-          convergenceDist[convergenceCount] = projDist;
-          convergenceResidual[convergenceCount] = lookupTOF - tof;
-          convergenceCount++;
-        }
-
-        double dragDeriv = Math.exp(-kSOTMDragCoeff.get() * tof);
-        double dPrime = -dragDeriv * (prx * vx + pry * vy) / projDist;
-        double gPrime = tofMapDerivative(projDist);
-        double f = lookupTOF - tof;
-        double fPrime = gPrime * dPrime - 1.0;
-
-        if (Math.abs(fPrime) > 0.01) {
-          tof = tof - f / fPrime;
-        } else {
-          tof = lookupTOF;
-        }
-
-        tof = MathUtil.clamp(tof, ShotCalculatorConstants.TOF_MIN, ShotCalculatorConstants.TOF_MAX);
-        iterationsUsed = i + 1;
-
-        if (Math.abs(tof - prevTOF) < convTol) {
-          break;
+        if (!fromTable) {
+          solvedTOF = newtonTOF;
+          projDist = newtonProjDist;
+          iterationsUsed = newtonIterations;
         }
       }
-
-      if (tof > ShotCalculatorConstants.TOF_MAX || tof < 0.0 || Double.isNaN(tof)) {
-        tof = effectiveTOF(distance);
-        iterationsUsed = (int) kMaxIterations.get() + 1;
-      }
-
-      solvedTOF = tof;
+      tableUsed = fromTable;
     }
 
     previousTOF = solvedTOF;
@@ -602,6 +625,161 @@ public class ShotCalculator {
         passing);
   }
 
+  /**
+   * Newton iteration on effectiveTOF(projected distance) = tof with the current tunables. Returns
+   * the TOF and leaves the projected distance and iteration count in the newton* fields.
+   */
+  private double solveNewton(
+      double rx,
+      double ry,
+      double vx,
+      double vy,
+      double distance,
+      double startTOF,
+      boolean recordTrail) {
+    configureNewton();
+    double tof = newton.solve(rx, ry, vx, vy, distance, startTOF, recordTrail);
+    newtonProjDist = newton.projDist;
+    newtonIterations = newton.iterations;
+    if (recordTrail) convergenceCount = newton.trailCount;
+    return tof;
+  }
+
+  private void configureNewton() {
+    newton.configure(
+        kSOTMDragCoeff.get(), (int) kMaxIterations.get(), kConvergenceTolerance.get());
+  }
+
+  /**
+   * Table answer for a moving shot in the hub frame, into out. False if the table misses, or if
+   * the interpolated TOF is more than SOLUTION_TABLE_MAX_TOF_RESIDUAL from a solution, estimated
+   * from the fixed-point error over its slope (three LUT reads, no iteration).
+   */
+  boolean lookupTable(
+      ShotSolutionTable table,
+      double distance,
+      double radialMps,
+      double tangentialMps,
+      double[] out) {
+    if (!table.lookup(distance, radialMps, tangentialMps, out)) return false;
+    configureNewton();
+    return newton.tofError(out[0], distance, 0, radialMps, tangentialMps)
+        < ShotCalculatorConstants.SOLUTION_TABLE_MAX_TOF_RESIDUAL;
+  }
+
+  /** Whether the last Newton solve converged, for tests. */
+  boolean lastSolveConverged() {
+    return newton.converged;
+  }
+
+  /** Newton from a cold start in the hub frame, the same solve each table cell gets. */
+  double solveHubFrame(double distance, double radialMps, double tangentialMps) {
+    return solveNewton(
+        distance, 0, radialMps, tangentialMps, distance, effectiveTOF(distance), false);
+  }
+
+  /**
+   * One moving-shot solve on made-up numbers, for JitWarmup: the table lookup and its residual
+   * check, Newton, and the speed-limit and confidence math calculate() runs on a moving shot. In
+   * the hub frame like the table (hub straight ahead at distance), so no pose or alliance is
+   * needed. Leaves everything calculate() carries between cycles alone and logs nothing; only
+   * Newton's per-solve scratch fields change. Returns a sum so the JIT can't drop the work.
+   */
+  public double warmUp(double distance, double radialMps, double tangentialMps) {
+    double sum = 0;
+    BuiltTable built = builtTable;
+    if (built != null
+        && lookupTable(built.table(), distance, radialMps, tangentialMps, warmUpOut)) {
+      sum += warmUpOut[0];
+    }
+    double tof = solveHubFrame(distance, radialMps, tangentialMps);
+    sum += tof + dragCompensatedTOF(tof);
+    sum += effectiveRPM(newtonProjDist) + effectiveAngle(newtonProjDist);
+
+    double speed = Math.hypot(radialMps, tangentialMps);
+    double velocityAngleRad =
+        speed > 0.1 ? Math.acos(MathUtil.clamp(radialMps / speed, -1.0, 1.0)) : 0;
+    sum +=
+        computeDirectionalPolarSpeedLimit(
+            distance,
+            kMaxPolarAngularRate.get(),
+            effectiveTOF(distance),
+            velocityAngleRad,
+            ShotCalculatorConstants.POLAR_SPEED_FLOOR_MPS);
+    double[] hv = decomposeHV(radialMps, tangentialMps, distance, 0);
+    sum +=
+        computeAsymmetricTolerance(
+            hv[0], hv[1], kCrossTrackTolDeg.get(), kAlongTrackTolDeg.get());
+    sum += staticConfidence(distance, 0.02) + headingAccuracy(0.02, distance, speed);
+    return sum;
+  }
+
+  /**
+   * True if a built table matches the current TOF curve, drag and solver settings. A stale table
+   * is only rebuilt while disabled so a tuning change can't take CPU from an enabled loop; Newton
+   * covers for it until the new one lands.
+   */
+  private boolean isSolutionTableCurrent() {
+    double drag = kSOTMDragCoeff.get();
+    int maxIter = (int) kMaxIterations.get();
+    double tolerance = kConvergenceTolerance.get();
+    BuiltTable built = builtTable;
+    if (built != null && built.key().matches(drag, tofRevision, maxIter, tolerance)) return true;
+    if (DriverStation.isDisabled()) requestTableBuild(drag, maxIter, tolerance);
+    return false;
+  }
+
+  /**
+   * Start a table build for these settings on the builder thread, unless one is already running or
+   * these settings were already tried. The builder gets its own solver over a copy of the TOF
+   * corrections; baseLUT is only filled in the constructor, so it is safe to share.
+   */
+  private void requestTableBuild(double drag, int maxIter, double tolerance) {
+    if (pendingTableBuild != null && !pendingTableBuild.isDone()) return;
+    if (requestedTableKey != null
+        && requestedTableKey.matches(drag, tofRevision, maxIter, tolerance)) {
+      return;
+    }
+    TableKey key = new TableKey(drag, tofRevision, maxIter, tolerance);
+    InterpolatingDoubleTreeMap corrections = new InterpolatingDoubleTreeMap();
+    tofCorrections.forEach(corrections::put);
+    NewtonSolver solver = new NewtonSolver(baseLUT, corrections, null, null, null);
+    solver.configure(drag, maxIter, tolerance);
+    requestedTableKey = key;
+    pendingTableBuild = tableBuilder.submit(() -> buildTable(key, solver));
+  }
+
+  /**
+   * Builder thread. Fill a fresh table from Newton in the hub frame (the hub straight ahead at the
+   * cell's distance, the launcher moving at (radial, tangential), ~30k solves), then swap it in.
+   */
+  private void buildTable(TableKey key, NewtonSolver solver) {
+    try {
+      long start = System.nanoTime();
+      ShotSolutionTable table =
+          new ShotSolutionTable(
+              ShotCalculatorConstants.MIN_SCORING_DISTANCE,
+              ShotCalculatorConstants.MAX_SCORING_DISTANCE,
+              ShotCalculatorConstants.SOLUTION_TABLE_DIST_STEP,
+              ShotCalculatorConstants.MAX_SOTM_SPEED,
+              ShotCalculatorConstants.SOLUTION_TABLE_VEL_STEP,
+              ShotCalculatorConstants.SOLUTION_TABLE_MAX_CORNER_SPREAD);
+      int failed =
+          table.build(
+              (d, vr, vt, out) -> {
+                out[0] = solver.solve(d, 0, vr, vt, d, solver.effectiveTOF(d), false);
+                out[1] = solver.projDist;
+                // Newton's step test can stop on a kink that isn't a solution; don't store those
+                return solver.converged
+                    && solver.tofError(out[0], d, 0, vr, vt)
+                        < ShotCalculatorConstants.SOLUTION_TABLE_MAX_TOF_RESIDUAL;
+              });
+      builtTable = new BuiltTable(key, table, failed, (System.nanoTime() - start) / 1e6);
+    } catch (Throwable t) {
+      tableBuildFailures++;
+    }
+  }
+
   /** 5-component weighted geometric mean confidence score (0-100). */
   private double computeConfidence(
       double solverQuality, double currentSpeed, double headingErrorRad, double distance) {
@@ -618,21 +796,53 @@ public class ShotCalculator {
     }
     visionConf = MathUtil.clamp(visionConf, 0, 1);
 
+    double headingAccuracy = headingAccuracy(headingErrorRad, distance, currentSpeed);
+    double distInRange = distanceInRange(distance);
+
+    double composite =
+        combineConfidence(
+            convergenceQuality, velocityStability, visionConf, headingAccuracy, distInRange);
+
+    logConfidenceComponents(
+        convergenceQuality, velocityStability, visionConf, headingAccuracy, distInRange, composite);
+    return composite;
+  }
+
+  /**
+   * Confidence (0-100) the pose alone allows: a standing shot with a converged solve and a good
+   * vision fix. ShotMap fills the field with this.
+   */
+  public static double staticConfidence(double distance, double headingErrorRad) {
+    return combineConfidence(
+        1.0, 1.0, 1.0, headingAccuracy(headingErrorRad, distance, 0), distanceInRange(distance));
+  }
+
+  /** Heading error against what this range and speed allow, 1 = dead on, 0 = out of tolerance. */
+  static double headingAccuracy(double headingErrorRad, double distance, double speed) {
     double distanceScale =
         MathUtil.clamp(ShotCalculatorConstants.HEADING_REFERENCE_DISTANCE / distance, 0.5, 2.0);
-    double speedScale = 1.0 / (1.0 + ShotCalculatorConstants.HEADING_SPEED_SCALAR * currentSpeed);
+    double speedScale = 1.0 / (1.0 + ShotCalculatorConstants.HEADING_SPEED_SCALAR * speed);
     double scaledMaxError =
         ShotCalculatorConstants.HEADING_MAX_ERROR_RAD * distanceScale * speedScale;
-    double headingErr = Math.abs(headingErrorRad);
-    double headingAccuracy = MathUtil.clamp(1.0 - headingErr / scaledMaxError, 0, 1);
+    return MathUtil.clamp(1.0 - Math.abs(headingErrorRad) / scaledMaxError, 0, 1);
+  }
 
+  /** 1 in the middle of the scoring envelope, falling to 0 at either end. */
+  static double distanceInRange(double distance) {
     double rangeSpan =
         ShotCalculatorConstants.MAX_SCORING_DISTANCE - ShotCalculatorConstants.MIN_SCORING_DISTANCE;
     double rangeFraction = (distance - ShotCalculatorConstants.MIN_SCORING_DISTANCE) / rangeSpan;
-    double distInRange = 1.0 - 2.0 * Math.abs(rangeFraction - 0.5);
-    distInRange = MathUtil.clamp(distInRange, 0, 1);
+    return MathUtil.clamp(1.0 - 2.0 * Math.abs(rangeFraction - 0.5), 0, 1);
+  }
 
-    double[] c = {convergenceQuality, velocityStability, visionConf, headingAccuracy, distInRange};
+  /** Weighted geometric mean of the five components, scaled to 0-100. Any zero gives 0. */
+  private static double combineConfidence(
+      double convergence,
+      double velStability,
+      double visionConf,
+      double headingAcc,
+      double distInRange) {
+    double[] c = {convergence, velStability, visionConf, headingAcc, distInRange};
     double[] w = {
       ShotCalculatorConstants.W_CONVERGENCE,
       ShotCalculatorConstants.W_VELOCITY_STABILITY,
@@ -644,20 +854,11 @@ public class ShotCalculator {
     double sumW = 0;
     double logSum = 0;
     for (int i = 0; i < 5; i++) {
-      if (c[i] <= 0) {
-        logConfidenceComponents(
-            convergenceQuality, velocityStability, visionConf, headingAccuracy, distInRange, 0);
-        return 0;
-      }
+      if (c[i] <= 0) return 0;
       logSum += w[i] * Math.log(c[i]);
       sumW += w[i];
     }
-    double composite = Math.exp(logSum / sumW) * 100.0;
-    composite = MathUtil.clamp(composite, 0, 100);
-
-    logConfidenceComponents(
-        convergenceQuality, velocityStability, visionConf, headingAccuracy, distInRange, composite);
-    return composite;
+    return MathUtil.clamp(Math.exp(logSum / sumW) * 100.0, 0, 100);
   }
 
   private void logConfidenceComponents(
@@ -756,6 +957,17 @@ public class ShotCalculator {
         "Scoring/ShotCalc/DriveAngularVelocity", cachedParameters.driveAngularVelocityRadPerSec());
     SafeLog.put("Scoring/ShotCalc/IsValid", cachedParameters.isValid());
     SafeLog.put("Scoring/ShotCalc/ConvergenceIterations", iterationsUsed);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/Used", tableUsed);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/TOFResidual", tableTofResidual);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/DistResidual", tableDistResidual);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/RPMResidual", tableRpmResidual);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/Mismatches", tableMismatches);
+    BuiltTable built = builtTable;
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/Ready", built != null);
+    SafeLog.put(
+        "Scoring/ShotCalc/SolutionTable/FailedCells", built != null ? built.failedCells() : 0);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/BuildMs", built != null ? built.ms() : 0);
+    SafeLog.put("Scoring/ShotCalc/SolutionTable/BuildFailures", tableBuildFailures);
     SafeLog.put("Scoring/ShotCalc/WarmStartUsed", warmStartUsed);
     SafeLog.put("Scoring/ShotCalc/VelocityFiltered", velocityFiltered);
     SafeLog.put("Scoring/ShotCalc/BehindHub", behindHub);
@@ -873,11 +1085,15 @@ public class ShotCalculator {
 
   public void addTofCorrection(double distance, double deltaTof) {
     correctionTofMap.put(distance, deltaTof);
+    tofCorrections.put(distance, deltaTof);
+    tofRevision++;
   }
 
   public void clearCorrections() {
     correctionRpmMap.clear();
     correctionTofMap.clear();
+    tofCorrections.clear();
+    tofRevision++;
   }
 
   public void adjustOffset(double delta) {
@@ -945,4 +1161,181 @@ public class ShotCalculator {
   ShotLUT getBaseLUT() {
     return baseLUT;
   }
+
+  /** The current table, or null if none has been built yet. */
+  ShotSolutionTable getSolutionTable() {
+    BuiltTable built = builtTable;
+    return built != null ? built.table() : null;
+  }
+
+  /** Wait for a table build in flight, for tests. Returns the table, or null if none landed. */
+  ShotSolutionTable awaitSolutionTable(long timeoutMs) throws Exception {
+    Future<?> build = pendingTableBuild;
+    if (build != null) build.get(timeoutMs, TimeUnit.MILLISECONDS);
+    return getSolutionTable();
+  }
+
+  /**
+   * Newton's TOF solve against one TOF curve (base LUT plus TOF corrections) and one set of drag
+   * and convergence settings. Not thread safe: calculate() owns one, and each table build gets its
+   * own over a copy of the corrections.
+   */
+  private static final class NewtonSolver {
+    private static final double DERIV_H = 0.01;
+
+    private final ShotLUT baseLUT;
+    private final InterpolatingDoubleTreeMap tofCorrections;
+    // Per-iteration trail of the last solve that asked for one, null if never recorded
+    private final double[] trailTof;
+    private final double[] trailDist;
+    private final double[] trailResidual;
+
+    private double dragCoeff = 0;
+    private int maxIterations = 0;
+    private double convergenceTolerance = 0;
+
+    // Results of the last solve
+    double projDist = 0;
+    int iterations = 0;
+    boolean converged = false;
+    int trailCount = 0;
+
+    NewtonSolver(
+        ShotLUT baseLUT,
+        InterpolatingDoubleTreeMap tofCorrections,
+        double[] trailTof,
+        double[] trailDist,
+        double[] trailResidual) {
+      this.baseLUT = baseLUT;
+      this.tofCorrections = tofCorrections;
+      this.trailTof = trailTof;
+      this.trailDist = trailDist;
+      this.trailResidual = trailResidual;
+    }
+
+    void configure(double dragCoeff, int maxIterations, double convergenceTolerance) {
+      this.dragCoeff = dragCoeff;
+      this.maxIterations = maxIterations;
+      this.convergenceTolerance = convergenceTolerance;
+    }
+
+    double effectiveTOF(double distance) {
+      double base = baseLUT.getTOF(distance);
+      Double correction = tofCorrections.get(distance);
+      return base + (correction != null ? correction : 0.0);
+    }
+
+    double tofMapDerivative(double d) {
+      double tHigh = effectiveTOF(d + DERIV_H);
+      double tLow = effectiveTOF(d - DERIV_H);
+      return (tHigh - tLow) / (2.0 * DERIV_H);
+    }
+
+    /**
+     * Drag-compensated effective TOF for velocity offset. The ball's inherited robot velocity
+     * decays exponentially during flight. Returns (1 - e^(-c * tof)) / c, reduces to raw tof when
+     * c ~ 0.
+     */
+    static double dragCompensatedTOF(double tof, double c) {
+      if (c < 1e-6) return tof;
+      return (1.0 - Math.exp(-c * tof)) / c;
+    }
+
+    /**
+     * Roughly how far tof is from solving the moving shot, in seconds: the fixed-point error
+     * effectiveTOF(projected distance) - tof over its slope, i.e. the length of one Newton step.
+     * The raw error alone understates it where the TOF curve is steep.
+     */
+    double tofError(double tof, double rx, double ry, double vx, double vy) {
+      double driftTOF = dragCompensatedTOF(tof, dragCoeff);
+      double prx = rx - vx * driftTOF;
+      double pry = ry - vy * driftTOF;
+      double projDist = Math.hypot(prx, pry);
+      double f = effectiveTOF(projDist) - tof;
+      if (projDist < 0.01) return Math.abs(f);
+      double dPrime = -Math.exp(-dragCoeff * tof) * (prx * vx + pry * vy) / projDist;
+      double fPrime = tofMapDerivative(projDist) * dPrime - 1.0;
+      return Math.abs(fPrime) > 0.01 ? Math.abs(f / fPrime) : Math.abs(f);
+    }
+
+    /**
+     * Newton iteration on effectiveTOF(projected distance) = tof, where the projected distance is
+     * the launcher-to-hub vector minus the drag-decayed drift over the flight. Returns the TOF and
+     * leaves the projected distance, iteration count and convergence in the result fields.
+     */
+    double solve(
+        double rx,
+        double ry,
+        double vx,
+        double vy,
+        double distance,
+        double startTOF,
+        boolean recordTrail) {
+      int maxIter = maxIterations;
+      double convTol = convergenceTolerance;
+      recordTrail &= trailTof != null;
+
+      double tof = startTOF;
+      double projDist = distance;
+      int iterations = 0;
+      boolean converged = false;
+      if (recordTrail) trailCount = 0;
+
+      for (int i = 0; i < maxIter; i++) {
+        double prevTOF = tof;
+
+        double driftTOF = dragCompensatedTOF(tof, dragCoeff);
+        double prx = rx - vx * driftTOF;
+        double pry = ry - vy * driftTOF;
+        projDist = Math.hypot(prx, pry);
+
+        if (projDist < 0.01) {
+          tof = effectiveTOF(distance);
+          iterations = maxIter + 1;
+          break;
+        }
+
+        double lookupTOF = effectiveTOF(projDist);
+
+        if (recordTrail && trailCount < trailTof.length) {
+          trailTof[trailCount] = tof;
+          trailDist[trailCount] = projDist;
+          trailResidual[trailCount] = lookupTOF - tof;
+          trailCount++;
+        }
+
+        double dragDeriv = Math.exp(-dragCoeff * tof);
+        double dPrime = -dragDeriv * (prx * vx + pry * vy) / projDist;
+        double gPrime = tofMapDerivative(projDist);
+        double f = lookupTOF - tof;
+        double fPrime = gPrime * dPrime - 1.0;
+
+        if (Math.abs(fPrime) > 0.01) {
+          tof = tof - f / fPrime;
+        } else {
+          tof = lookupTOF;
+        }
+
+        tof =
+            MathUtil.clamp(tof, ShotCalculatorConstants.TOF_MIN, ShotCalculatorConstants.TOF_MAX);
+        iterations = i + 1;
+
+        if (Math.abs(tof - prevTOF) < convTol) {
+          converged = true;
+          break;
+        }
+      }
+
+      if (tof > ShotCalculatorConstants.TOF_MAX || tof < 0.0 || Double.isNaN(tof)) {
+        tof = effectiveTOF(distance);
+        iterations = maxIter + 1;
+        converged = false;
+      }
+
+      this.projDist = projDist;
+      this.iterations = iterations;
+      this.converged = converged;
+      return tof;
+    }
+  }
 }
@@ -0,0 +1,346 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.HubScoringConstants;
+import frc.robot.Constants.ShotCalculatorConstants;
+import frc.robot.Constants.ShotMapConstants;
+import frc.robot.telemetry.SafeLog;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Field-wide grid of standing-shot solutions for both alliances: for every 0.25m cell the robot
+ * can stand in, the aim heading, launcher-to-hub distance, RPM, TOF and the confidence
+ * ShotCalculator would give a standing, aimed shot from there. Each cell also knows the best cell
+ * to shoot from within NEARBY_RADIUS_M, trading confidence against the drive to get there.
+ *
+ * <p>The grid is built on a daemon thread and swapped in whole, so queries from the loop are an
+ * index into arrays that never change underneath them. update() samples the live RPM/TOF curves
+ * (trims and corrections included) once a second and rebuilds only when they changed.
+ *
+ * <p>Heading isn't a grid axis: confidence is a closed-form function of heading error, so each
+ * cell stores the aim heading and getConfidence() scores the actual heading against it.
+ */
+public class ShotMap {
+  private static volatile ShotMap instance;
+
+  static final int BLUE = 0;
+  static final int RED = 1;
+
+  static final double CURVE_STEP_M = 0.05;
+  static final int CURVE_SAMPLES =
+      (int)
+              Math.round(
+                  (ShotCalculatorConstants.MAX_SCORING_DISTANCE
+                          - ShotCalculatorConstants.MIN_SCORING_DISTANCE)
+                      / CURVE_STEP_M)
+          + 1;
+
+  /** Where to stand and what the shot from there looks like. */
+  public record Spot(Pose2d pose, double confidence, double distanceM, double rpm, double tofSec) {}
+
+  private final ExecutorService worker;
+  private volatile Grid grid = null;
+  private volatile boolean building = false;
+  private volatile double lastBuildMs = 0;
+  private volatile int builds = 0;
+  private volatile int failedBuilds = 0;
+  private volatile String lastError = "";
+
+  // Loop-thread state
+  private double lastCheckTime = Double.NEGATIVE_INFINITY;
+  private float[] lastRpm = null;
+  private float[] lastTof = null;
+
+  public static ShotMap getInstance() {
+    if (instance == null) {
+      instance = new ShotMap();
+    }
+    return instance;
+  }
+
+  private ShotMap() {
+    this.worker =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "ShotMap");
+              t.setDaemon(true);
+              t.setPriority(Thread.MIN_PRIORITY);
+              return t;
+            });
+  }
+
+  /** Call once per loop from robotPeriodic(). Cheap except once a second. */
+  public void update() {
+    double now = Timer.getFPGATimestamp();
+    if (now - lastCheckTime < ShotMapConstants.CURVE_CHECK_PERIOD_SEC) return;
+    lastCheckTime = now;
+
+    if (!building) {
+      ShotCalculator calc = ShotCalculator.getInstance();
+      float[] rpm = new float[CURVE_SAMPLES];
+      float[] tof = new float[CURVE_SAMPLES];
+      for (int i = 0; i < CURVE_SAMPLES; i++) {
+        double d = ShotCalculatorConstants.MIN_SCORING_DISTANCE + i * CURVE_STEP_M;
+        rpm[i] = (float) calc.effectiveRPM(d);
+        tof[i] = (float) calc.getTimeOfFlight(d);
+      }
+      if (!Arrays.equals(rpm, lastRpm) || !Arrays.equals(tof, lastTof)) {
+        lastRpm = rpm;
+        lastTof = tof;
+        building = true;
+        worker.execute(() -> rebuild(rpm, tof));
+      }
+    }
+
+    SafeLog.put("ShotMap/Ready", grid != null);
+    SafeLog.put("ShotMap/Builds", builds);
+    SafeLog.put("ShotMap/BuildMs", lastBuildMs);
+    SafeLog.put("Health/ShotMap/BuildFailures", failedBuilds);
+    SafeLog.put("Health/ShotMap/LastError", lastError);
+  }
+
+  private void rebuild(float[] rpm, float[] tof) {
+    try {
+      long start = System.nanoTime();
+      grid = Grid.build(rpm, tof);
+      lastBuildMs = (System.nanoTime() - start) / 1e6;
+      builds++;
+    } catch (Throwable t) {
+      // Keep serving the previous grid; the loop thread logs the failure
+      lastError = t.getClass().getSimpleName();
+      failedBuilds++;
+    } finally {
+      building = false;
+    }
+  }
+
+  public boolean isReady() {
+    return grid != null;
+  }
+
+  public int getFailedBuilds() {
+    return failedBuilds;
+  }
+
+  /** Expected confidence (0-100) of a standing shot from this pose; 0 before the first build. */
+  public double getConfidence(Pose2d pose) {
+    Grid g = grid;
+    return g == null ? 0 : g.confidence(allianceIndex(), pose);
+  }
+
+  /** Best place to take a standing shot near this position, if any is worth driving to. */
+  public Optional<Spot> getBestNearby(Translation2d position) {
+    Grid g = grid;
+    return g == null ? Optional.empty() : g.bestNearby(allianceIndex(), position);
+  }
+
+  private static int allianceIndex() {
+    var alliance = DriverStation.getAlliance();
+    return alliance.isPresent() && alliance.get() == DriverStation.Alliance.Red ? RED : BLUE;
+  }
+
+  /** One immutable build. Package-private so tests can build one from a made-up curve. */
+  static final class Grid {
+    private static final FieldGeometry.Rect[] INFLATED_OBSTACLES =
+        new FieldGeometry.Rect[FieldGeometry.DRIVE_OBSTACLES.length];
+
+    static {
+      for (int i = 0; i < INFLATED_OBSTACLES.length; i++) {
+        INFLATED_OBSTACLES[i] =
+            FieldGeometry.DRIVE_OBSTACLES[i].inflatedBy(ShotMapConstants.ROBOT_CLEARANCE_M);
+      }
+    }
+
+    final int nx;
+    final int ny;
+    private final float[] rpmCurve;
+    private final float[] tofCurve;
+    private final boolean[] reachable;
+    // [alliance][cell], cell = iy * nx + ix
+    private final float[][] aimHeading;
+    private final float[][] launcherDist;
+    private final float[][] aimedConf;
+    private final int[][] best; // -1 when nothing nearby scores
+
+    private Grid(float[] rpmCurve, float[] tofCurve) {
+      double cell = ShotMapConstants.CELL_SIZE_M;
+      this.nx = (int) Math.ceil(FieldGeometry.FIELD_LENGTH_M / cell);
+      this.ny = (int) Math.ceil(FieldGeometry.FIELD_WIDTH_M / cell);
+      this.rpmCurve = rpmCurve;
+      this.tofCurve = tofCurve;
+      int cells = nx * ny;
+      this.reachable = new boolean[cells];
+      this.aimHeading = new float[2][cells];
+      this.launcherDist = new float[2][cells];
+      this.aimedConf = new float[2][cells];
+      this.best = new int[2][cells];
+    }
+
+    static Grid build(float[] rpmCurve, float[] tofCurve) {
+      Grid g = new Grid(rpmCurve, tofCurve);
+      for (int iy = 0; iy < g.ny; iy++) {
+        for (int ix = 0; ix < g.nx; ix++) {
+          g.reachable[iy * g.nx + ix] = isReachable(g.centerX(ix), g.centerY(iy));
+        }
+      }
+      for (int a = BLUE; a <= RED; a++) {
+        g.solveCells(a);
+        g.findBestNearby(a);
+      }
+      return g;
+    }
+
+    private static boolean isReachable(double x, double y) {
+      double margin = ShotMapConstants.ROBOT_CLEARANCE_M;
+      if (x < margin
+          || y < margin
+          || x > FieldGeometry.FIELD_LENGTH_M - margin
+          || y > FieldGeometry.FIELD_WIDTH_M - margin) {
+        return false;
+      }
+      for (FieldGeometry.Rect r : INFLATED_OBSTACLES) {
+        if (r.contains(x, y)) return false;
+      }
+      return true;
+    }
+
+    private void solveCells(int a) {
+      for (int iy = 0; iy < ny; iy++) {
+        for (int ix = 0; ix < nx; ix++) {
+          int c = iy * nx + ix;
+          double x = centerX(ix);
+          double y = centerY(iy);
+          double heading = aimHeading(a, x, y);
+          double dist = launcherDistance(a, x, y, heading);
+          aimHeading[a][c] = (float) heading;
+          launcherDist[a][c] = (float) dist;
+          aimedConf[a][c] =
+              reachable[c] && !behindHub(a, x, y)
+                  ? (float) ShotCalculator.staticConfidence(dist, 0)
+                  : 0f;
+        }
+      }
+    }
+
+    /** Same trade as a driver would make: a better shot is worth a short drive. */
+    private void findBestNearby(int a) {
+      double cell = ShotMapConstants.CELL_SIZE_M;
+      int reach = (int) Math.ceil(ShotMapConstants.NEARBY_RADIUS_M / cell);
+      double radiusSq = ShotMapConstants.NEARBY_RADIUS_M * ShotMapConstants.NEARBY_RADIUS_M;
+      for (int iy = 0; iy < ny; iy++) {
+        for (int ix = 0; ix < nx; ix++) {
+          int bestCell = -1;
+          double bestScore = 0;
+          for (int jy = Math.max(0, iy - reach); jy <= Math.min(ny - 1, iy + reach); jy++) {
+            for (int jx = Math.max(0, ix - reach); jx <= Math.min(nx - 1, ix + reach); jx++) {
+              int c = jy * nx + jx;
+              if (aimedConf[a][c] <= 0) continue;
+              double dx = (jx - ix) * cell;
+              double dy = (jy - iy) * cell;
+              double dSq = dx * dx + dy * dy;
+              if (dSq > radiusSq) continue;
+              double score =
+                  aimedConf[a][c] - ShotMapConstants.TRAVEL_PENALTY_PER_M * Math.sqrt(dSq);
+              if (score > bestScore) {
+                bestScore = score;
+                bestCell = c;
+              }
+            }
+          }
+          best[a][iy * nx + ix] = bestCell;
+        }
+      }
+    }
+
+    double confidence(int a, Pose2d pose) {
+      double x = pose.getX();
+      double y = pose.getY();
+      int c = cellAt(x, y);
+      if (c < 0 || aimedConf[a][c] <= 0 || behindHub(a, x, y)) return 0;
+      // Exact geometry for the pose itself, the grid only answers "can a shot work here"
+      double heading = pose.getRotation().getRadians();
+      double err = Math.IEEEremainder(heading - aimHeading(a, x, y), 2 * Math.PI);
+      return ShotCalculator.staticConfidence(launcherDistance(a, x, y, heading), err);
+    }
+
+    Optional<Spot> bestNearby(int a, Translation2d position) {
+      int c = cellAt(position.getX(), position.getY());
+      if (c < 0 || best[a][c] < 0) return Optional.empty();
+      int b = best[a][c];
+      double dist = launcherDist[a][b];
+      Pose2d pose =
+          new Pose2d(centerX(b % nx), centerY(b / nx), new Rotation2d(aimHeading[a][b]));
+      return Optional.of(
+          new Spot(pose, aimedConf[a][b], dist, sample(rpmCurve, dist), sample(tofCurve, dist)));
+    }
+
+    /** Aimed-shot confidence of the cell containing this point, for logging and tests. */
+    double aimedConfidence(int a, double x, double y) {
+      int c = cellAt(x, y);
+      return c < 0 ? 0 : aimedConf[a][c];
+    }
+
+    private int cellAt(double x, double y) {
+      double cell = ShotMapConstants.CELL_SIZE_M;
+      int ix = (int) Math.floor(x / cell);
+      int iy = (int) Math.floor(y / cell);
+      if (ix < 0 || iy < 0 || ix >= nx || iy >= ny) return -1;
+      return iy * nx + ix;
+    }
+
+    private double centerX(int ix) {
+      return (ix + 0.5) * ShotMapConstants.CELL_SIZE_M;
+    }
+
+    private double centerY(int iy) {
+      return (iy + 0.5) * ShotMapConstants.CELL_SIZE_M;
+    }
+
+    private static Translation2d hub(int a) {
+      return a == RED ? HubScoringConstants.RED_HUB_CENTER : HubScoringConstants.BLUE_HUB_CENTER;
+    }
+
+    // Mirrors ShotCalculator: hub forward is +x for blue, -x for red
+    private static boolean behindHub(int a, double x, double y) {
+      double forward = a == RED ? -1 : 1;
+      return (hub(a).getX() - x) * forward < 0;
+    }
+
+    private static double aimHeading(int a, double x, double y) {
+      Translation2d hub = hub(a);
+      return Math.atan2(hub.getY() - y, hub.getX() - x)
+          + ShotCalculatorConstants.SHOOTER_ANGLE_OFFSET_RAD;
+    }
+
+    private static double launcherDistance(int a, double x, double y, double heading) {
+      double cos = Math.cos(heading);
+      double sin = Math.sin(heading);
+      double lx =
+          x
+              + ShotCalculatorConstants.LAUNCHER_OFFSET_X * cos
+              - ShotCalculatorConstants.LAUNCHER_OFFSET_Y * sin;
+      double ly =
+          y
+              + ShotCalculatorConstants.LAUNCHER_OFFSET_X * sin
+              + ShotCalculatorConstants.LAUNCHER_OFFSET_Y * cos;
+      Translation2d hub = hub(a);
+      return Math.hypot(hub.getX() - lx, hub.getY() - ly);
+    }
+
+    private static double sample(float[] curve, double distance) {
+      double f = (distance - ShotCalculatorConstants.MIN_SCORING_DISTANCE) / CURVE_STEP_M;
+      if (f <= 0) return curve[0];
+      if (f >= curve.length - 1) return curve[curve.length - 1];
+      int i = (int) f;
+      double t = f - i;
+      return curve[i] + (curve[i + 1] - curve[i]) * t;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package frc.robot.util;
+
+/**
+ * Precomputed shoot-on-the-move solutions over (distance, radial velocity, tangential velocity),
+ * all measured from the launcher to the hub. Each cell holds the solved TOF and the projected
+ * distance the ball has to cover, so one trilinear lookup replaces the Newton iteration. RPM and
+ * hood angle come from the projected distance through the live LUT, so trims still apply.
+ *
+ * <p>Only |tangential| is stored: strafing left or right gives the same TOF and distance. Cells
+ * where the solver didn't converge are NaN, and a lookup touching one misses so the caller falls
+ * back to the solver. So does a lookup whose corners disagree by more than maxCornerSpread: the
+ * TOF curve has kinks where the real-robot points sit, and interpolating across the jump in the
+ * solution there would be worse than solving.
+ */
+public class ShotSolutionTable {
+
+  /** Fill out[0] = TOF (s), out[1] = projected distance (m). False if it didn't converge. */
+  @FunctionalInterface
+  public interface Solver {
+    boolean solve(double distance, double radialVel, double tangentialVel, double[] out);
+  }
+
+  private final double minDist;
+  private final double distStep;
+  private final int distCount;
+  private final double maxSpeed;
+  private final double velStep;
+  private final int radialCount;
+  private final int tangentialCount;
+  private final double maxCornerSpread;
+
+  // distance-major, then radial, then tangential
+  private final float[] tof;
+  private final float[] projDist;
+  private boolean built = false;
+
+  public ShotSolutionTable(
+      double minDist,
+      double maxDist,
+      double distStep,
+      double maxSpeed,
+      double velStep,
+      double maxCornerSpread) {
+    this.minDist = minDist;
+    this.distStep = distStep;
+    this.distCount = (int) Math.round((maxDist - minDist) / distStep) + 1;
+    this.maxSpeed = maxSpeed;
+    this.velStep = velStep;
+    this.radialCount = (int) Math.round(2 * maxSpeed / velStep) + 1;
+    this.tangentialCount = (int) Math.round(maxSpeed / velStep) + 1;
+    this.maxCornerSpread = maxCornerSpread;
+    int cells = distCount * radialCount * tangentialCount;
+    this.tof = new float[cells];
+    this.projDist = new float[cells];
+  }
+
+  /** Solve every cell. Returns how many didn't converge. */
+  public int build(Solver solver) {
+    double[] out = new double[2];
+    int failed = 0;
+    for (int i = 0; i < distCount; i++) {
+      double d = minDist + i * distStep;
+      for (int j = 0; j < radialCount; j++) {
+        double vr = -maxSpeed + j * velStep;
+        for (int k = 0; k < tangentialCount; k++) {
+          int idx = index(i, j, k);
+          if (solver.solve(d, vr, k * velStep, out)) {
+            tof[idx] = (float) out[0];
+            projDist[idx] = (float) out[1];
+          } else {
+            tof[idx] = Float.NaN;
+            projDist[idx] = Float.NaN;
+            failed++;
+          }
+        }
+      }
+    }
+    built = true;
+    return failed;
+  }
+
+  /**
+   * Trilinear lookup into out[0] = TOF, out[1] = projected distance. False (out untouched) when
+   * the table isn't built, the query is outside it, or a corner cell didn't converge or disagrees
+   * with the others.
+   */
+  public boolean lookup(double distance, double radialVel, double tangentialVel, double[] out) {
+    if (!built) return false;
+    double fd = (distance - minDist) / distStep;
+    double fr = (radialVel + maxSpeed) / velStep;
+    double ft = Math.abs(tangentialVel) / velStep;
+    if (!(fd >= 0 && fd <= distCount - 1)
+        || !(fr >= 0 && fr <= radialCount - 1)
+        || !(ft <= tangentialCount - 1)) {
+      return false;
+    }
+    int i = Math.min((int) fd, distCount - 2);
+    int j = Math.min((int) fr, radialCount - 2);
+    int k = Math.min((int) ft, tangentialCount - 2);
+    double td = fd - i;
+    double tr = fr - j;
+    double tt = ft - k;
+
+    if (!(cornerSpread(i, j, k) <= maxCornerSpread)) return false; // NaN corners land here too
+    double t = trilinear(tof, i, j, k, td, tr, tt);
+    double p = trilinear(projDist, i, j, k, td, tr, tt);
+    out[0] = t;
+    out[1] = p;
+    return true;
+  }
+
+  private double cornerSpread(int i, int j, int k) {
+    float min = Float.POSITIVE_INFINITY;
+    float max = Float.NEGATIVE_INFINITY;
+    for (int c = 0; c < 8; c++) {
+      float v = tof[index(i + (c >> 2), j + ((c >> 1) & 1), k + (c & 1))];
+      if (Float.isNaN(v)) return Double.NaN;
+      min = Math.min(min, v);
+      max = Math.max(max, v);
+    }
+    return max - min;
+  }
+
+  private double trilinear(float[] v, int i, int j, int k, double td, double tr, double tt) {
+    double c00 = lerp(v[index(i, j, k)], v[index(i, j, k + 1)], tt);
+    double c01 = lerp(v[index(i, j + 1, k)], v[index(i, j + 1, k + 1)], tt);
+    double c10 = lerp(v[index(i + 1, j, k)], v[index(i + 1, j, k + 1)], tt);
+    double c11 = lerp(v[index(i + 1, j + 1, k)], v[index(i + 1, j + 1, k + 1)], tt);
+    return lerp(lerp(c00, c01, tr), lerp(c10, c11, tr), td);
+  }
+
+  private static double lerp(double a, double b, double t) {
+    return a + (b - a) * t;
+  }
+
+  private int index(int i, int j, int k) {
+    return (i * radialCount + j) * tangentialCount + k;
+  }
+
+  public boolean isBuilt() {
+    return built;
+  }
+
+  /** Number of cells. */
+  public int size() {
+    return tof.length;
+  }
+}
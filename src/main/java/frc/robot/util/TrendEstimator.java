@@ -0,0 +1,144 @@
+package frc.robot.util;
+
+/**
+ * Sliding-window linear regression with O(1) updates. Keeps running sums of y and x*y over a ring
+ * of the last N samples, so slope() costs the same no matter how long the window is.
+ *
+ * <p>x is the sample index inside the window (0 = oldest), so slope is in units per sample. Callers
+ * convert to per-second with their own sample rate.
+ */
+public class TrendEstimator {
+  private final double[] ring;
+  private final int capacity;
+  private int head = 0; // next write slot == oldest sample once full
+  private int count = 0;
+  private int pushesSinceResync = 0;
+
+  private double sumY = 0;
+  private double sumXY = 0;
+
+  // x sums only depend on n, cached for the full window
+  private final double fullSumX;
+  private final double fullDenominator;
+
+  public TrendEstimator(int capacity) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("TrendEstimator needs at least 2 samples");
+    }
+    this.capacity = capacity;
+    this.ring = new double[capacity];
+    double n = capacity;
+    this.fullSumX = n * (n - 1) / 2.0;
+    double sumX2 = (n - 1) * n * (2 * n - 1) / 6.0;
+    this.fullDenominator = n * sumX2 - fullSumX * fullSumX;
+  }
+
+  /** Add a sample. O(1). */
+  public void add(double y) {
+    if (count < capacity) {
+      // Filling: new sample gets x = count, nothing shifts
+      ring[head] = y;
+      sumY += y;
+      sumXY += count * y;
+      count++;
+    } else {
+      // Full: drop oldest (x=0), every other sample shifts down one, new sample at x = n-1
+      double oldest = ring[head];
+      ring[head] = y;
+      sumXY = sumXY - (sumY - oldest) + (capacity - 1) * y;
+      sumY = sumY - oldest + y;
+    }
+    head = (head + 1) % capacity;
+
+    // Running sums pick up rounding error on every add/subtract. Rebuild them from the ring once
+    // per window so drift can't build up over a match. Amortized that's still O(1) per sample.
+    pushesSinceResync++;
+    if (pushesSinceResync >= capacity) {
+      resync();
+    }
+  }
+
+  /** Fill the whole window with one value, as if it had been constant forever. */
+  public void fill(double y) {
+    for (int i = 0; i < capacity; i++) {
+      ring[i] = y;
+    }
+    head = 0;
+    count = capacity;
+    resync();
+  }
+
+  /** Drop all samples. */
+  public void reset() {
+    head = 0;
+    count = 0;
+    sumY = 0;
+    sumXY = 0;
+    pushesSinceResync = 0;
+  }
+
+  /** Least-squares slope in units per sample. 0 until at least 2 samples. */
+  public double slopePerSample() {
+    if (count < 2) return 0;
+    if (count == capacity) {
+      return (capacity * sumXY - fullSumX * sumY) / fullDenominator;
+    }
+    double n = count;
+    double sumX = n * (n - 1) / 2.0;
+    double sumX2 = (n - 1) * n * (2 * n - 1) / 6.0;
+    return (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+  }
+
+  /** Slope in units per second. */
+  public double slopePerSecond(double samplesPerSecond) {
+    return slopePerSample() * samplesPerSecond;
+  }
+
+  /**
+   * Seconds until the latest sample reaches threshold at the current slope, or -1 if the trend is
+   * flat or heading away from it.
+   */
+  public double timeToThreshold(double threshold, double samplesPerSecond, double minRate) {
+    if (count < 2) return -1;
+    double rate = slopePerSecond(samplesPerSecond);
+    double gap = threshold - latest();
+    if (Math.abs(rate) < minRate || Math.signum(gap) != Math.signum(rate)) {
+      return -1;
+    }
+    return gap / rate;
+  }
+
+  public double mean() {
+    return count > 0 ? sumY / count : 0;
+  }
+
+  public double latest() {
+    return count > 0 ? ring[(head - 1 + capacity) % capacity] : 0;
+  }
+
+  public boolean isFull() {
+    return count == capacity;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  private void resync() {
+    pushesSinceResync = 0;
+    double y = 0;
+    double xy = 0;
+    int oldest = (count < capacity) ? 0 : head;
+    for (int i = 0; i < count; i++) {
+      double v = ring[(oldest + i) % capacity];
+      y += v;
+      xy += i * v;
+    }
+    sumY = y;
+    sumXY = xy;
+  }
+}
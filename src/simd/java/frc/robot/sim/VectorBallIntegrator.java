@@ -0,0 +1,89 @@
+package frc.robot.sim;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BallIntegrator on the Vector API: a register's worth of balls per pass, with the scalar step's
+ * branches turned into lane masks. The operations and their order match BallIntegrator.step(), so
+ * lanes come out the same as the scalar path.
+ *
+ * <p>Only compiled with -PsimVector=true. Nothing references it directly; BallIntegrator.vector()
+ * loads it by name so the robot build never needs the incubator module.
+ */
+final class VectorBallIntegrator extends BallIntegrator {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  @Override
+  void integrate(Batch b, int from, int to) {
+    DoubleVector dt = DoubleVector.broadcast(SPECIES, b.dt);
+    DoubleVector gravity = DoubleVector.broadcast(SPECIES, -b.gravity);
+    DoubleVector zero = DoubleVector.zero(SPECIES);
+
+    int i = from;
+    int bound = from + SPECIES.loopBound(to - from);
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, b.vx, i);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, b.vy, i);
+      DoubleVector vz = DoubleVector.fromArray(SPECIES, b.vz, i);
+      DoubleVector pz = DoubleVector.fromArray(SPECIES, b.pz, i);
+      DoubleVector wx = DoubleVector.fromArray(SPECIES, b.wx, i);
+      DoubleVector wy = DoubleVector.fromArray(SPECIES, b.wy, i);
+      DoubleVector wz = DoubleVector.fromArray(SPECIES, b.wz, i);
+
+      DoubleVector ax = zero;
+      DoubleVector ay = zero;
+      DoubleVector az = gravity;
+      DoubleVector speed = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz)).sqrt();
+      VectorMask<Double> moving = speed.compare(VectorOperators.GT, 1e-6);
+      if (b.drag) {
+        DoubleVector k = speed.mul(b.dragFactor);
+        ax = ax.sub(k.mul(vx), moving);
+        ay = ay.sub(k.mul(vy), moving);
+        az = az.sub(k.mul(vz), moving);
+      }
+      DoubleVector spin = wx.mul(wx).add(wy.mul(wy)).add(wz.mul(wz)).sqrt();
+      if (b.magnus) {
+        VectorMask<Double> spinning =
+            pz.compare(VectorOperators.GT, b.airborneZ)
+                .and(moving)
+                .and(spin.compare(VectorOperators.GT, 1e-3));
+        if (spinning.anyTrue()) {
+          DoubleVector mx = wy.mul(vz).sub(wz.mul(vy));
+          DoubleVector my = wz.mul(vx).sub(wx.mul(vz));
+          DoubleVector mz = wx.mul(vy).sub(wy.mul(vx));
+          DoubleVector mag = mx.mul(mx).add(my.mul(my)).add(mz.mul(mz)).sqrt();
+          VectorMask<Double> lift = spinning.and(mag.compare(VectorOperators.GT, 1e-6));
+          ax = ax.add(mx.mul(b.magnusFactor), lift);
+          ay = ay.add(my.mul(b.magnusFactor), lift);
+          az = az.add(mz.mul(b.magnusFactor), lift);
+        }
+      }
+
+      vx = vx.add(ax.mul(dt));
+      vy = vy.add(ay.mul(dt));
+      vz = vz.add(az.mul(dt));
+      vx.intoArray(b.vx, i);
+      vy.intoArray(b.vy, i);
+      vz.intoArray(b.vz, i);
+      DoubleVector.fromArray(SPECIES, b.px, i).add(vx.mul(dt)).intoArray(b.px, i);
+      DoubleVector.fromArray(SPECIES, b.py, i).add(vy.mul(dt)).intoArray(b.py, i);
+      pz.add(vz.mul(dt)).intoArray(b.pz, i);
+
+      if (b.spinDecay) {
+        VectorMask<Double> decays = spin.compare(VectorOperators.GT, 1e-6);
+        wx.mul(b.spinDecayFactor, decays).intoArray(b.wx, i);
+        wy.mul(b.spinDecayFactor, decays).intoArray(b.wy, i);
+        wz.mul(b.spinDecayFactor, decays).intoArray(b.wz, i);
+      }
+    }
+    for (; i < to; i++) step(b, i);
+  }
+
+  @Override
+  public String toString() {
+    return "vector x" + SPECIES.length();
+  }
+}
@@ -0,0 +1,176 @@
+package frc.robot.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Translation3d;
+import frc.robot.sim.FuelPhysicsSim.PhysicsConfig;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the batch ball integrators. The vector ones only run in a -PsimVector=true build;
+ * elsewhere they're skipped.
+ */
+class BallIntegratorTest {
+
+  @BeforeAll
+  static void initHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  /** Balls on the carpet, in flight, spinning, still and barely moving, in no particular order. */
+  private static BallIntegrator.Batch randomBatch(int n, long seed) {
+    BallIntegrator.Batch b = new BallIntegrator.Batch();
+    b.ensureCapacity(n);
+    Random r = new Random(seed);
+    for (int i = 0; i < n; i++) {
+      double scale = i % 4 == 0 ? 0 : i % 4 == 1 ? 1e-7 : 12;
+      b.px[i] = r.nextDouble() * 16;
+      b.py[i] = r.nextDouble() * 8;
+      b.pz[i] = i % 3 == 0 ? 0.0751 : r.nextDouble() * 4;
+      b.vx[i] = (r.nextDouble() - 0.5) * scale;
+      b.vy[i] = (r.nextDouble() - 0.5) * scale;
+      b.vz[i] = (r.nextDouble() - 0.5) * scale;
+      b.wx[i] = i % 5 == 0 ? 0 : (r.nextDouble() - 0.5) * 300;
+      b.wy[i] = (r.nextDouble() - 0.5) * 300;
+      b.wz[i] = (r.nextDouble() - 0.5) * 300;
+    }
+    b.dt = 0.002;
+    b.gravity = 9.81;
+    b.dragFactor = 0.12;
+    b.magnusFactor = 0.0009;
+    b.airborneZ = 0.0851;
+    b.drag = true;
+    b.magnus = true;
+    b.spinDecay = true;
+    b.spinDecayFactor = Math.exp(-0.002 / 2.0);
+    return b;
+  }
+
+  private static void assertSameBatch(BallIntegrator.Batch a, BallIntegrator.Batch b, int n) {
+    double[][] left = {a.px, a.py, a.pz, a.vx, a.vy, a.vz, a.wx, a.wy, a.wz};
+    double[][] right = {b.px, b.py, b.pz, b.vx, b.vy, b.vz, b.wx, b.wy, b.wz};
+    for (int c = 0; c < left.length; c++) {
+      for (int i = 0; i < n; i++) {
+        assertEquals(left[c][i], right[c][i], 1e-12, "Component " + c + " of ball " + i);
+      }
+    }
+  }
+
+  @Test
+  void scalarBatchGivesTheSameBitsAsPerBall() {
+    // A spinning lob, alone, so only the integrator differs between the two sims
+    PhysicsConfig config = new PhysicsConfig();
+    PhysicsConfig batchConfig = config.copy();
+    batchConfig.vectorIntegrator = true;
+    FuelPhysicsSim perBall = new FuelPhysicsSim("Test/IntegratorLob", config);
+    FuelPhysicsSim batched = new FuelPhysicsSim("Test/IntegratorLobBatch", batchConfig);
+    for (FuelPhysicsSim sim : List.of(perBall, batched)) {
+      sim.launchBall(new Translation3d(3, 3, 1), new Translation3d(4, 1, 7), 2500);
+    }
+    double tolerance = BallIntegrator.vector() == null ? 0.0 : 1e-12;
+    for (int i = 0; i < 60; i++) {
+      perBall.advancePhysics(0.02);
+      batched.advancePhysics(0.02);
+      Translation3d expected = perBall.getBallPositions().get(0);
+      Translation3d actual = batched.getBallPositions().get(0);
+      assertEquals(expected.getX(), actual.getX(), tolerance, "Tick " + i);
+      assertEquals(expected.getY(), actual.getY(), tolerance, "Tick " + i);
+      assertEquals(expected.getZ(), actual.getZ(), tolerance, "Tick " + i);
+    }
+  }
+
+  @Test
+  void batchModeMatchesPerBallOnABusyField() {
+    PhysicsConfig config = new PhysicsConfig();
+    config.deterministic = true;
+    config.deterministicSeed = 42L;
+    FuelPhysicsSim perBall = new FuelPhysicsSim("Test/IntegratorPerBall", config);
+    PhysicsConfig batchConfig = config.copy();
+    batchConfig.vectorIntegrator = true;
+    FuelPhysicsSim batched = new FuelPhysicsSim("Test/IntegratorBatched", batchConfig);
+    for (FuelPhysicsSim field : List.of(perBall, batched)) {
+      field.placeFieldBalls();
+      for (int k = 0; k < 12; k++) {
+        double heading = k * Math.PI / 6;
+        field.launchBall(
+            new Translation3d(8.27, 4.0, 0.5),
+            new Translation3d(3 * Math.cos(heading), 3 * Math.sin(heading), 6.0),
+            2000);
+      }
+    }
+    for (int i = 0; i < 100; i++) {
+      perBall.advancePhysics(0.02);
+      batched.advancePhysics(0.02);
+      assertEquals(perBall.getBallSteps(), batched.getBallSteps(), "Tick " + i);
+    }
+    List<Translation3d> a = perBall.getBallPositions();
+    List<Translation3d> b = batched.getBallPositions();
+    assertEquals(a.size(), b.size());
+    for (int i = 0; i < a.size(); i++) {
+      assertEquals(a.get(i).getX(), b.get(i).getX(), 1e-9, "Ball " + i);
+      assertEquals(a.get(i).getY(), b.get(i).getY(), 1e-9, "Ball " + i);
+      assertEquals(a.get(i).getZ(), b.get(i).getZ(), 1e-9, "Ball " + i);
+    }
+  }
+
+  @Test
+  void vectorMatchesScalar() {
+    BallIntegrator vector = BallIntegrator.vector();
+    assumeTrue(vector != null, "Built without -PsimVector=true");
+    // Odd length so the scalar tail runs too
+    int n = 1001;
+    BallIntegrator.Batch scalar = randomBatch(n, 5);
+    BallIntegrator.Batch lanes = randomBatch(n, 5);
+    for (int step = 0; step < 50; step++) {
+      BallIntegrator.SCALAR.integrate(scalar, 0, n);
+      vector.integrate(lanes, 0, n);
+    }
+    assertSameBatch(scalar, lanes, n);
+  }
+
+  @Test
+  void vectorRespectsTheRange() {
+    BallIntegrator vector = BallIntegrator.vector();
+    assumeTrue(vector != null, "Built without -PsimVector=true");
+    BallIntegrator.Batch b = randomBatch(64, 9);
+    BallIntegrator.Batch untouched = randomBatch(64, 9);
+    vector.integrate(b, 13, 40);
+    for (int i = 0; i < 64; i++) {
+      if (i >= 13 && i < 40) continue;
+      assertEquals(untouched.px[i], b.px[i], 0.0);
+      assertEquals(untouched.vz[i], b.vz[i], 0.0);
+    }
+  }
+
+  @Test
+  @Tag("benchmark")
+  void benchmarkScalarVsVector() {
+    BallIntegrator vector = BallIntegrator.vector();
+    for (int n : new int[] {400, 2000}) {
+      double scalarNs = nsPerBall(BallIntegrator.SCALAR, n);
+      if (vector == null) {
+        System.out.printf("%4d balls: scalar %.2f ns/ball (no vector build)%n", n, scalarNs);
+      } else {
+        double vectorNs = nsPerBall(vector, n);
+        System.out.printf(
+            "%4d balls: scalar %.2f ns/ball, %s %.2f ns/ball (%.1fx)%n",
+            n, scalarNs, vector, vectorNs, scalarNs / vectorNs);
+      }
+    }
+  }
+
+  private static double nsPerBall(BallIntegrator integrator, int n) {
+    BallIntegrator.Batch b = randomBatch(n, 1);
+    for (int i = 0; i < 2000; i++) integrator.integrate(b, 0, n); // warm up the JIT
+    b = randomBatch(n, 1);
+    long t0 = System.nanoTime();
+    for (int i = 0; i < 2000; i++) integrator.integrate(b, 0, n);
+    return (System.nanoTime() - t0) / 2000.0 / n;
+  }
+}
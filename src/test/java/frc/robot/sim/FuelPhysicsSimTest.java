@@ -3,12 +3,18 @@ package frc.robot.sim;
 import static org.junit.jupiter.api.Assertions.*;
 
 import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import frc.robot.sim.FuelPhysicsSim.PhysicsConfig;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 class FuelPhysicsSimTest {
@@ -1122,4 +1128,782 @@ class FuelPhysicsSimTest {
           "Drag should reduce range: actual=" + actualRange + " vacuum=" + vacuumRange);
     }
   }
+
+  @Nested
+  class Snapshots {
+    private void shootAtBlueHub(FuelPhysicsSim target) {
+      for (int i = 0; i < 8; i++) {
+        target.launchBall(
+            new Translation3d(2.0, 4.035 + i * 0.02, 0.5), new Translation3d(3.2, 0, 7.5), 2000);
+      }
+    }
+
+    @Test
+    void restoredSimMatchesOriginalBitForBit() {
+      sim.placeFieldBalls();
+      shootAtBlueHub(sim);
+      for (int i = 0; i < 40; i++) sim.advancePhysics(0.02);
+
+      FuelPhysicsSim.Snapshot snap = sim.snapshot();
+      FuelPhysicsSim fork = new FuelPhysicsSim("Test/FuelFork", config.copy());
+      fork.restore(snap);
+
+      for (int i = 0; i < 150; i++) {
+        sim.advancePhysics(0.02);
+        fork.advancePhysics(0.02);
+      }
+      assertEquals(sim.getBallCount(), fork.getBallCount());
+      assertEquals(sim.getBlueScore(), fork.getBlueScore());
+      assertEquals(sim.getTotalScored(), fork.getTotalScored());
+      List<Translation3d> a = sim.getBallPositions();
+      List<Translation3d> b = fork.getBallPositions();
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(a.get(i), b.get(i), "Ball " + i + " diverged");
+      }
+    }
+
+    @Test
+    void restoreRewindsSameSim() {
+      shootAtBlueHub(sim);
+      FuelPhysicsSim.Snapshot snap = sim.snapshot();
+      for (int i = 0; i < 150; i++) sim.advancePhysics(0.02);
+      int scoredFirst = sim.getTotalScored();
+      Translation3d firstEnd = sim.getBallPositions().get(0);
+
+      sim.restore(snap);
+      assertEquals(0, sim.getTotalScored());
+      for (int i = 0; i < 150; i++) sim.advancePhysics(0.02);
+      assertEquals(scoredFirst, sim.getTotalScored());
+      assertEquals(firstEnd, sim.getBallPositions().get(0), "RNG dispersal must replay too");
+    }
+
+    @Test
+    void snapshotKeepsSleepState() {
+      sim.placeFieldBalls();
+      for (int i = 0; i < 30; i++) sim.advancePhysics(0.02);
+      int sleeping = sim.getSleepingBallCount();
+      assertTrue(sleeping > 0);
+
+      FuelPhysicsSim fork = new FuelPhysicsSim("Test/FuelFork", config.copy());
+      fork.restore(sim.snapshot());
+      assertEquals(sleeping, fork.getSleepingBallCount());
+    }
+
+    @Test
+    void snapshotSurvivesDisk() throws Exception {
+      sim.placeFieldBalls();
+      shootAtBlueHub(sim);
+      sim.advancePhysics(0.02);
+      FuelPhysicsSim.Snapshot snap = sim.snapshot();
+
+      java.io.File file = java.io.File.createTempFile("fuel", ".snap");
+      file.deleteOnExit();
+      snap.write(file);
+      FuelPhysicsSim.Snapshot loaded = FuelPhysicsSim.Snapshot.read(file);
+      assertArrayEquals(snap.toBytes(), loaded.toBytes());
+
+      FuelPhysicsSim fork = new FuelPhysicsSim("Test/FuelFork", config.copy());
+      fork.restore(loaded);
+      assertEquals(sim.getBallCount(), fork.getBallCount());
+      assertEquals(sim.getBallPositions(), fork.getBallPositions());
+    }
+
+    @Test
+    void snapshotIsCompact() {
+      sim.placeFieldBalls();
+      int perBall = (sim.snapshot().sizeBytes() - 64) / sim.getBallCount();
+      assertTrue(perBall <= 130, "Bytes per ball: " + perBall);
+    }
+
+    @Test
+    void rejectsGarbage() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> sim.restore(FuelPhysicsSim.Snapshot.fromBytes(new byte[100])));
+    }
+  }
+
+  @Nested
+  class LevelOfDetail {
+    private static final double R = 0.0751; // just above ball radius, still "on the carpet"
+
+    private FuelPhysicsSim lodSim() {
+      PhysicsConfig lodConfig = config.copy();
+      lodConfig.lodEnabled = true;
+      return new FuelPhysicsSim("Test/FuelLod", lodConfig);
+    }
+
+    /** Isolated slow rollers in open carpet between the hubs, 0.6m apart. */
+    private void spawnRollers(FuelPhysicsSim target) {
+      int i = 0;
+      for (double x = 7.0; x <= 9.5; x += 0.6) {
+        for (double y = 1.2; y <= 6.8; y += 0.6) {
+          double angle = i++ * 0.7;
+          target.spawnBall(
+              new Translation3d(x, y, FuelPhysicsSim.getBallRadius()),
+              new Translation3d(0.6 * Math.cos(angle), 0.6 * Math.sin(angle), 0));
+        }
+      }
+    }
+
+    @Test
+    void slowRollersMatchFullFidelity() {
+      FuelPhysicsSim lod = lodSim();
+      spawnRollers(sim);
+      spawnRollers(lod);
+
+      lod.advancePhysics(0.02);
+      assertEquals(lod.getBallCount(), lod.getLodBallCount(), "Every roller should go cheap");
+      sim.advancePhysics(0.02);
+      for (int i = 0; i < 99; i++) {
+        sim.advancePhysics(0.02);
+        lod.advancePhysics(0.02);
+      }
+
+      List<Translation3d> full = sim.getBallPositions();
+      List<Translation3d> cheap = lod.getBallPositions();
+      assertEquals(full.size(), cheap.size());
+      for (int i = 0; i < full.size(); i++) {
+        double err = full.get(i).getDistance(cheap.get(i));
+        assertTrue(err < 0.02, "Ball " + i + " off by " + err + "m");
+        assertEquals(full.get(i).getZ(), cheap.get(i).getZ(), 1e-6);
+      }
+      assertTrue(lod.getLodSavedMsTotal() >= 0);
+    }
+
+    @Test
+    void ballsNearRobotStayFull() {
+      FuelPhysicsSim lod = lodSim();
+      lod.configureRobot(
+          0.7, 0.7, 0.12, () -> new Pose2d(7.8, 2.0, Rotation2d.kZero), ChassisSpeeds::new);
+      lod.spawnBall(new Translation3d(7.0, 2.0, R), new Translation3d(0.3, 0, 0));
+      lod.advancePhysics(0.02);
+      assertEquals(0, lod.getLodBallCount());
+    }
+
+    @Test
+    void ballsNearHubStayFull() {
+      FuelPhysicsSim lod = lodSim();
+      lod.spawnBall(new Translation3d(6.0, 4.0, R), new Translation3d(0.3, 0, 0));
+      lod.advancePhysics(0.02);
+      assertEquals(0, lod.getLodBallCount(), "1.4m from the blue hub");
+    }
+
+    @Test
+    void approachingShotPromotes() {
+      FuelPhysicsSim lod = lodSim();
+      lod.spawnBall(new Translation3d(8.0, 2.0, R), new Translation3d(0.3, 0, 0));
+      lod.advancePhysics(0.02);
+      assertEquals(1, lod.getLodBallCount());
+
+      lod.launchBall(new Translation3d(8.0, 3.0, 0.5), new Translation3d(0, 0, 3), 0);
+      lod.advancePhysics(0.02);
+      assertEquals(0, lod.getLodBallCount(), "Airborne ball 1m away");
+    }
+
+    @Test
+    void neighboursStayFull() {
+      FuelPhysicsSim lod = lodSim();
+      lod.spawnBall(new Translation3d(8.0, 2.0, R), new Translation3d(0.3, 0, 0));
+      lod.spawnBall(new Translation3d(8.2, 2.0, R), new Translation3d(-0.3, 0, 0));
+      for (int i = 0; i < 10; i++) lod.advancePhysics(0.02);
+      assertEquals(0, lod.getLodBallCount());
+      List<Translation3d> pos = lod.getBallPositions();
+      assertTrue(
+          pos.get(0).getDistance(pos.get(1)) >= 2 * FuelPhysicsSim.getBallRadius() - 0.01,
+          "Full solver must still keep them apart");
+    }
+
+    @Test
+    void lodBallsStillFallAsleep() {
+      FuelPhysicsSim lod = lodSim();
+      lod.spawnBall(new Translation3d(8.0, 2.0, R), new Translation3d(0.3, 0, 0));
+      for (int i = 0; i < 150; i++) lod.advancePhysics(0.02);
+      assertEquals(1, lod.getSleepingBallCount());
+    }
+  }
+
+  @Nested
+  class AdaptiveSubticks {
+    private static final double R = 0.0751; // just above ball radius, still "on the carpet"
+
+    private FuelPhysicsSim adaptiveSim(PhysicsConfig base) {
+      PhysicsConfig adaptive = base.copy();
+      adaptive.adaptiveSubticks = true;
+      return new FuelPhysicsSim("Test/FuelAdaptive", adaptive);
+    }
+
+    /** Rolling (no slip) ground ball: omega matches v / r so carpet friction is rolling only. */
+    private void spawnRoller(FuelPhysicsSim target, double x, double y, double vx, double vy) {
+      double r = FuelPhysicsSim.getBallRadius();
+      target.launchBall(
+          new Translation3d(x, y, r),
+          new Translation3d(vx, vy, 0),
+          new Translation3d(-vy / r, vx / r, 0));
+    }
+
+    private int strideOf(FuelPhysicsSim target, int index) {
+      return target.getBalls().get(index).stride;
+    }
+
+    @Test
+    void slowRollersMatchFixedSubticks() {
+      config.subticks = 10;
+      sim.setConfig(config);
+      FuelPhysicsSim adaptive = adaptiveSim(config);
+      for (double x = 7.0; x <= 9.5; x += 0.6) {
+        for (double y = 1.2; y <= 6.8; y += 0.6) {
+          spawnRoller(sim, x, y, 0.5, 0.2);
+          spawnRoller(adaptive, x, y, 0.5, 0.2);
+        }
+      }
+
+      adaptive.advancePhysics(0.02);
+      assertEquals(adaptive.getBallCount(), adaptive.getCoarseBallCount());
+      assertTrue(adaptive.getBallSteps() < adaptive.getBallCount() * 10 / 2);
+      sim.advancePhysics(0.02);
+      for (int i = 0; i < 99; i++) {
+        sim.advancePhysics(0.02);
+        adaptive.advancePhysics(0.02);
+      }
+
+      List<Translation3d> fixed = sim.getBallPositions();
+      List<Translation3d> coarse = adaptive.getBallPositions();
+      for (int i = 0; i < fixed.size(); i++) {
+        double err = fixed.get(i).getDistance(coarse.get(i));
+        assertTrue(err < 0.01, "Ball " + i + " off by " + err + "m");
+        assertEquals(fixed.get(i).getZ(), coarse.get(i).getZ(), 1e-6);
+      }
+    }
+
+    @Test
+    void shotsAreBitIdenticalToFixedSubticks() {
+      config.subticks = 10;
+      sim.setConfig(config);
+      FuelPhysicsSim adaptive = adaptiveSim(config);
+      sim.launchBall(new Translation3d(2, 4, 0.5), new Translation3d(3, 0, 7), 2000);
+      adaptive.launchBall(new Translation3d(2, 4, 0.5), new Translation3d(3, 0, 7), 2000);
+
+      for (int i = 0; i < 60; i++) {
+        sim.advancePhysics(0.02);
+        adaptive.advancePhysics(0.02);
+        assertEquals(0, adaptive.getCoarseBallCount());
+      }
+      assertEquals(sim.getBallPositions().get(0), adaptive.getBallPositions().get(0));
+    }
+
+    @Test
+    void stepSizeFollowsSpeedAndObstacles() {
+      config.subticks = 10;
+      FuelPhysicsSim adaptive = adaptiveSim(config);
+      spawnRoller(adaptive, 8.0, 1.5, 0.3, 0); // slow: 10 subticks per step
+      spawnRoller(adaptive, 8.0, 3.0, 0.0, 2.0); // 2 m/s: 2cm per 5 subticks
+      adaptive.spawnBall(new Translation3d(8.0, 6.5, 0.4), new Translation3d(0.3, 0, 0)); // falling
+      spawnRoller(adaptive, 0.2, 4.0, 0.3, 0); // against the alliance wall
+      adaptive.advancePhysics(0.02);
+
+      assertEquals(10, strideOf(adaptive, 0));
+      assertEquals(5, strideOf(adaptive, 1));
+      assertEquals(1, strideOf(adaptive, 2));
+      assertEquals(1, strideOf(adaptive, 3));
+    }
+
+    @Test
+    void ballsThatCanTouchShareAStrideUnlessNearlyStill() {
+      config.subticks = 10;
+      FuelPhysicsSim adaptive = adaptiveSim(config);
+      // A rolling chain, then a fast roller heading into its first link
+      spawnRoller(adaptive, 8.0, 2.0, 0.6, 0);
+      spawnRoller(adaptive, 8.16, 2.0, 0.6, 0);
+      spawnRoller(adaptive, 8.32, 2.0, 0.6, 0);
+      spawnRoller(adaptive, 8.0, 5.0, 0.6, 0); // far away
+      spawnRoller(adaptive, 7.75, 2.0, 4.0, 0);
+      spawnRoller(adaptive, 7.75, 2.16, 0.05, 0); // creeping right beside the fast one
+      adaptive.advancePhysics(0.02);
+
+      int fast = strideOf(adaptive, 4);
+      assertTrue(fast < 10);
+      assertEquals(fast, strideOf(adaptive, 0), "Fast roller reaches it this tick");
+      assertEquals(fast, strideOf(adaptive, 1), "Touching the first link");
+      assertEquals(fast, strideOf(adaptive, 2), "Touching the second link");
+      assertEquals(10, strideOf(adaptive, 3));
+      assertEquals(10, strideOf(adaptive, 5), "2mm per step, inside the solver slop");
+
+      for (int i = 0; i < 50; i++) adaptive.advancePhysics(0.02);
+      List<Translation3d> pos = adaptive.getBallPositions();
+      for (int a = 0; a < pos.size(); a++) {
+        for (int b = a + 1; b < pos.size(); b++) {
+          assertTrue(
+              pos.get(a).getDistance(pos.get(b)) >= 2 * FuelPhysicsSim.getBallRadius() - 0.01,
+              "Balls " + a + " and " + b + " overlap");
+        }
+      }
+    }
+
+    @Test
+    void coarseBallsStillFallAsleep() {
+      FuelPhysicsSim adaptive = adaptiveSim(config);
+      spawnRoller(adaptive, 8.0, 2.0, 0.3, 0);
+      for (int i = 0; i < 150; i++) adaptive.advancePhysics(0.02);
+      assertEquals(1, adaptive.getSleepingBallCount());
+    }
+
+    /**
+     * ms/tick on the full 400-ball field with 0, 5 and 20 shots kept in the air, fixed vs adaptive.
+     * Timings are printed rather than asserted (CI machines vary); ball steps are deterministic.
+     * Runs under ./gradlew benchmark, not test.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkBallsInFlight() {
+      for (int inFlight : new int[] {0, 5, 20}) {
+        double[] msPerTick = new double[2];
+        int[] steps = new int[2];
+        for (int mode = 0; mode < 2; mode++) {
+          PhysicsConfig bench = config.copy();
+          bench.conservationMonitor = false;
+          bench.adaptiveSubticks = mode == 1;
+          FuelPhysicsSim field = new FuelPhysicsSim("Test/FuelBench", bench);
+          field.placeFieldBalls();
+          Random shots = new Random(42);
+          long nanos = 0;
+          for (int i = 0; i < 250; i++) {
+            // Lobs from the open carpet beside the neutral pile, landing all around it
+            for (int k = field.getBallsInFlight(); k < inFlight; k++) {
+              double x = 6.0 + shots.nextDouble() * 4.5;
+              double y = (shots.nextBoolean() ? 0.6 : 6.4) + shots.nextDouble();
+              double heading = shots.nextDouble() * 2 * Math.PI;
+              field.launchBall(
+                  new Translation3d(x, y, 0.5),
+                  new Translation3d(Math.cos(heading), Math.sin(heading), 6.0),
+                  0);
+            }
+            long t0 = System.nanoTime();
+            field.advancePhysics(0.02);
+            if (i >= 100) {
+              nanos += System.nanoTime() - t0;
+              steps[mode] += field.getBallSteps();
+            }
+          }
+          msPerTick[mode] = nanos / 1e6 / 150;
+        }
+        System.out.printf(
+            "400-ball field, %2d in flight: fixed %.3f ms/tick, adaptive %.3f ms/tick"
+                + " (ball steps %d -> %d)%n",
+            inFlight, msPerTick[0], msPerTick[1], steps[0], steps[1]);
+        assertTrue(steps[1] <= steps[0], "Adaptive must never take more ball steps");
+      }
+    }
+  }
+
+  @Nested
+  class MultiRobot {
+    private static final double R = 0.0751;
+
+    private int addRobotAt(double x, double y, boolean blue) {
+      Pose2d pose = new Pose2d(x, y, Rotation2d.kZero);
+      return sim.addRobot(0.7, 0.7, 0.12, () -> pose, ChassisSpeeds::new, blue);
+    }
+
+    @Test
+    void atMostSixRobots() {
+      for (int i = 0; i < 5; i++) addRobotAt(2 + i, 1, i % 2 == 0);
+      assertEquals(6, sim.getRobotCount(), "Slot 0 is reserved for our robot");
+      assertThrows(IllegalStateException.class, () -> addRobotAt(8, 1, true));
+    }
+
+    @Test
+    void ourRobotStaysSlotZero() {
+      int opponent = addRobotAt(3, 2, false);
+      Pose2d ours = new Pose2d(10, 2, Rotation2d.kZero);
+      sim.configureRobot(0.7, 0.7, 0.12, () -> ours, ChassisSpeeds::new);
+      assertEquals(1, opponent);
+      assertEquals(2, sim.getRobotCount());
+      assertFalse(sim.getRobot(opponent).isBlueAlliance());
+    }
+
+    @Test
+    void everyRobotPushesBalls() {
+      addRobotAt(6.0, 2.0, true);
+      addRobotAt(10.0, 2.0, false);
+      sim.spawnBall(new Translation3d(6.2, 2.0, R)); // inside the first footprint
+      sim.spawnBall(new Translation3d(9.8, 2.0, R)); // inside the second
+
+      sim.advancePhysics(0.02);
+
+      List<Translation3d> pos = sim.getBallPositions();
+      assertTrue(pos.get(0).getX() >= 6.0 + 0.35 + R - 0.01, "Pushed out the front bumper");
+      assertTrue(pos.get(1).getX() <= 10.0 - 0.35 - R + 0.01, "Pushed out the back bumper");
+    }
+
+    @Test
+    void sleepingBallsWakeForAnyRobot() {
+      sim.spawnBall(new Translation3d(8.0, 2.0, R));
+      for (int i = 0; i < 50; i++) sim.advancePhysics(0.02);
+      assertEquals(1, sim.getSleepingBallCount());
+
+      addRobotAt(7.7, 2.0, false);
+      sim.advancePhysics(0.02);
+      assertEquals(0, sim.getSleepingBallCount());
+      assertTrue(sim.getBallPositions().get(0).getX() > 8.0, "Bumper pushed it");
+    }
+
+    @Test
+    void intakesBelongToTheirRobot() {
+      int blue = addRobotAt(4.0, 1.0, true);
+      int red = addRobotAt(12.0, 1.0, false);
+      int[] redCallbacks = {0};
+      sim.addIntakeZone(blue, 0.3, 0.5, -0.2, 0.2, () -> false, () -> {});
+      sim.addIntakeZone(red, 0.3, 0.5, -0.2, 0.2, () -> true, () -> redCallbacks[0]++);
+      sim.spawnBall(new Translation3d(4.4, 1.0, R)); // in front of the idle blue intake
+      sim.spawnBall(new Translation3d(12.4, 1.0, R)); // in front of the running red one
+
+      sim.advancePhysics(0.02);
+
+      assertEquals(1, sim.getBallCount());
+      assertEquals(1, sim.getTotalIntaked());
+      assertEquals(1, sim.getRobot(red).getIntakedCount());
+      assertEquals(0, sim.getRobot(blue).getIntakedCount());
+      assertEquals(1, sim.getTotalIntaked(false));
+      assertEquals(0, sim.getTotalIntaked(true));
+      assertEquals(1, redCallbacks[0]);
+    }
+
+    @Test
+    void primaryRobotApiUnchanged() {
+      Pose2d pose = new Pose2d(8.0, 6.0, Rotation2d.kZero);
+      sim.configureRobot(0.7, 0.7, 0.12, () -> pose, ChassisSpeeds::new);
+      sim.addIntakeZone(0.3, 0.5, -0.2, 0.2, () -> true);
+      sim.spawnBall(new Translation3d(8.4, 6.0, R));
+
+      sim.advancePhysics(0.02);
+
+      assertEquals(0, sim.getBallCount());
+      assertEquals(1, sim.getRobot(0).getIntakedCount());
+      assertEquals(1, sim.getTotalIntaked(true), "Our robot defaults to blue");
+    }
+  }
+
+  @Nested
+  class DeltaPublishing {
+    private static final double R = 0.0751;
+
+    private List<Integer> ids(FuelPhysicsSim.PositionDelta delta) {
+      List<Integer> ids = new ArrayList<>();
+      for (int id : delta.ids) ids.add(id);
+      return ids;
+    }
+
+    @BeforeEach
+    void enableDelta() {
+      config.publishDelta = true;
+      config.publishKeyframeInterval = 1000;
+    }
+
+    @Test
+    void restingBallsOnlyGoOutOnKeyframes() {
+      for (int i = 0; i < 10; i++) sim.spawnBall(new Translation3d(7 + i * 0.25, 2.0, R));
+      for (int i = 0; i < 50; i++) sim.tick();
+      assertEquals(10, sim.getSleepingBallCount());
+
+      FuelPhysicsSim.PositionDelta delta = sim.getLastDelta();
+      assertFalse(delta.keyframe);
+      assertEquals(0, delta.ids.length, "Nothing moved, nothing to send");
+
+      sim.launchBall(new Translation3d(8.0, 6.0, 0.5), new Translation3d(2, 0, 4), 0);
+      sim.tick();
+      delta = sim.getLastDelta();
+      assertEquals(List.of(10), ids(delta), "Only the new ball, under the next id");
+      assertEquals(8.0, delta.positions[0], 0.1);
+    }
+
+    @Test
+    void firstFrameIsAKeyframeWithEveryBall() {
+      for (int i = 0; i < 5; i++) sim.spawnBall(new Translation3d(2 + i, 2.0, R));
+      sim.tick();
+      FuelPhysicsSim.PositionDelta delta = sim.getLastDelta();
+      assertTrue(delta.keyframe);
+      assertEquals(List.of(0, 1, 2, 3, 4), ids(delta));
+      assertEquals(1, delta.sequence);
+    }
+
+    @Test
+    void removedBallsKeepTheOthersIds() {
+      sim.configureRobot(
+          0.7, 0.7, 0.12, () -> new Pose2d(4.0, 1.0, Rotation2d.kZero), ChassisSpeeds::new);
+      boolean[] intaking = {false};
+      sim.addIntakeZone(0.3, 0.5, -0.2, 0.2, () -> intaking[0]);
+      sim.spawnBall(new Translation3d(10.0, 5.0, R));
+      sim.spawnBall(new Translation3d(4.4, 1.0, R)); // in front of the intake
+      sim.spawnBall(new Translation3d(12.0, 5.0, R));
+      sim.tick();
+
+      intaking[0] = true;
+      sim.launchBall(new Translation3d(12.0, 6.0, 0.5), new Translation3d(1, 0, 3), 0);
+      sim.tick();
+      FuelPhysicsSim.PositionDelta delta = sim.getLastDelta();
+      assertArrayEquals(new int[] {1}, delta.removed);
+      assertTrue(ids(delta).contains(3), "Ids don't shift when an earlier ball goes away");
+      assertFalse(ids(delta).contains(1));
+    }
+
+    @Test
+    void keyframesComeOnTheInterval() {
+      config.publishKeyframeInterval = 5;
+      sim.spawnBall(new Translation3d(4.0, 4.0, R));
+      int keyframes = 0;
+      for (int i = 0; i < 20; i++) {
+        sim.tick();
+        if (sim.getLastDelta().keyframe) keyframes++;
+      }
+      assertEquals(5, keyframes, "First publish plus every fifth");
+      assertEquals(1, sim.getLastDelta().ids.length, "Keyframes resend resting balls");
+    }
+
+    @Test
+    void clearingForcesAKeyframe() {
+      sim.spawnBall(new Translation3d(4.0, 4.0, R));
+      sim.tick();
+      sim.tick();
+      sim.clearBalls();
+      sim.tick();
+      FuelPhysicsSim.PositionDelta delta = sim.getLastDelta();
+      assertTrue(delta.keyframe, "Clients must drop the old ids");
+      assertEquals(0, delta.ids.length);
+    }
+
+    @Test
+    void publishRateIsDecimated() {
+      config.publishDivisor = 5;
+      sim.spawnBall(new Translation3d(4.0, 4.0, R));
+      for (int i = 0; i < 20; i++) sim.tick();
+      assertEquals(4, sim.getLastDelta().sequence);
+    }
+
+    @Test
+    void decodeRejectsTruncatedFrames() {
+      byte[] header = {0, 0, 0, 1, 0, 0, 0, 0, 2, 0, 0, 0, 0}; // claims 2 balls, carries none
+      assertThrows(
+          IllegalArgumentException.class, () -> FuelPhysicsSim.PositionDelta.decode(header));
+    }
+  }
+
+  @Nested
+  class Parallel {
+    /** Field balls, more spread over the carpet, and 20 lobs from midfield: total in all. */
+    private FuelPhysicsSim busyField(int parallelism, int total) {
+      PhysicsConfig c = config.copy();
+      c.conservationMonitor = false;
+      c.parallelism = parallelism;
+      FuelPhysicsSim field = new FuelPhysicsSim("Test/FuelParallel", c);
+      field.placeFieldBalls();
+      Random spots = new Random(7);
+      while (field.getBallCount() < total - 20) {
+        field.spawnBall(
+            new Translation3d(
+                0.5 + spots.nextDouble() * 15.5, 0.5 + spots.nextDouble() * 7.0, 0.0751));
+      }
+      for (int k = 0; k < 20; k++) {
+        double heading = k * 2 * Math.PI / 20;
+        field.launchBall(
+            new Translation3d(8.27, 4.0, 0.5),
+            new Translation3d(3 * Math.cos(heading), 3 * Math.sin(heading), 6.0),
+            1500);
+      }
+      return field;
+    }
+
+    private void assertSameState(FuelPhysicsSim expected, FuelPhysicsSim actual) {
+      List<Translation3d> a = expected.getBallPositions();
+      List<Translation3d> b = actual.getBallPositions();
+      assertEquals(a.size(), b.size(), "Same ball count");
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(a.get(i).getX(), b.get(i).getX(), 0.0, "Ball " + i);
+        assertEquals(a.get(i).getY(), b.get(i).getY(), 0.0, "Ball " + i);
+        assertEquals(a.get(i).getZ(), b.get(i).getZ(), 0.0, "Ball " + i);
+      }
+      assertEquals(expected.getTotalScored(), actual.getTotalScored());
+    }
+
+    @Test
+    void parallelMatchesSerialBitForBit() {
+      FuelPhysicsSim serial = busyField(1, 400);
+      FuelPhysicsSim parallel = busyField(4, 400);
+      for (int i = 0; i < 100; i++) {
+        serial.advancePhysics(0.02);
+        parallel.advancePhysics(0.02);
+        assertEquals(serial.getBallSteps(), parallel.getBallSteps(), "Tick " + i);
+      }
+      assertSameState(serial, parallel);
+    }
+
+    @Test
+    void smallChunksAndOddCountsStillMatch() {
+      FuelPhysicsSim serial = busyField(1, 437);
+      FuelPhysicsSim parallel = busyField(3, 437);
+      parallel.getConfig().parallelChunk = 7;
+      for (int i = 0; i < 50; i++) {
+        serial.advancePhysics(0.02);
+        parallel.advancePhysics(0.02);
+      }
+      assertSameState(serial, parallel);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkThreadScaling() {
+      for (int total : new int[] {400, 2000}) {
+        FuelPhysicsSim reference = null;
+        StringBuilder line = new StringBuilder();
+        for (int threads : new int[] {1, 2, 4, 8}) {
+          FuelPhysicsSim field = busyField(threads, total);
+          long nanos = 0;
+          for (int i = 0; i < 150; i++) {
+            long t0 = System.nanoTime();
+            field.advancePhysics(0.02);
+            if (i >= 50) nanos += System.nanoTime() - t0;
+          }
+          line.append(String.format(" %d thr %.3f ms", threads, nanos / 1e6 / 100));
+          if (reference == null) reference = field;
+          else assertSameState(reference, field);
+        }
+        System.out.printf("%4d balls, ms/tick:%s%n", total, line);
+      }
+    }
+  }
+
+  @Nested
+  class MortonOrder {
+    /** Field balls plus random ones over the carpet, in spawn order. */
+    private FuelPhysicsSim scatteredField(PhysicsConfig c, int total) {
+      FuelPhysicsSim field = new FuelPhysicsSim("Test/FuelMorton", c);
+      field.placeFieldBalls();
+      Random spots = new Random(11);
+      while (field.getBallCount() < total) {
+        field.spawnBall(
+            new Translation3d(
+                0.5 + spots.nextDouble() * 15.5, 0.5 + spots.nextDouble() * 7.0, 0.0751));
+      }
+      return field;
+    }
+
+    /**
+     * Mean list distance between balls within two diameters of each other, i.e. how far apart in
+     * memory order the broadphase's neighbor pairs are. A stand-in for cache misses.
+     */
+    private double neighborIndexGap(FuelPhysicsSim field) {
+      List<FuelPhysicsSim.SimBall> balls = field.getBalls();
+      double reach = 4 * FuelPhysicsSim.getBallRadius();
+      long gap = 0;
+      int pairs = 0;
+      for (int i = 0; i < balls.size(); i++) {
+        for (int j = i + 1; j < balls.size(); j++) {
+          if (balls.get(i).pos.getDistance(balls.get(j).pos) < reach) {
+            gap += j - i;
+            pairs++;
+          }
+        }
+      }
+      return pairs == 0 ? 0 : (double) gap / pairs;
+    }
+
+    @Test
+    void reorderPutsNeighborsCloseInTheList() {
+      FuelPhysicsSim field = scatteredField(config.copy(), 1000);
+      double before = neighborIndexGap(field);
+      field.reorderBalls();
+      double after = neighborIndexGap(field);
+      assertEquals(1, field.getReorderCount());
+      assertTrue(after < before / 4, "Neighbor gap " + before + " -> " + after);
+
+      field.reorderBalls();
+      assertEquals(1, field.getReorderCount(), "Already sorted, nothing to do");
+    }
+
+    @Test
+    void reorderOnlyMovesBalls() {
+      FuelPhysicsSim field = scatteredField(config.copy(), 600);
+      field.tick();
+      List<Translation3d> before = new ArrayList<>(field.getBallPositions());
+      List<Integer> idsBefore = new ArrayList<>();
+      for (FuelPhysicsSim.SimBall b : field.getBalls()) idsBefore.add(b.id);
+
+      field.reorderBalls();
+      assertEquals(before.size(), field.getBallCount());
+      for (FuelPhysicsSim.SimBall b : field.getBalls()) {
+        int was = idsBefore.indexOf(b.id);
+        assertTrue(was >= 0, "Same ids");
+        assertSame(before.get(was), b.pos, "Each id keeps its ball");
+      }
+    }
+
+    @Test
+    void removedBallsSortLastSoOthersKeepTheirSlots() {
+      FuelPhysicsSim field = scatteredField(config.copy(), 300);
+      field.getBalls().get(0).outOfBounds = true;
+      field.getBalls().get(150).intaked = true;
+      field.reorderBalls();
+      List<FuelPhysicsSim.SimBall> balls = field.getBalls();
+      FuelPhysicsSim.SimBall last = balls.get(balls.size() - 1);
+      FuelPhysicsSim.SimBall secondLast = balls.get(balls.size() - 2);
+      assertTrue(last.intaked || last.outOfBounds);
+      assertTrue(secondLast.intaked || secondLast.outOfBounds);
+    }
+
+    @Test
+    void reorderedRunsAreStillReproducible() {
+      config.reorderInterval = 10;
+      FuelPhysicsSim a = scatteredField(config.copy(), 500);
+      FuelPhysicsSim b = scatteredField(config.copy(), 500);
+      for (FuelPhysicsSim field : List.of(a, b)) {
+        for (int k = 0; k < 10; k++) {
+          field.launchBall(
+              new Translation3d(2.0, 3.0 + k * 0.2, 0.5), new Translation3d(2.5, 0, 7.0), 1500);
+        }
+      }
+      for (int i = 0; i < 100; i++) {
+        a.advancePhysics(0.02);
+        b.advancePhysics(0.02);
+      }
+      assertTrue(a.getReorderCount() > 0);
+      assertEquals(a.getTotalScored(), b.getTotalScored());
+      List<Translation3d> pa = a.getBallPositions();
+      List<Translation3d> pb = b.getBallPositions();
+      for (int i = 0; i < pa.size(); i++) {
+        assertEquals(pa.get(i).getX(), pb.get(i).getX(), 0.0, "Ball " + i);
+        assertEquals(pa.get(i).getY(), pb.get(i).getY(), 0.0, "Ball " + i);
+      }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkSpawnOrderVsMortonOrder() {
+      for (int total : new int[] {1000, 2000}) {
+        double[] msPerTick = new double[2];
+        double[] gap = new double[2];
+        for (int mode = 0; mode < 2; mode++) {
+          PhysicsConfig bench = config.copy();
+          bench.conservationMonitor = false;
+          bench.sleepingEnabled = false; // keep the whole pile in the broadphase
+          bench.lodEnabled = false;
+          bench.reorderInterval = mode == 0 ? 0 : 50;
+          FuelPhysicsSim field = scatteredField(bench, total);
+          if (mode == 1) field.reorderBalls();
+          long nanos = 0;
+          for (int i = 0; i < 150; i++) {
+            long t0 = System.nanoTime();
+            field.advancePhysics(0.02);
+            if (i >= 50) nanos += System.nanoTime() - t0;
+          }
+          msPerTick[mode] = nanos / 1e6 / 100;
+          gap[mode] = neighborIndexGap(field);
+        }
+        System.out.printf(
+            "%4d balls: spawn order %.3f ms/tick (neighbor gap %.0f), Morton %.3f ms/tick"
+                + " (neighbor gap %.0f)%n",
+            total, msPerTick[0], gap[0], msPerTick[1], gap[1]);
+        assertTrue(gap[1] < gap[0], "Morton order keeps neighbors closer in memory");
+      }
+    }
+  }
 }
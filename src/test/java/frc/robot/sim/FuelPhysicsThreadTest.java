@@ -0,0 +1,162 @@
+package frc.robot.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.sim.FuelPhysicsSim.PhysicsConfig;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for running FuelPhysicsSim on its own thread. */
+class FuelPhysicsThreadTest {
+
+  private FuelPhysicsSim sim;
+  private FuelPhysicsThread physics;
+
+  @BeforeAll
+  static void initHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @BeforeEach
+  void setUp() {
+    PhysicsConfig config = new PhysicsConfig();
+    config.deterministic = true;
+    config.deterministicSeed = 42L;
+    sim = new FuelPhysicsSim("Test/FuelThread", config);
+    sim.enable();
+    physics = new FuelPhysicsThread(sim);
+  }
+
+  @AfterEach
+  void tearDown() {
+    physics.stop();
+  }
+
+  /** Poll latest() the way the robot loop would until the condition holds or 2s pass. */
+  private FuelPhysicsThread.State awaitState(Predicate<FuelPhysicsThread.State> condition)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + 2_000_000_000L;
+    FuelPhysicsThread.State state = physics.latest();
+    while (!condition.test(state)) {
+      assertTrue(System.nanoTime() < deadline, "Physics thread never got there");
+      Thread.sleep(2);
+      physics.sampleInputs();
+      state = physics.latest();
+    }
+    return state;
+  }
+
+  @Test
+  void submittedLaunchRunsOnThePhysicsThread() throws InterruptedException {
+    physics.start();
+    physics.submit(s -> s.launchBall(new Translation3d(8, 4, 1), new Translation3d(0, 0, 3), 0));
+    FuelPhysicsThread.State state = awaitState(s -> s.getTotalLaunched() == 1);
+    assertEquals(1, state.getBallCount());
+    double z0 = state.getZ(0);
+    state = awaitState(s -> s.getZ(0) > z0 + 0.05);
+    assertEquals(1, state.getBallsInFlight(), "Ball is rising");
+  }
+
+  @Test
+  void robotSuppliersOnlyRunOnTheLoopThread() throws InterruptedException {
+    Set<Thread> callers = ConcurrentHashMap.newKeySet();
+    sim.configureRobot(
+        0.7,
+        0.7,
+        0.12,
+        () -> {
+          callers.add(Thread.currentThread());
+          return new Pose2d(8, 4, Rotation2d.kZero);
+        },
+        () -> {
+          callers.add(Thread.currentThread());
+          return new ChassisSpeeds();
+        });
+    physics.start();
+    awaitState(s -> s.getStep() > 20);
+    assertEquals(Set.of(Thread.currentThread()), callers);
+  }
+
+  @Test
+  void intakeCallbacksRunInSampleInputs() throws InterruptedException {
+    int[] pickups = {0};
+    Thread[] callbackThread = {null};
+    BooleanSupplier intakeOn = () -> true;
+    sim.configureRobot(
+        0.7, 0.7, 0.12, () -> new Pose2d(8, 4, Rotation2d.kZero), ChassisSpeeds::new);
+    sim.addIntakeZone(
+        0.3,
+        0.5,
+        -0.2,
+        0.2,
+        intakeOn,
+        () -> {
+          pickups[0]++;
+          callbackThread[0] = Thread.currentThread();
+        });
+    sim.spawnBall(new Translation3d(8.4, 4, FuelPhysicsSim.getBallRadius()));
+    physics.start();
+
+    awaitState(s -> s.getTotalIntaked() == 1);
+    physics.sampleInputs();
+    assertEquals(1, pickups[0]);
+    assertSame(Thread.currentThread(), callbackThread[0]);
+  }
+
+  @Test
+  void heldStateDoesNotChangeUnderTheReader() throws InterruptedException {
+    physics.submit(s -> s.spawnBall(new Translation3d(8, 4, 2)));
+    physics.start();
+    FuelPhysicsThread.State held = awaitState(s -> s.getBallCount() == 1 && s.getStep() > 2);
+    long step = held.getStep();
+    float z = held.getZ(0);
+    Thread.sleep(50); // a dozen more physics steps
+    assertEquals(step, held.getStep());
+    assertEquals(z, held.getZ(0));
+    assertTrue(physics.latest().getStep() > step);
+  }
+
+  @Test
+  void stopHandsBackSuppliersAndConfig() {
+    BooleanSupplier intakeOn = () -> false;
+    sim.configureRobot(0.7, 0.7, 0.12, Pose2d::new, ChassisSpeeds::new);
+    sim.addIntakeZone(0.3, 0.5, -0.2, 0.2, intakeOn);
+    var poseSupplier = sim.getRobot(0).poseSupplier;
+    int subticks = sim.getConfig().subticks;
+
+    physics.start();
+    assertEquals(1, sim.getConfig().subticks, "One step per thread tick");
+    assertNotSame(poseSupplier, sim.getRobot(0).poseSupplier);
+    physics.stop();
+
+    assertSame(poseSupplier, sim.getRobot(0).poseSupplier);
+    assertSame(intakeOn, sim.getRobot(0).intakes.get(0).active);
+    assertEquals(subticks, sim.getConfig().subticks);
+  }
+
+  @Test
+  void failedStepsAreCountedAndTheNextOneRuns() {
+    physics.submit(
+        s -> {
+          throw new IllegalStateException("bad command");
+        });
+    physics.guardedStep();
+    assertEquals(1, physics.getStepFailures());
+    assertEquals("IllegalStateException", physics.getLastStepError());
+
+    physics.guardedStep();
+    assertEquals(1, physics.getStepFailures(), "The queue was drained, so this one is clean");
+    assertEquals(1, physics.getSteps());
+  }
+}
@@ -90,6 +90,22 @@ class SimFuelManagerTest {
     assertSame(sim, manager.getSim(), "getSim() should return underlying sim");
   }
 
+  @Test
+  void physicsThreadTakesShotsOffTheLoop() {
+    Pose2d pose = new Pose2d(8, 4, Rotation2d.kZero);
+    manager.startPhysicsThread(FuelPhysicsThread.DEFAULT_RATE_HZ);
+    assertTrue(manager.isPhysicsThreadRunning());
+    manager.update(false, pose, 0, 3000);
+    manager.update(true, pose, 0, 3000);
+    manager.stopPhysicsThread(); // runs anything still queued
+    assertEquals(1, sim.getBallCount(), "Shot went through the physics thread");
+    assertEquals(5, sim.getConfig().subticks, "Loop config is back");
+
+    manager.update(false, pose, 0, 3000);
+    manager.update(true, pose, 0, 3000);
+    assertEquals(2, sim.getBallCount(), "Back to stepping in update()");
+  }
+
   @Test
   void startAndStop() {
     manager.disable();
@@ -97,4 +113,27 @@ class SimFuelManagerTest {
     manager.enable();
     assertTrue(sim.isRunning());
   }
+
+  @Test
+  void unknownCliPresetNamesTheValidOnes() {
+    String old = System.getProperty("simPhysics");
+    try {
+      System.setProperty("simPhysics", "fsat");
+      IllegalArgumentException e =
+          assertThrows(IllegalArgumentException.class, SimFuelManager::checkCliPreset);
+      for (String preset : SimFuelManager.PHYSICS_PRESETS) {
+        assertTrue(e.getMessage().contains(preset), e.getMessage());
+      }
+      for (String preset : SimFuelManager.PHYSICS_PRESETS) {
+        System.setProperty("simPhysics", preset);
+        SimFuelManager.checkCliPreset();
+      }
+    } finally {
+      if (old == null) {
+        System.clearProperty("simPhysics");
+      } else {
+        System.setProperty("simPhysics", old);
+      }
+    }
+  }
 }
@@ -0,0 +1,54 @@
+package frc.robot.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SimRunSummaryTest {
+
+  @TempDir File tempDir;
+
+  @Test
+  void testPercentilesAndOverruns() {
+    SimRunSummary summary = new SimRunSummary("RapidFire", "Red", "42", "default");
+    for (int i = 0; i < 1000; i++) {
+      summary.recordLoop(i < 985 ? 4.0 : 25.0);
+    }
+    assertEquals(1000, summary.getCycles());
+    assertEquals(15, summary.getOverruns());
+    assertEquals(4.1, summary.loopPercentileMs(50), 1e-9);
+    assertEquals(25.1, summary.loopPercentileMs(99), 1e-9, "Top 1.5% are overruns");
+  }
+
+  @Test
+  void testEmptySummaryIsZero() {
+    SimRunSummary summary = new SimRunSummary("", "", "", "default");
+    assertEquals(0.0, summary.loopPercentileMs(99));
+    assertTrue(summary.toJson().contains("\"cycles\":0"));
+  }
+
+  @Test
+  void testHugeLoopLandsInLastBin() {
+    SimRunSummary summary = new SimRunSummary("", "", "", "default");
+    summary.recordLoop(500.0);
+    assertEquals(SimRunSummary.BINS * SimRunSummary.BIN_MS, summary.loopPercentileMs(99), 1e-9);
+  }
+
+  @Test
+  void testWritesJson() throws Exception {
+    SimRunSummary summary = new SimRunSummary("Brownout", "Blue", "7", "fast");
+    summary.recordLoop(3.0);
+    summary.setCounters(2, 12, 9, 9, 0, 1);
+    File out = new File(tempDir, "run/summary.json");
+    summary.write(out);
+
+    String json = Files.readString(out.toPath());
+    assertTrue(json.contains("\"scenario\":\"Brownout\""));
+    assertTrue(json.contains("\"shots\":12"));
+    assertTrue(json.contains("\"scored\":9"));
+    assertTrue(json.contains("\"crashBarrierTrips\":2"));
+  }
+}
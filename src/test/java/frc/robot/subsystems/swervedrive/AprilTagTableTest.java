@@ -0,0 +1,141 @@
+package frc.robot.subsystems.swervedrive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import frc.robot.util.FieldGeometry;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AprilTagTableTest {
+
+  private static final double BLUE_HUB_X = FieldGeometry.Hub.BLUE_CENTER.getX();
+  private static final double HUB_Y = FieldGeometry.Hub.BLUE_CENTER.getY();
+
+  private static AprilTag tag(int id, double x, double y, double yaw) {
+    return new AprilTag(id, new Pose3d(x, y, 1.0, new Rotation3d(0, 0, yaw)));
+  }
+
+  /** A wall tag facing +X, two faces of the blue hub, and one face of the red hub. */
+  private static AprilTagTable smallField() {
+    List<AprilTag> tags =
+        List.of(
+            tag(3, 0.0, 2.0, 0),
+            tag(5, BLUE_HUB_X - 0.6, HUB_Y, Math.PI),
+            tag(6, BLUE_HUB_X, HUB_Y + 0.6, Math.PI / 2),
+            tag(20, FieldGeometry.Hub.RED_CENTER.getX() + 0.6, HUB_Y, 0));
+    return new AprilTagTable(
+        new AprilTagFieldLayout(tags, FieldGeometry.FIELD_LENGTH_M, FieldGeometry.FIELD_WIDTH_M));
+  }
+
+  @Test
+  void testPosesAndIds() {
+    AprilTagTable table = smallField();
+    assertArrayEquals(new int[] {3, 5, 6, 20}, table.getIds());
+    assertEquals(2.0, table.getPose(3).getY());
+    assertEquals(2.0, table.getPose2d(3).getY());
+    assertEquals(1.0, table.getPose(3).getZ());
+    assertNull(table.getPose(4));
+    assertNull(table.getPose2d(21));
+    assertFalse(table.contains(-1));
+    assertFalse(table.contains(64));
+    assertEquals(5.0, table.distance(3, 3.0, 6.0), 1e-12);
+  }
+
+  @Test
+  void testNormalsAndFacing() {
+    AprilTagTable table = smallField();
+    assertEquals(1.0, table.getNormalX(3), 1e-12);
+    assertEquals(-1.0, table.getNormalX(5), 1e-12);
+    assertEquals(1.0, table.getNormalY(6), 1e-12);
+    assertTrue(table.faces(3, 1.0, 2.0));
+    assertFalse(table.faces(5, BLUE_HUB_X + 1, HUB_Y), "Behind the hub face");
+    assertFalse(table.faces(4, 1.0, 1.0), "Not on the field");
+    assertEquals(-1.6, table.distanceInFront(5, BLUE_HUB_X + 1, HUB_Y), 1e-9);
+  }
+
+  @Test
+  void testHubAndAlliance() {
+    AprilTagTable table = smallField();
+    assertEquals(AprilTagTable.NO_HUB, table.hubOf(3));
+    assertEquals(AprilTagTable.BLUE_HUB, table.hubOf(5));
+    assertEquals(AprilTagTable.BLUE_HUB, table.hubOf(6));
+    assertEquals(AprilTagTable.RED_HUB, table.hubOf(20));
+    assertEquals(AprilTagTable.NO_HUB, table.hubOf(40));
+    assertTrue(AprilTagTable.isBlueTag(16));
+    assertFalse(AprilTagTable.isBlueTag(17));
+  }
+
+  @Test
+  void testVisibleFromMatchesBruteForceAtCellCenters() {
+    AprilTagTable table = smallField();
+    Random r = new Random(2);
+    for (int i = 0; i < 2000; i++) {
+      double x = r.nextDouble() * FieldGeometry.FIELD_LENGTH_M;
+      double y = r.nextDouble() * FieldGeometry.FIELD_WIDTH_M;
+      double cx = (Math.floor(x / AprilTagTable.CELL_M) + 0.5) * AprilTagTable.CELL_M;
+      double cy = (Math.floor(y / AprilTagTable.CELL_M) + 0.5) * AprilTagTable.CELL_M;
+      long expected = 0;
+      for (int id : table.getIds()) {
+        double d = table.distance(id, cx, cy);
+        if (table.faces(id, cx, cy) && d <= AprilTagTable.VISIBLE_RANGE_M) {
+          expected |= 1L << id;
+        }
+      }
+      assertEquals(expected, table.visibleFrom(x, y), "At " + x + ", " + y);
+    }
+  }
+
+  @Test
+  void testVisibleFromOffTheFieldUsesTheEdge() {
+    AprilTagTable table = smallField();
+    assertEquals(table.visibleFrom(0.1, 2.0), table.visibleFrom(-3.0, 2.0));
+    assertTrue(table.isVisibleFrom(3, -3.0, 2.0));
+    assertFalse(table.isVisibleFrom(3, 7.0, 2.0), "Out of range");
+    assertFalse(table.isVisibleFrom(99, 1.0, 2.0));
+  }
+
+  @Test
+  void testNearestHubTag() {
+    AprilTagTable table = smallField();
+    // In front of the blue hub's -X face
+    assertEquals(5, table.nearestHubTag(BLUE_HUB_X - 2, HUB_Y, true));
+    // Off the +Y side only the +Y face is visible
+    assertEquals(6, table.nearestHubTag(BLUE_HUB_X + 0.3, HUB_Y + 2, true));
+    // Behind the blue hub neither face points this way
+    assertEquals(-1, table.nearestHubTag(BLUE_HUB_X + 2, HUB_Y, true));
+    assertEquals(20, table.nearestHubTag(FieldGeometry.Hub.RED_CENTER.getX() + 2, HUB_Y, false));
+  }
+
+  @Test
+  void testRejectsIdsTooBigToIndex() {
+    AprilTagFieldLayout layout = new AprilTagFieldLayout(List.of(tag(64, 1, 1, 0)), 16, 8);
+    assertThrows(IllegalArgumentException.class, () -> new AprilTagTable(layout));
+  }
+
+  @Test
+  void testMatchesTheRealLayout() {
+    AprilTagFieldLayout layout = AprilTagFieldLayout.loadField(AprilTagFields.k2026RebuiltAndymark);
+    AprilTagTable table = new AprilTagTable(layout);
+    assertEquals(layout.getTags().size(), table.getIds().length);
+    int blueHubTags = 0;
+    int redHubTags = 0;
+    for (AprilTag tag : layout.getTags()) {
+      Pose3d expected = layout.getTagPose(tag.ID).get();
+      assertEquals(expected.getX(), table.getPose(tag.ID).getX());
+      assertEquals(expected.getY(), table.getPose2d(tag.ID).getY());
+      if (table.hubOf(tag.ID) == AprilTagTable.BLUE_HUB) blueHubTags++;
+      if (table.hubOf(tag.ID) == AprilTagTable.RED_HUB) redHubTags++;
+    }
+    assertTrue(blueHubTags > 0 && redHubTags > 0, "Both hubs carry tags");
+    // Driving up to either hub, some hub tag should be in view
+    double y = FieldGeometry.Hub.BLUE_CENTER.getY();
+    assertNotEquals(-1, table.nearestHubTag(FieldGeometry.Hub.BLUE_CENTER.getX() - 2, y, true));
+    assertNotEquals(-1, table.nearestHubTag(FieldGeometry.Hub.RED_CENTER.getX() + 2, y, false));
+  }
+}
@@ -0,0 +1,167 @@
+package frc.robot.subsystems.swervedrive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import frc.robot.subsystems.swervedrive.VisionFilter.RejectionReason;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class VisionFilterTest {
+
+  private static final Matrix<N3, N1> SINGLE = VecBuilder.fill(0.9, 0.9, 2.0);
+  private static final Matrix<N3, N1> MULTI = VecBuilder.fill(0.3, 0.3, 0.6);
+
+  private VisionFilter.Evaluation eval;
+
+  @BeforeEach
+  void setUp() {
+    eval = new VisionFilter.Evaluation(SINGLE, MULTI);
+    eval.setRobotState(new Rotation2d(0.1), 0, 0.5, true);
+  }
+
+  private static Pose3d pose(double x, double y, double z, double yaw) {
+    return new Pose3d(x, y, z, new Rotation3d(0, 0, yaw));
+  }
+
+  private void frame(Pose3d pose, double ambiguity, double distance, int... tags) {
+    eval.setFrame(pose, tags.length, ambiguity, 0.02, distance);
+    for (int id : tags) eval.addTagId(id);
+  }
+
+  @Test
+  void testAcceptedFrameMatchesComputeStdDevs() {
+    frame(pose(3, 4, 0, 0.1), 0.05, 2.5, 5, 6);
+    assertEquals(RejectionReason.ACCEPTED, eval.evaluate());
+    Matrix<N3, N1> expected = VisionFilter.computeStdDevs(2, 2.5, 0.5, SINGLE, MULTI);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(expected.get(i, 0), eval.getStdDevs().get(i, 0), 1e-12);
+    }
+    assertEquals(0, eval.getBlendWeight(), "Multi-tag doesn't blend");
+
+    frame(pose(3, 4, 0, 0.1), 0.05, 1.0, 7);
+    assertEquals(RejectionReason.ACCEPTED, eval.evaluate());
+    assertEquals(Double.POSITIVE_INFINITY, eval.getStdDevs().get(2, 0), "Gyro owns heading");
+    assertEquals(VisionFilter.computeBlendWeight(1.0), eval.getBlendWeight());
+  }
+
+  @Test
+  void testCheapGatesRejectFirst() {
+    eval.setRobotState(new Rotation2d(0.1), 200, 2.5, true); // fast spin while driving
+    frame(pose(3, 4, 2.0, 0.1), 0.05, 2.5, 5, 6); // also flying
+    assertEquals(RejectionReason.GYRO_RATE, eval.evaluate());
+
+    eval.setRobotState(new Rotation2d(0.1), 0, 0.5, true);
+    frame(pose(3, 4, 0, 0.1), 0.05, 6.0, 20); // far and a red tag
+    assertEquals(RejectionReason.DISTANCE, eval.evaluate());
+    frame(pose(3, 4, 0, 0.1), 0.05, 2.0, 20);
+    assertEquals(RejectionReason.OPPOSING_ALLIANCE, eval.evaluate());
+    frame(pose(3, 4, 0, 2.0), 0.05, 2.0, 5);
+    assertEquals(RejectionReason.HEADING_DIVERGENCE, eval.evaluate());
+  }
+
+  @Test
+  void testResolvedAmbiguityOnlyRerunsPoseGatesAndInflates() {
+    frame(pose(3, 4, 0, 0.1), 0.9, 2.0, 5);
+    assertEquals(RejectionReason.AMBIGUITY, eval.evaluate());
+    assertEquals(RejectionReason.Z_HEIGHT, eval.resolve(pose(3, 4, 1.0, 0.1)));
+    assertEquals(RejectionReason.ACCEPTED, eval.resolve(pose(3.1, 4, 0, 0.1)));
+    assertTrue(eval.isResolvedAmbiguity());
+    Matrix<N3, N1> plain = VisionFilter.computeStdDevs(1, 2.0, 0.5, SINGLE, MULTI);
+    assertEquals(
+        plain.get(0, 0) * VisionFilter.AMBIGUITY_STD_DEV_INFLATE, eval.getStdDevs().get(0, 0));
+    assertEquals(3.1, eval.getPose().getX());
+
+    frame(pose(3, 4, 0, 0.1), 0.05, 2.0, 5);
+    eval.evaluate();
+    assertFalse(eval.isResolvedAmbiguity(), "Next frame starts clean");
+  }
+
+  @Test
+  void testDefenseTrustsVisionMore() {
+    eval.setRobotState(new Rotation2d(0.1), 200, 0.2, true);
+    assertTrue(eval.isUnderDefense());
+    frame(pose(3, 4, 0, 0.1), 0.05, 2.5, 5, 6);
+    assertEquals(RejectionReason.ACCEPTED, eval.evaluate(), "Gyro gate is off under defense");
+    Matrix<N3, N1> plain = VisionFilter.computeStdDevs(2, 2.5, 0.2, SINGLE, MULTI);
+    assertEquals(
+        plain.get(1, 0) * VisionFilter.DEFENSE_STD_DEV_SCALE, eval.getStdDevs().get(1, 0));
+  }
+
+  @Test
+  void testStaticEvaluateAgreesWithContext() {
+    Random r = new Random(3);
+    Rotation2d gyro = new Rotation2d(0.1);
+    for (int i = 0; i < 2000; i++) {
+      Pose3d p =
+          new Pose3d(
+              r.nextDouble() * 18 - 1,
+              r.nextDouble() * 10 - 1,
+              r.nextGaussian() * 0.3,
+              new Rotation3d(r.nextGaussian() * 0.15, r.nextGaussian() * 0.15, 0.1));
+      int[] tags = r.nextBoolean() ? new int[] {1 + r.nextInt(32)} : new int[] {3, 4};
+      double ambiguity = r.nextDouble();
+      double dist = r.nextDouble() * 7;
+      double gyroRate = r.nextGaussian() * 100;
+      double speed = r.nextDouble() * 4;
+      double age = r.nextDouble() * 1.2;
+
+      eval.setRobotState(gyro, gyroRate, speed, true);
+      eval.setFrame(p, tags.length, ambiguity, age, dist);
+      for (int id : tags) eval.addTagId(id);
+      RejectionReason expected =
+          VisionFilter.evaluate(
+              p,
+              tags.length,
+              ambiguity,
+              gyro,
+              null,
+              0,
+              gyroRate,
+              speed,
+              age,
+              true,
+              tags,
+              dist,
+              VisionFilter.isUnderDefense(gyroRate, speed));
+      assertEquals(expected, eval.evaluate(), "Frame " + i);
+    }
+  }
+
+  @Test
+  @Tag("benchmark")
+  void testBenchmarkFramesPerSecond() {
+    // Mixed traffic: mostly good multi-tag frames, some single-tag, some junk
+    int n = 1024;
+    Pose3d[] poses = new Pose3d[n];
+    int[][] tags = new int[n][];
+    Random r = new Random(8);
+    for (int i = 0; i < n; i++) {
+      boolean junk = i % 10 == 0;
+      poses[i] = pose(1 + r.nextDouble() * 14, 1 + r.nextDouble() * 6, junk ? 0.8 : 0.02, 0.1);
+      tags[i] = i % 3 == 0 ? new int[] {1 + r.nextInt(16)} : new int[] {2, 3, 4};
+    }
+    int accepted = 0;
+    long t0 = 0;
+    int frames = 400_000;
+    for (int i = 0; i < 2 * frames; i++) {
+      if (i == frames) t0 = System.nanoTime(); // first half warms up the JIT
+      int k = i % n;
+      eval.setFrame(poses[k], tags[k].length, 0.1, 0.03, 2.5);
+      for (int id : tags[k]) eval.addTagId(id);
+      if (eval.evaluate() == RejectionReason.ACCEPTED && i >= frames) accepted++;
+    }
+    double sec = (System.nanoTime() - t0) / 1e9;
+    System.out.printf(
+        "VisionFilter: %.1fM frames/s (%d of %d accepted)%n", frames / sec / 1e6, accepted, frames);
+    assertTrue(accepted > frames / 2);
+  }
+}
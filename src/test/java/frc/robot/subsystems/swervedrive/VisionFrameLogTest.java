@@ -0,0 +1,104 @@
+package frc.robot.subsystems.swervedrive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VisionFrameLogTest {
+
+  private static byte[] capture(boolean framesBeforeState) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    VisionFrameLog.writeHeader(out);
+    if (framesBeforeState) {
+      VisionFrameLog.writeFrame(out, 0, 1, new byte[] {9}, 1);
+    }
+    VisionFrameLog.writeState(
+        out, 12.5, 3, 4, 0.45, 0.5, -20, 1.5, VisionFrameLog.FLAG_BLUE, 0b1011);
+    VisionFrameLog.writeFrame(out, 2, 12_480_000L, new byte[] {1, 2, 3, 4}, 3);
+    VisionFrameLog.writeFrame(out, 0, 12_490_000L, new byte[0], 0);
+    VisionFrameLog.writeState(
+        out, 12.52, 3.1, 4, 0.45, 0.5, 0, 1.5, VisionFrameLog.FLAG_AUTONOMOUS, 0);
+    return bytes.toByteArray();
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    List<VisionFrameLog.Loop> loops = VisionFrameLog.read(new ByteArrayInputStream(capture(false)));
+    assertEquals(2, loops.size());
+
+    VisionFrameLog.Loop first = loops.get(0);
+    assertEquals(12.5, first.timeSec);
+    assertEquals(3, first.poseX);
+    assertEquals(4, first.poseY);
+    assertEquals(0.45, first.fusedHeadingRad);
+    assertEquals(0.5, first.headingRad);
+    assertEquals(-20, first.gyroRateDps);
+    assertEquals(1.5, first.speedMps);
+    assertTrue(first.isBlue());
+    assertTrue(first.isConnected(0));
+    assertTrue(first.isConnected(1));
+    assertFalse(first.isConnected(2));
+    assertTrue(first.isConnected(3));
+
+    assertEquals(2, first.getFrames().size());
+    VisionFrameLog.Frame frame = first.getFrames().get(0);
+    assertEquals(2, frame.camera);
+    assertEquals(12_480_000L, frame.receiveMicros);
+    assertArrayEquals(new byte[] {1, 2, 3}, frame.payload, "Only length bytes are written");
+    assertEquals(0, first.getFrames().get(1).payload.length);
+
+    assertFalse(loops.get(1).isBlue());
+    assertEquals(VisionFrameLog.FLAG_AUTONOMOUS, loops.get(1).flags);
+    assertTrue(loops.get(1).getFrames().isEmpty());
+    assertFalse(loops.get(1).isConnected(0));
+  }
+
+  @Test
+  void testFramesBeforeTheFirstStateAreDropped() throws IOException {
+    List<VisionFrameLog.Loop> loops = VisionFrameLog.read(new ByteArrayInputStream(capture(true)));
+    assertEquals(2, loops.size());
+    assertEquals(2, loops.get(0).getFrames().get(0).camera);
+  }
+
+  @Test
+  void testTornLastRecordIsDropped() throws IOException {
+    byte[] full = capture(false);
+    // Cut into the middle of the second state record
+    byte[] torn = Arrays.copyOf(full, full.length - 20);
+    List<VisionFrameLog.Loop> loops = VisionFrameLog.read(new ByteArrayInputStream(torn));
+    assertEquals(1, loops.size());
+    assertEquals(2, loops.get(0).getFrames().size());
+  }
+
+  @Test
+  void testOversizePayloadIsRefused() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    byte[] huge = new byte[VisionFrameLog.MAX_PAYLOAD + 1];
+    assertFalse(VisionFrameLog.writeFrame(out, 0, 0, huge, huge.length));
+    assertEquals(0, bytes.size());
+  }
+
+  @Test
+  void testRejectsOtherFiles() {
+    byte[] junk = "IN5962 not a vision log".getBytes();
+    assertThrows(IOException.class, () -> VisionFrameLog.read(new ByteArrayInputStream(junk)));
+  }
+
+  @Test
+  void testRejectsOldVersion() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write(VisionFrameLog.MAGIC);
+    out.writeShort(VisionFrameLog.VERSION - 1);
+    byte[] old = bytes.toByteArray();
+    assertThrows(IOException.class, () -> VisionFrameLog.read(new ByteArrayInputStream(old)));
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import edu.wpi.first.wpilibj.simulation.DriverStationSim;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import org.junit.jupiter.api.AfterEach;
@@ -93,4 +94,31 @@ class CommandsTelemetryTest extends TelemetryTestBase {
     int interrupted = getField(telemetry, "interruptedCount");
     assertTrue(interrupted > 0, "Interrupted count should increment on cancel");
   }
+
+  private static void spin(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {}
+  }
+
+  @Test
+  void testProfileRanksTheExpensiveCommandFirst() {
+    Command slow = Commands.run(() -> spin(300_000)).withName("Slow");
+    Command cheap = Commands.run(() -> {}).withName("Cheap");
+    slow.schedule();
+    cheap.schedule();
+    // First update binds the anchor; loops before that aren't timed
+    telemetry.update();
+    for (int i = 0; i < 20; i++) {
+      CommandScheduler.getInstance().run();
+      telemetry.update();
+    }
+    telemetry.rollProfiles(1.0);
+
+    String[] top = telemetry.getTopCommands();
+    assertEquals(2, top.length);
+    assertEquals("Slow", top[0]);
+    assertEquals("Cheap", top[1]);
+    // 20 samples of at least 300 us
+    assertTrue(telemetry.getTopCommandMsPerSec()[0] >= 6.0);
+  }
 }
@@ -0,0 +1,124 @@
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class ExecutionProfilerTest {
+
+  @Test
+  void testBuckets() {
+    assertEquals(0, ExecutionProfiler.bucketOf(0));
+    assertEquals(0, ExecutionProfiler.bucketOf(999));
+    assertEquals(1, ExecutionProfiler.bucketOf(1_000));
+    assertEquals(2, ExecutionProfiler.bucketOf(2_000));
+    assertEquals(2, ExecutionProfiler.bucketOf(3_999));
+    assertEquals(11, ExecutionProfiler.bucketOf(1_500_000));
+    assertEquals(ExecutionProfiler.BUCKETS - 1, ExecutionProfiler.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testSameNameSharesASlot() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    Object a = new Object();
+    Object b = new Object();
+    int slot = profiler.bind(a, "Shoot");
+    assertEquals(slot, profiler.bind(b, "Shoot"));
+    assertEquals(slot, profiler.cachedSlot(a));
+
+    profiler.forget(a);
+    assertEquals(-1, profiler.cachedSlot(a));
+    assertEquals(slot, profiler.cachedSlot(b));
+    assertEquals(1, profiler.getSlotCount());
+  }
+
+  @Test
+  void testClosedWindowStats() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    int slot = profiler.bind(this, "Cmd");
+    for (int i = 0; i < 19; i++) profiler.record(slot, 10_000); // 10 us
+    profiler.record(slot, 5_000_000); // one 5 ms outlier
+
+    // Nothing is visible until the window closes
+    assertEquals(0, profiler.getCount(slot));
+    profiler.roll(0.5);
+
+    assertEquals(20, profiler.getCount(slot));
+    assertEquals((19 * 10 + 5000) / 20.0, profiler.getMeanMicros(slot), 1e-9);
+    assertEquals(5000, profiler.getMaxMicros(slot), 1e-9);
+    assertEquals((19 * 0.01 + 5) / 0.5, profiler.getMsPerSec(slot), 1e-9);
+    // 10 us lands in [8, 16); the outlier is past the 95th percentile
+    assertEquals(16, profiler.getQuantileMicros(slot, 0.95));
+    assertEquals(8192, profiler.getQuantileMicros(slot, 1.0));
+
+    // The next window starts empty
+    profiler.roll(1.0);
+    assertEquals(0, profiler.getCount(slot));
+    assertEquals(0, profiler.getQuantileMicros(slot, 0.95));
+  }
+
+  @Test
+  void testTopRanksByTotalTime() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    long[] totals = {50, 400, 0, 300, 100, 200, 250};
+    for (int i = 0; i < totals.length; i++) {
+      int slot = profiler.bind(Integer.valueOf(i), "S" + i);
+      if (totals[i] > 0) profiler.record(slot, totals[i]);
+    }
+    profiler.roll(1.0);
+
+    int[] top = new int[3];
+    assertEquals(3, profiler.top(top));
+    assertEquals("S1", profiler.getName(top[0]));
+    assertEquals("S3", profiler.getName(top[1]));
+    assertEquals("S6", profiler.getName(top[2]));
+
+    int[] all = new int[10];
+    assertEquals(6, profiler.top(all), "Slots with no samples are left out");
+    assertEquals("S0", profiler.getName(all[5]));
+  }
+
+  @Test
+  void testFullProfilerDropsNewNames() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    for (int i = 0; i < ExecutionProfiler.MAX_SLOTS; i++) {
+      assertTrue(profiler.bind(new Object(), "S" + i) >= 0);
+    }
+    int slot = profiler.bind(new Object(), "OneTooMany");
+    assertEquals(-1, slot);
+    profiler.record(slot, 1000);
+    assertEquals(1, profiler.getDroppedSamples());
+  }
+
+  @Test
+  void testRecordSinceNamesByClass() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    profiler.recordSince(this, System.nanoTime());
+    profiler.roll(1.0);
+    int slot = profiler.cachedSlot(this);
+    assertEquals("ExecutionProfilerTest", profiler.getName(slot));
+    assertEquals(1, profiler.getCount(slot));
+  }
+
+  /** Printed, not asserted: wall-clock bounds flake on CI. Runs under ./gradlew benchmark. */
+  @Test
+  @Tag("benchmark")
+  void benchmarkRecordCost() {
+    ExecutionProfiler profiler = new ExecutionProfiler();
+    Object[] owners = new Object[8];
+    for (int i = 0; i < owners.length; i++) {
+      owners[i] = new Object();
+      profiler.bind(owners[i], "Cmd" + i);
+    }
+    int samples = 2_000_000;
+    long t0 = System.nanoTime();
+    for (int i = 0; i < samples; i++) {
+      Object owner = owners[i & 7];
+      profiler.record(profiler.cachedSlot(owner), i & 0xFFFFF);
+    }
+    double nsPerSample = (System.nanoTime() - t0) / (double) samples;
+    // Budget is a few microseconds per command
+    System.out.printf("ExecutionProfiler: %.1f ns per sample%n", nsPerSample);
+  }
+}
@@ -0,0 +1,85 @@
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+class JvmTelemetryTest {
+
+  // Keeps the allocation below from being optimized away
+  static Object sink;
+
+  @Test
+  void testPhaseAllocationLandsInTheNextLoop() {
+    assumeAllocationCounting();
+    JvmTelemetry.startCycle();
+    long before = JvmTelemetry.threadAllocatedBytes();
+    sink = new byte[1 << 20];
+    JvmTelemetry.recordPhase("TestAllocating", before);
+
+    before = JvmTelemetry.threadAllocatedBytes();
+    JvmTelemetry.recordPhase("TestQuiet", before);
+    JvmTelemetry.startCycle();
+
+    assertTrue(JvmTelemetry.getLastPhaseBytes("TestAllocating") >= 1 << 20);
+    assertTrue(JvmTelemetry.getLastPhaseBytes("TestQuiet") < 1024);
+    assertTrue(JvmTelemetry.getLastCycleBytes() >= 1 << 20);
+
+    // Nothing recorded this loop, so the next close zeroes it
+    JvmTelemetry.startCycle();
+    assertEquals(0, JvmTelemetry.getLastPhaseBytes("TestAllocating"));
+  }
+
+  @Test
+  void testRepeatedPhaseAddsUp() {
+    assumeAllocationCounting();
+    JvmTelemetry.startCycle();
+    for (int i = 0; i < 3; i++) {
+      long before = JvmTelemetry.threadAllocatedBytes();
+      sink = new byte[100_000];
+      JvmTelemetry.recordPhase("TestRepeated", before);
+    }
+    JvmTelemetry.startCycle();
+    assertTrue(JvmTelemetry.getLastPhaseBytes("TestRepeated") >= 300_000);
+  }
+
+  @Test
+  void testUnmeasuredPhaseIsIgnored() {
+    JvmTelemetry.recordPhase("TestUnmeasured", -1);
+    JvmTelemetry.startCycle();
+    assertEquals(0, JvmTelemetry.getLastPhaseBytes("TestUnmeasured"));
+  }
+
+  @Test
+  void testGcOnlyBlamedForOverrunLoops() {
+    int overruns = JvmTelemetry.getOverruns();
+    int gcOverruns = JvmTelemetry.getGcOverruns();
+
+    JvmTelemetry.closeCycle(20, 0, 1, 3); // GC, but on time
+    JvmTelemetry.closeCycle(40, 0, 0, 0); // late, no GC
+    JvmTelemetry.closeCycle(45, 0, 1, 18); // late with a GC
+
+    assertEquals(overruns + 2, JvmTelemetry.getOverruns());
+    assertEquals(gcOverruns + 1, JvmTelemetry.getGcOverruns());
+  }
+
+  @Test
+  void testHeapAndTopAllocator() {
+    assumeAllocationCounting();
+    JvmTelemetry telemetry = new JvmTelemetry();
+    JvmTelemetry.startCycle();
+    long before = JvmTelemetry.threadAllocatedBytes();
+    sink = new byte[4 << 20];
+    JvmTelemetry.recordPhase("TestHeavy", before);
+    JvmTelemetry.startCycle();
+
+    telemetry.update();
+    assertEquals("TestHeavy", telemetry.getTopAllocator());
+    assertTrue(telemetry.getHeapHeadroomPct() > 0 && telemetry.getHeapHeadroomPct() <= 100);
+  }
+
+  private static void assumeAllocationCounting() {
+    assumeTrue(JvmTelemetry.threadAllocatedBytes() >= 0, "No per-thread allocation counter");
+  }
+}
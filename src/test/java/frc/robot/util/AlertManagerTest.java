@@ -15,8 +15,8 @@ import frc.robot.subsystems.Shooter;
 import frc.robot.telemetry.SafeLog;
 import frc.robot.telemetry.TelemetryManager;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.List;
-import java.util.Map;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,44 +58,17 @@ class AlertManagerTest {
   void setUp() throws Exception {
     am = AlertManager.getInstance();
 
-    // Reset internal state (singleton persists across tests)
-    setField(am, "inBatteryWarning", false);
-
-    List<String> alerts = getField(am, "activeAlerts");
-    alerts.clear();
-
-    Map<String, Double> times = getField(am, "lastElasticNotifyTimes");
-    times.clear();
+    // Reset internal state (singleton persists across tests): fresh rule table, which also
+    // gives fresh WPILib Alert objects and notification timers
+    Method buildRules = AlertManager.class.getDeclaredMethod("buildRules");
+    buildRules.setAccessible(true);
+    @SuppressWarnings("unchecked")
+    List<AlertRule> rules = (List<AlertRule>) buildRules.invoke(null);
+    setField(am, "rules", new AlertRuleEngine(rules));
 
     // Replace debouncer with fresh one (clears internal timing state)
     setField(am, "disabledDebouncer", new Debouncer(1.5, Debouncer.DebounceType.kRising));
 
-    // Reset all WPILib Alert objects
-    String[] alertFields = {
-      "batteryLowAlert",
-      "batteryCriticalAlert",
-      "shooterTempAlert",
-      "indexerTempAlert",
-      "intakeTempAlert",
-      "intakeActuatorTempAlert",
-      "canUtilizationAlert",
-      "canBusOffAlert",
-      "loopTimeWarningAlert",
-      "loopTimeErrorAlert",
-      "indexerJamAlert",
-      "intakeJamAlert",
-      "bandwidthWarningAlert",
-      "bandwidthCriticalAlert",
-      "brownoutRiskAlert",
-      "shooterStallAlert",
-      "indexerStallAlert",
-      "intakeStallAlert"
-    };
-    for (String name : alertFields) {
-      Alert alert = getField(am, name);
-      alert.set(false);
-    }
-
     // Clear telemetry stall/jam/brownout state from previous tests
     clearTelemetryState();
 
@@ -125,7 +98,7 @@ class AlertManagerTest {
   void testNoBatteryAlertWhenVoltageHealthy() {
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(12.8);
-    am.checkAll();
+    checkAll();
 
     assertFalse(am.getActiveAlerts().contains("BatteryLow"), "No BatteryLow alert at 12.8V");
     assertFalse(
@@ -139,7 +112,7 @@ class AlertManagerTest {
     DriverStationSim.setEnabled(true);
     DriverStationSim.notifyNewData();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
@@ -152,7 +125,7 @@ class AlertManagerTest {
   void testBatteryWarningFiresWhenLowAndDisabled() {
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("BatteryLow"),
@@ -165,7 +138,7 @@ class AlertManagerTest {
     DriverStationSim.setEnabled(true);
     DriverStationSim.notifyNewData();
     RoboRioSim.setVInVoltage(9.5);
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("BatteryCritical"),
@@ -176,15 +149,15 @@ class AlertManagerTest {
   void testCriticalOverridesWarning() throws Exception {
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(9.0);
-    am.checkAll();
+    checkAll();
 
     assertTrue(am.getActiveAlerts().contains("BatteryCritical"));
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
         "Critical and Warning should not both be active (confusing)");
 
-    Alert critAlert = getField(am, "batteryCriticalAlert");
-    Alert warnAlert = getField(am, "batteryLowAlert");
+    Alert critAlert = am.getAlert("BatteryCritical");
+    Alert warnAlert = am.getAlert("BatteryLow");
     assertTrue(critAlert.get());
     assertFalse(warnAlert.get());
   }
@@ -196,17 +169,17 @@ class AlertManagerTest {
     // Battery dips to 11.0V, then "recovers" to 11.7V (still bad)
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlerts().contains("BatteryLow"), "Warning should fire at 11.0V");
 
     // Partial recovery: above WARNING_V (11.5) but below CLEAR_V (12.0)
     RoboRioSim.setVInVoltage(11.7);
-    am.checkAll();
+    checkAll();
     assertTrue(
         am.getActiveAlerts().contains("BatteryLow"),
         "Warning must persist at 11.7V (below hysteresis clear threshold 12.0V)");
 
-    boolean inWarning = getField(am, "inBatteryWarning");
+    boolean inWarning = am.getRules().isLatched("BatteryLow");
     assertTrue(inWarning, "Hysteresis flag should still be set");
   }
 
@@ -215,17 +188,17 @@ class AlertManagerTest {
     // Establish warning state
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlerts().contains("BatteryLow"));
 
     // Full recovery above CLEAR_V (12.0)
     RoboRioSim.setVInVoltage(12.5);
-    am.checkAll();
+    checkAll();
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
         "Warning must clear after voltage recovers above 12.0V");
 
-    boolean inWarning = getField(am, "inBatteryWarning");
+    boolean inWarning = am.getRules().isLatched("BatteryLow");
     assertFalse(inWarning, "Hysteresis flag should clear");
   }
 
@@ -234,11 +207,11 @@ class AlertManagerTest {
     // Establish warning state
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
     // Exactly at CLEAR_V (12.0): code checks voltage < 12.0, so 12.0 is NOT < 12.0
     RoboRioSim.setVInVoltage(12.0);
-    am.checkAll();
+    checkAll();
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
         "Exactly 12.0V should clear warning (12.0 is not < 12.0)");
@@ -253,7 +226,7 @@ class AlertManagerTest {
     DriverStationSim.notifyNewData();
     // Do NOT step time past debounce period
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
@@ -264,7 +237,7 @@ class AlertManagerTest {
   void testBatteryWarningFiresAfterDebouncePeriod() {
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("BatteryLow"),
@@ -278,12 +251,12 @@ class AlertManagerTest {
     // First call: low battery triggers alert
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlertCount() > 0, "Should have alerts at low voltage");
 
     // Second call: voltage recovered
     RoboRioSim.setVInVoltage(12.8);
-    am.checkAll();
+    checkAll();
     assertFalse(
         am.getActiveAlerts().contains("BatteryLow"),
         "Recovered alerts must not persist from previous cycle");
@@ -291,7 +264,7 @@ class AlertManagerTest {
 
   @Test
   void testGetActiveAlertsReturnsCopy() {
-    am.checkAll();
+    checkAll();
     List<String> list1 = am.getActiveAlerts();
     List<String> list2 = am.getActiveAlerts();
     assertNotSame(list1, list2, "Must return defensive copy");
@@ -305,12 +278,12 @@ class AlertManagerTest {
     Object shooterTel = getTelemetryField("shooterTelemetry");
     setField(shooterTel, "stalled", true);
 
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("ShooterStall"),
         "ShooterStall alert must fire when telemetry reports stall");
-    Alert stallAlert = getField(am, "shooterStallAlert");
+    Alert stallAlert = am.getAlert("ShooterStall");
     assertTrue(stallAlert.get());
   }
 
@@ -319,16 +292,16 @@ class AlertManagerTest {
     // Activate
     Object shooterTel = getTelemetryField("shooterTelemetry");
     setField(shooterTel, "stalled", true);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlerts().contains("ShooterStall"));
 
     // Recover
     setField(shooterTel, "stalled", false);
-    am.checkAll();
+    checkAll();
     assertFalse(
         am.getActiveAlerts().contains("ShooterStall"),
         "ShooterStall must clear when stall condition resolves");
-    Alert stallAlert = getField(am, "shooterStallAlert");
+    Alert stallAlert = am.getAlert("ShooterStall");
     assertFalse(stallAlert.get());
   }
 
@@ -336,7 +309,7 @@ class AlertManagerTest {
   void testIndexerStallAlertActivates() throws Exception {
     Object indexerTel = getTelemetryField("indexerTelemetry");
     setField(indexerTel, "stalled", true);
-    am.checkAll();
+    checkAll();
 
     assertTrue(am.getActiveAlerts().contains("IndexerStall"));
   }
@@ -345,7 +318,7 @@ class AlertManagerTest {
   void testIntakeStallAlertActivates() throws Exception {
     Object intakeTel = getTelemetryField("intakeTelemetry");
     setField(intakeTel, "stalled", true);
-    am.checkAll();
+    checkAll();
 
     assertTrue(am.getActiveAlerts().contains("IntakeStall"));
   }
@@ -356,12 +329,12 @@ class AlertManagerTest {
   void testIndexerJamAlertActivates() throws Exception {
     Object indexerTel = getTelemetryField("indexerTelemetry");
     setField(indexerTel, "jamDetected", true);
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("IndexerJam"),
         "IndexerJam alert must fire when telemetry reports jam");
-    Alert jamAlert = getField(am, "indexerJamAlert");
+    Alert jamAlert = am.getAlert("IndexerJam");
     assertTrue(jamAlert.get());
   }
 
@@ -369,11 +342,11 @@ class AlertManagerTest {
   void testIndexerJamAlertClears() throws Exception {
     Object indexerTel = getTelemetryField("indexerTelemetry");
     setField(indexerTel, "jamDetected", true);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlerts().contains("IndexerJam"));
 
     setField(indexerTel, "jamDetected", false);
-    am.checkAll();
+    checkAll();
     assertFalse(
         am.getActiveAlerts().contains("IndexerJam"), "IndexerJam must clear when jam resolves");
   }
@@ -382,7 +355,7 @@ class AlertManagerTest {
   void testIntakeJamAlertActivates() throws Exception {
     Object intakeTel = getTelemetryField("intakeTelemetry");
     setField(intakeTel, "jamDetected", true);
-    am.checkAll();
+    checkAll();
 
     assertTrue(am.getActiveAlerts().contains("IntakeJam"));
   }
@@ -393,7 +366,7 @@ class AlertManagerTest {
   void testBrownoutRiskAlertActivates() throws Exception {
     Object sysTel = getTelemetryField("systemHealthTelemetry");
     setField(sysTel, "brownoutRisk", true);
-    am.checkAll();
+    checkAll();
 
     assertTrue(
         am.getActiveAlerts().contains("BrownoutRisk"),
@@ -404,11 +377,11 @@ class AlertManagerTest {
   void testBrownoutRiskAlertClears() throws Exception {
     Object sysTel = getTelemetryField("systemHealthTelemetry");
     setField(sysTel, "brownoutRisk", true);
-    am.checkAll();
+    checkAll();
     assertTrue(am.getActiveAlerts().contains("BrownoutRisk"));
 
     setField(sysTel, "brownoutRisk", false);
-    am.checkAll();
+    checkAll();
     assertFalse(am.getActiveAlerts().contains("BrownoutRisk"));
   }
 
@@ -419,13 +392,16 @@ class AlertManagerTest {
     // Trigger a notification to populate the map
     satisfyDisabledDebouncer();
     RoboRioSim.setVInVoltage(11.0);
-    am.checkAll();
+    checkAll();
 
-    Map<String, Double> times = getField(am, "lastElasticNotifyTimes");
-    assertFalse(times.isEmpty(), "Should have notification timestamps after alert");
+    assertTrue(
+        am.getRules().hasPendingNotifyDebounce(),
+        "Should have notification timestamps after alert");
 
     am.clearDebounce();
-    assertTrue(times.isEmpty(), "clearDebounce() must reset all notification timers");
+    assertFalse(
+        am.getRules().hasPendingNotifyDebounce(),
+        "clearDebounce() must reset all notification timers");
   }
 
   // No false alarms on healthy state
@@ -438,14 +414,78 @@ class AlertManagerTest {
     RoboRioSim.setVInVoltage(12.8);
     DriverStationSim.setEnabled(true);
     DriverStationSim.notifyNewData();
-    am.checkAll();
+    checkAll();
 
     List<String> alerts = am.getActiveAlerts();
     assertEquals(0, alerts.size(), "Healthy robot should have zero active alerts, got: " + alerts);
   }
 
+  // Transitions and timeline
+
+  @Test
+  void testStallWhilePersistingCountsOneActivation() throws Exception {
+    Object shooterTel = getTelemetryField("shooterTelemetry");
+    setField(shooterTel, "stalled", true);
+    checkAll();
+    checkAll();
+    checkAll();
+
+    assertEquals(
+        1,
+        am.getActivationCount("ShooterStall"),
+        "Edge-triggered: a stall held across cycles is one activation");
+
+    setField(shooterTel, "stalled", false);
+    checkAll();
+    setField(shooterTel, "stalled", true);
+    checkAll();
+    assertEquals(2, am.getActivationCount("ShooterStall"));
+  }
+
+  @Test
+  void testTimelineRecordsOnAndOff() throws Exception {
+    Object indexerTel = getTelemetryField("indexerTelemetry");
+    setField(indexerTel, "jamDetected", true);
+    checkAll();
+    setField(indexerTel, "jamDetected", false);
+    checkAll();
+
+    List<String> timeline = am.getAlertTimeline(0);
+    assertEquals(2, timeline.size(), "One ON and one OFF transition: " + timeline);
+    assertTrue(timeline.get(0).contains("IndexerJam ON"));
+    assertTrue(timeline.get(1).contains("IndexerJam OFF"));
+  }
+
+  @Test
+  void testWarningTakesOverWhenCriticalClears() {
+    satisfyDisabledDebouncer();
+    RoboRioSim.setVInVoltage(9.0);
+    checkAll();
+    assertTrue(am.getActiveAlerts().contains("BatteryCritical"));
+
+    // Recovered past critical but still under the hysteresis clear level
+    RoboRioSim.setVInVoltage(11.7);
+    checkAll();
+    assertFalse(am.getActiveAlerts().contains("BatteryCritical"));
+    assertTrue(
+        am.getActiveAlerts().contains("BatteryLow"),
+        "Critical latches the warning, so 11.7V should still warn");
+  }
+
   // Helpers
 
+  /** Refresh the telemetry snapshot the rules read, then run the checks. */
+  private void checkAll() {
+    try {
+      Method capture = TelemetryManager.class.getDeclaredMethod("captureSnapshot");
+      capture.setAccessible(true);
+      capture.invoke(tm);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    am.checkAll();
+  }
+
   private void satisfyDisabledDebouncer() {
     DriverStationSim.setEnabled(false);
     DriverStationSim.notifyNewData();
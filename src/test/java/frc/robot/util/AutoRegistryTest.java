@@ -0,0 +1,160 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.commands.PathPlannerAuto;
+import com.pathplanner.lib.config.PIDConstants;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.path.PathPlannerPath;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj2.command.Command;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AutoRegistryTest {
+
+  @TempDir File tempDir;
+
+  @Test
+  void testListsAutoNamesFromFilenamesSorted() throws Exception {
+    Files.writeString(new File(tempDir, "TrenchHumanScore.auto").toPath(), "not json");
+    Files.writeString(new File(tempDir, "CenterScore.auto").toPath(), "");
+    Files.writeString(new File(tempDir, "HPTS center auto.auto").toPath(), "");
+
+    List<String> names = AutoRegistry.listAutoNames(tempDir);
+    assertEquals(List.of("CenterScore", "HPTS center auto", "TrenchHumanScore"), names);
+  }
+
+  @Test
+  void testIgnoresNonAutoFilesAndDirectories() throws Exception {
+    Files.writeString(new File(tempDir, "Trench.path").toPath(), "");
+    Files.writeString(new File(tempDir, "settings.json").toPath(), "");
+    assertTrue(new File(tempDir, "old.auto").mkdir());
+    Files.writeString(new File(tempDir, "test.auto").toPath(), "");
+
+    assertEquals(List.of("test"), AutoRegistry.listAutoNames(tempDir));
+  }
+
+  @Test
+  void testMissingDirectoryGivesEmptyList() {
+    assertTrue(AutoRegistry.listAutoNames(new File(tempDir, "nope")).isEmpty());
+  }
+
+  @Test
+  void testDeployDirectoryListsEveryAuto() {
+    File deployAutos = new File("src/main/deploy/pathplanner/autos");
+    if (!deployAutos.isDirectory()) return;
+    List<String> names = AutoRegistry.listAutoNames(deployAutos);
+    assertEquals(deployAutos.list((dir, name) -> name.endsWith(".auto")).length, names.size());
+    assertTrue(names.contains("TrenchHumanScore"), "Default auto must exist in deploy");
+  }
+
+  @Test
+  void testPathNamesWalkNestedGroupsInOrder() throws Exception {
+    JsonNode command =
+        new ObjectMapper()
+            .readTree(
+                "{\"type\": \"sequential\", \"data\": {\"commands\": ["
+                    + "{\"type\": \"path\", \"data\": {\"pathName\": \"A\"}},"
+                    + "{\"type\": \"deadline\", \"data\": {\"commands\": ["
+                    + "{\"type\": \"path\", \"data\": {\"pathName\": \"B\"}},"
+                    + "{\"type\": \"named\", \"data\": {\"name\": \"Intake\"}}]}},"
+                    + "{\"type\": \"wait\", \"data\": {\"waitTime\": 1.0}},"
+                    + "{\"type\": \"path\", \"data\": {\"pathName\": \"A\"}}]}}");
+    assertEquals(List.of("A", "B", "A"), AutoRegistry.pathNames(command));
+  }
+
+  @Test
+  void testDeployAutosOnlyReferenceDeployedPaths() throws Exception {
+    File deployAutos = new File("src/main/deploy/pathplanner/autos");
+    File deployPaths = new File("src/main/deploy/pathplanner/paths");
+    if (!deployAutos.isDirectory()) return;
+    ObjectMapper mapper = new ObjectMapper();
+    for (String name : AutoRegistry.listAutoNames(deployAutos)) {
+      JsonNode root = mapper.readTree(new File(deployAutos, name + ".auto"));
+      if (root.path("choreoAuto").asBoolean(false)) continue;
+      for (String path : AutoRegistry.pathNames(root.path("command"))) {
+        assertTrue(new File(deployPaths, path + ".path").isFile(), name + " follows " + path);
+      }
+    }
+  }
+
+  @Test
+  void testSelectedBuildsTheSameCommandAsPathPlannerAuto() throws Exception {
+    File deployAutos = new File("src/main/deploy/pathplanner/autos");
+    if (!deployAutos.isDirectory()) return;
+    HAL.initialize(500, 0);
+    if (!AutoBuilder.isConfigured()) {
+      AutoBuilder.configure(
+          Pose2d::new,
+          pose -> {},
+          ChassisSpeeds::new,
+          (speeds, feedforwards) -> {},
+          new PPHolonomicDriveController(
+              new PIDConstants(5.0, 0.0, 0.0), new PIDConstants(5.0, 0.0, 0.0)),
+          RobotConfig.fromGUISettings(),
+          () -> false);
+    }
+
+    String name = "TrenchHumanScore";
+    Command ours = new AutoRegistry(deployAutos, name).getSelected();
+    PathPlannerAuto theirs = new PathPlannerAuto(name);
+
+    assertInstanceOf(PathPlannerAuto.class, ours);
+    assertEquals(theirs.getName(), ours.getName());
+    assertEquals(theirs.getStartingPose(), ((PathPlannerAuto) ours).getStartingPose());
+    assertEquals(theirs.getRequirements(), ours.getRequirements());
+    assertEquals(describe(theirs, 0), describe(ours, 0));
+  }
+
+  /**
+   * The command tree as text: each command's name, the poses of any path it follows, then its
+   * children. Unordered groups (parallel, race) are sorted so hash order doesn't matter.
+   */
+  private static String describe(Command command, int depth) throws Exception {
+    assertTrue(depth < 32, "Command tree too deep");
+    StringBuilder sb = new StringBuilder(command.getName());
+    List<String> children = new ArrayList<>();
+    boolean ordered = true;
+    for (Class<?> c = command.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field f : c.getDeclaredFields()) {
+        if (Modifier.isStatic(f.getModifiers())) continue;
+        f.setAccessible(true);
+        Object value = f.get(command);
+        if (value instanceof Command child) {
+          children.add(describe(child, depth + 1));
+        } else if (value instanceof PathPlannerPath path) {
+          sb.append(" path=").append(path.getPathPoses());
+        } else if (value instanceof Collection<?> items) {
+          ordered &= !(items instanceof Set);
+          for (Object item : items) {
+            if (item instanceof Command child) children.add(describe(child, depth + 1));
+          }
+        } else if (value instanceof Map<?, ?> map) {
+          ordered = false;
+          for (Object key : map.keySet()) {
+            if (key instanceof Command child) children.add(describe(child, depth + 1));
+          }
+        }
+      }
+    }
+    if (!ordered) children.sort(null);
+    for (String child : children) sb.append(" (").append(child).append(")");
+    return sb.toString();
+  }
+}
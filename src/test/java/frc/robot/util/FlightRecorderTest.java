@@ -0,0 +1,143 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecorderTest {
+
+  @TempDir Path tempDir;
+
+  private FlightRecorder recorder;
+
+  @BeforeEach
+  void setUp() {
+    recorder = new FlightRecorder(tempDir.toFile());
+  }
+
+  private void recordSamples(int count, int startIndex) {
+    for (int i = startIndex; i < startIndex + count; i++) {
+      recorder.record(i * 0.02, 20.0, 12.0, 3000 + i, 2, i, 1.0, 2.0, 0.5, 0, 0);
+    }
+  }
+
+  @Test
+  void testPartialRingCopiesInOrder() {
+    recordSamples(10, 0);
+    double[] dst = new double[FlightRecorder.CAPACITY * FlightRecorder.CHANNELS];
+    int count = recorder.copyChronological(dst);
+
+    assertEquals(10, count);
+    for (int s = 0; s < count; s++) {
+      assertEquals(
+          s * 0.02, dst[s * FlightRecorder.CHANNELS + FlightRecorder.CH_TIMESTAMP], 1e-9);
+    }
+  }
+
+  @Test
+  void testWrappedRingStartsFromOldest() {
+    int extra = 37;
+    recordSamples(FlightRecorder.CAPACITY + extra, 0);
+    double[] dst = new double[FlightRecorder.CAPACITY * FlightRecorder.CHANNELS];
+    int count = recorder.copyChronological(dst);
+
+    assertEquals(FlightRecorder.CAPACITY, count);
+    double first = dst[FlightRecorder.CH_COMMAND_STARTS];
+    double last = dst[(count - 1) * FlightRecorder.CHANNELS + FlightRecorder.CH_COMMAND_STARTS];
+    assertEquals(extra, first, 1e-9, "Oldest surviving sample should come first");
+    assertEquals(FlightRecorder.CAPACITY + extra - 1, last, 1e-9);
+  }
+
+  @Test
+  void testNoDumpWhenEmpty() {
+    assertFalse(recorder.trigger("Test", 1.0));
+    assertEquals(0, recorder.getDumpCount());
+  }
+
+  @Test
+  void testLoopOverrunOnlyTriggersAboveThreshold() {
+    recordSamples(5, 0);
+    recorder.checkLoopOverrun(FlightRecorder.LOOP_OVERRUN_TRIGGER_MS - 1, 1.0);
+    assertEquals(0, recorder.getDumpCount());
+    recorder.checkLoopOverrun(FlightRecorder.LOOP_OVERRUN_TRIGGER_MS + 1, 1.0);
+    recorder.awaitPendingWrite(2000);
+    assertEquals(1, recorder.getDumpCount());
+  }
+
+  @Test
+  void testCooldownDropsRepeatTriggers() {
+    recordSamples(5, 0);
+    assertTrue(recorder.trigger("First", 1.0));
+    recorder.awaitPendingWrite(2000);
+    assertFalse(recorder.trigger("Second", 2.0), "Inside cooldown, should drop");
+    assertEquals(1, recorder.getDroppedTriggers());
+  }
+
+  @Test
+  void testCrashDumpGetsPastAnOverrunJustBeforeIt() {
+    recordSamples(5, 0);
+    assertTrue(recorder.trigger("LoopOverrun", 1.0));
+    // Same instant, overrun write possibly still running: queued, not dropped
+    assertTrue(recorder.trigger(FlightRecorder.UNCAUGHT, 1.0));
+    recorder.awaitPendingWrite(2000);
+    assertEquals(2, recorder.getDumpCount());
+    assertEquals(2, tempDir.toFile().listFiles().length);
+  }
+
+  @Test
+  void testOverrunCapDoesNotDisableCrashDumps() {
+    recordSamples(5, 0);
+    for (int i = 0; i < FlightRecorder.MAX_ROUTINE_DUMPS_PER_BOOT; i++) {
+      assertTrue(recorder.trigger("LoopOverrun", 100.0 * i));
+      recorder.awaitPendingWrite(2000);
+    }
+    assertFalse(recorder.trigger("LoopOverrun", 1e6), "Routine cap reached");
+    assertTrue(recorder.trigger("CrashBarrier_Shooter", 1e6));
+    assertTrue(recorder.trigger(FlightRecorder.UNCAUGHT, 1e6));
+  }
+
+  @Test
+  void testRepeatedCrashBarrierIsRateLimitedPerBarrier() {
+    recordSamples(5, 0);
+    assertTrue(recorder.trigger("CrashBarrier_Shooter", 1.0));
+    assertFalse(recorder.trigger("CrashBarrier_Shooter", 1.02), "Same barrier, next loop");
+    assertTrue(recorder.trigger("CrashBarrier_Vision", 1.04), "A different barrier still dumps");
+    assertTrue(recorder.trigger(FlightRecorder.UNCAUGHT, 1.06));
+    assertTrue(recorder.trigger(FlightRecorder.UNCAUGHT, 1.06), "Uncaught is never dropped");
+    recorder.awaitPendingWrite(2000);
+    assertEquals(4, recorder.getDumpCount());
+  }
+
+  @Test
+  void testDumpFileRoundTrip() throws Exception {
+    recordSamples(20, 0);
+    assertTrue(recorder.trigger("CrashBarrier_Test", 5.0));
+    recorder.awaitPendingWrite(2000);
+
+    File[] files = tempDir.toFile().listFiles();
+    assertNotNull(files);
+    assertEquals(1, files.length);
+
+    try (DataInputStream in = new DataInputStream(new FileInputStream(files[0]))) {
+      byte[] magic = new byte[FlightRecorder.MAGIC.length];
+      in.readFully(magic);
+      assertArrayEquals(FlightRecorder.MAGIC, magic);
+      assertEquals(FlightRecorder.VERSION, in.readShort());
+      assertEquals(FlightRecorder.CHANNELS, in.readShort());
+      assertEquals(20, in.readInt());
+      assertEquals("CrashBarrier_Test", in.readUTF());
+      assertEquals(5.0, in.readDouble(), 1e-9);
+      for (int c = 0; c < FlightRecorder.CHANNELS; c++) {
+        in.readUTF();
+      }
+      assertEquals(0.0, in.readDouble(), 1e-9, "First timestamp");
+      assertEquals(20.0f, in.readFloat(), 1e-6f, "First loop time");
+    }
+  }
+}
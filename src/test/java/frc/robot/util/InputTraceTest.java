@@ -0,0 +1,112 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class InputTraceTest {
+
+  private static byte[] traceBytes(int frames, boolean tornTail) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    InputTrace.writeHeader(out);
+    byte[] frame = new byte[InputTrace.FRAME_BYTES];
+    short[] axes = new short[InputTrace.AXES];
+    for (int i = 0; i < frames; i++) {
+      axes[1] = InputTrace.quantizeAxis(i * 0.1 - 0.5);
+      axes[3] = InputTrace.quantizeAxis(1.0);
+      int flags = InputTrace.FLAG_ENABLED | (i < 2 ? InputTrace.FLAG_AUTONOMOUS : 0);
+      InputTrace.encodeFrame(frame, 0, i * 20_000, i % 2, flags, 1 << i, i == 3 ? 90 : -1, axes);
+      out.write(frame);
+    }
+    if (tornTail) out.write(frame, 0, 7);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    InputTrace trace = InputTrace.read(new ByteArrayInputStream(traceBytes(5, false)));
+    assertEquals(5, trace.getFrameCount());
+    assertEquals(0.08, trace.getDurationSec(), 1e-9);
+
+    assertEquals(0.06, trace.getTime(3), 1e-9);
+    assertEquals(1, trace.getPort(3));
+    assertEquals(1 << 3, trace.getButtons(3));
+    assertEquals(90, trace.getPov(3));
+    assertEquals(-1, trace.getPov(2));
+    assertEquals(-0.2, trace.getAxis(3, 1), 1e-4);
+    assertEquals(1.0, trace.getAxis(3, 3), 1e-9);
+    assertEquals(0.0, trace.getAxis(3, 0));
+
+    assertEquals(InputTrace.FLAG_ENABLED | InputTrace.FLAG_AUTONOMOUS, trace.getFlags(0));
+    assertEquals(InputTrace.FLAG_ENABLED, trace.getFlags(4));
+  }
+
+  @Test
+  void testTornLastFrameIsDropped() throws IOException {
+    InputTrace trace = InputTrace.read(new ByteArrayInputStream(traceBytes(3, true)));
+    assertEquals(3, trace.getFrameCount(), "Power cut mid-write must not lose the whole trace");
+  }
+
+  @Test
+  void testRejectsOtherFiles() {
+    byte[] junk = "FR5962 not an input trace".getBytes();
+    assertThrows(IOException.class, () -> InputTrace.read(new ByteArrayInputStream(junk)));
+  }
+
+  @Test
+  void testAdvanceReturnsFramesDueSinceLastCall() throws IOException {
+    InputTrace trace = InputTrace.read(new ByteArrayInputStream(traceBytes(5, false)));
+    int cursor = trace.advance(0, 0.0);
+    assertEquals(1, cursor, "Frame at t=0 is due immediately");
+    cursor = trace.advance(cursor, 0.05);
+    assertEquals(3, cursor);
+    assertEquals(3, trace.advance(cursor, 0.05), "Nothing new at the same time");
+    assertEquals(5, trace.advance(cursor, 100.0));
+  }
+
+  @Test
+  void testTimePastInt32MicrosDoesNotWrap() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    InputTrace.writeHeader(out);
+    byte[] frame = new byte[InputTrace.FRAME_BYTES];
+    short[] axes = new short[InputTrace.AXES];
+    long[] times = {Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, 3L * 3600 * 1_000_000};
+    for (long t : times) {
+      InputTrace.encodeFrame(frame, 0, t, 0, InputTrace.FLAG_ENABLED, 0, -1, axes);
+      out.write(frame);
+    }
+    out.flush();
+
+    InputTrace trace = InputTrace.read(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(Integer.MAX_VALUE / 1e6, trace.getTime(0), 1e-9);
+    assertEquals((Integer.MAX_VALUE + 1L) / 1e6, trace.getTime(1), 1e-9, "35.8 min boundary");
+    assertEquals(3 * 3600.0, trace.getDurationSec(), 1e-9, "A three hour practice stays ordered");
+    assertEquals(2, trace.advance(0, 3600.0));
+  }
+
+  @Test
+  void testRejectsOldVersion() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write(InputTrace.MAGIC);
+    out.writeShort(1);
+    out.writeByte(InputTrace.PORTS);
+    out.flush();
+    assertThrows(
+        IOException.class, () -> InputTrace.read(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  @Test
+  void testAxisQuantizationClamps() {
+    assertEquals(32767, InputTrace.quantizeAxis(3.0));
+    assertEquals(-32767, InputTrace.quantizeAxis(-1.5));
+    assertEquals(0, InputTrace.quantizeAxis(0.0));
+  }
+}
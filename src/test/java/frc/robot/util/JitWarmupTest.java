@@ -0,0 +1,116 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class JitWarmupTest {
+
+  @BeforeAll
+  static void setup() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  void testBatchesCountCalls() {
+    int[] calls = {0};
+    JitWarmup.Target target =
+        new JitWarmup.Target(
+            "Counting",
+            () -> {
+              calls[0]++;
+              return 1.0;
+            });
+    target.runBatch(JitWarmup.BATCH);
+    target.runBatch(JitWarmup.BATCH);
+    assertEquals(2 * JitWarmup.BATCH, calls[0]);
+    assertEquals(2 * JitWarmup.BATCH, target.calls);
+    assertEquals(2 * JitWarmup.BATCH, target.sink, 1e-9);
+    // Not a full window yet
+    assertTrue(Double.isNaN(target.lastWindowUs));
+  }
+
+  @Test
+  void testSteadyNeedsCallsAndStableWindows() {
+    JitWarmup.Target target = new JitWarmup.Target("Flat", () -> 0);
+    for (int i = 0; i < JitWarmup.STABLE_WINDOWS + 1; i++) target.recordWindow(5.0);
+    assertFalse(target.steady, "Stable, but too few calls for C2 to have compiled it");
+
+    target.calls = JitWarmup.MIN_CALLS;
+    target.recordWindow(5.2);
+    assertTrue(target.steady);
+    assertTrue(target.isDone());
+  }
+
+  @Test
+  void testJumpRestartsTheStableCount() {
+    JitWarmup.Target target = new JitWarmup.Target("Compiling", () -> 0);
+    target.calls = JitWarmup.MIN_CALLS;
+    target.recordWindow(40.0); // interpreted
+    for (int i = 0; i < JitWarmup.STABLE_WINDOWS - 1; i++) target.recordWindow(40.0);
+    target.recordWindow(8.0); // C1 kicks in
+    assertEquals(0, target.stableWindows);
+    assertFalse(target.steady);
+
+    for (int i = 0; i < JitWarmup.STABLE_WINDOWS; i++) target.recordWindow(8.0);
+    assertTrue(target.steady);
+  }
+
+  @Test
+  void testNoisyPathGivesUpAtMaxCalls() {
+    JitWarmup.Target target = new JitWarmup.Target("Noisy", () -> 0);
+    target.calls = JitWarmup.MIN_CALLS;
+    for (int i = 0; i < 50; i++) target.recordWindow(i % 2 == 0 ? 5.0 : 10.0);
+    assertFalse(target.steady);
+    assertFalse(target.isDone());
+    assertFalse(target.gaveUp());
+
+    target.calls = JitWarmup.MAX_CALLS;
+    assertFalse(target.steady);
+    assertTrue(target.isDone(), "Stops burning disabled time on a path that won't settle");
+    assertTrue(target.gaveUp(), "Done, but not warm");
+  }
+
+  @Test
+  void testFailedPathIsDoneButNotGivenUp() {
+    JitWarmup.Target target = new JitWarmup.Target("Throws", () -> 0);
+    target.failed = true;
+    assertTrue(target.isDone());
+    assertFalse(target.steady);
+    assertFalse(target.gaveUp());
+  }
+
+  @Test
+  void testRealCallSettles() {
+    double[] x = {0};
+    JitWarmup.Target target =
+        new JitWarmup.Target(
+            "Math",
+            () -> {
+              x[0] += 0.001;
+              return Math.sin(x[0]) * Math.cos(x[0]);
+            });
+    while (!target.isDone()) target.runBatch(JitWarmup.BATCH);
+    assertTrue(target.calls >= JitWarmup.MIN_CALLS);
+    assertTrue(target.lastWindowUs >= 0);
+  }
+
+  @Test
+  void testPeriodicStaysWithinBudget() {
+    JitWarmup warmup = JitWarmup.getInstance();
+    // The first call loads classes and builds the singletons the targets use
+    warmup.periodic();
+
+    double budgetMs = warmup.getBudgetMs();
+    // The deadline is checked between batches; one batch of overrun is well under a budget
+    double allowedMs = 2 * budgetMs;
+    for (int i = 0; i < 50; i++) {
+      long start = System.nanoTime();
+      warmup.periodic();
+      double ms = (System.nanoTime() - start) / 1e6;
+      assertTrue(ms <= allowedMs, String.format("call %d took %.2f ms", i, ms));
+    }
+  }
+}
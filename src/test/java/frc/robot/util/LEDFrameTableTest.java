@@ -0,0 +1,94 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LEDFrameTableTest {
+
+  private static final int LENGTH = 19;
+  private static final int SEGMENT = 5;
+
+  private static int red(byte[] frame, int pixel) {
+    return frame[pixel * 3] & 0xFF;
+  }
+
+  private static int blue(byte[] frame, int pixel) {
+    return frame[pixel * 3 + 2] & 0xFF;
+  }
+
+  @Test
+  void testChaseMatchesPerCycleMath() {
+    double bright = 0.8;
+    LEDFrameTable table = LEDFrameTable.chase(LENGTH, SEGMENT, 255, 100, 0, bright, 0.15);
+    int totalSegments = (LENGTH + SEGMENT - 1) / SEGMENT;
+    assertEquals(totalSegments, table.frameCount());
+
+    for (double now = 0; now < 5.0; now += 0.02) {
+      // Old renderChase() math
+      int active = (int) ((now / 1.0) * totalSegments) % totalSegments;
+      byte[] frame = table.frameAt(now, 1.0);
+      for (int i = 0; i < LENGTH; i++) {
+        int seg = i / SEGMENT;
+        boolean lit = seg == active || seg == (active + 1) % totalSegments;
+        int expected = LEDFrameTable.scale(255, lit ? bright : 0.15 * bright);
+        assertEquals(expected, red(frame, i), "pixel " + i + " at t=" + now);
+      }
+    }
+  }
+
+  @Test
+  void testDualChaseMatchesPerCycleMath() {
+    LEDFrameTable table = LEDFrameTable.dualChase(LENGTH, SEGMENT, 255, 0, 0, 255, 100, 0, 1.0);
+    assertEquals(SEGMENT * 2, table.frameCount());
+
+    for (double now = 0; now < 3.0; now += 0.02) {
+      int offset = (int) (now / 0.5 * SEGMENT) % (SEGMENT * 2);
+      byte[] frame = table.frameAt(now, 0.5 * 2);
+      for (int i = 0; i < LENGTH; i++) {
+        boolean first = (i + offset) % (SEGMENT * 2) < SEGMENT;
+        // Both colors are full red, green tells them apart
+        assertEquals(first ? 0 : 100, frame[i * 3 + 1] & 0xFF, "pixel " + i + " at t=" + now);
+      }
+    }
+  }
+
+  @Test
+  void testBreatheNeverGoesDark() {
+    LEDFrameTable table = LEDFrameTable.breathe(LENGTH, 150, 0, 100, 255, 1.0, 0.15);
+    int min = 255;
+    int max = 0;
+    for (int f = 0; f < table.frameCount(); f++) {
+      int b = blue(table.frame(f), 0);
+      min = Math.min(min, b);
+      max = Math.max(max, b);
+    }
+    assertTrue(min >= LEDFrameTable.scale(255, 0.15) - 1, "Breathe floor violated: " + min);
+    assertEquals(255, max, 1);
+  }
+
+  @Test
+  void testProgressBarLitCount() {
+    LEDFrameTable table = LEDFrameTable.progressBar(LENGTH, 0, 100, 255, 1.0, 0.15);
+    assertEquals(LENGTH + 1, table.frameCount());
+    byte[] frame = table.frame(7);
+    for (int i = 0; i < LENGTH; i++) {
+      assertEquals(i < 7 ? 255 : LEDFrameTable.scale(255, 0.15), blue(frame, i));
+    }
+  }
+
+  @Test
+  void testSameTimeSliceReturnsSameFrameObject() {
+    LEDFrameTable table = LEDFrameTable.chase(LENGTH, SEGMENT, 255, 100, 0, 1.0, 0.15);
+    // Both inside the first quarter second, so no redraw is needed
+    assertSame(table.frameAt(0.01, 1.0), table.frameAt(0.2, 1.0));
+    assertNotSame(table.frameAt(0.01, 1.0), table.frameAt(0.3, 1.0));
+  }
+
+  @Test
+  void testPhaseWrapsAround() {
+    LEDFrameTable table = LEDFrameTable.breathe(LENGTH, 64, 0, 100, 255, 1.0, 0.15);
+    assertSame(table.frameAtPhase(0.25), table.frameAtPhase(3.25));
+    assertSame(table.frameAtPhase(0.0), table.frame(0));
+  }
+}
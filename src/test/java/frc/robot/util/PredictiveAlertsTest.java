@@ -56,33 +56,6 @@ class PredictiveAlertsTest {
     assertFalse(alerts.isTempAtRisk());
   }
 
-  @Test
-  void testFlatVoltageSlopeIsZero() throws Exception {
-    double[] samples = getField(alerts, "voltageSamples");
-    for (int i = 0; i < samples.length; i++) {
-      samples[i] = 12.0;
-    }
-    setField(alerts, "samplesInitialized", true);
-    setField(alerts, "sampleIndex", 0);
-
-    double slope = invokeCalculateSlope(samples);
-    assertEquals(0.0, slope, 0.001, "Constant voltage should have zero slope");
-  }
-
-  @Test
-  void testDroppingVoltageSlopeIsNegative() throws Exception {
-    double[] samples = getField(alerts, "voltageSamples");
-    int n = samples.length;
-    for (int i = 0; i < n; i++) {
-      samples[i] = 13.0 - (1.5 * i / (n - 1));
-    }
-    setField(alerts, "samplesInitialized", true);
-    setField(alerts, "sampleIndex", 0);
-
-    double slope = invokeCalculateSlope(samples);
-    assertTrue(slope < 0, "Dropping voltage should produce negative raw slope");
-  }
-
   @Test
   void testBatteryAtRiskWhenPredictionBelowThreshold() throws Exception {
     setField(alerts, "predictedTimeToWarning", 15.0);
@@ -113,56 +86,6 @@ class PredictiveAlertsTest {
     assertTrue(dropRate > 0, "voltageDropRate should be positive when voltage is falling");
   }
 
-  @Test
-  void testVShapedRecoveryNoFalseAlarm() throws Exception {
-    double[] samples = getField(alerts, "voltageSamples");
-    int n = samples.length;
-    for (int i = 0; i < n; i++) {
-      double t = (double) i / (n - 1);
-      samples[i] = 12.5 - 1.5 * (1.0 - Math.abs(2.0 * t - 1.0));
-    }
-    setField(alerts, "samplesInitialized", true);
-    setField(alerts, "sampleIndex", 0);
-
-    double slope = invokeCalculateSlope(samples);
-    double voltageDropRate = -slope;
-    assertEquals(
-        0.0,
-        voltageDropRate,
-        0.01,
-        "Symmetric V-shaped recovery should have zero drop rate, got " + voltageDropRate);
-  }
-
-  @Test
-  void testCircularBufferWrapAroundCorrectSlope() throws Exception {
-    double[] samples = getField(alerts, "voltageSamples");
-    int n = samples.length;
-    int offset = n / 2;
-
-    for (int i = 0; i < n; i++) {
-      int physicalIdx = (offset + i) % n;
-      samples[physicalIdx] = 13.0 - (1.5 * i / (n - 1));
-    }
-    setField(alerts, "sampleIndex", offset);
-    setField(alerts, "samplesInitialized", true);
-
-    double wrappedSlope = invokeCalculateSlope(samples);
-    assertTrue(wrappedSlope < 0, "Wrapped buffer should detect dropping voltage");
-
-    double[] nonWrapped = getField(alerts, "voltageSamples");
-    for (int i = 0; i < n; i++) {
-      nonWrapped[i] = 13.0 - (1.5 * i / (n - 1));
-    }
-    setField(alerts, "sampleIndex", 0);
-    double straightSlope = invokeCalculateSlope(nonWrapped);
-
-    assertEquals(
-        straightSlope,
-        wrappedSlope,
-        0.1,
-        "Wrapped and non-wrapped slopes should match for same linear trend");
-  }
-
   @Test
   void testAlertFlagRefiresAfterRecovery() throws Exception {
     setField(alerts, "batteryAlertSent", true);
@@ -179,14 +102,8 @@ class PredictiveAlertsTest {
   }
 
   private int getSampleSize() throws Exception {
-    double[] samples = getField(alerts, "voltageSamples");
-    return samples.length;
-  }
-
-  private double invokeCalculateSlope(double[] samples) throws Exception {
-    Method m = PredictiveAlerts.class.getDeclaredMethod("calculateSlope", double[].class);
-    m.setAccessible(true);
-    return (double) m.invoke(alerts, samples);
+    TrendEstimator trend = getField(alerts, "voltageTrend");
+    return trend.getCapacity();
   }
 
   private void invokeCheckPredictiveAlerts() throws Exception {
@@ -0,0 +1,105 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.Constants.ShotCalculatorConstants;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ShotCalculatorTest {
+  // What warmUp() is allowed to touch: Newton's per-solve results and its own output buffer
+  private static final Set<String> SCRATCH =
+      Set.of("newton", "newtonProjDist", "newtonIterations", "warmUpOut");
+
+  @BeforeAll
+  static void setup() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  void testSolutionTableAgreesWithNewtonOnTheRealLut() throws Exception {
+    ShotCalculator calc = ShotCalculator.getInstance();
+    ShotSolutionTable table = calc.awaitSolutionTable(60_000);
+    assertNotNull(table, "Startup table build never landed");
+
+    double maxSpeed = ShotCalculatorConstants.MAX_SOTM_SPEED;
+    double[] out = new double[2];
+    int queries = 0;
+    int hits = 0;
+    // Off-grid steps so most queries interpolate between cells
+    for (double d = ShotCalculatorConstants.MIN_SCORING_DISTANCE;
+        d <= ShotCalculatorConstants.MAX_SCORING_DISTANCE;
+        d += 0.137) {
+      for (double vr = -maxSpeed; vr <= maxSpeed; vr += 0.43) {
+        for (double vt = -maxSpeed; vt <= maxSpeed; vt += 0.37) {
+          queries++;
+          // Same accept test calculate() applies before using a table answer
+          if (!calc.lookupTable(table, d, vr, vt, out)) continue;
+          hits++;
+          double newtonTof = calc.solveHubFrame(d, vr, vt);
+          // A cold start can stall on a kink; then the table is the only answer there is
+          if (!calc.lastSolveConverged()) continue;
+          assertEquals(
+              newtonTof,
+              out[0],
+              ShotCalculatorConstants.SOLUTION_TABLE_MAX_TOF_RESIDUAL,
+              String.format("d=%.3f vr=%.2f vt=%.2f", d, vr, vt));
+        }
+      }
+    }
+    assertTrue(hits > queries / 2, "Table should cover most of the envelope: " + hits);
+  }
+
+  @Test
+  void testWarmUpLeavesCarriedStateAlone() throws Exception {
+    ShotCalculator calc = ShotCalculator.getInstance();
+    // Let the builder thread finish so only warmUp() can change anything
+    calc.awaitSolutionTable(60_000);
+
+    Map<String, Object> before = snapshot(calc);
+    double maxSpeed = ShotCalculatorConstants.MAX_SOTM_SPEED;
+    double sink = 0;
+    for (double d = ShotCalculatorConstants.MIN_SCORING_DISTANCE;
+        d <= ShotCalculatorConstants.MAX_SCORING_DISTANCE;
+        d += 0.25) {
+      for (double vr = -maxSpeed; vr <= maxSpeed; vr += 0.5) {
+        for (double vt = -maxSpeed; vt <= maxSpeed; vt += 0.5) {
+          sink += calc.warmUp(d, vr, vt);
+        }
+      }
+    }
+    assertFalse(Double.isNaN(sink));
+
+    Map<String, Object> after = snapshot(calc);
+    for (Map.Entry<String, Object> entry : before.entrySet()) {
+      assertTrue(
+          Objects.equals(entry.getValue(), after.get(entry.getKey())),
+          "warmUp() changed " + entry.getKey());
+    }
+  }
+
+  /** Every instance field but the scratch ones; arrays by content, everything else by equals. */
+  private static Map<String, Object> snapshot(ShotCalculator calc) throws Exception {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (Field field : ShotCalculator.class.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || SCRATCH.contains(field.getName())) continue;
+      field.setAccessible(true);
+      Object value = field.get(calc);
+      if (value != null && value.getClass().isArray()) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Array.getLength(value); i++) sb.append(Array.get(value, i)).append(',');
+        value = sb.toString();
+      }
+      values.put(field.getName(), value);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,86 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.Constants.HubScoringConstants;
+import frc.robot.Constants.ShotCalculatorConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ShotMapTest {
+
+  private static ShotMap.Grid grid;
+
+  @BeforeAll
+  static void build() {
+    float[] rpm = new float[ShotMap.CURVE_SAMPLES];
+    float[] tof = new float[ShotMap.CURVE_SAMPLES];
+    for (int i = 0; i < rpm.length; i++) {
+      double d = ShotCalculatorConstants.MIN_SCORING_DISTANCE + i * ShotMap.CURVE_STEP_M;
+      rpm[i] = (float) (2000 + 300 * d);
+      tof[i] = (float) (0.5 + 0.2 * d);
+    }
+    grid = ShotMap.Grid.build(rpm, tof);
+  }
+
+  private static Pose2d aimedAt(Translation2d hub, double x, double y) {
+    double heading =
+        Math.atan2(hub.getY() - y, hub.getX() - x)
+            + ShotCalculatorConstants.SHOOTER_ANGLE_OFFSET_RAD;
+    return new Pose2d(x, y, new Rotation2d(heading));
+  }
+
+  @Test
+  void testAimedPoseInRangeMatchesStaticConfidence() {
+    Translation2d hub = HubScoringConstants.BLUE_HUB_CENTER;
+    Pose2d pose = aimedAt(hub, hub.getX() - 2.5, hub.getY());
+    double conf = grid.confidence(ShotMap.BLUE, pose);
+    assertTrue(conf > 50, "Straight-on shot from mid range: " + conf);
+    double launcherDist = 2.5 + ShotCalculatorConstants.LAUNCHER_OFFSET_X;
+    assertEquals(ShotCalculator.staticConfidence(launcherDist, 0), conf, 1e-6);
+  }
+
+  @Test
+  void testBehindTheHubAndTurnedAwayScoreZero() {
+    Translation2d blue = HubScoringConstants.BLUE_HUB_CENTER;
+    assertEquals(0, grid.confidence(ShotMap.BLUE, aimedAt(blue, blue.getX() + 2.0, 1.0)));
+    Pose2d facingHub = new Pose2d(blue.getX() - 2.5, blue.getY(), new Rotation2d());
+    assertEquals(0, grid.confidence(ShotMap.BLUE, facingHub), "Shooter is on the back");
+
+    Translation2d red = HubScoringConstants.RED_HUB_CENTER;
+    assertEquals(0, grid.confidence(ShotMap.RED, aimedAt(red, red.getX() - 2.0, 1.0)));
+    assertTrue(grid.confidence(ShotMap.RED, aimedAt(red, red.getX() + 2.5, red.getY())) > 50);
+  }
+
+  @Test
+  void testObstaclesAndWallsAreNotShootingSpots() {
+    assertEquals(0, grid.aimedConfidence(ShotMap.BLUE, 4.5, 2.5), "On the bump");
+    assertEquals(0, grid.aimedConfidence(ShotMap.BLUE, 0.1, 4.0), "Inside the wall margin");
+    assertTrue(grid.aimedConfidence(ShotMap.BLUE, 2.0, 4.0) > 0);
+  }
+
+  @Test
+  void testBestNearbyIsReachableAndAtLeastAsGood() {
+    Translation2d hub = HubScoringConstants.BLUE_HUB_CENTER;
+    Translation2d start = new Translation2d(0.6, 1.0); // corner, far off the sweet spot
+    var spot = grid.bestNearby(ShotMap.BLUE, start);
+    assertTrue(spot.isPresent());
+    Pose2d pose = spot.get().pose();
+    assertTrue(pose.getTranslation().getDistance(start) <= 1.5 + 0.25);
+    assertTrue(spot.get().confidence() > grid.aimedConfidence(ShotMap.BLUE, 0.6, 1.0));
+    assertEquals(spot.get().confidence(), grid.confidence(ShotMap.BLUE, pose), 5.0);
+    assertEquals(2000 + 300 * spot.get().distanceM(), spot.get().rpm(), 1.0);
+    assertEquals(0.5 + 0.2 * spot.get().distanceM(), spot.get().tofSec(), 1e-3);
+    assertTrue(pose.getX() < hub.getX());
+  }
+
+  @Test
+  void testNoSpotWhenNothingInReach() {
+    Translation2d midfield = new Translation2d(8.27, 4.0);
+    assertTrue(grid.bestNearby(ShotMap.BLUE, midfield).isEmpty());
+    assertTrue(grid.bestNearby(ShotMap.BLUE, new Translation2d(-1, 4)).isEmpty(), "Off field");
+  }
+}
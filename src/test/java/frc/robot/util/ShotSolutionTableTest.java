@@ -0,0 +1,87 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ShotSolutionTableTest {
+
+  private static ShotSolutionTable table() {
+    return new ShotSolutionTable(0.5, 5.0, 0.05, 3.0, 0.25, 0.06);
+  }
+
+  /** Linear in all three axes, so trilinear interpolation should reproduce it exactly. */
+  private static boolean linear(double d, double vr, double vt, double[] out) {
+    out[0] = 0.3 + 0.15 * d - 0.02 * vr + 0.01 * vt;
+    out[1] = d - 0.5 * vr + 0.1 * vt;
+    return true;
+  }
+
+  @Test
+  void testLookupBetweenCellsIsExactForLinearSolutions() {
+    ShotSolutionTable table = table();
+    assertEquals(0, table.build(ShotSolutionTableTest::linear));
+    double[] out = new double[2];
+    double[] expected = new double[2];
+    double[][] queries = {
+      {0.5, -3.0, 0.0}, {2.337, 1.21, 0.63}, {5.0, 3.0, 3.0}, {3.01, -0.4, 2.9},
+    };
+    for (double[] q : queries) {
+      assertTrue(table.lookup(q[0], q[1], q[2], out));
+      linear(q[0], q[1], q[2], expected);
+      assertEquals(expected[0], out[0], 1e-5);
+      assertEquals(expected[1], out[1], 1e-5);
+    }
+  }
+
+  @Test
+  void testStrafingEitherWayGivesTheSameSolution() {
+    ShotSolutionTable table = table();
+    table.build(ShotSolutionTableTest::linear);
+    double[] left = new double[2];
+    double[] right = new double[2];
+    assertTrue(table.lookup(2.5, 0.7, 1.3, left));
+    assertTrue(table.lookup(2.5, 0.7, -1.3, right));
+    assertArrayEquals(left, right);
+  }
+
+  @Test
+  void testMissesOutsideTheTableOrBeforeBuild() {
+    ShotSolutionTable table = table();
+    double[] out = new double[2];
+    assertFalse(table.lookup(2.0, 0, 0, out), "Not built yet");
+    table.build(ShotSolutionTableTest::linear);
+    assertFalse(table.lookup(0.4, 0, 0, out));
+    assertFalse(table.lookup(5.1, 0, 0, out));
+    assertFalse(table.lookup(2.0, -3.2, 0, out));
+    assertFalse(table.lookup(2.0, 0, 3.2, out));
+    assertFalse(table.lookup(Double.NaN, 0, 0, out));
+  }
+
+  @Test
+  void testUnsolvedCellsOnlyMissTheirNeighbors() {
+    ShotSolutionTable table = table();
+    int failed =
+        table.build((d, vr, vt, out) -> Math.abs(d - 2.0) > 1e-9 && linear(d, vr, vt, out));
+    assertEquals(25 * 13, failed, "One distance slice of 25 radial x 13 tangential");
+    double[] out = new double[2];
+    assertFalse(table.lookup(2.02, 0.3, 0.3, out));
+    assertFalse(table.lookup(1.97, 0.3, 0.3, out));
+    assertTrue(table.lookup(2.07, 0.3, 0.3, out));
+  }
+
+  @Test
+  void testDoesNotInterpolateAcrossAJumpInTheSolution() {
+    ShotSolutionTable table = table();
+    table.build(
+        (d, vr, vt, out) -> {
+          out[0] = d < 3.025 ? 0.7 : 1.0; // e.g. a kink in the TOF curve
+          out[1] = d;
+          return true;
+        });
+    double[] out = new double[2];
+    assertFalse(table.lookup(3.03, 0, 0, out));
+    assertTrue(table.lookup(2.9, 0, 0, out));
+    assertEquals(0.7, out[0], 1e-6);
+  }
+}
@@ -0,0 +1,140 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TrendEstimatorTest {
+
+  private static final int N = 150;
+
+  /** Reference O(n) regression, same math PredictiveAlerts used before the streaming version. */
+  private static double bruteForceSlope(double[] window) {
+    double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+    int n = window.length;
+    for (int i = 0; i < n; i++) {
+      sumX += i;
+      sumY += window[i];
+      sumXY += i * window[i];
+      sumX2 += i * i;
+    }
+    return (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+  }
+
+  @Test
+  void testFlatSignalSlopeIsZero() {
+    TrendEstimator trend = new TrendEstimator(N);
+    for (int i = 0; i < N; i++) {
+      trend.add(12.0);
+    }
+    assertEquals(0.0, trend.slopePerSample(), 1e-9, "Constant voltage should have zero slope");
+  }
+
+  @Test
+  void testDroppingSignalSlopeIsNegative() {
+    TrendEstimator trend = new TrendEstimator(N);
+    for (int i = 0; i < N; i++) {
+      trend.add(13.0 - (1.5 * i / (N - 1)));
+    }
+    assertTrue(trend.slopePerSample() < 0, "Dropping voltage should produce negative slope");
+    assertEquals(-1.5 / (N - 1), trend.slopePerSample(), 1e-9);
+  }
+
+  @Test
+  void testVShapedRecoveryHasZeroSlope() {
+    TrendEstimator trend = new TrendEstimator(N);
+    for (int i = 0; i < N; i++) {
+      double t = (double) i / (N - 1);
+      trend.add(12.5 - 1.5 * (1.0 - Math.abs(2.0 * t - 1.0)));
+    }
+    assertEquals(
+        0.0,
+        trend.slopePerSample(),
+        0.01,
+        "Symmetric V-shaped recovery should have zero slope, got " + trend.slopePerSample());
+  }
+
+  @Test
+  void testWrappedWindowMatchesFreshWindow() {
+    TrendEstimator wrapped = new TrendEstimator(N);
+    // Push junk first so the ring wraps, then the same linear trend
+    for (int i = 0; i < N / 2; i++) {
+      wrapped.add(5.0 + i);
+    }
+    TrendEstimator fresh = new TrendEstimator(N);
+    for (int i = 0; i < N; i++) {
+      double v = 13.0 - (1.5 * i / (N - 1));
+      wrapped.add(v);
+      fresh.add(v);
+    }
+    assertEquals(
+        fresh.slopePerSample(),
+        wrapped.slopePerSample(),
+        1e-9,
+        "Wrapped and non-wrapped slopes should match for same linear trend");
+  }
+
+  @Test
+  void testStreamingMatchesBruteForceOverLongRun() {
+    TrendEstimator trend = new TrendEstimator(N);
+    double[] history = new double[N * 40];
+    Random rng = new Random(5962);
+    for (int i = 0; i < history.length; i++) {
+      history[i] = 12.0 + Math.sin(i * 0.05) + rng.nextGaussian() * 0.1;
+      trend.add(history[i]);
+      if (i >= N - 1 && i % 97 == 0) {
+        double[] window = new double[N];
+        System.arraycopy(history, i - N + 1, window, 0, N);
+        assertEquals(bruteForceSlope(window), trend.slopePerSample(), 1e-9, "at sample " + i);
+      }
+    }
+  }
+
+  @Test
+  void testPartialWindowSlope() {
+    TrendEstimator trend = new TrendEstimator(N);
+    assertEquals(0.0, trend.slopePerSample());
+    trend.add(1.0);
+    assertEquals(0.0, trend.slopePerSample(), "One sample has no slope");
+    trend.add(3.0);
+    trend.add(5.0);
+    assertFalse(trend.isFull());
+    assertEquals(2.0, trend.slopePerSample(), 1e-9);
+  }
+
+  @Test
+  void testTimeToThreshold() {
+    TrendEstimator trend = new TrendEstimator(10);
+    for (int i = 0; i < 10; i++) {
+      trend.add(50.0 + i); // +1 per sample
+    }
+    // latest = 59, 11 to go at 50 samples/s = 0.22s
+    assertEquals(0.22, trend.timeToThreshold(70.0, 50.0, 0.01), 1e-9);
+    assertEquals(-1.0, trend.timeToThreshold(40.0, 50.0, 0.01), "Moving away from threshold");
+    assertEquals(-1.0, trend.timeToThreshold(70.0, 50.0, 100.0), "Below minimum rate");
+  }
+
+  @Test
+  void testFallingTimeToThreshold() {
+    TrendEstimator trend = new TrendEstimator(10);
+    for (int i = 0; i < 10; i++) {
+      trend.add(12.0 - 0.1 * i);
+    }
+    // latest = 11.1, falling 5 V/s at 50 samples/s, 11.1 -> 10.1 takes 0.2s
+    assertEquals(0.2, trend.timeToThreshold(10.1, 50.0, 0.001), 1e-9);
+  }
+
+  @Test
+  void testFillAndReset() {
+    TrendEstimator trend = new TrendEstimator(N);
+    trend.fill(25.0);
+    assertTrue(trend.isFull());
+    assertEquals(25.0, trend.mean(), 1e-9);
+    assertEquals(0.0, trend.slopePerSample(), 1e-9);
+
+    trend.reset();
+    assertEquals(0, trend.getCount());
+    assertEquals(0.0, trend.slopePerSample());
+  }
+}